@@ -0,0 +1,60 @@
+package com.apiweaver.benchmarks;
+
+import com.apiweaver.ExtractionException;
+import com.apiweaver.JSoupHtmlParser;
+import com.apiweaver.PropertyDefinition;
+import com.apiweaver.PropertyTableExtractor;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks extraction of property definitions from an already parsed table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int rows;
+
+    private PropertyTableExtractor extractor;
+    private Element table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JSoupHtmlParser parser = new JSoupHtmlParser();
+        Document document = parser.parseHtml(PropertyTables.page(rows));
+        Element heading = parser.findH2ElementsWithIdEndingIn(document, "ObjectValues").get(0);
+        table = parser.findFirstTableAfterElement(document, heading);
+        extractor = new PropertyTableExtractor();
+    }
+
+    @Benchmark
+    public List<PropertyDefinition> extractProperties() throws ExtractionException {
+        return extractor.extractProperties(table);
+    }
+
+    @Benchmark
+    public String fingerprintTable() throws ExtractionException {
+        return extractor.fingerprintTable(table);
+    }
+}
@@ -0,0 +1,193 @@
+package com.apiweaver.benchmarks;
+
+import com.apiweaver.ApiWeaverCli;
+import com.apiweaver.LatencyHistogram;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end throughput harness. Generates a synthetic documentation site, serves it from a
+ * local {@link StubServer} with the requested faults, and runs the complete ApiWeaver CLI in
+ * batch mode against it. Each iteration reports pages per second, the p50/p99 of the per-page
+ * latency taken from the run's trace, and the peak heap taken from its run report.
+ * Everything runs offline on the loopback interface.
+ */
+public final class LoadHarness {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = createOptions();
+        CommandLine cmd;
+        try {
+            cmd = new DefaultParser().parse(options, args);
+        } catch (ParseException e) {
+            System.err.println(e.getMessage());
+            new HelpFormatter().printHelp("java -cp benchmarks.jar " + LoadHarness.class.getName(), options);
+            System.exit(1);
+            return;
+        }
+        if (cmd.hasOption("help")) {
+            new HelpFormatter().printHelp("java -cp benchmarks.jar " + LoadHarness.class.getName(), options);
+            return;
+        }
+
+        SyntheticDocs docs = SyntheticDocs.builder()
+            .objects(intOption(cmd, "pages", 64))
+            .sectionsPerPage(intOption(cmd, "sections", 1))
+            .rowsPerSection(intOption(cmd, "rows", 40))
+            .noise(intOption(cmd, "noise", 2))
+            .seed(intOption(cmd, "seed", 42))
+            .build();
+        Map<String, String> pages = docs.generate();
+        int warmup = intOption(cmd, "warmup", 1);
+        int iterations = intOption(cmd, "iterations", 3);
+        Path workDir = Files.createTempDirectory("apiweaver-load");
+
+        ObjectNode report = JSON.createObjectNode();
+        ObjectNode settings = report.putObject("settings");
+        for (Option option : cmd.getOptions()) {
+            settings.put(option.getLongOpt(), option.getValue() != null ? option.getValue() : "true");
+        }
+        settings.put("pageCount", pages.size());
+        ArrayNode results = report.putArray("iterations");
+
+        try (StubServer server = StubServer.builder()
+                .pages(pages)
+                .latency(intOption(cmd, "latency-ms", 0), intOption(cmd, "jitter-ms", 0))
+                .slowDrip(intOption(cmd, "drip-bytes", 0), intOption(cmd, "drip-delay-ms", 0))
+                .resetRate(Double.parseDouble(cmd.getOptionValue("reset-rate", "0")))
+                .start()) {
+            Path urls = workDir.resolve("urls.txt");
+            List<String> lines = new ArrayList<>();
+            pages.keySet().forEach(path -> lines.add(server.url(path)));
+            Files.write(urls, lines, StandardCharsets.UTF_8);
+
+            System.out.printf("Serving %d pages on port %d, running %d warmup and %d measured iterations%n",
+                pages.size(), server.getPort(), warmup, iterations);
+            for (int i = -warmup; i < iterations; i++) {
+                ObjectNode result = runIteration(workDir, urls, pages.size(), cmd.getOptionValue("timeout", "30000"));
+                System.out.printf("%-9s exit=%d %8.1f pages/s  page p50=%8.2f ms  p99=%8.2f ms  peak heap=%6.1f MiB%n",
+                    i < 0 ? "warmup" : "iter " + (i + 1), result.get("exitCode").asInt(),
+                    result.get("pagesPerSecond").asDouble(), result.get("pageP50Ms").asDouble(),
+                    result.get("pageP99Ms").asDouble(), result.get("peakHeapBytes").asLong() / (1024.0 * 1024.0));
+                if (i >= 0) {
+                    results.add(result);
+                }
+            }
+            report.put("requests", server.getRequestCount());
+            report.put("resets", server.getResetCount());
+        }
+
+        Path reportFile = Paths.get(cmd.getOptionValue("report", "load-report.json"));
+        JSON.writeValue(reportFile.toFile(), report);
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    private static ObjectNode runIteration(Path workDir, Path urls, int pageCount, String timeout) throws IOException {
+        Path output = workDir.resolve("openapi.yaml");
+        Path stats = workDir.resolve("stats.json");
+        Path trace = workDir.resolve("trace.jsonl");
+        Files.deleteIfExists(stats);
+        Files.deleteIfExists(trace);
+
+        String[] args = {
+            "-b", urls.toString(), "-o", output.toString(), "-t", timeout,
+            "--stats", stats.toString(), "--trace", trace.toString()
+        };
+        long start = System.nanoTime();
+        int exitCode = new ApiWeaverCli().run(args);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        LatencyHistogram pageLatency = readPageLatencies(trace);
+        ObjectNode result = JSON.createObjectNode();
+        result.put("exitCode", exitCode);
+        result.put("seconds", seconds);
+        result.put("pagesCompleted", pageLatency.getCount());
+        result.put("pagesPerSecond", pageLatency.getCount() / seconds);
+        result.put("pageP50Ms", pageLatency.getValueAtPercentile(50) / 1e6);
+        result.put("pageP99Ms", pageLatency.getValueAtPercentile(99) / 1e6);
+        result.put("pageMaxMs", pageLatency.getMax() / 1e6);
+        if (Files.exists(stats)) {
+            JsonNode runReport = JSON.readTree(stats.toFile());
+            result.put("peakHeapBytes", runReport.at("/memory/peakHeapBytes").asLong());
+            result.set("fetchTtfbMs", runReport.at("/latenciesMs/fetch.ttfb"));
+        }
+        if (pageLatency.getCount() < pageCount) {
+            result.put("failed", pageCount - pageLatency.getCount());
+        }
+        return result;
+    }
+
+    /**
+     * Reads the duration of every successful page span from an OTLP/JSON trace file.
+     */
+    private static LatencyHistogram readPageLatencies(Path trace) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (!Files.exists(trace)) {
+            return histogram;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(trace, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                for (JsonNode span : JSON.readTree(line).at("/resourceSpans/0/scopeSpans/0/spans")) {
+                    boolean ok = span.at("/status/code").asInt() != 2;
+                    if (ok && "page".equals(span.get("name").asText())) {
+                        histogram.record(Long.parseLong(span.get("endTimeUnixNano").asText())
+                            - Long.parseLong(span.get("startTimeUnixNano").asText()));
+                    }
+                }
+            }
+        }
+        return histogram;
+    }
+
+    private static int intOption(CommandLine cmd, String name, int defaultValue) {
+        return Integer.parseInt(cmd.getOptionValue(name, Integer.toString(defaultValue)));
+    }
+
+    private static Options createOptions() {
+        Options options = new Options();
+        addOption(options, "pages", "Number of documentation pages (default 64)");
+        addOption(options, "sections", "ObjectValues sections per page (default 1)");
+        addOption(options, "rows", "Table rows per section (default 40)");
+        addOption(options, "noise", "Surrounding markup, 0 to 3 (default 2)");
+        addOption(options, "seed", "Seed of the generated site (default 42)");
+        addOption(options, "latency-ms", "Fixed response latency (default 0)");
+        addOption(options, "jitter-ms", "Maximum extra random latency (default 0)");
+        addOption(options, "drip-bytes", "Write bodies in chunks of this many bytes (default: all at once)");
+        addOption(options, "drip-delay-ms", "Pause after each dripped chunk (default 0)");
+        addOption(options, "reset-rate", "Fraction of responses reset mid-body, 0 to 1 (default 0)");
+        addOption(options, "timeout", "ApiWeaver request timeout in milliseconds (default 30000)");
+        addOption(options, "warmup", "Warmup iterations (default 1)");
+        addOption(options, "iterations", "Measured iterations (default 3)");
+        addOption(options, "report", "JSON report file (default load-report.json)");
+        options.addOption(Option.builder().longOpt("help").desc("Show this help").build());
+        return options;
+    }
+
+    private static void addOption(Options options, String name, String description) {
+        options.addOption(Option.builder().longOpt(name).hasArg().desc(description).build());
+    }
+}
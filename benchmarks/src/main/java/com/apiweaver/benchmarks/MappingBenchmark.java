@@ -0,0 +1,54 @@
+package com.apiweaver.benchmarks;
+
+import com.apiweaver.PropertyDefinition;
+import com.apiweaver.SchemaSymbolTable;
+import com.apiweaver.TimeTapPropertyMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks mapping a table's property definitions to OpenAPI properties. The mapper is
+ * created once per trial, so its type cache is warm as it is for every page after the first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int rows;
+
+    private TimeTapPropertyMapper mapper;
+    private List<PropertyDefinition> definitions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = new TimeTapPropertyMapper(SchemaSymbolTable.of(Arrays.asList("Location", "Staff")));
+        definitions = PropertyTables.definitions(rows);
+    }
+
+    @Benchmark
+    public void mapToOpenApiProperty(Blackhole blackhole) {
+        for (PropertyDefinition definition : definitions) {
+            blackhole.consume(mapper.mapToOpenApiProperty(definition));
+        }
+    }
+}
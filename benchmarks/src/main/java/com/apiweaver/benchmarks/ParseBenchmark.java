@@ -0,0 +1,57 @@
+package com.apiweaver.benchmarks;
+
+import com.apiweaver.JSoupHtmlParser;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks HTML parsing and the lookup of the property table after the ObjectValues heading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int rows;
+
+    private JSoupHtmlParser parser;
+    private String html;
+    private Document document;
+    private Element heading;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parser = new JSoupHtmlParser();
+        html = PropertyTables.page(rows);
+        document = parser.parseHtml(html);
+        heading = parser.findH2ElementsWithIdEndingIn(document, "ObjectValues").get(0);
+    }
+
+    @Benchmark
+    public Document parseHtml() {
+        return parser.parseHtml(html);
+    }
+
+    @Benchmark
+    public Element findFirstTableAfterElement() {
+        return parser.findFirstTableAfterElement(document, heading);
+    }
+}
@@ -0,0 +1,68 @@
+package com.apiweaver.benchmarks;
+
+import com.apiweaver.PropertyDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds TimeTap-style documentation pages and property definitions of a given size.
+ * Type strings cycle through primitives, dates, arrays and object names so the mapper
+ * sees the same mix of cache hits, references and fallbacks as on real pages.
+ */
+final class PropertyTables {
+
+    static final String OBJECT_NAME = "Benchmark";
+
+    private static final String[] TYPES = {
+        "string", "integer", "long", "boolean", "double", "date", "datetime",
+        "string[]", "Array[integer]", "Location", "List<Staff>", "money", "enum"
+    };
+
+    private PropertyTables() {
+    }
+
+    /**
+     * Builds a page with one ObjectValues heading followed by a property table.
+     *
+     * @param rows the number of property rows
+     * @return the page HTML
+     */
+    static String page(int rows) {
+        StringBuilder html = new StringBuilder(rows * 160 + 512);
+        html.append("<!DOCTYPE html><html><head><title>").append(OBJECT_NAME).append("</title></head><body>")
+            .append("<nav><ul><li><a href=\"#\">Home</a></li><li><a href=\"#\">Objects</a></li></ul></nav>")
+            .append("<h1>").append(OBJECT_NAME).append("</h1><p>Overview of the object.</p>")
+            .append("<h2 id=\"").append(OBJECT_NAME).append("ObjectValues\">").append(OBJECT_NAME)
+            .append(" Object Values</h2>")
+            .append("<table class=\"table\"><thead><tr><th>Property Name</th><th>Type</th>")
+            .append("<th>Required</th><th>Writable</th><th>Description</th></tr></thead><tbody>");
+        for (int i = 0; i < rows; i++) {
+            html.append("<tr><td>property").append(i).append("</td><td>").append(typeOf(i))
+                .append("</td><td>").append(i % 3 == 0 ? "Yes" : "No")
+                .append("</td><td>").append(i % 2 == 0 ? "Yes" : "No")
+                .append("</td><td>Description of <code>property").append(i).append("</code>.</td></tr>");
+        }
+        html.append("</tbody></table><footer>Generated for benchmarking</footer></body></html>");
+        return html.toString();
+    }
+
+    /**
+     * Builds property definitions matching the rows of {@link #page(int)}.
+     *
+     * @param rows the number of definitions
+     * @return the definitions
+     */
+    static List<PropertyDefinition> definitions(int rows) {
+        List<PropertyDefinition> definitions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            definitions.add(new PropertyDefinition("property" + i, typeOf(i), i % 3 == 0, i % 2 == 0,
+                "Description of property" + i + "."));
+        }
+        return definitions;
+    }
+
+    private static String typeOf(int row) {
+        return TYPES[row % TYPES.length];
+    }
+}
@@ -0,0 +1,82 @@
+package com.apiweaver.benchmarks;
+
+import com.apiweaver.OpenApi31Generator;
+import com.apiweaver.OpenApiProperty;
+import com.apiweaver.OpenApiSpec;
+import com.apiweaver.SchemaSymbolTable;
+import com.apiweaver.TimeTapPropertyMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks YAML serialization of a specification holding one schema of the given size,
+ * both as the CLI writes its output and through {@link OpenApi31Generator#writeSpecToFile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int rows;
+
+    private OpenApi31Generator generator;
+    private ObjectMapper yamlMapper;
+    private OpenApiSpec spec;
+    private Path outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        TimeTapPropertyMapper mapper = new TimeTapPropertyMapper(SchemaSymbolTable.of(Arrays.asList("Location", "Staff")));
+        List<OpenApiProperty> properties = PropertyTables.definitions(rows).stream()
+            .map(mapper::mapToOpenApiProperty)
+            .collect(Collectors.toList());
+        generator = new OpenApi31Generator();
+        spec = generator.generateOrAmendSpec(PropertyTables.OBJECT_NAME, properties, null);
+        yamlMapper = new ObjectMapper(new YAMLFactory())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .configure(SerializationFeature.INDENT_OUTPUT, true);
+        outputFile = Files.createTempFile("apiweaver-benchmark", ".yaml");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(outputFile);
+    }
+
+    @Benchmark
+    public String cliYaml() throws JsonProcessingException {
+        return yamlMapper.writeValueAsString(spec);
+    }
+
+    @Benchmark
+    public void writeSpecToFile() throws IOException {
+        generator.writeSpecToFile(spec, outputFile.toString());
+    }
+}
@@ -0,0 +1,269 @@
+package com.apiweaver.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal HTTP/1.1 server on the loopback interface that serves fixed pages and injects
+ * the faults of a slow or unreliable documentation site: response latency with jitter,
+ * bodies dripped in small chunks, and connections reset part-way through the body.
+ * Each page has a strong ETag, so conditional requests are answered with 304.
+ * Every connection is closed after one response.
+ */
+public class StubServer implements Closeable {
+
+    private final Map<String, byte[]> pages;
+    private final int latencyMillis;
+    private final int jitterMillis;
+    private final int dripBytes;
+    private final int dripDelayMillis;
+    private final double resetRate;
+    private final Random random;
+    private final ServerSocket serverSocket;
+    private final ExecutorService workers;
+    private final AtomicLong requests;
+    private final AtomicLong resets;
+    private volatile boolean closed;
+
+    private StubServer(Builder builder) throws IOException {
+        this.pages = new HashMap<>();
+        builder.pages.forEach((path, html) -> pages.put(path, html.getBytes(StandardCharsets.UTF_8)));
+        this.latencyMillis = builder.latencyMillis;
+        this.jitterMillis = builder.jitterMillis;
+        this.dripBytes = builder.dripBytes;
+        this.dripDelayMillis = builder.dripDelayMillis;
+        this.resetRate = builder.resetRate;
+        this.random = new Random(builder.seed);
+        this.requests = new AtomicLong();
+        this.resets = new AtomicLong();
+        this.serverSocket = new ServerSocket(0, 256, InetAddress.getLoopbackAddress());
+        this.workers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers.execute(this::acceptLoop);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the absolute URL of a path on this server.
+     *
+     * @param path the path, starting with a slash
+     * @return the URL
+     */
+    public String url(String path) {
+        return "http://127.0.0.1:" + getPort() + path;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getResetCount() {
+        return resets.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                workers.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Stub server accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket connection = socket) {
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.ISO_8859_1));
+            String requestLine = reader.readLine();
+            if (requestLine == null) {
+                return;
+            }
+            Map<String, String> headers = new HashMap<>();
+            for (String line = reader.readLine(); line != null && !line.isEmpty(); line = reader.readLine()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                }
+            }
+            requests.incrementAndGet();
+            respond(connection, requestLine.split(" "), headers);
+        } catch (SocketException e) {
+            // The client gave up, for example after its read timeout
+        } catch (IOException e) {
+            System.err.println("Stub server request failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(Socket connection, String[] requestLine, Map<String, String> headers)
+            throws IOException, InterruptedException {
+        OutputStream out = connection.getOutputStream();
+        String path = requestLine.length > 1 ? requestLine[1] : "/";
+        byte[] body = pages.get(path);
+
+        sleep(latencyMillis + (jitterMillis > 0 ? nextInt(jitterMillis + 1) : 0));
+        if (body == null) {
+            writeHead(out, "404 Not Found", 0, null);
+            out.flush();
+            return;
+        }
+
+        String etag = "\"" + Integer.toHexString(Arrays.hashCode(body)) + "-" + body.length + "\"";
+        if (etag.equals(headers.get("if-none-match"))) {
+            writeHead(out, "304 Not Modified", -1, etag);
+            out.flush();
+            return;
+        }
+
+        boolean reset = resetRate > 0 && nextDouble() < resetRate;
+        writeHead(out, "200 OK", body.length, etag);
+        int limit = reset ? body.length / 2 : body.length;
+        int chunk = dripBytes > 0 ? dripBytes : limit;
+        for (int offset = 0; offset < limit; offset += chunk) {
+            out.write(body, offset, Math.min(chunk, limit - offset));
+            if (dripBytes > 0) {
+                out.flush();
+                sleep(dripDelayMillis);
+            }
+        }
+        out.flush();
+        if (reset) {
+            // SO_LINGER 0 makes close() send a TCP RST instead of a FIN
+            resets.incrementAndGet();
+            connection.setSoLinger(true, 0);
+        }
+    }
+
+    private static void writeHead(OutputStream out, String status, int contentLength, String etag) throws IOException {
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append("\r\n")
+            .append("Content-Type: text/html; charset=utf-8\r\n")
+            .append("Connection: close\r\n");
+        if (contentLength >= 0) {
+            head.append("Content-Length: ").append(contentLength).append("\r\n");
+        }
+        if (etag != null) {
+            head.append("ETag: ").append(etag).append("\r\n");
+        }
+        head.append("\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static void sleep(int millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private synchronized int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    /**
+     * Builder for StubServer.
+     */
+    public static class Builder {
+        private final Map<String, String> pages = new HashMap<>();
+        private int latencyMillis;
+        private int jitterMillis;
+        private int dripBytes;
+        private int dripDelayMillis;
+        private double resetRate;
+        private long seed = 42;
+
+        public Builder page(String path, String html) {
+            pages.put(path, html);
+            return this;
+        }
+
+        public Builder pages(Map<String, String> pages) {
+            this.pages.putAll(pages);
+            return this;
+        }
+
+        /**
+         * Delays every response by a fixed latency plus a uniformly distributed jitter.
+         */
+        public Builder latency(int latencyMillis, int jitterMillis) {
+            this.latencyMillis = Math.max(0, latencyMillis);
+            this.jitterMillis = Math.max(0, jitterMillis);
+            return this;
+        }
+
+        /**
+         * Writes response bodies in chunks of the given size, pausing after each chunk.
+         */
+        public Builder slowDrip(int dripBytes, int dripDelayMillis) {
+            this.dripBytes = Math.max(0, dripBytes);
+            this.dripDelayMillis = Math.max(0, dripDelayMillis);
+            return this;
+        }
+
+        /**
+         * Resets the given fraction of connections after half of the body has been sent.
+         */
+        public Builder resetRate(double resetRate) {
+            if (resetRate < 0.0 || resetRate > 1.0) {
+                throw new IllegalArgumentException("Reset rate must be between 0 and 1: " + resetRate);
+            }
+            this.resetRate = resetRate;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public StubServer start() throws IOException {
+            return new StubServer(this);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.apiweaver.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a synthetic TimeTap-style documentation site: one page per object, each with
+ * one or more {@code *ObjectValues} sections whose property tables use the varied type
+ * strings of the real documentation, including references to other objects of the site.
+ * Noise adds the surrounding markup of real pages (navigation, scripts, comments, nested
+ * layout and unrelated tables) that the parser has to skip. Output is deterministic for
+ * a given seed.
+ */
+public final class SyntheticDocs {
+
+    private static final String[] OBJECT_WORDS = {
+        "Business", "Location", "Staff", "Client", "Appointment", "Service", "Reason", "Class",
+        "Resource", "Invoice", "Payment", "Package", "Schedule", "Holiday", "Note", "Form"
+    };
+
+    private static final String[] PRIMITIVE_TYPES = {
+        "string", "String", "int", "integer", "Integer", "long", "Long", "boolean", "Boolean",
+        "double", "float", "decimal", "date", "Date", "datetime", "DateTime", "time", "email",
+        "uri", "uuid", "money", "enum", "String (max 255)", "Date (yyyy-MM-dd)", "Object", "Map"
+    };
+
+    private static final String[] COLLECTION_FORMATS = {"%s[]", "Array[%s]", "List<%s>"};
+
+    private final int objects;
+    private final int sectionsPerPage;
+    private final int rowsPerSection;
+    private final int noise;
+    private final long seed;
+
+    private SyntheticDocs(Builder builder) {
+        this.objects = builder.objects;
+        this.sectionsPerPage = builder.sectionsPerPage;
+        this.rowsPerSection = builder.rowsPerSection;
+        this.noise = builder.noise;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the names of the objects of the site, one per page.
+     *
+     * @return the object names in page order
+     */
+    public List<String> objectNames() {
+        List<String> names = new ArrayList<>(objects);
+        for (int i = 0; i < objects; i++) {
+            int round = i / OBJECT_WORDS.length;
+            String word = OBJECT_WORDS[i % OBJECT_WORDS.length];
+            names.add(round == 0 ? word : word + round);
+        }
+        return names;
+    }
+
+    /**
+     * Generates every page of the site.
+     *
+     * @return the page HTML keyed by path, in page order
+     */
+    public Map<String, String> generate() {
+        List<String> names = objectNames();
+        Map<String, String> pages = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            pages.put(pathOf(names.get(i)), page(names, i));
+        }
+        return Collections.unmodifiableMap(pages);
+    }
+
+    /**
+     * Gets the path of an object's page.
+     *
+     * @param objectName the object name
+     * @return the page path, starting with a slash
+     */
+    public static String pathOf(String objectName) {
+        return "/docs/objects/" + objectName.toLowerCase() + ".html";
+    }
+
+    private String page(List<String> names, int index) {
+        Random random = new Random(seed * 31 + index);
+        String name = names.get(index);
+        StringBuilder html = new StringBuilder(sectionsPerPage * rowsPerSection * 200 + 4096);
+        html.append("<!DOCTYPE html>\n<html lang=\"en\"><head><meta charset=\"utf-8\"><title>")
+            .append(name).append(" - TimeTap API</title>");
+        if (noise > 0) {
+            html.append("<style>body{font-family:sans-serif}.table td{padding:4px}</style>")
+                .append("<script>window.dataLayer=window.dataLayer||[];function gtag(){dataLayer.push(arguments);}</script>");
+        }
+        html.append("</head><body>");
+        if (noise > 0) {
+            appendNavigation(html, names);
+        }
+        html.append("<div class=\"container\"><div class=\"row\"><div class=\"col-md-9\">")
+            .append("<h1>").append(name).append("</h1>")
+            .append("<p>The <strong>").append(name).append("</strong> object and its endpoints.</p>");
+        if (noise > 1) {
+            appendEndpointTable(html, name);
+        }
+
+        for (int section = 0; section < sectionsPerPage; section++) {
+            String sectionName = section == 0 ? name : name + "Detail" + section;
+            if (noise > 2) {
+                html.append("<!-- section ").append(sectionName).append(" -->");
+            }
+            html.append("<h2 id=\"").append(sectionName).append("ObjectValues\">").append(sectionName)
+                .append(" Object Values</h2>");
+            if (noise > 1) {
+                html.append("<div class=\"note\"><p>Fields marked writable can be set on create and update.</p></div>");
+            }
+            appendPropertyTable(html, names, index, random);
+        }
+
+        html.append("</div>");
+        if (noise > 0) {
+            html.append("<div class=\"col-md-3\"><aside><ul>");
+            for (int section = 0; section < sectionsPerPage; section++) {
+                html.append("<li><a href=\"#").append(name).append("ObjectValues\">Values</a></li>");
+            }
+            html.append("</ul></aside></div>");
+        }
+        html.append("</div></div>");
+        if (noise > 0) {
+            html.append("<footer><p>&copy; TimeTap &nbsp;|&nbsp; <a href=\"/terms\">Terms</a></p></footer>")
+                .append("<script src=\"/static/js/docs.js\" async></script>");
+        }
+        html.append("</body></html>\n");
+        return html.toString();
+    }
+
+    private void appendNavigation(StringBuilder html, List<String> names) {
+        html.append("<header><nav class=\"navbar\"><ul>");
+        for (String other : names) {
+            html.append("<li class=\"nav-item\"><a class=\"nav-link\" href=\"").append(pathOf(other)).append("\">")
+                .append(other).append("</a></li>");
+        }
+        html.append("</ul></nav></header>");
+    }
+
+    private static void appendEndpointTable(StringBuilder html, String name) {
+        html.append("<h3 id=\"").append(name).append("Endpoints\">Endpoints</h3>")
+            .append("<table class=\"table endpoints\"><tr><th>Method</th><th>Path</th><th>Description</th></tr>");
+        String path = "/" + name.toLowerCase() + "s";
+        html.append("<tr><td>GET</td><td><code>").append(path).append("</code></td><td>List objects</td></tr>")
+            .append("<tr><td>POST</td><td><code>").append(path).append("</code></td><td>Create an object</td></tr>")
+            .append("<tr><td>GET</td><td><code>").append(path).append("/{id}</code></td><td>Get one object</td></tr>")
+            .append("</table>");
+    }
+
+    private void appendPropertyTable(StringBuilder html, List<String> names, int index, Random random) {
+        html.append("<table class=\"table\"><thead><tr><th>Property Name</th><th>Type</th><th>Required</th>")
+            .append("<th>Writable</th><th>Description</th></tr></thead><tbody>");
+        for (int row = 0; row < rowsPerSection; row++) {
+            String property = row == 0 ? "id" : "field" + row;
+            html.append("<tr><td>").append(property).append("</td><td>")
+                .append(escape(typeOf(names, index, random))).append("</td><td>")
+                .append(random.nextInt(4) == 0 ? "Yes" : "No").append("</td><td>")
+                .append(random.nextBoolean() ? "Yes" : "No").append("</td><td>");
+            if (noise == 0 || random.nextInt(10) > 0) {
+                html.append("The <code>").append(property).append("</code> value");
+                if (noise > 2) {
+                    html.append(" <em>(see&nbsp;<a href=\"#\">notes</a>)</em>");
+                }
+                html.append('.');
+            }
+            html.append("</td></tr>");
+        }
+        html.append("</tbody></table>");
+    }
+
+    private static String typeOf(List<String> names, int index, Random random) {
+        int kind = random.nextInt(10);
+        if (kind < 7 || names.size() < 2) {
+            return PRIMITIVE_TYPES[random.nextInt(PRIMITIVE_TYPES.length)];
+        }
+        String other = names.get((index + 1 + random.nextInt(names.size() - 1)) % names.size());
+        if (kind < 9) {
+            return other;
+        }
+        return String.format(COLLECTION_FORMATS[random.nextInt(COLLECTION_FORMATS.length)], other);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * Builder for SyntheticDocs.
+     */
+    public static class Builder {
+        private int objects = 16;
+        private int sectionsPerPage = 1;
+        private int rowsPerSection = 40;
+        private int noise = 2;
+        private long seed = 42;
+
+        public Builder objects(int objects) {
+            this.objects = requirePositive(objects, "objects");
+            return this;
+        }
+
+        public Builder sectionsPerPage(int sectionsPerPage) {
+            this.sectionsPerPage = requirePositive(sectionsPerPage, "sectionsPerPage");
+            return this;
+        }
+
+        public Builder rowsPerSection(int rowsPerSection) {
+            this.rowsPerSection = requirePositive(rowsPerSection, "rowsPerSection");
+            return this;
+        }
+
+        /**
+         * Sets the amount of surrounding markup, from 0 (only the headings and tables)
+         * to 3 (navigation, scripts, endpoint tables, comments and inline markup).
+         */
+        public Builder noise(int noise) {
+            if (noise < 0 || noise > 3) {
+                throw new IllegalArgumentException("Noise must be between 0 and 3: " + noise);
+            }
+            this.noise = noise;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public SyntheticDocs build() {
+            return new SyntheticDocs(this);
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be at least 1: " + value);
+            }
+            return value;
+        }
+    }
+}
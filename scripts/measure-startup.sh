@@ -0,0 +1,49 @@
+#!/bin/sh
+# Compares the wall-clock time of ApiWeaver runs with the plain shaded jar against the
+# fast-startup distribution, with and without its class-data archive.
+#
+# Usage: scripts/measure-startup.sh [runs] [apiweaver arguments...]
+#   runs       number of timed runs per configuration (default 10)
+#   arguments  passed to every run (default --help)
+#
+# Build both artifacts first: mvn package -Pfast-startup
+set -e
+
+cd "$(dirname "$0")/.."
+RUNS="${1:-10}"
+[ $# -gt 0 ] && shift
+[ $# -eq 0 ] && set -- --help
+
+JAR="target/apiweaver-1.0.0-SNAPSHOT.jar"
+LAUNCHER="target/fast-startup/bin/apiweaver"
+if [ ! -f "$JAR" ] || [ ! -x "$LAUNCHER" ]; then
+    echo "Build the distribution first: mvn package -Pfast-startup" >&2
+    exit 1
+fi
+
+# Prints the mean and minimum wall time in milliseconds of RUNS invocations of a command
+measure() {
+    label="$1"
+    shift
+    "$@" > /dev/null 2>&1 || true
+    total=0
+    min=""
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        start=$(date +%s%N)
+        "$@" > /dev/null 2>&1 || true
+        end=$(date +%s%N)
+        elapsed=$(( (end - start) / 1000000 ))
+        total=$((total + elapsed))
+        if [ -z "$min" ] || [ "$elapsed" -lt "$min" ]; then
+            min="$elapsed"
+        fi
+        i=$((i + 1))
+    done
+    printf "%-32s mean %6d ms   min %6d ms\n" "$label" $((total / RUNS)) "$min"
+}
+
+echo "ApiWeaver startup, $RUNS runs each: apiweaver $*"
+measure "java -jar (baseline)" java -jar "$JAR" "$@"
+JAVA_OPTS="-Xshare:off" measure "jlink runtime, no archive" "$LAUNCHER" "$@"
+measure "jlink runtime + AppCDS" "$LAUNCHER" "$@"
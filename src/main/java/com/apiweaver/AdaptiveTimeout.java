@@ -0,0 +1,141 @@
+package com.apiweaver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-host HTTP timeout that follows a rolling latency percentile instead of a fixed value.
+ * Until a host has answered {@link #MIN_SAMPLES} requests the ceiling applies; after that the
+ * timeout is the p99 of the host's recent connect-to-first-byte latencies times
+ * {@link #MULTIPLIER}, kept between the floor and the ceiling. A single stuck request then
+ * fails after a few multiples of the host's normal response time rather than after the ceiling.
+ *
+ * <p>A request that times out is recorded as a sample at the timeout it was given, and each
+ * timeout doubles the host's timeout up to the ceiling; each completed request halves that
+ * backoff again while its sample enters the window. A host that slows down past its timeout
+ * therefore gets longer timeouts until its requests complete again, instead of failing
+ * against a window that only holds its earlier, faster samples.
+ */
+public class AdaptiveTimeout {
+
+    static final int WINDOW_SIZE = 256;
+    static final int MIN_SAMPLES = 20;
+    static final double PERCENTILE = 99.0;
+    static final int MULTIPLIER = 4;
+
+    private static final int DEFAULT_FLOOR_MS = 2000;
+    /** Timeouts beyond which the backoff no longer grows; 2^16 exceeds any ceiling. */
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final int floorMs;
+    private final int ceilingMs;
+    private final boolean adaptive;
+    private final Map<String, HostLatency> hosts;
+
+    private AdaptiveTimeout(int floorMs, int ceilingMs, boolean adaptive) {
+        if (ceilingMs <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.floorMs = Math.min(Math.max(1, floorMs), ceilingMs);
+        this.ceilingMs = ceilingMs;
+        this.adaptive = adaptive;
+        this.hosts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates an adaptive timeout with the default floor of two seconds.
+     *
+     * @param ceilingMs the largest timeout, also used for hosts without enough samples
+     * @return the adaptive timeout
+     */
+    public static AdaptiveTimeout adaptive(int ceilingMs) {
+        return new AdaptiveTimeout(DEFAULT_FLOOR_MS, ceilingMs, true);
+    }
+
+    /**
+     * Creates an adaptive timeout.
+     *
+     * @param floorMs the smallest timeout, capped at the ceiling
+     * @param ceilingMs the largest timeout, also used for hosts without enough samples
+     * @return the adaptive timeout
+     */
+    public static AdaptiveTimeout adaptive(int floorMs, int ceilingMs) {
+        return new AdaptiveTimeout(floorMs, ceilingMs, true);
+    }
+
+    /**
+     * Creates a timeout that always returns the given value.
+     *
+     * @param timeoutMs the timeout in milliseconds
+     * @return the fixed timeout
+     */
+    public static AdaptiveTimeout fixed(int timeoutMs) {
+        return new AdaptiveTimeout(timeoutMs, timeoutMs, false);
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public int getCeilingMs() {
+        return ceilingMs;
+    }
+
+    /**
+     * Gets the timeout for the next request to a host.
+     *
+     * @param host the host key, see {@link HostConcurrencyLimiter#hostOf(String)}
+     * @return the connect and read timeout in milliseconds
+     */
+    public int timeoutMs(String host) {
+        if (!adaptive) {
+            return ceilingMs;
+        }
+        HostLatency latency = hosts.get(host);
+        if (latency == null || latency.window.size() < MIN_SAMPLES) {
+            return ceilingMs;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(latency.window.percentile(PERCENTILE)) * MULTIPLIER;
+        millis = Math.max(floorMs, millis) << Math.min(latency.timeouts.get(), MAX_BACKOFF_SHIFT);
+        return (int) Math.max(floorMs, Math.min(ceilingMs, millis));
+    }
+
+    /**
+     * Records the latency of a request that completed within its timeout and halves any backoff.
+     *
+     * @param host the host key
+     * @param nanos the time from connecting to the first response byte
+     */
+    public void record(String host, long nanos) {
+        if (adaptive) {
+            HostLatency latency = hosts.computeIfAbsent(host, k -> new HostLatency());
+            latency.window.record(nanos);
+            latency.timeouts.updateAndGet(timeouts -> Math.max(0, timeouts - 1));
+        }
+    }
+
+    /**
+     * Records a request that timed out. The timeout counts as a sample and doubles the host's
+     * next timeout, up to the ceiling.
+     *
+     * @param host the host key
+     * @param timeoutMs the timeout the request was given
+     */
+    public void recordTimeout(String host, int timeoutMs) {
+        if (adaptive) {
+            HostLatency latency = hosts.computeIfAbsent(host, k -> new HostLatency());
+            latency.window.record(TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+            latency.timeouts.incrementAndGet();
+        }
+    }
+
+    /**
+     * Recent latencies and the backoff, in doublings, of one host.
+     */
+    private static final class HostLatency {
+        private final LatencyWindow window = new LatencyWindow(WINDOW_SIZE);
+        private final AtomicInteger timeouts = new AtomicInteger();
+    }
+}
@@ -15,34 +15,68 @@ public class ApiWeaverCli {
     
     private static final String DEFAULT_OUTPUT_FILE = "generated-api.yaml";
     private static final int DEFAULT_TIMEOUT_MS = 30000;
+    private static final int EXIT_PARTIAL = 4;
+    private static final long SPOOL_POLL_MS = 500;
+    private static final String MERGE_COMMAND = "merge";
+    private static final String SHOW_COMMAND = "show";
+    private static final int DEFAULT_POLL_INTERVAL_MINUTES =
+        (int) java.util.concurrent.TimeUnit.MILLISECONDS.toMinutes(ChangeScheduler.DEFAULT_MIN_INTERVAL_MS);
+    private static final int DEFAULT_MAX_POLL_INTERVAL_MINUTES =
+        (int) java.util.concurrent.TimeUnit.MILLISECONDS.toMinutes(ChangeScheduler.DEFAULT_MAX_INTERVAL_MS);
+    
+    private RunMetrics metrics = RunMetrics.disabled();
+    private Tracer tracer = Tracer.noop();
+    private Deadline deadline = Deadline.none();
+    private ArchiveUrlFetcher archive;
+    private SnapshotStore recordStore;
+    private SnapshotStore replayStore;
     
     public static void main(String[] args) {
+        int exitCode = new ApiWeaverCli().run(args);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+    
+    /**
+     * Runs the application with command-line arguments without exiting the JVM, so the
+     * complete pipeline can be driven in-process, for example by a load harness.
+     * 
+     * @param args command-line arguments
+     * @return the process exit code: 0 on success, 1 for invalid arguments,
+     *         2 for processing errors, 3 for unexpected errors and 4 when the deadline
+     *         passed and a partial specification was written
+     */
+    public int run(String[] args) {
         logger.info("Starting ApiWeaver application");
         
         try {
-            ApiWeaverCli cli = new ApiWeaverCli();
-            Configuration config = cli.parseArguments(args);
+            Configuration config = parseArguments(args);
             
             if (config != null) {
                 logger.info("Configuration parsed successfully: URL={}, Output={}", 
                     config.getUrl(), config.getOutputFile());
                 
                 // Execute main workflow
-                cli.executeWorkflow(config);
+                if (!executeWorkflow(config)) {
+                    logger.warn("ApiWeaver application completed with partial results");
+                    return EXIT_PARTIAL;
+                }
             }
             
         } catch (ParseException e) {
             logger.error("Failed to parse command-line arguments: {}", e.getMessage());
-            System.exit(1);
+            return 1;
         } catch (ApiWeaverException e) {
             logger.error("ApiWeaver processing error: {}", e.getMessage(), e);
-            System.exit(2);
+            return 2;
         } catch (Exception e) {
             logger.error("Unexpected error occurred: {}", e.getMessage(), e);
-            System.exit(3);
+            return 3;
         }
         
         logger.info("ApiWeaver application completed successfully");
+        return 0;
     }
     
     /**
@@ -67,13 +101,36 @@ public class ApiWeaverCli {
                 return null;
             }
             
-            // Get remaining arguments (should be the URL)
+            // Get remaining arguments (should be the URL, unless URLs come from a batch file)
             String[] remainingArgs = cmd.getArgs();
-            if (remainingArgs.length != 1) {
+            boolean batchMode = cmd.hasOption("b");
+            boolean crawlMode = cmd.hasOption("crawl");
+            boolean workerMode = cmd.hasOption("worker");
+            boolean mergeMode = remainingArgs.length > 0 && MERGE_COMMAND.equals(remainingArgs[0]);
+            if (mergeMode) {
+                return parseMergeArguments(cmd, remainingArgs);
+            }
+            if (remainingArgs.length > 0 && SHOW_COMMAND.equals(remainingArgs[0])) {
+                return parseShowArguments(cmd, remainingArgs);
+            }
+            if (cmd.hasOption("on-conflict")) {
+                throw new ParseException("--on-conflict can only be used with the merge command");
+            }
+            if (batchMode && crawlMode) {
+                throw new ParseException("--crawl cannot be combined with --batch");
+            }
+            if (workerMode && (batchMode || crawlMode || cmd.hasOption("spool") || remainingArgs.length != 0)) {
+                throw new ParseException("--worker takes its URLs from the spool queue and cannot be combined with "
+                    + "--batch, --crawl, --spool or a URL argument");
+            }
+            if (batchMode && remainingArgs.length != 0) {
+                throw new ParseException("A URL argument cannot be combined with --batch");
+            }
+            if (!batchMode && !workerMode && remainingArgs.length != 1) {
                 throw new ParseException("Exactly one URL argument is required");
             }
             
-            String url = remainingArgs[0];
+            String url = batchMode || workerMode ? null : remainingArgs[0];
             
             // Build configuration from parsed options
             Configuration.Builder configBuilder = Configuration.builder()
@@ -81,11 +138,136 @@ public class ApiWeaverCli {
                 .outputFile(cmd.getOptionValue("o", DEFAULT_OUTPUT_FILE))
                 .verbose(cmd.hasOption("v"));
             
+            // Handle batch and journal options
+            if (batchMode) {
+                configBuilder.batchFile(cmd.getOptionValue("b"));
+            }
+            if (crawlMode) {
+                configBuilder.crawl(true)
+                    .crawlDepth(parseInt(cmd, "crawl-depth", 0, DocumentationCrawler.DEFAULT_MAX_DEPTH))
+                    .crawlMaxPages(parseInt(cmd, "crawl-max-pages", 1, DocumentationCrawler.DEFAULT_MAX_PAGES));
+                if (cmd.hasOption("crawl-pattern")) {
+                    String pattern = cmd.getOptionValue("crawl-pattern");
+                    try {
+                        java.util.regex.Pattern.compile(pattern);
+                    } catch (java.util.regex.PatternSyntaxException e) {
+                        throw new ParseException("Invalid --crawl-pattern: " + e.getDescription());
+                    }
+                    configBuilder.crawlPattern(pattern);
+                }
+            } else if (cmd.hasOption("crawl-pattern") || cmd.hasOption("crawl-depth") || cmd.hasOption("crawl-max-pages")) {
+                throw new ParseException("--crawl-pattern, --crawl-depth and --crawl-max-pages can only be used with --crawl");
+            }
+            if (cmd.hasOption("j")) {
+                if (!batchMode && !crawlMode) {
+                    throw new ParseException("--journal can only be used with --batch or --crawl");
+                }
+                configBuilder.journalFile(cmd.getOptionValue("j"));
+            }
+            if (cmd.hasOption("i")) {
+                if (!batchMode && !crawlMode) {
+                    throw new ParseException("--incremental can only be used with --batch or --crawl");
+                }
+                configBuilder.incremental(true);
+            }
+            if (cmd.hasOption("spool")) {
+                if (!batchMode && !crawlMode) {
+                    throw new ParseException("--spool can only be used with --batch or --crawl");
+                }
+                if (cmd.hasOption("j") || cmd.hasOption("i")) {
+                    throw new ParseException("--spool cannot be combined with --journal or --incremental");
+                }
+                configBuilder.spoolDir(cmd.getOptionValue("spool"));
+            }
+            if (workerMode) {
+                configBuilder.worker(true).spoolDir(cmd.getOptionValue("worker"));
+            }
+            if (cmd.hasOption("schedule")) {
+                if (!cmd.hasOption("i")) {
+                    throw new ParseException("--schedule can only be used with --incremental");
+                }
+                int pollInterval = parseInt(cmd, "poll-interval", 1, DEFAULT_POLL_INTERVAL_MINUTES);
+                int maxPollInterval = parseInt(cmd, "max-poll-interval", 1, Math.max(pollInterval, DEFAULT_MAX_POLL_INTERVAL_MINUTES));
+                if (maxPollInterval < pollInterval) {
+                    throw new ParseException("--max-poll-interval cannot be shorter than --poll-interval");
+                }
+                configBuilder.schedule(true)
+                    .pollIntervalMinutes(pollInterval)
+                    .maxPollIntervalMinutes(maxPollInterval)
+                    .requestBudget(parseInt(cmd, "request-budget", 1, 0));
+            } else if (cmd.hasOption("poll-interval") || cmd.hasOption("max-poll-interval") || cmd.hasOption("request-budget")) {
+                throw new ParseException("--poll-interval, --max-poll-interval and --request-budget can only be used with --schedule");
+            }
+            
+            if (cmd.hasOption("layout")) {
+                configBuilder.sharded(parseLayout(cmd.getOptionValue("layout")));
+            }
+            if (cmd.hasOption("snapshot")) {
+                if (cmd.hasOption("layout") && parseLayout(cmd.getOptionValue("layout"))) {
+                    throw new ParseException("--snapshot only applies to the single-file layout");
+                }
+                configBuilder.snapshot(true);
+            }
+            
             // Handle existing file option
             if (cmd.hasOption("e")) {
                 configBuilder.existingSpecFile(cmd.getOptionValue("e"));
             }
             
+            if (cmd.hasOption("stats")) {
+                configBuilder.statsFile(cmd.getOptionValue("stats"));
+            }
+            
+            if (cmd.hasOption("jfr")) {
+                configBuilder.jfrFile(cmd.getOptionValue("jfr"));
+            }
+            
+            if (cmd.hasOption("trace")) {
+                configBuilder.traceFile(cmd.getOptionValue("trace"));
+            }
+            
+            if (cmd.hasOption("fixed-timeout")) {
+                configBuilder.fixedTimeout(true);
+            }
+            
+            if (cmd.hasOption("hedge")) {
+                configBuilder.hedge(true);
+            }
+            
+            if (cmd.hasOption("mirror")) {
+                String mirror = cmd.getOptionValue("mirror");
+                if (!isHttpUrl(mirror)) {
+                    throw new ParseException("Mirror URL must start with http:// or https://");
+                }
+                configBuilder.hedge(true).mirrorUrl(mirror);
+            }
+            
+            if (cmd.hasOption("archive")) {
+                if (cmd.hasOption("hedge") || cmd.hasOption("mirror")) {
+                    throw new ParseException("--archive cannot be combined with --hedge or --mirror");
+                }
+                configBuilder.archiveFile(cmd.getOptionValue("archive"));
+            }
+            
+            if (cmd.hasOption("record") && cmd.hasOption("replay")) {
+                throw new ParseException("--record and --replay cannot be used together");
+            }
+            if (cmd.hasOption("record")) {
+                configBuilder.recordDir(cmd.getOptionValue("record"));
+            }
+            if (cmd.hasOption("replay")) {
+                if (cmd.hasOption("archive") || cmd.hasOption("hedge") || cmd.hasOption("mirror")) {
+                    throw new ParseException("--replay cannot be combined with --archive, --hedge or --mirror");
+                }
+                configBuilder.replayDir(cmd.getOptionValue("replay"));
+            }
+            if (cmd.hasOption("replay-latency")) {
+                if (!cmd.hasOption("replay")) {
+                    throw new ParseException("--replay-latency can only be used with --replay");
+                }
+                configBuilder.replayLatency(true);
+            }
+            
             // Handle timeout option
             if (cmd.hasOption("t")) {
                 try {
@@ -101,6 +283,24 @@ public class ApiWeaverCli {
                 configBuilder.timeoutMs(DEFAULT_TIMEOUT_MS);
             }
             
+            configBuilder.deadlineMs(parsePositiveMillis(cmd, "deadline"));
+            configBuilder.pageDeadlineMs(parsePositiveMillis(cmd, "page-deadline"));
+            
+            // Handle concurrency option
+            if (cmd.hasOption("c")) {
+                try {
+                    int concurrency = Integer.parseInt(cmd.getOptionValue("c"));
+                    if (concurrency <= 0) {
+                        throw new ParseException("Concurrency must be a positive integer");
+                    }
+                    configBuilder.concurrency(concurrency);
+                } catch (NumberFormatException e) {
+                    throw new ParseException("Invalid concurrency value: " + cmd.getOptionValue("c"));
+                }
+            } else {
+                configBuilder.concurrency(PageExecutors.defaultConcurrency());
+            }
+            
             Configuration config = configBuilder.build();
             validateConfiguration(config);
             
@@ -144,7 +344,198 @@ public class ApiWeaverCli {
             .longOpt("timeout")
             .hasArg()
             .argName("ms")
-            .desc("HTTP timeout in milliseconds (default: " + DEFAULT_TIMEOUT_MS + ")")
+            .desc("HTTP timeout in milliseconds (default: " + DEFAULT_TIMEOUT_MS + "); in batch mode the upper "
+                + "bound of a timeout that follows each host's recent latency")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("deadline")
+            .hasArg()
+            .argName("ms")
+            .desc("Time budget of the whole run; when it passes, the pages completed so far are written")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("page-deadline")
+            .hasArg()
+            .argName("ms")
+            .desc("Time budget of each page in batch mode; pages that exceed it are left out")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("fixed-timeout")
+            .desc("Use the --timeout value for every request instead of adapting it to host latency")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("hedge")
+            .desc("Send a second request when a fetch is slower than the host's p95 and use the first response")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("mirror")
+            .hasArg()
+            .argName("url")
+            .desc("Mirror with the same paths, used for hedged requests and as failover (implies --hedge)")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("archive")
+            .hasArg()
+            .argName("file")
+            .desc("Read pages from a local .warc, .har or .zip snapshot instead of the network")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("record")
+            .hasArg()
+            .argName("dir")
+            .desc("Record every fetched page into a snapshot directory for later replay")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("replay")
+            .hasArg()
+            .argName("dir")
+            .desc("Serve pages from a snapshot directory written by --record instead of the network")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("replay-latency")
+            .desc("Make each replayed fetch take as long as it did when it was recorded")
+            .build());
+            
+        options.addOption(Option.builder("b")
+            .longOpt("batch")
+            .hasArg()
+            .argName("file")
+            .desc("Process every URL listed in the file, one per line (batch mode)")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("crawl")
+            .desc("Treat the URL as an index page and process every linked documentation page")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("crawl-pattern")
+            .hasArg()
+            .argName("regex")
+            .desc("Only follow links matching this pattern (default: below the index page's directory)")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("crawl-depth")
+            .hasArg()
+            .argName("n")
+            .desc("How many links away from the index page to follow (default: " + DocumentationCrawler.DEFAULT_MAX_DEPTH + ")")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("crawl-max-pages")
+            .hasArg()
+            .argName("n")
+            .desc("Stop crawling after this many pages (default: " + DocumentationCrawler.DEFAULT_MAX_PAGES + ")")
+            .build());
+            
+        options.addOption(Option.builder("c")
+            .longOpt("concurrency")
+            .hasArg()
+            .argName("n")
+            .desc("Pages fetched and extracted in parallel in batch mode (default: "
+                + PageExecutors.defaultConcurrency() + " on " + PageExecutors.threadModel() + ")")
+            .build());
+            
+        options.addOption(Option.builder("j")
+            .longOpt("journal")
+            .hasArg()
+            .argName("file")
+            .desc("Progress journal that lets an interrupted batch run resume where it stopped")
+            .build());
+            
+        options.addOption(Option.builder("i")
+            .longOpt("incremental")
+            .desc("Keep a build manifest next to the output and only regenerate pages whose table changed")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("spool")
+            .hasArg()
+            .argName("dir")
+            .desc("Queue the pages in a shared directory so --worker processes can help, then merge their results")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("worker")
+            .hasArg()
+            .argName("dir")
+            .desc("Process pages from the spool queue of another run until none is left")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("on-conflict")
+            .hasArg()
+            .argName("policy")
+            .desc("How merge resolves a schema defined differently by several files: fail (default), first, last or union")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("layout")
+            .hasArg()
+            .argName("layout")
+            .desc("Output layout: single (default) or sharded, one file per schema under components/schemas")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("snapshot")
+            .desc("Also write a binary snapshot of the output that later runs load instead of parsing the YAML")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("schedule")
+            .desc("Only fetch pages that are due, checking often-changing pages more often (requires --incremental)")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("poll-interval")
+            .hasArg()
+            .argName("min")
+            .desc("Minutes before a page whose table changed is checked again (default: " + DEFAULT_POLL_INTERVAL_MINUTES + ")")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("max-poll-interval")
+            .hasArg()
+            .argName("min")
+            .desc("Longest wait in minutes between checks of a stable page (default: " + DEFAULT_MAX_POLL_INTERVAL_MINUTES + ")")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("request-budget")
+            .hasArg()
+            .argName("n")
+            .desc("Fetch at most this many pages per scheduled run; the most overdue go first")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("stats")
+            .hasArg()
+            .argName("file")
+            .desc("Write a JSON run report with per-stage timings, counters and memory usage")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("jfr")
+            .hasArg()
+            .argName("file")
+            .desc("Record a Java Flight Recorder file with pipeline events, dumped at exit")
+            .build());
+            
+        options.addOption(Option.builder()
+            .longOpt("trace")
+            .hasArg()
+            .argName("file")
+            .desc("Write trace spans for every page and pipeline stage as OTLP/JSON lines")
             .build());
             
         options.addOption(Option.builder("h")
@@ -162,12 +553,140 @@ public class ApiWeaverCli {
      */
     private void displayHelp(Options options) {
         HelpFormatter formatter = new HelpFormatter();
-        formatter.printHelp("java -jar apiweaver.jar [OPTIONS] <URL>", 
+        formatter.printHelp("java -jar apiweaver.jar [OPTIONS] <URL | --batch file | merge file... | show schema>", 
             "\nApiWeaver - Extract API definitions from TimeTap HTML documentation\n\nOptions:", 
             options, 
             "\nExample:\n  java -jar apiweaver.jar -o my-api.yaml -v https://example.com/api-docs\n");
     }
     
+    /**
+     * Parses the output layout option.
+     * 
+     * @param layout single or sharded
+     * @return true for the sharded layout
+     * @throws ParseException if the layout is unknown
+     */
+    private static boolean parseLayout(String layout) throws ParseException {
+        if ("sharded".equalsIgnoreCase(layout)) {
+            return true;
+        }
+        if ("single".equalsIgnoreCase(layout)) {
+            return false;
+        }
+        throw new ParseException("Unknown --layout '" + layout + "'; expected single or sharded");
+    }
+    
+    /**
+     * Builds the configuration of the merge command, which takes the files to merge as its
+     * arguments and only the options that apply to writing the merged file.
+     * 
+     * @param cmd the parsed command line
+     * @param remainingArgs the arguments, starting with the merge command
+     * @return the merge configuration
+     * @throws ParseException if no file is given or an option does not apply to merging
+     */
+    private Configuration parseMergeArguments(CommandLine cmd, String[] remainingArgs) throws ParseException {
+        if (remainingArgs.length < 2) {
+            throw new ParseException("merge requires at least one specification file");
+        }
+        for (String option : new String[]{"batch", "crawl", "worker", "spool", "journal", "incremental", "existing",
+                                          "archive", "record", "replay", "hedge", "mirror", "schedule", "layout",
+                                          "snapshot"}) {
+            if (cmd.hasOption(option)) {
+                throw new ParseException("merge reads specification files and cannot be combined with --" + option);
+            }
+        }
+        SpecMerger.ConflictPolicy policy = SpecMerger.ConflictPolicy.FAIL;
+        if (cmd.hasOption("on-conflict")) {
+            try {
+                policy = SpecMerger.ConflictPolicy.forOption(cmd.getOptionValue("on-conflict"));
+            } catch (IllegalArgumentException e) {
+                throw new ParseException(e.getMessage());
+            }
+        }
+        Configuration config = Configuration.builder()
+            .mergeFiles(java.util.Arrays.asList(remainingArgs).subList(1, remainingArgs.length))
+            .conflictPolicy(policy)
+            .outputFile(cmd.getOptionValue("o", DEFAULT_OUTPUT_FILE))
+            .verbose(cmd.hasOption("v"))
+            .statsFile(cmd.getOptionValue("stats"))
+            .jfrFile(cmd.getOptionValue("jfr"))
+            .traceFile(cmd.getOptionValue("trace"))
+            .timeoutMs(DEFAULT_TIMEOUT_MS)
+            .concurrency(PageExecutors.defaultConcurrency())
+            .build();
+        validateConfiguration(config);
+        return config;
+    }
+    
+    /**
+     * Builds the configuration of the show command, which prints one schema of the output
+     * file of an earlier run and takes no option that applies to fetching or writing.
+     * 
+     * @param cmd the parsed command line
+     * @param remainingArgs the arguments, starting with the show command
+     * @return the show configuration
+     * @throws ParseException if not exactly one schema name is given or an option does not apply
+     */
+    private Configuration parseShowArguments(CommandLine cmd, String[] remainingArgs) throws ParseException {
+        if (remainingArgs.length != 2) {
+            throw new ParseException("show requires exactly one schema name");
+        }
+        for (Option option : cmd.getOptions()) {
+            if (!"o".equals(option.getOpt()) && !"v".equals(option.getOpt()) && !"trace".equals(option.getLongOpt())) {
+                throw new ParseException("show reads a specification file and cannot be combined with --"
+                    + option.getLongOpt());
+            }
+        }
+        Configuration config = Configuration.builder()
+            .showSchema(remainingArgs[1])
+            .outputFile(cmd.getOptionValue("o", DEFAULT_OUTPUT_FILE))
+            .verbose(cmd.hasOption("v"))
+            .traceFile(cmd.getOptionValue("trace"))
+            .timeoutMs(DEFAULT_TIMEOUT_MS)
+            .concurrency(PageExecutors.defaultConcurrency())
+            .build();
+        validateConfiguration(config);
+        return config;
+    }
+    
+    /**
+     * Parses an optional time budget option.
+     * 
+     * @param cmd the parsed command line
+     * @param option the long option name
+     * @return the budget in milliseconds, or 0 if the option is absent
+     * @throws ParseException if the value is not a positive integer
+     */
+    private static int parsePositiveMillis(CommandLine cmd, String option) throws ParseException {
+        return parseInt(cmd, option, 1, 0);
+    }
+    
+    /**
+     * Parses an optional integer option.
+     * 
+     * @param cmd the parsed command line
+     * @param option the long option name
+     * @param min the smallest allowed value, 0 or 1
+     * @param absent the value if the option is absent
+     * @return the value
+     * @throws ParseException if the value is not an integer of at least {@code min}
+     */
+    private static int parseInt(CommandLine cmd, String option, int min, int absent) throws ParseException {
+        if (!cmd.hasOption(option)) {
+            return absent;
+        }
+        try {
+            int value = Integer.parseInt(cmd.getOptionValue(option));
+            if (value < min) {
+                throw new ParseException("--" + option + (min > 0 ? " must be a positive integer" : " cannot be negative"));
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new ParseException("Invalid --" + option + " value: " + cmd.getOptionValue(option));
+        }
+    }
+    
     /**
      * Validates the parsed configuration.
      * 
@@ -179,33 +698,179 @@ public class ApiWeaverCli {
             throw new ParseException("Invalid configuration: URL and output file are required");
         }
         
-        // Additional validation for URL format
+        // Additional validation for URL format (batch URLs are validated when the file is read)
         String url = config.getUrl();
-        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+        if (url != null && !isHttpUrl(url)) {
             throw new ParseException("URL must start with http:// or https://");
         }
     }
     
+    /**
+     * Checks whether a URL uses the HTTP or HTTPS scheme.
+     * 
+     * @param url the URL to check
+     * @return true if the URL starts with http:// or https://
+     */
+    private static boolean isHttpUrl(String url) {
+        return url.startsWith("http://") || url.startsWith("https://");
+    }
+    
     /**
      * Executes the main workflow that coordinates all components.
      * 
      * @param config the validated configuration
+     * @return true if every page was processed, false if the deadline cut the run short
+     *         and a partial specification was written
+     * @throws ApiWeaverException if any step in the workflow fails
+     */
+    private boolean executeWorkflow(Configuration config) throws ApiWeaverException {
+        deadline = config.getDeadlineMs() > 0 ? Deadline.afterMillis(config.getDeadlineMs()) : Deadline.none();
+        metrics = config.getStatsFile() != null ? new RunMetrics() : RunMetrics.disabled();
+        tracer = config.getTraceFile() != null
+            ? new Tracer(new OtlpJsonFileExporter(java.nio.file.Paths.get(config.getTraceFile())))
+            : Tracer.noop();
+        Span runSpan = tracer.startSpan("apiweaver.run")
+            .setAttribute("apiweaver.mode", config.isMerge() ? "merge" : config.isShow() ? "show" : config.isWorker() ? "worker"
+                : config.isCrawl() ? "crawl" : config.isBatchMode() ? "batch" : "single");
+        String status = "failed";
+        FlightRecording recording = null;
+        try (Tracer.Scope scope = tracer.activate(runSpan)) {
+            if (config.getJfrFile() != null) {
+                recording = FlightRecording.start(java.nio.file.Paths.get(config.getJfrFile()));
+            }
+            if (config.getArchiveFile() != null) {
+                archive = ArchiveUrlFetcher.open(java.nio.file.Paths.get(config.getArchiveFile()), metrics);
+                reportProgress("Serving " + archive.size() + " archived pages from: " + config.getArchiveFile(),
+                    config.isVerbose());
+            }
+            if (config.getReplayDir() != null) {
+                replayStore = SnapshotStore.open(java.nio.file.Paths.get(config.getReplayDir()));
+                reportProgress("Replaying " + replayStore.size() + " recorded pages from: " + config.getReplayDir(),
+                    config.isVerbose());
+            }
+            if (config.getRecordDir() != null) {
+                recordStore = SnapshotStore.create(java.nio.file.Paths.get(config.getRecordDir()));
+            }
+            boolean complete = true;
+            if (config.isMerge()) {
+                executeMergeWorkflow(config);
+            } else if (config.isShow()) {
+                executeShowWorkflow(config);
+            } else if (config.isWorker()) {
+                executeWorkerWorkflow(config);
+            } else if (config.isBatchMode()) {
+                complete = executeBatchWorkflow(config);
+            } else {
+                executeSingleWorkflow(config);
+            }
+            status = complete ? "success" : "partial";
+            return complete;
+        } catch (ApiWeaverException | RuntimeException e) {
+            runSpan.recordError(e);
+            throw e;
+        } finally {
+            runSpan.end();
+            closeSources();
+            writeRunReport(config, status);
+            closeRecording(recording, config);
+            closeTracer(config);
+        }
+    }
+    
+    /**
+     * Unmaps the archive and closes the snapshot stores that pages were served from or recorded into.
+     */
+    private void closeSources() {
+        for (java.io.Closeable source : new java.io.Closeable[]{archive, replayStore, recordStore}) {
+            if (source == null) {
+                continue;
+            }
+            try {
+                source.close();
+            } catch (java.io.IOException e) {
+                logger.warn("Could not close {}: {}", source.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        archive = null;
+        replayStore = null;
+        recordStore = null;
+    }
+    
+    /**
+     * Flushes the trace file, if tracing was enabled.
+     * 
+     * @param config the validated configuration
+     */
+    private void closeTracer(Configuration config) {
+        if (!tracer.isEnabled()) {
+            return;
+        }
+        try {
+            tracer.close();
+            reportProgress("Trace written to: " + config.getTraceFile(), config.isVerbose());
+        } catch (java.io.IOException e) {
+            logger.warn("Could not write trace file: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Stops the flight recording, if one was started, and dumps it to its file.
+     * 
+     * @param recording the running recording, or null
+     * @param config the validated configuration
+     */
+    private void closeRecording(FlightRecording recording, Configuration config) {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.close();
+            reportProgress("Flight recording written to: " + recording.getDestination(), config.isVerbose());
+        } catch (java.io.IOException e) {
+            logger.warn("Could not write flight recording: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Writes the run report when one was requested. A report that cannot be written is
+     * logged but does not fail the run.
+     * 
+     * @param config the validated configuration
+     * @param status the outcome of the run
+     */
+    private void writeRunReport(Configuration config, String status) {
+        if (config.getStatsFile() == null) {
+            return;
+        }
+        try {
+            metrics.writeReport(java.nio.file.Paths.get(config.getStatsFile()), status);
+            reportProgress("Run report written to: " + config.getStatsFile(), config.isVerbose());
+        } catch (GenerationException e) {
+            logger.warn("Could not write run report: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Executes the single-URL workflow: one page is processed into one schema.
+     * 
+     * @param config the validated configuration
      * @throws ApiWeaverException if any step in the workflow fails
      */
-    private void executeWorkflow(Configuration config) throws ApiWeaverException {
+    private void executeSingleWorkflow(Configuration config) throws ApiWeaverException {
         logger.info("Starting main workflow execution");
         
         try {
             // Step 1: Fetch HTML content
             reportProgress("Fetching HTML content from: " + config.getUrl(), config.isVerbose());
-            UrlFetcher fetcher = new HttpUrlFetcher(config.getTimeoutMs(), "ApiWeaver/1.0");
+            UrlFetcher fetcher = TracingUrlFetcher.wrap(pageSource(config, false, null), tracer);
             String htmlContent = fetcher.fetchHtmlContent(config.getUrl());
+            deadline.check("fetch", config.getUrl());
             logger.info("Successfully fetched {} characters of HTML content", htmlContent.length());
             
             // Step 2: Parse HTML and find target elements
             reportProgress("Parsing HTML content and locating target elements", config.isVerbose());
-            HtmlParser parser = new JSoupHtmlParser();
-            org.jsoup.nodes.Document doc = parser.parseHtml(htmlContent);
+            HtmlParser parser = TracingHtmlParser.wrap(new JSoupHtmlParser(metrics), tracer);
+            org.jsoup.nodes.Document doc = parser.parseHtml(htmlContent, deadline);
             
             // Find H2 elements with ObjectValues suffix - validate single match
             java.util.List<org.jsoup.nodes.Element> h2Elements = parser.findH2ElementsWithIdEndingIn(doc, "ObjectValues");
@@ -216,7 +881,7 @@ public class ApiWeaverCli {
             logger.info("Found target H2 element with id: {}", targetH2.attr("id"));
             
             // Find the table following this H2
-            org.jsoup.nodes.Element targetTable = parser.findFirstTableAfterElement(doc, targetH2);
+            org.jsoup.nodes.Element targetTable = parser.findFirstTableAfterElement(doc, targetH2, deadline);
             if (targetTable == null) {
                 throw new ExtractionException("No table found after H2 element with id: " + targetH2.attr("id"));
             }
@@ -224,36 +889,35 @@ public class ApiWeaverCli {
             
             // Step 3: Extract property definitions from table
             reportProgress("Extracting property definitions from table", config.isVerbose());
-            TableExtractor extractor = new PropertyTableExtractor();
-            java.util.List<PropertyDefinition> properties = extractor.extractProperties(targetTable);
+            TableExtractor extractor = TracingTableExtractor.wrap(new PropertyTableExtractor(metrics), tracer);
+            java.util.List<PropertyDefinition> properties = extractor.extractProperties(targetTable, deadline);
             logger.info("Successfully extracted {} property definitions", properties.size());
             
             // Step 4: Generate or amend OpenAPI specification
             reportProgress("Generating OpenAPI specification", config.isVerbose());
-            OpenApi31Generator generator = new OpenApi31Generator();
-            
-            // Convert PropertyDefinitions to OpenApiProperties
-            java.util.List<OpenApiProperty> openApiProperties = convertToOpenApiProperties(properties);
+            OpenApiGenerator generator = TracingOpenApiGenerator.wrap(new OpenApi31Generator(), tracer);
             
             OpenApiSpec result;
+            long generateStart = System.nanoTime();
             if (config.getExistingSpecFile() != null) {
                 reportProgress("Amending existing OpenAPI file: " + config.getExistingSpecFile(), config.isVerbose());
-                // Load existing spec
+                // Load existing spec; its schemas can be referenced by the new properties
                 OpenApiSpec existingSpec = loadExistingSpec(config.getExistingSpecFile());
-                result = generator.generateOrAmendSpec(openApiProperties, existingSpec);
+                PropertyMapper mapper = TracingPropertyMapper.wrap(new TimeTapPropertyMapper(
+                    SchemaSymbolTable.of(existingSpec.getComponents().keySet()), metrics), tracer);
+                result = generator.generateOrAmendSpec(convertToOpenApiProperties(properties, mapper), existingSpec);
             } else {
                 reportProgress("Creating new OpenAPI specification", config.isVerbose());
-                result = generator.generateOrAmendSpec(openApiProperties, null);
+                PropertyMapper mapper = TracingPropertyMapper.wrap(
+                    new TimeTapPropertyMapper(new SchemaSymbolTable(), metrics), tracer);
+                result = generator.generateOrAmendSpec(convertToOpenApiProperties(properties, mapper), null);
             }
+            metrics.recordSince(RunMetrics.GENERATE_TIME, generateStart);
+            deadline.check("generation", config.getUrl());
             
             // Step 5: Write output file
             reportProgress("Writing output to: " + config.getOutputFile(), config.isVerbose());
-            String yamlContent = convertSpecToYaml(result);
-            try (java.io.FileWriter writer = new java.io.FileWriter(config.getOutputFile())) {
-                writer.write(yamlContent);
-            } catch (java.io.IOException e) {
-                throw new GenerationException("Failed to write output file: " + config.getOutputFile(), e);
-            }
+            writeOutputFile(result, config);
             
             // Success reporting
             reportProgress("✅ Successfully generated OpenAPI specification", true);
@@ -271,6 +935,734 @@ public class ApiWeaverCli {
         }
     }
     
+    /**
+     * Creates the fetcher for the pages of a batch, crawl or worker run.
+     * 
+     * @param config the validated configuration
+     * @return the fetcher
+     */
+    private UrlFetcher batchFetcher(Configuration config) {
+        // Pages run in parallel: let each host's observed latency and errors set how many at once
+        HostConcurrencyLimiter limiter = config.getConcurrency() > 1
+            ? new HostConcurrencyLimiter(Math.min(HostConcurrencyLimiter.DEFAULT_INITIAL_LIMIT, config.getConcurrency()),
+                config.getConcurrency(), metrics)
+            : null;
+        return TracingUrlFetcher.wrap(pageSource(config, !config.isFixedTimeout(), limiter), tracer);
+    }
+    
+    /**
+     * Processes the queued pages together with any workers sharing the spool directory,
+     * then waits for the pages the workers still hold. Pages held by a worker for longer
+     * than the lease are queued again.
+     * 
+     * @param config the validated configuration
+     * @param spool the queue of this run
+     * @param fetcher the fetcher for the pages this process takes
+     * @param pageProcessor the processor for the pages this process takes
+     * @return the completed pages in queue order and the pages unfinished at the deadline
+     * @throws ApiWeaverException if the queue cannot be used or a page failed
+     */
+    private BatchResult processSpooled(Configuration config, SpoolQueue spool, UrlFetcher fetcher,
+                                       PageProcessor pageProcessor) throws ApiWeaverException {
+        reportProgress("Queued " + spool.getUrls().size() + " pages in: " + config.getSpoolDir()
+            + " (add workers with --worker " + config.getSpoolDir() + ")", config.isVerbose());
+        SpoolWorker worker = SpoolWorker.builder(spool, fetcher, pageProcessor)
+            .tracer(tracer)
+            .concurrency(config.getConcurrency())
+            .deadline(deadline)
+            .build();
+        while (true) {
+            worker.run();
+            if (spool.isFinished() || deadline.isExpired()) {
+                break;
+            }
+            spool.requeueStale(SpoolQueue.DEFAULT_LEASE_MS);
+            try {
+                Thread.sleep(SPOOL_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiWeaverException("Interrupted while waiting for spool workers", config.getSpoolDir(), e);
+            }
+        }
+        
+        SpoolQueue.Results results = spool.results();
+        if (!results.getFailures().isEmpty()) {
+            System.err.println(results.getFailures().size() + " pages failed:");
+            results.getFailures().forEach((url, error) -> System.err.println("  " + url + ": " + error));
+            System.err.println("Progress saved in spool directory: " + config.getSpoolDir() + " (re-run to retry them)");
+            String firstUrl = results.getFailures().keySet().iterator().next();
+            throw new ApiWeaverException(results.getFailures().size() + " pages failed, first " + firstUrl + ": "
+                + results.getFailures().get(firstUrl), firstUrl);
+        }
+        return new BatchResult(results.getPages(), results.getUnfinished());
+    }
+    
+    /**
+     * Executes a spool worker: pages are taken from the queue another run created until
+     * none is left. The run that created the queue writes the output.
+     * 
+     * @param config the validated configuration
+     * @throws ApiWeaverException if the queue cannot be used
+     */
+    private void executeWorkerWorkflow(Configuration config) throws ApiWeaverException {
+        logger.info("Starting spool worker on: {}", config.getSpoolDir());
+        SpoolQueue spool = SpoolQueue.open(java.nio.file.Paths.get(config.getSpoolDir()), metrics);
+        reportProgress("Working on " + spool.getUrls().size() + " queued pages in: " + config.getSpoolDir(),
+            config.isVerbose());
+        PageProcessor pageProcessor = new PageProcessor(
+            TracingHtmlParser.wrap(new JSoupHtmlParser(metrics), tracer),
+            TracingTableExtractor.wrap(new PropertyTableExtractor(metrics), tracer));
+        int finished = SpoolWorker.builder(spool, batchFetcher(config), pageProcessor)
+            .tracer(tracer)
+            .concurrency(config.getConcurrency())
+            .deadline(deadline)
+            .build()
+            .run();
+        reportProgress("✅ No pages left in the spool queue", true);
+        System.out.println("Processed " + finished + " pages from: " + config.getSpoolDir());
+    }
+    
+    /**
+     * Merges specification files, such as the outputs of separate runs, into the output file.
+     * 
+     * @param config the validated configuration
+     * @throws ApiWeaverException if a file is missing, cannot be read or written, or
+     *         schemas conflict under the fail policy
+     */
+    private void executeMergeWorkflow(Configuration config) throws ApiWeaverException {
+        java.util.List<java.nio.file.Path> inputs = new java.util.ArrayList<>();
+        for (String file : config.getMergeFiles()) {
+            java.nio.file.Path input = java.nio.file.Paths.get(file);
+            if (!java.nio.file.Files.isRegularFile(input)) {
+                throw new ConfigurationException("Specification file not found: " + file, file);
+            }
+            inputs.add(input);
+        }
+        reportProgress("Merging " + inputs.size() + " specification files", config.isVerbose());
+        Span span = tracer.startSpan("merge")
+            .setAttribute("apiweaver.output", config.getOutputFile())
+            .setAttribute("apiweaver.inputs", inputs.size());
+        SpecMerger.Result result;
+        try {
+            result = SpecMerger.builder()
+                .conflictPolicy(config.getConflictPolicy())
+                .metrics(metrics)
+                .build()
+                .merge(inputs, java.nio.file.Paths.get(config.getOutputFile()));
+            span.setAttribute("apiweaver.schemas", result.getSchemaCount());
+            if (!config.getOutputFile().endsWith(".json")) {
+                writeSchemaIndex(config.getOutputFile(), null);
+            }
+        } catch (ApiWeaverException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+        reportProgress("✅ Specification files merged", true);
+        System.out.println("OpenAPI specification written to: " + config.getOutputFile());
+        System.out.println("Merged " + result.getSchemaCount() + " schemas from " + inputs.size() + " files"
+            + (result.getConflictCount() > 0
+                ? "; " + result.getConflictCount() + " conflicts resolved with " + config.getConflictPolicy().getOption()
+                : ""));
+    }
+    
+    /**
+     * Prints one schema of the output file. A single-file specification is read through its
+     * schema index, so only the index and the schema's own bytes are read; in the sharded
+     * layout the schema's file is read.
+     * 
+     * @param config the validated configuration
+     * @throws ApiWeaverException if the file is missing or has no such schema
+     */
+    private void executeShowWorkflow(Configuration config) throws ApiWeaverException {
+        String name = config.getShowSchema();
+        java.nio.file.Path specFile = java.nio.file.Paths.get(config.getOutputFile());
+        if (!java.nio.file.Files.isRegularFile(specFile)) {
+            throw new ConfigurationException("Specification file not found: " + specFile, specFile.toString());
+        }
+        Span span = tracer.startSpan("show")
+            .setAttribute("apiweaver.output", config.getOutputFile())
+            .setAttribute("apiweaver.schema", name);
+        StringBuilder out = new StringBuilder();
+        try {
+            if (ShardedSpecWriter.isShardedRoot(specFile)) {
+                java.nio.file.Path shard = ShardedSpecWriter.shardFor(specFile, name);
+                if (shard == null || !java.nio.file.Files.isRegularFile(shard)) {
+                    throw new GenerationException("Schema not found in " + specFile + ": " + name, name);
+                }
+                out.append(name).append(":\n");
+                for (String line : java.nio.file.Files.readAllLines(shard, java.nio.charset.StandardCharsets.UTF_8)) {
+                    if (!line.equals("---")) {
+                        out.append("  ").append(line).append('\n');
+                    }
+                }
+            } else {
+                String entry = SchemaIndex.read(specFile, name);
+                if (entry == null) {
+                    throw new GenerationException("Schema not found in " + specFile + ": " + name, name);
+                }
+                // Schema entries are indented under components; print them as a top-level mapping
+                for (String line : entry.split("\n")) {
+                    out.append(line.startsWith("  ") ? line.substring(2) : line).append('\n');
+                }
+            }
+        } catch (java.io.IOException e) {
+            GenerationException failure = new GenerationException("Failed to read schema file: " + e.getMessage(), name, e);
+            span.recordError(failure);
+            throw failure;
+        } catch (ApiWeaverException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+        System.out.print(out);
+    }
+    
+    /**
+     * Discovers the schema pages linked from the index page given as the URL.
+     * 
+     * @param config the configuration
+     * @param fetcher the fetcher for every crawled page
+     * @param parser the parser used to find links and object values tables
+     * @param skip the known schema pages not to fetch, or null to fetch every page
+     * @return the crawl result
+     * @throws ApiWeaverException if the index page cannot be fetched or no schema page is found
+     */
+    private CrawlResult crawl(Configuration config, UrlFetcher fetcher, HtmlParser parser,
+                              java.util.function.Predicate<String> skip) throws ApiWeaverException {
+        reportProgress("Crawling documentation pages from: " + config.getUrl(), config.isVerbose());
+        Span span = tracer.startSpan("crawl").setAttribute("url.full", config.getUrl());
+        try (Tracer.Scope scope = tracer.activate(span)) {
+            CrawlResult result = DocumentationCrawler.builder(fetcher, parser)
+                .pattern(config.getCrawlPattern() != null ? java.util.regex.Pattern.compile(config.getCrawlPattern()) : null)
+                .maxDepth(config.getCrawlDepth())
+                .maxPages(config.getCrawlMaxPages())
+                .concurrency(config.getConcurrency())
+                .skip(skip)
+                .metrics(metrics)
+                .build()
+                .crawl(config.getUrl(), deadline);
+            span.setAttribute("apiweaver.crawled_pages", result.getVisitedCount())
+                .setAttribute("apiweaver.schema_pages", result.getSchemaUrls().size());
+            if (result.getSchemaUrls().isEmpty()) {
+                throw new ExtractionException("No pages with an ObjectValues table found by crawling " + config.getUrl(),
+                    config.getUrl());
+            }
+            reportProgress("Found " + result.getSchemaUrls().size() + " schema pages among " + result.getVisitedCount()
+                + " crawled pages" + (result.isTruncated() ? " (crawl limit reached)" : ""), config.isVerbose());
+            return result;
+        } catch (ApiWeaverException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Creates the fetcher pages come from: a replayed snapshot, an archive or the network,
+     * recording what it returns when a record directory is configured.
+     * 
+     * @param config the configuration
+     * @param adaptiveTimeout true to adapt the HTTP timeout to each host's latency
+     * @param limiter the per-host limiter every network request goes through, or null for none
+     * @return the fetcher
+     */
+    private UrlFetcher pageSource(Configuration config, boolean adaptiveTimeout, HostConcurrencyLimiter limiter) {
+        UrlFetcher fetcher;
+        if (replayStore != null) {
+            fetcher = new ReplayUrlFetcher(replayStore, config.isReplayLatency(), metrics);
+        } else if (archive != null) {
+            fetcher = archive;
+        } else {
+            fetcher = new HttpUrlFetcher(timeoutWithinDeadline(config), "ApiWeaver/1.0", metrics, adaptiveTimeout);
+            if (limiter != null) {
+                // Inside the hedge, so hedged and mirror requests take a permit for their own host too
+                fetcher = new ConcurrencyLimitingUrlFetcher(fetcher, limiter);
+            }
+            fetcher = hedge(fetcher, config);
+        }
+        return recordStore != null ? new RecordingUrlFetcher(fetcher, recordStore) : fetcher;
+    }
+    
+    /**
+     * Wraps a fetcher in a {@link HedgingUrlFetcher} when hedging or a mirror is configured.
+     * 
+     * @param fetcher the fetcher that performs the requests
+     * @param config the configuration
+     * @return the hedging fetcher, or the fetcher itself
+     */
+    private UrlFetcher hedge(UrlFetcher fetcher, Configuration config) {
+        if (!config.isHedge()) {
+            return fetcher;
+        }
+        logger.info("Hedging slow requests{}", config.getMirrorUrl() != null ? " to mirror " + config.getMirrorUrl() : "");
+        return new HedgingUrlFetcher(fetcher, config.getMirrorUrl(), metrics);
+    }
+    
+    /**
+     * Gets the HTTP timeout, shortened so a single request cannot outlast the run deadline.
+     * 
+     * @param config the configuration
+     * @return the timeout in milliseconds
+     */
+    private int timeoutWithinDeadline(Configuration config) {
+        if (!deadline.isBounded()) {
+            return config.getTimeoutMs();
+        }
+        long remainingMs = java.util.concurrent.TimeUnit.NANOSECONDS.toMillis(deadline.remainingNanos());
+        return (int) Math.max(1, Math.min(config.getTimeoutMs(), remainingMs));
+    }
+    
+    /**
+     * Executes the batch workflow: every URL from the batch file is processed into its own schema,
+     * and all schemas are written to a single output specification.
+     * 
+     * @param config the validated configuration
+     * @return true if every page made it into the output, false if the deadline cut the run short
+     * @throws ApiWeaverException if any page or the output cannot be processed
+     */
+    private boolean executeBatchWorkflow(Configuration config) throws ApiWeaverException {
+        String source = config.isCrawl() ? config.getUrl() : config.getBatchFile();
+        logger.info("Starting batch workflow execution from: {}", source);
+        
+        UrlFetcher fetcher = batchFetcher(config);
+        HtmlParser parser = TracingHtmlParser.wrap(new JSoupHtmlParser(metrics), tracer);
+        
+        BuildManifest previousManifest = null;
+        OpenApiSpec previousOutput = null;
+        if (config.isIncremental()) {
+            previousManifest = BuildManifest.load(BuildManifest.pathFor(config.getOutputFile()));
+            previousOutput = loadPreviousOutput(config.getOutputFile(), previousManifest);
+        }
+        
+        // A crawl plans over the pages of the previous build, so pages that are not due are not crawled either
+        java.util.List<String> urls = config.isCrawl() ? null : readBatchUrls(config.getBatchFile());
+        ChangeScheduler.Plan plan = config.isSchedule()
+            ? ChangeScheduler.builder()
+                .minInterval(java.util.concurrent.TimeUnit.MINUTES.toMillis(config.getPollIntervalMinutes()))
+                .maxInterval(java.util.concurrent.TimeUnit.MINUTES.toMillis(config.getMaxPollIntervalMinutes()))
+                .requestBudget(config.getRequestBudget())
+                .metrics(metrics)
+                .build()
+                .plan(urls != null ? urls : new java.util.ArrayList<>(previousManifest.getUrls()), previousManifest)
+            : null;
+        if (config.isCrawl()) {
+            CrawlResult crawl = crawl(config, fetcher, parser, plan != null ? plan::isReused : null);
+            urls = crawl.getSchemaUrls();
+            fetcher = crawl.fetcher(fetcher);
+        }
+        reportProgress("Processing " + urls.size() + " URLs from: " + source, config.isVerbose());
+        
+        java.util.List<String> fetchUrls = urls;
+        if (plan != null) {
+            fetchUrls = urls.stream().filter(url -> !plan.isReused(url)).collect(java.util.stream.Collectors.toList());
+            reportProgress("Fetching " + fetchUrls.size() + " due pages; " + plan.getNotDueCount() + " not due, "
+                + plan.getDeferredCount() + " deferred by the request budget", config.isVerbose());
+        }
+        
+        ProgressJournal journal = config.getJournalFile() != null
+            ? new ProgressJournal(java.nio.file.Paths.get(config.getJournalFile()))
+            : null;
+        SpoolQueue spool = null;
+        
+        try {
+            PageProcessor pageProcessor = new PageProcessor(parser,
+                TracingTableExtractor.wrap(new PropertyTableExtractor(metrics), tracer));
+            BatchResult batch;
+            if (config.getSpoolDir() != null) {
+                spool = SpoolQueue.create(java.nio.file.Paths.get(config.getSpoolDir()), fetchUrls, metrics);
+                batch = processSpooled(config, spool, fetcher, pageProcessor);
+            } else {
+                batch = BatchProcessor.builder(fetcher, pageProcessor)
+                    .journal(journal)
+                    .previousManifest(previousManifest)
+                    .tracer(tracer)
+                    .concurrency(config.getConcurrency())
+                    .deadline(deadline)
+                    .pageDeadlineMs(config.getPageDeadlineMs())
+                    .build()
+                    .processAll(fetchUrls);
+            }
+            java.util.List<PageResult> pages = plan != null ? plan.pages(urls, batch.getPages()) : batch.getPages();
+            java.util.List<String> missedUrls = new java.util.ArrayList<>(batch.getTimedOutUrls());
+            
+            // Generate one schema per page
+            reportProgress("Generating OpenAPI specification", config.isVerbose());
+            OpenApiGenerator generator = TracingOpenApiGenerator.wrap(new OpenApi31Generator(), tracer);
+            OpenApiSpec result = config.getExistingSpecFile() != null
+                ? loadExistingSpec(config.getExistingSpecFile())
+                : generator.createNewSpec();
+            
+            // Every schema of this run, and of the amended spec, can be referenced by any page
+            SchemaSymbolTable symbolTable = SchemaSymbolTable.of(result.getComponents().keySet());
+            pages.forEach(page -> symbolTable.define(page.getSchemaName()));
+            TimeTapPropertyMapper mapper = new TimeTapPropertyMapper(symbolTable, metrics);
+            java.util.Set<String> rebuildNames = schemasToRebuild(pages, previousManifest, mapper);
+            PropertyMapper tracedMapper = TracingPropertyMapper.wrap(mapper, tracer);
+            
+            int propertyCount = 0;
+            int reusedCount = 0;
+            int dependentCount = 0;
+            java.util.Set<String> schemaNames = new java.util.HashSet<>();
+            java.util.List<PageResult> writtenPages = new java.util.ArrayList<>(pages.size());
+            for (PageResult page : pages) {
+                if (deadline.isExpired()) {
+                    // Out of time: write the schemas generated so far; the journal still has the rest
+                    missedUrls.add(page.getUrl());
+                    continue;
+                }
+                writtenPages.add(page);
+                if (!schemaNames.add(page.getSchemaName())) {
+                    logger.warn("Schema '{}' from {} replaces a schema of the same name from an earlier page",
+                        page.getSchemaName(), page.getUrl());
+                }
+                if (page.isUnchanged()) {
+                    if (!rebuildNames.contains(page.getSchemaName())) {
+                        result.addSchema(page.getSchemaName(), reusePreviousSchema(page, previousOutput));
+                        reusedCount++;
+                        continue;
+                    }
+                    logger.info("Rebuilding schema '{}' because a schema it references changed", page.getSchemaName());
+                    dependentCount++;
+                }
+                long generateStart = System.nanoTime();
+                Span schemaSpan = tracer.startSpan("schema").setAttribute("apiweaver.schema", page.getSchemaName());
+                try (Tracer.Scope scope = tracer.activate(schemaSpan)) {
+                    result = generator.generateOrAmendSpec(page.getSchemaName(),
+                        convertToOpenApiProperties(page.getProperties(), tracedMapper), result);
+                } finally {
+                    schemaSpan.end();
+                }
+                metrics.recordSince(RunMetrics.GENERATE_TIME, generateStart);
+                propertyCount += page.getProperties().size();
+            }
+            if (reusedCount > 0) {
+                reportProgress("Reused " + reusedCount + " unchanged schemas from the previous build", config.isVerbose());
+            }
+            if (dependentCount > 0) {
+                reportProgress("Rebuilt " + dependentCount + " unchanged schemas that reference changed schemas", config.isVerbose());
+            }
+            
+            // An incremental run where every table fingerprint matched leaves the output untouched
+            boolean outputUpToDate = previousOutput != null
+                && config.getExistingSpecFile() == null
+                && missedUrls.isEmpty()
+                && reusedCount == pages.size()
+                && pages.size() == previousManifest.size()
+                && previousOutput.getComponents().size() == result.getComponents().size();
+            if (outputUpToDate) {
+                reportProgress("All tables unchanged, keeping existing output: " + config.getOutputFile(), config.isVerbose());
+            } else {
+                reportProgress("Writing output to: " + config.getOutputFile(), config.isVerbose());
+                writeOutputFile(result, config);
+            }
+            
+            if (config.isIncremental()) {
+                BuildManifest manifest = new BuildManifest();
+                for (PageResult page : writtenPages) {
+                    manifest.putEntry(page.getUrl(), plan != null ? plan.entryFor(page) : BuildManifest.entryFor(page));
+                }
+                if (!manifest.equals(previousManifest)) {
+                    manifest.save(BuildManifest.pathFor(config.getOutputFile()));
+                }
+            }
+            
+            if (!missedUrls.isEmpty()) {
+                metrics.add(RunMetrics.DEADLINE_MISSED_PAGES, missedUrls.size());
+                reportProgress("⚠️ Deadline reached, wrote a partial OpenAPI specification", true);
+                System.out.println("Partial OpenAPI specification written to: " + config.getOutputFile());
+                System.out.println("Processed " + writtenPages.size() + " of " + urls.size() + " pages; "
+                    + missedUrls.size() + " missed the deadline:");
+                missedUrls.forEach(url -> System.out.println("  " + url));
+                if (journal != null) {
+                    System.err.println("Progress saved to journal: " + config.getJournalFile() + " (re-run to resume)");
+                }
+                logger.warn("Batch workflow stopped at the deadline with {} pages missing", missedUrls.size());
+                return false;
+            }
+            
+            if (journal != null) {
+                journal.complete();
+            }
+            if (spool != null) {
+                spool.clear();
+            }
+            
+            reportProgress("✅ Successfully generated OpenAPI specification", true);
+            System.out.println("OpenAPI specification written to: " + config.getOutputFile());
+            System.out.println("Processed " + pages.size() + " pages with " + propertyCount + " property definitions");
+            
+            logger.info("Batch workflow completed successfully");
+            return true;
+            
+        } catch (ApiWeaverException e) {
+            logger.error("Batch workflow failed: {}", e.getMessage());
+            if (journal != null) {
+                System.err.println("Progress saved to journal: " + config.getJournalFile() + " (re-run to resume)");
+            }
+            throw e;
+        } finally {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+    
+    /**
+     * Loads the output of the previous build so unchanged pages can reuse their schemas.
+     * Manifest entries whose schemas are missing from the previous output are dropped,
+     * which makes those pages rebuild in full.
+     * 
+     * @param outputFile the output file of the previous build
+     * @param previousManifest the manifest of the previous build, pruned in place
+     * @return the previous output specification, or null if it cannot be reused
+     */
+    private OpenApiSpec loadPreviousOutput(String outputFile, BuildManifest previousManifest) {
+        if (previousManifest.isEmpty()) {
+            return null;
+        }
+        
+        OpenApiSpec previousOutput = null;
+        if (java.nio.file.Files.exists(java.nio.file.Paths.get(outputFile))) {
+            try {
+                previousOutput = loadExistingSpec(outputFile);
+            } catch (GenerationException e) {
+                logger.warn("Previous output cannot be reused, performing a full build: {}", e.getMessage());
+            }
+        }
+        
+        java.util.Set<String> availableSchemas = previousOutput != null
+            ? previousOutput.getComponents().keySet()
+            : java.util.Collections.emptySet();
+        int dropped = previousManifest.retainEntriesWithSchemas(availableSchemas);
+        if (dropped > 0) {
+            logger.info("{} pages of the previous build will be rebuilt because their schemas are missing", dropped);
+        }
+        return previousOutput;
+    }
+    
+    /**
+     * Determines the schemas that have to be regenerated: the schemas of changed pages, plus
+     * every schema that references a changed, added or removed schema, directly or transitively.
+     * 
+     * @param pages the page results of this run
+     * @param previousManifest the manifest of the previous build, or null for a full build
+     * @param mapper the mapper used to find the object types referenced by each property
+     * @return the names of the schemas to regenerate
+     */
+    private java.util.Set<String> schemasToRebuild(java.util.List<PageResult> pages, BuildManifest previousManifest,
+                                                   TimeTapPropertyMapper mapper) {
+        SchemaDependencyGraph graph = new SchemaDependencyGraph();
+        java.util.Set<String> changed = new java.util.LinkedHashSet<>();
+        java.util.Set<String> currentNames = new java.util.HashSet<>();
+        
+        for (PageResult page : pages) {
+            java.util.List<String> referenced = new java.util.ArrayList<>();
+            for (PropertyDefinition property : page.getProperties()) {
+                String typeName = mapper.referencedTypeName(property.getType());
+                if (typeName != null) {
+                    referenced.add(typeName);
+                }
+            }
+            graph.setReferences(page.getSchemaName(), referenced);
+            currentNames.add(page.getSchemaName().toLowerCase());
+            if (!page.isUnchanged()) {
+                changed.add(page.getSchemaName());
+            }
+        }
+        
+        if (previousManifest != null) {
+            for (PageResult page : pages) {
+                BuildManifest.Entry entry = previousManifest.getEntry(page.getUrl());
+                if (entry == null) {
+                    continue;
+                }
+                for (String previousName : entry.getSchemas()) {
+                    if (!currentNames.contains(previousName.toLowerCase())) {
+                        changed.add(previousName);
+                    }
+                }
+            }
+        }
+        
+        return graph.affectedBy(changed);
+    }
+    
+    /**
+     * Returns the schema generated for an unchanged page by the previous build.
+     * 
+     * @param page the unchanged page
+     * @param previousOutput the previous output specification, or null
+     * @return the previous schema
+     * @throws GenerationException if the previous schema is not available
+     */
+    private OpenApiSpec.Schema reusePreviousSchema(PageResult page, OpenApiSpec previousOutput) throws GenerationException {
+        OpenApiSpec.Schema schema = previousOutput != null ? previousOutput.getComponents().get(page.getSchemaName()) : null;
+        if (schema == null) {
+            throw new GenerationException("Schema '" + page.getSchemaName() + "' of unchanged page " + page.getUrl() +
+                " is not available in the previous output");
+        }
+        logger.debug("Reusing schema '{}' for unchanged page {}", page.getSchemaName(), page.getUrl());
+        return schema;
+    }
+    
+    /**
+     * Reads the URLs listed in a batch file. Blank lines and lines starting with '#' are ignored.
+     * 
+     * @param batchFile the path to the batch file
+     * @return the list of URLs in file order
+     * @throws ConfigurationException if the file cannot be read or contains an invalid URL
+     */
+    private java.util.List<String> readBatchUrls(String batchFile) throws ConfigurationException {
+        java.util.List<String> lines;
+        try {
+            lines = java.nio.file.Files.readAllLines(java.nio.file.Paths.get(batchFile),
+                java.nio.charset.StandardCharsets.UTF_8);
+        } catch (java.io.IOException e) {
+            throw new ConfigurationException("Failed to read batch file: " + batchFile, e);
+        }
+        
+        java.util.List<String> urls = new java.util.ArrayList<>();
+        for (String line : lines) {
+            String url = line.trim();
+            if (url.isEmpty() || url.startsWith("#")) {
+                continue;
+            }
+            if (!isHttpUrl(url)) {
+                throw new ConfigurationException("Batch URL must start with http:// or https://: " + url, batchFile);
+            }
+            urls.add(url);
+        }
+        
+        if (urls.isEmpty()) {
+            throw new ConfigurationException("Batch file contains no URLs: " + batchFile);
+        }
+        return urls;
+    }
+    
+    /**
+     * Writes a specification to the output file as YAML, or to a root document and one
+     * file per schema in the sharded layout.
+     * 
+     * @param spec the specification to write
+     * @param config the configuration naming the output file and layout
+     * @throws GenerationException if the file cannot be written
+     */
+    private void writeOutputFile(OpenApiSpec spec, Configuration config) throws GenerationException {
+        String outputFile = config.getOutputFile();
+        Span span = tracer.startSpan("write").setAttribute("apiweaver.output", outputFile);
+        try {
+            if (config.isSharded()) {
+                writeShards(spec, config, span);
+            } else {
+                writeYaml(spec, config, span);
+            }
+        } catch (GenerationException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Serializes a specification and writes it, recording its size on the write span.
+     */
+    private void writeYaml(OpenApiSpec spec, Configuration config, Span span) throws GenerationException {
+        String outputFile = config.getOutputFile();
+        long start = System.nanoTime();
+        PipelineEvents.SerializationEvent event = new PipelineEvents.SerializationEvent();
+        event.outputFile = outputFile;
+        event.schemas = spec.getComponents().size();
+        event.begin();
+        byte[] yamlContent = convertSpecToYaml(spec).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        try {
+            java.nio.file.Files.write(java.nio.file.Paths.get(outputFile), yamlContent);
+        } catch (java.io.IOException e) {
+            throw new GenerationException("Failed to write output file: " + outputFile, e);
+        }
+        writeSchemaIndex(outputFile, yamlContent);
+        if (config.isSnapshot()) {
+            writeSnapshot(spec, outputFile, yamlContent);
+        }
+        long bytes = yamlContent.length;
+        event.bytes = bytes;
+        event.commit();
+        span.setAttribute("apiweaver.bytes", bytes);
+        metrics.recordSince(RunMetrics.WRITE_TIME, start);
+        metrics.add(RunMetrics.WRITE_BYTES, bytes);
+    }
+    
+    /**
+     * Writes the schema index next to a single-file specification. The index only speeds up
+     * {@code show}, so a failure is logged and the outdated index removed rather than
+     * failing the run.
+     * 
+     * @param outputFile the specification file that was just written
+     * @param content the written content, or null to read it from the file
+     */
+    private void writeSchemaIndex(String outputFile, byte[] content) {
+        java.nio.file.Path indexFile = SchemaIndex.pathFor(outputFile);
+        java.nio.file.Path specFile = java.nio.file.Paths.get(outputFile);
+        try {
+            SchemaIndex index = content != null ? SchemaIndex.scan(content) : SchemaIndex.scan(specFile);
+            index.save(indexFile);
+        } catch (GenerationException e) {
+            logger.warn("Failed to write schema index {}: {}", indexFile, e.getMessage());
+            try {
+                java.nio.file.Files.deleteIfExists(indexFile);
+            } catch (java.io.IOException ignored) {
+                logger.debug("Could not remove outdated schema index {}", indexFile);
+            }
+        }
+    }
+    
+    /**
+     * Writes the binary snapshot next to a single-file specification. Like the schema index,
+     * the snapshot only speeds up later runs, so a failure is logged and the run continues.
+     * 
+     * @param spec the specification that was just written
+     * @param outputFile the specification file
+     * @param content the written YAML content the snapshot is tied to
+     */
+    private void writeSnapshot(OpenApiSpec spec, String outputFile, byte[] content) {
+        java.nio.file.Path snapshotFile = SpecSnapshot.pathFor(outputFile);
+        try {
+            SpecSnapshot.write(snapshotFile, spec, content);
+        } catch (GenerationException e) {
+            logger.warn("Failed to write snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+    
+    /**
+     * Writes the schema files that changed and the root document, recording the bytes
+     * written and the files left unchanged on the write span.
+     */
+    private void writeShards(OpenApiSpec spec, Configuration config, Span span) throws GenerationException {
+        long start = System.nanoTime();
+        PipelineEvents.SerializationEvent event = new PipelineEvents.SerializationEvent();
+        event.outputFile = config.getOutputFile();
+        event.schemas = spec.getComponents().size();
+        event.begin();
+        ShardedSpecWriter.Result result = ShardedSpecWriter.builder(java.nio.file.Paths.get(config.getOutputFile()))
+            .concurrency(config.getConcurrency())
+            .metrics(metrics)
+            .build()
+            .write(spec);
+        event.bytes = result.getBytesWritten();
+        event.commit();
+        span.setAttribute("apiweaver.bytes", result.getBytesWritten())
+            .setAttribute("apiweaver.shards_written", result.getWrittenCount())
+            .setAttribute("apiweaver.shards_unchanged", result.getUnchangedCount());
+        metrics.recordSince(RunMetrics.WRITE_TIME, start);
+        metrics.add(RunMetrics.WRITE_BYTES, result.getBytesWritten());
+        reportProgress("Wrote " + result.getWrittenCount() + " of " + spec.getComponents().size()
+            + " schema files; " + result.getUnchangedCount() + " unchanged", config.isVerbose());
+    }
+    
     /**
      * Validates H2 element matching according to requirements.
      * Should find exactly one match, warn if multiple found.
@@ -309,14 +1701,15 @@ public class ApiWeaverCli {
     }
     
     /**
-     * Converts PropertyDefinition objects to OpenApiProperty objects.
+     * Converts PropertyDefinition objects to OpenApiProperty objects using the given mapper.
      * 
-     * @param properties the list of property definitions
-     * @return list of OpenAPI properties
+     * @param properties the property definitions to convert
+     * @param mapper the mapper, which may resolve object types to schema references
+     * @return the converted OpenAPI properties
      */
-    private java.util.List<OpenApiProperty> convertToOpenApiProperties(java.util.List<PropertyDefinition> properties) {
+    private java.util.List<OpenApiProperty> convertToOpenApiProperties(java.util.List<PropertyDefinition> properties,
+                                                                       PropertyMapper mapper) {
         java.util.List<OpenApiProperty> openApiProperties = new java.util.ArrayList<>();
-        TimeTapPropertyMapper mapper = new TimeTapPropertyMapper();
         
         for (PropertyDefinition propDef : properties) {
             try {
@@ -351,7 +1744,20 @@ public class ApiWeaverCli {
                 throw new GenerationException("Existing spec file not found: " + filePath);
             }
             
-            String yamlContent = java.nio.file.Files.readString(path, java.nio.charset.StandardCharsets.UTF_8);
+            if (ShardedSpecWriter.isShardedRoot(path)) {
+                OpenApiSpec spec = ShardedSpecWriter.read(path);
+                logger.info("Successfully loaded {} schemas of the sharded specification", spec.getComponents().size());
+                return spec;
+            }
+            
+            byte[] yamlContent = java.nio.file.Files.readAllBytes(path);
+            
+            // A snapshot written with this exact YAML content spares parsing it
+            OpenApiSpec snapshot = SpecSnapshot.load(SpecSnapshot.pathFor(filePath), yamlContent);
+            if (snapshot != null) {
+                logger.info("Successfully loaded existing OpenAPI specification from its snapshot");
+                return snapshot;
+            }
             
             // Parse YAML to OpenApiSpec
             com.fasterxml.jackson.databind.ObjectMapper yamlMapper = new com.fasterxml.jackson.databind.ObjectMapper(
@@ -384,6 +1790,8 @@ public class ApiWeaverCli {
             // Configure mapper for clean YAML output
             yamlMapper.configure(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
             yamlMapper.configure(com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT, true);
+            // Sorted schemas let the merge command stream the file
+            yamlMapper.configure(com.fasterxml.jackson.databind.SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
             
             String yamlContent = yamlMapper.writeValueAsString(spec);
             logger.debug("Successfully converted spec to YAML ({} characters)", yamlContent.length());
@@ -0,0 +1,463 @@
+package com.apiweaver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves pages from a local snapshot of the documentation site instead of the network.
+ * The archive is memory-mapped once and indexed by URL when it is opened; each fetch decodes
+ * only the slice of the mapping that holds the requested response, so lookups never copy
+ * the archive. Recorded redirects are followed and recorded ETags are honoured for conditional
+ * fetches. The index is read-only after opening, so one fetcher can serve concurrent pages.
+ */
+public abstract class ArchiveUrlFetcher implements UrlFetcher, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveUrlFetcher.class);
+
+    /** Largest archive that fits in a single mapping. */
+    static final long MAX_ARCHIVE_BYTES = Integer.MAX_VALUE;
+
+    private static final int MAX_REDIRECTS = 5;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer mapping;
+    private final Map<String, Entry> index;
+    final RunMetrics metrics;
+
+    ArchiveUrlFetcher(Path path, RunMetrics metrics) throws ConfigurationException {
+        this.path = path;
+        this.metrics = metrics != null ? metrics : RunMetrics.disabled();
+        this.index = new HashMap<>();
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new ConfigurationException("Cannot open archive: " + e.getMessage(), path.toString(), e);
+        }
+        try {
+            long size = channel.size();
+            if (size > MAX_ARCHIVE_BYTES) {
+                throw new ConfigurationException("Archive is larger than 2 GB, split it into smaller files: " + path,
+                    path.toString());
+            }
+            this.mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new ConfigurationException("Cannot map archive: " + e.getMessage(), path.toString(), e);
+        } catch (ConfigurationException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an archive, choosing the format from the file extension, and indexes it.
+     *
+     * @param path a .warc, .har or .zip file
+     * @param metrics the run metrics to record fetches in, or null
+     * @return the fetcher serving the archived pages
+     * @throws ConfigurationException if the archive cannot be read or has an unsupported format
+     */
+    public static ArchiveUrlFetcher open(Path path, RunMetrics metrics) throws ConfigurationException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        ArchiveUrlFetcher fetcher;
+        if (name.endsWith(".warc")) {
+            fetcher = new WarcUrlFetcher(path, metrics);
+        } else if (name.endsWith(".har")) {
+            fetcher = new HarUrlFetcher(path, metrics);
+        } else if (name.endsWith(".zip")) {
+            fetcher = new ZipUrlFetcher(path, metrics);
+        } else if (name.endsWith(".warc.gz")) {
+            throw new ConfigurationException("Compressed WARC files cannot be memory-mapped, decompress it first: " + path,
+                path.toString());
+        } else {
+            throw new ConfigurationException("Unsupported archive type, expected .warc, .har or .zip: " + path,
+                path.toString());
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            fetcher.buildIndex();
+        } catch (ConfigurationException | RuntimeException e) {
+            fetcher.closeQuietly();
+            throw e;
+        }
+        logger.info("Indexed {} pages from {} in {}ms", fetcher.size(), path,
+            java.util.concurrent.TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return fetcher;
+    }
+
+    /**
+     * Scans the mapping and registers every archived response with {@link #put(String, Entry)}.
+     *
+     * @throws ConfigurationException if the archive is malformed
+     */
+    abstract void buildIndex() throws ConfigurationException;
+
+    /**
+     * Decodes the body of an entry into the page content.
+     *
+     * @param entry the index entry
+     * @param body the slice of the mapping described by the entry
+     * @return the page content
+     * @throws IOException if the body cannot be decoded
+     */
+    abstract String content(Entry entry, ByteBuffer body) throws IOException;
+
+    /**
+     * Looks up the entry for a URL.
+     *
+     * @param url the requested URL
+     * @return the entry, or null if the archive has no response for the URL
+     */
+    Entry find(String url) {
+        return index.get(key(url));
+    }
+
+    @Override
+    public String fetchHtmlContent(String url) throws FetchException {
+        return fetchPage(url, null, null).getContent();
+    }
+
+    /**
+     * Serves a page from the archive. When the given ETag matches the one recorded with
+     * the response, the page is reported as not modified without decoding its body.
+     *
+     * @param url the URL to look up
+     * @param etag the ETag from a previous fetch, or null
+     * @param lastModified the Last-Modified value from a previous fetch, or null
+     * @return the archived page, or a not-modified page if the validators still match
+     * @throws FetchException if the archive has no successful response for the URL
+     */
+    @Override
+    public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+        if (url == null || url.trim().isEmpty()) {
+            throw new FetchException("URL cannot be null or empty");
+        }
+
+        PipelineEvents.FetchEvent event = new PipelineEvents.FetchEvent();
+        event.url = url;
+        event.begin();
+        metrics.increment(RunMetrics.FETCH_REQUESTS);
+
+        try {
+            String target = url.trim();
+            Entry entry = find(target);
+            for (int redirects = 0; entry != null && entry.location != null; redirects++) {
+                if (redirects == MAX_REDIRECTS) {
+                    throw new FetchException("Too many redirects in archive for URL: " + url, url);
+                }
+                target = resolve(target, entry.location);
+                logger.debug("Following archived redirect to {}", target);
+                entry = find(target);
+            }
+            if (entry == null) {
+                metrics.increment(RunMetrics.FETCH_ARCHIVE_MISSES);
+                throw new FetchException("Page not found in archive " + path.getFileName() + ": " + url, url);
+            }
+            event.statusCode = entry.status;
+            if (entry.status < 200 || entry.status >= 300) {
+                throw new FetchException("HTTP " + entry.status + " recorded in archive for URL: " + url, url);
+            }
+
+            if (etag != null && etag.equals(entry.etag)) {
+                event.notModified = true;
+                metrics.increment(RunMetrics.FETCH_NOT_MODIFIED);
+                return FetchedPage.notModified(url, entry.etag, entry.lastModified);
+            }
+
+            try {
+                String content = content(entry, slice(entry.offset, entry.length));
+                event.bytes = entry.length;
+                metrics.add(RunMetrics.FETCH_BYTES, entry.length);
+                logger.debug("Served {} from archive ({} bytes)", url, entry.length);
+                return FetchedPage.of(url, content, entry.etag, entry.lastModified);
+            } catch (IOException | RuntimeException e) {
+                throw new FetchException("Cannot decode archived response for URL: " + url + " - " + e.getMessage(), url, e);
+            }
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Registers an archived response. A later successful response for the same URL replaces
+     * an earlier one, so revisits and repeated requests resolve to the newest good copy.
+     *
+     * @param url the URL the response was recorded for
+     * @param entry the index entry
+     */
+    final void put(String url, Entry entry) {
+        index.merge(key(url), entry, (previous, next) -> next.isSuccess() || !previous.isSuccess() ? next : previous);
+    }
+
+    /**
+     * Gets an independent view of the whole mapping, positioned at 0.
+     *
+     * @return the view
+     */
+    final ByteBuffer mapping() {
+        return mapping.duplicate();
+    }
+
+    /**
+     * Gets a view of part of the mapping; no bytes are copied.
+     *
+     * @param offset the start offset in the archive
+     * @param length the number of bytes
+     * @return the slice
+     */
+    final ByteBuffer slice(long offset, int length) {
+        ByteBuffer view = mapping.duplicate();
+        view.position((int) offset).limit((int) offset + length);
+        return view.slice();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the number of URLs in the index.
+     *
+     * @return the number of indexed URLs
+     */
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close archive {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Normalizes a URL into an index key: scheme and fragment are dropped and the host is
+     * lower-cased, so a page archived over http is found when https is requested.
+     *
+     * @param url the URL
+     * @return the index key
+     */
+    static String key(String url) {
+        String trimmed = url.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getHost() == null) {
+                return trimmed;
+            }
+            StringBuilder key = new StringBuilder(uri.getHost().toLowerCase(Locale.ROOT));
+            int port = uri.getPort();
+            if (port != -1 && port != 80 && port != 443) {
+                key.append(':').append(port);
+            }
+            String rawPath = uri.getRawPath();
+            key.append(rawPath == null || rawPath.isEmpty() ? "/" : rawPath);
+            if (uri.getRawQuery() != null) {
+                key.append('?').append(uri.getRawQuery());
+            }
+            return key.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+
+    private static String resolve(String base, String location) {
+        try {
+            return new URI(base).resolve(location.trim()).toString();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return location.trim();
+        }
+    }
+
+    /**
+     * Gets the charset named in a Content-Type value.
+     *
+     * @param contentType the Content-Type value, or null
+     * @return the charset, or UTF-8 if none or an unknown one is named
+     */
+    static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                String trimmed = parameter.trim();
+                if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+                    } catch (IllegalArgumentException e) {
+                        logger.debug("Unknown charset in Content-Type '{}', using UTF-8", contentType);
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Reads one line of ISO-8859-1 text, without its line terminator.
+     *
+     * @param buffer the buffer, advanced past the line
+     * @return the line, or null if the buffer has no bytes left
+     */
+    static String readLine(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.append((char) (b & 0xff));
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Streams the remaining bytes of a buffer without copying them.
+     *
+     * @param buffer the buffer to read
+     * @return a stream over the buffer
+     */
+    static InputStream stream(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return view.hasRemaining() ? view.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (!view.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, view.remaining());
+                view.get(bytes, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return view.remaining();
+            }
+        };
+    }
+
+    /**
+     * Location of one archived response in the mapping, with the response metadata
+     * needed to serve it.
+     */
+    static final class Entry {
+        final long offset;
+        final int length;
+        final int status;
+        final int encoding;
+        final Charset charset;
+        final String etag;
+        final String lastModified;
+        final String location;
+
+        private Entry(Builder builder) {
+            this.offset = builder.offset;
+            this.length = builder.length;
+            this.status = builder.status;
+            this.encoding = builder.encoding;
+            this.charset = builder.charset;
+            this.etag = builder.etag;
+            this.lastModified = builder.lastModified;
+            this.location = builder.location;
+        }
+
+        static Builder builder(long offset, long length) {
+            return new Builder(offset, length);
+        }
+
+        boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        static final class Builder {
+            private final long offset;
+            private final int length;
+            private int status = 200;
+            private int encoding;
+            private Charset charset = StandardCharsets.UTF_8;
+            private String etag;
+            private String lastModified;
+            private String location;
+
+            private Builder(long offset, long length) {
+                this.offset = offset;
+                this.length = (int) length;
+            }
+
+            Builder status(int status) {
+                this.status = status;
+                return this;
+            }
+
+            /**
+             * Sets how the body is encoded in the archive; the values are defined by each format.
+             */
+            Builder encoding(int encoding) {
+                this.encoding = encoding;
+                return this;
+            }
+
+            Builder charset(Charset charset) {
+                this.charset = charset;
+                return this;
+            }
+
+            Builder etag(String etag) {
+                this.etag = etag;
+                return this;
+            }
+
+            Builder lastModified(String lastModified) {
+                this.lastModified = lastModified;
+                return this;
+            }
+
+            /**
+             * Sets the redirect target of a 3xx response.
+             */
+            Builder location(String location) {
+                this.location = location;
+                return this;
+            }
+
+            Entry build() {
+                return new Entry(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.apiweaver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes a list of documentation URLs through the fetch, parse and extraction stages.
+ * When a progress journal is configured, every completed page is recorded as it finishes
+ * and pages completed by an earlier, interrupted run are taken from the journal instead
+ * of being fetched again. When the build manifest of a previous run is given, pages are
+ * fetched conditionally and pages whose property table is unchanged skip extraction; their
+ * results carry the property definitions recorded by the previous build. With a tracer,
+ * every page is recorded as a span whose children cover its fetch, parse and extraction.
+ * With a concurrency above one, pages are fetched and extracted in parallel on the threads
+ * of {@link PageExecutors}: a platform-thread pool on Java 11, a virtual thread per page
+ * on Java 21 and later.
+ * <p>
+ * A run deadline and a per-page deadline bound the run. Pages that miss their deadline are
+ * recorded as failed in the journal and reported in the {@link BatchResult} instead of
+ * failing the run, so the pages that did complete can still be written. The run deadline is
+ * enforced by the thread collecting the results, so even a page stuck in a blocking read
+ * cannot hold the run past it; the page deadline is checked cooperatively between stages,
+ * document elements and table rows.
+ */
+public class BatchProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchProcessor.class);
+
+    /** Time pages get to stop after being cancelled at the run deadline. */
+    static final long SHUTDOWN_GRACE_MS = 1000;
+
+    private final UrlFetcher fetcher;
+    private final PageProcessor pageProcessor;
+    private final ProgressJournal journal;
+    private final BuildManifest previousManifest;
+    private final Tracer tracer;
+    private final int concurrency;
+    private final Deadline deadline;
+    private final long pageDeadlineMs;
+
+    /**
+     * Creates a new BatchProcessor.
+     *
+     * @param fetcher the fetcher used to retrieve pages
+     * @param pageProcessor the processor used to extract properties from each page
+     * @param journal the progress journal, or null to disable resumable runs
+     */
+    public BatchProcessor(UrlFetcher fetcher, PageProcessor pageProcessor, ProgressJournal journal) {
+        this(fetcher, pageProcessor, journal, null);
+    }
+
+    /**
+     * Creates a new BatchProcessor for an incremental run.
+     *
+     * @param fetcher the fetcher used to retrieve pages
+     * @param pageProcessor the processor used to extract properties from each page
+     * @param journal the progress journal, or null to disable resumable runs
+     * @param previousManifest the manifest of the previous build, or null for a full build
+     */
+    public BatchProcessor(UrlFetcher fetcher, PageProcessor pageProcessor, ProgressJournal journal,
+                          BuildManifest previousManifest) {
+        this(fetcher, pageProcessor, journal, previousManifest, Tracer.noop());
+    }
+
+    /**
+     * Creates a new BatchProcessor that traces every page.
+     *
+     * @param fetcher the fetcher used to retrieve pages
+     * @param pageProcessor the processor used to extract properties from each page
+     * @param journal the progress journal, or null to disable resumable runs
+     * @param previousManifest the manifest of the previous build, or null for a full build
+     * @param tracer the tracer that records a span per page
+     */
+    public BatchProcessor(UrlFetcher fetcher, PageProcessor pageProcessor, ProgressJournal journal,
+                          BuildManifest previousManifest, Tracer tracer) {
+        this(builder(fetcher, pageProcessor).journal(journal).previousManifest(previousManifest).tracer(tracer));
+    }
+
+    private BatchProcessor(Builder builder) {
+        if (builder.fetcher == null || builder.pageProcessor == null) {
+            throw new IllegalArgumentException("Fetcher and page processor cannot be null");
+        }
+        if (builder.pageDeadlineMs < 0) {
+            throw new IllegalArgumentException("Page deadline cannot be negative: " + builder.pageDeadlineMs);
+        }
+        if (builder.concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + builder.concurrency);
+        }
+        this.fetcher = builder.fetcher;
+        this.pageProcessor = builder.pageProcessor;
+        this.journal = builder.journal;
+        this.previousManifest = builder.previousManifest;
+        this.tracer = builder.tracer != null ? builder.tracer : Tracer.noop();
+        this.concurrency = builder.concurrency;
+        this.deadline = builder.deadline != null ? builder.deadline : Deadline.none();
+        this.pageDeadlineMs = builder.pageDeadlineMs;
+    }
+
+    /**
+     * Creates a new builder for a batch processor that processes one page at a time.
+     *
+     * @param fetcher the fetcher used to retrieve pages
+     * @param pageProcessor the processor used to extract properties from each page
+     * @return a new builder instance
+     */
+    public static Builder builder(UrlFetcher fetcher, PageProcessor pageProcessor) {
+        return new Builder(fetcher, pageProcessor);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Processes all URLs. Results are returned in URL order whatever the concurrency.
+     * Processing stops at the first failing page, in URL order; the failure is recorded in the
+     * journal so a restarted run resumes with that page. Pages still in flight when a failure
+     * is found are cancelled.
+     *
+     * @param urls the URLs to process
+     * @return the page results in the order of the given URLs
+     * @throws DeadlineExceededException if a deadline is set and some pages missed it
+     * @throws ApiWeaverException if a page cannot be fetched or extracted
+     */
+    public List<PageResult> process(List<String> urls) throws ApiWeaverException {
+        BatchResult result = processAll(urls);
+        if (result.isPartial()) {
+            throw new DeadlineExceededException(result.getTimedOutUrls().size() + " of " + urls.size()
+                + " pages missed the deadline", result.getTimedOutUrls().get(0));
+        }
+        return result.getPages();
+    }
+
+    /**
+     * Processes all URLs like {@link #process(List)}, except that pages missing the run or page
+     * deadline do not fail the run: they are left out of the result and listed as timed out.
+     *
+     * @param urls the URLs to process
+     * @return the completed pages in URL order and the URLs that timed out
+     * @throws ApiWeaverException if a page cannot be fetched or extracted
+     */
+    public BatchResult processAll(List<String> urls) throws ApiWeaverException {
+        Map<String, PageResult> completed = journal != null ? journal.replay() : Collections.emptyMap();
+        if (!completed.isEmpty()) {
+            logger.info("Resuming batch run: {} of {} pages already completed", completed.size(), urls.size());
+        }
+
+        Span parent = tracer.current();
+        // A run deadline needs a collecting thread that can stop waiting, whatever the concurrency
+        BatchResult result = concurrency > 1 || deadline.isBounded()
+            ? processConcurrently(urls, completed, parent)
+            : processSequentially(urls, completed, parent);
+
+        logger.info("Batch run processed {} pages ({} resumed from journal)", result.getPages().size(), completed.size());
+        if (result.isPartial()) {
+            logger.warn("{} pages missed the deadline: {}", result.getTimedOutUrls().size(), result.getTimedOutUrls());
+        }
+        return result;
+    }
+
+    private BatchResult processSequentially(List<String> urls, Map<String, PageResult> completed, Span parent)
+            throws ApiWeaverException {
+        List<PageResult> results = new ArrayList<>(urls.size());
+        List<String> timedOut = new ArrayList<>();
+        for (String url : urls) {
+            PageResult previous = completed.get(url);
+            if (previous != null) {
+                logger.debug("Skipping {} - completed in a previous run", url);
+                results.add(previous);
+                continue;
+            }
+
+            try {
+                results.add(processPage(url, parent));
+            } catch (DeadlineExceededException e) {
+                timedOut.add(url);
+            }
+        }
+        return new BatchResult(results, timedOut);
+    }
+
+    /**
+     * Submits every page that is not already completed and collects the results in URL order.
+     * The semaphore caps the pages in flight, which matters for the per-task executor of the
+     * Java 21 layer; the platform-thread pool is already bounded by its size.
+     */
+    private BatchResult processConcurrently(List<String> urls, Map<String, PageResult> completed, Span parent)
+            throws ApiWeaverException {
+        if (concurrency > 1) {
+            logger.info("Processing up to {} pages concurrently on {}", concurrency, PageExecutors.threadModel());
+        }
+        ExecutorService executor = PageExecutors.newPageExecutor(concurrency);
+        Semaphore permits = new Semaphore(concurrency);
+        List<Future<PageResult>> futures = new ArrayList<>(urls.size());
+        try {
+            for (String url : urls) {
+                PageResult previous = completed.get(url);
+                if (previous != null) {
+                    logger.debug("Skipping {} - completed in a previous run", url);
+                    futures.add(CompletableFuture.completedFuture(previous));
+                    continue;
+                }
+
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return processPage(url, parent);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<PageResult> results = new ArrayList<>(urls.size());
+            List<String> timedOut = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(await(futures.get(i), urls.get(i)));
+                } catch (DeadlineExceededException e) {
+                    timedOut.add(urls.get(i));
+                }
+            }
+            return new BatchResult(results, timedOut);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            shutdown(executor);
+        }
+    }
+
+    /**
+     * Waits for a page, no longer than the run deadline allows.
+     */
+    private PageResult await(Future<PageResult> future, String url) throws ApiWeaverException {
+        try {
+            if (!deadline.isBounded()) {
+                return future.get();
+            }
+            return future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Run deadline passed before {} completed", url);
+            throw new DeadlineExceededException("Run deadline exceeded before " + url + " completed", url);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiWeaverException) {
+                throw (ApiWeaverException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ApiWeaverException("Page processing failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiWeaverException("Batch run was interrupted", e);
+        }
+    }
+
+    /**
+     * Stops the executor and waits for pages that are still running, so none of them
+     * writes to the journal after the caller has closed it. Once the run deadline has passed,
+     * pages stuck in a blocking call get a short grace period and are then left behind; their
+     * threads are daemon or virtual threads and do not keep the JVM alive.
+     */
+    private void shutdown(ExecutorService executor) {
+        executor.shutdownNow();
+        try {
+            if (deadline.isExpired()) {
+                if (!executor.awaitTermination(SHUTDOWN_GRACE_MS, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Some pages were still running {}ms after the run deadline", SHUTDOWN_GRACE_MS);
+                }
+                return;
+            }
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                logger.debug("Waiting for in-flight pages to stop");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fetches and extracts a single page, recording the outcome in the journal.
+     * The page span is started under an explicit parent so pages stay attached to the run
+     * whichever thread processes them.
+     */
+    private PageResult processPage(String url, Span parent) throws ApiWeaverException {
+        Deadline pageDeadline = pageDeadlineMs > 0 ? deadline.min(Deadline.afterMillis(pageDeadlineMs)) : deadline;
+        Span span = tracer.startSpan("page", parent).setAttribute("url.full", url);
+        try (Tracer.Scope scope = tracer.activate(span)) {
+            PageResult result = fetchAndExtract(url, pageDeadline);
+            span.setAttribute("apiweaver.schema", result.getSchemaName())
+                .setAttribute("apiweaver.unchanged", result.isUnchanged());
+            if (journalOpen()) {
+                journal.recordCompleted(result);
+            }
+            return result;
+        } catch (DeadlineExceededException e) {
+            logger.warn("Deadline passed while processing {}: {}", url, e.getMessage());
+            span.recordError(e);
+            if (journalOpen()) {
+                journal.recordFailed(url, e.getMessage());
+            }
+            throw e.getContext() != null ? e : new DeadlineExceededException(e.getMessage() + " of " + url, url, e);
+        } catch (ApiWeaverException e) {
+            logger.error("Failed to process {}: {}", url, e.getMessage());
+            span.recordError(e);
+            if (journalOpen()) {
+                journal.recordFailed(url, e.getMessage());
+            }
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Pages still running after the run deadline have been given up on and the caller may
+     * already have closed the journal, so they leave it alone; a re-run fetches them again.
+     */
+    private boolean journalOpen() {
+        return journal != null && !deadline.isExpired();
+    }
+
+    /**
+     * Fetches a page, conditionally if it was part of the previous build, and extracts it
+     * unless the previous build's table hash shows it is unchanged.
+     */
+    private PageResult fetchAndExtract(String url, Deadline pageDeadline) throws ApiWeaverException {
+        pageDeadline.check("fetch", url);
+        BuildManifest.Entry previous = previousManifest != null ? previousManifest.getEntry(url) : null;
+        if (previous == null) {
+            FetchedPage page = fetcher.fetchPage(url, null, null);
+            pageDeadline.check("fetch", url);
+            return pageProcessor.process(page, null, pageDeadline);
+        }
+
+        FetchedPage page = fetcher.fetchPage(url, previous.getEtag(), previous.getLastModified());
+        pageDeadline.check("fetch", url);
+        if (page.isNotModified()) {
+            logger.info("{} not modified since the previous build, reusing its schemas", url);
+            return PageResult.builder(url, previous.getSchemas().get(0))
+                .tableHash(previous.getTableHash())
+                .etag(page.getEtag())
+                .lastModified(page.getLastModified())
+                .unchanged(true)
+                .properties(previous.getProperties())
+                .build();
+        }
+
+        PageResult result = pageProcessor.process(page, previous.getTableHash(), pageDeadline);
+        if (result.isUnchanged()) {
+            return result.toBuilder().properties(previous.getProperties()).build();
+        }
+        return result;
+    }
+
+    /**
+     * Builder for creating BatchProcessor instances.
+     */
+    public static class Builder {
+        private final UrlFetcher fetcher;
+        private final PageProcessor pageProcessor;
+        private ProgressJournal journal;
+        private BuildManifest previousManifest;
+        private Tracer tracer;
+        private int concurrency = 1;
+        private Deadline deadline;
+        private long pageDeadlineMs;
+
+        private Builder(UrlFetcher fetcher, PageProcessor pageProcessor) {
+            this.fetcher = fetcher;
+            this.pageProcessor = pageProcessor;
+        }
+
+        public Builder journal(ProgressJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        public Builder previousManifest(BuildManifest previousManifest) {
+            this.previousManifest = previousManifest;
+            return this;
+        }
+
+        public Builder tracer(Tracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder deadline(Deadline deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        /**
+         * Sets the time budget of each page, counted from when the page starts.
+         *
+         * @param pageDeadlineMs the budget in milliseconds, or 0 for no per-page deadline
+         * @return this builder
+         */
+        public Builder pageDeadlineMs(long pageDeadlineMs) {
+            this.pageDeadlineMs = pageDeadlineMs;
+            return this;
+        }
+
+        public BatchProcessor build() {
+            return new BatchProcessor(this);
+        }
+    }
+}
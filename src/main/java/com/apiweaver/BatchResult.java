@@ -0,0 +1,51 @@
+package com.apiweaver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a batch run: the pages that completed, in URL order, and the URLs that were
+ * given up on because the run or page deadline passed. A run with timed-out URLs is partial.
+ */
+public class BatchResult {
+
+    private final List<PageResult> pages;
+    private final List<String> timedOutUrls;
+
+    /**
+     * Creates a batch result.
+     *
+     * @param pages the completed pages in URL order
+     * @param timedOutUrls the URLs that missed their deadline, in URL order
+     */
+    public BatchResult(List<PageResult> pages, List<String> timedOutUrls) {
+        this.pages = Collections.unmodifiableList(new ArrayList<>(pages));
+        this.timedOutUrls = Collections.unmodifiableList(new ArrayList<>(timedOutUrls));
+    }
+
+    public List<PageResult> getPages() {
+        return pages;
+    }
+
+    public List<String> getTimedOutUrls() {
+        return timedOutUrls;
+    }
+
+    /**
+     * Checks whether some pages missed their deadline.
+     *
+     * @return true if the result does not cover every URL
+     */
+    public boolean isPartial() {
+        return !timedOutUrls.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+               "pages=" + pages.size() +
+               ", timedOutUrls=" + timedOutUrls +
+               '}';
+    }
+}
@@ -0,0 +1,377 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Incremental build manifest stored next to the output specification.
+ * Maps each source URL to the HTTP validators of its last fetch, the fingerprint of its
+ * extracted property table, the schema names it produced and the extracted property
+ * definitions, so the next run can skip pages whose table has not changed, reuse their
+ * previous schemas and remap them when a schema they reference changes. Scheduled runs
+ * also record when each page was last checked, how long to wait before checking it again
+ * and how often its table has changed.
+ */
+public class BuildManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildManifest.class);
+
+    /**
+     * Suffix appended to the output file name to locate the manifest.
+     */
+    public static final String FILE_SUFFIX = ".manifest.json";
+
+    private static final int FORMAT_VERSION = 3;
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Creates an empty manifest.
+     */
+    public BuildManifest() {
+        this.entries = new LinkedHashMap<>();
+    }
+
+    /**
+     * Returns the manifest path that belongs to an output file.
+     *
+     * @param outputFile the output specification file
+     * @return the manifest path next to the output file
+     */
+    public static Path pathFor(String outputFile) {
+        return Paths.get(outputFile + FILE_SUFFIX);
+    }
+
+    /**
+     * Loads a manifest from a file. A missing or unreadable manifest yields an empty manifest,
+     * which simply makes the next run a full rebuild.
+     *
+     * @param path the manifest file path
+     * @return the loaded manifest
+     */
+    public static BuildManifest load(Path path) {
+        BuildManifest manifest = new BuildManifest();
+        if (!Files.exists(path)) {
+            logger.debug("No build manifest found at {}, performing a full build", path);
+            return manifest;
+        }
+
+        try {
+            JsonNode root = new ObjectMapper().readTree(path.toFile());
+            if (root.path("version").asInt() != FORMAT_VERSION) {
+                logger.warn("Ignoring build manifest {} with unsupported version {}", path, root.path("version"));
+                return manifest;
+            }
+
+            Iterator<Map.Entry<String, JsonNode>> pages = root.path("pages").fields();
+            while (pages.hasNext()) {
+                Map.Entry<String, JsonNode> page = pages.next();
+                manifest.putEntry(page.getKey(), readEntry(page.getValue()));
+            }
+            logger.info("Loaded build manifest with {} pages from {}", manifest.size(), path);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable build manifest {}: {}", path, e.getMessage());
+            return new BuildManifest();
+        }
+        return manifest;
+    }
+
+    /**
+     * Writes the manifest to a file, through a temporary file in the same directory and a
+     * rename, so an interrupted write leaves the previous manifest in place.
+     *
+     * @param path the manifest file path
+     * @throws GenerationException if the manifest cannot be written
+     */
+    public void save(Path path) throws GenerationException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode root = mapper.createObjectNode();
+        root.put("version", FORMAT_VERSION);
+        ObjectNode pages = root.putObject("pages");
+
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            writeEntry(pages.putObject(entry.getKey()), entry.getValue());
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            mapper.writeValue(temp.toFile(), root);
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.debug("Wrote build manifest with {} pages to {}", entries.size(), path);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                logger.debug("Could not remove temporary build manifest {}", temp);
+            }
+            throw new GenerationException("Failed to write build manifest: " + path, e);
+        }
+    }
+
+    /**
+     * Gets the manifest entry for a URL.
+     *
+     * @param url the source URL
+     * @return the entry, or null if the URL was not part of the previous build
+     */
+    public Entry getEntry(String url) {
+        return entries.get(url);
+    }
+
+    /**
+     * Gets the URLs of the previous build, in manifest order.
+     *
+     * @return an unmodifiable view of the URLs
+     */
+    public Set<String> getUrls() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Adds or replaces the entry for a URL.
+     *
+     * @param url the source URL
+     * @param entry the manifest entry
+     */
+    public void putEntry(String url, Entry entry) {
+        entries.put(Objects.requireNonNull(url, "URL cannot be null"), Objects.requireNonNull(entry, "Entry cannot be null"));
+    }
+
+    /**
+     * Removes entries whose schemas are not all present in the given set of schema names.
+     * Used to drop pages whose previous output can no longer be reused.
+     *
+     * @param availableSchemas the schema names available in the previous output
+     * @return the number of removed entries
+     */
+    public int retainEntriesWithSchemas(Set<String> availableSchemas) {
+        int before = entries.size();
+        entries.values().removeIf(entry -> !availableSchemas.containsAll(entry.getSchemas()));
+        return before - entries.size();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Creates the manifest entry describing a processed page.
+     *
+     * @param page the processed page
+     * @return the manifest entry
+     */
+    public static Entry entryFor(PageResult page) {
+        return new Entry(page.getEtag(), page.getLastModified(), page.getTableHash(),
+            Collections.singletonList(page.getSchemaName()), page.getProperties());
+    }
+
+    private static Entry readEntry(JsonNode node) {
+        List<String> schemas = new ArrayList<>();
+        for (JsonNode schema : node.path("schemas")) {
+            schemas.add(schema.asText());
+        }
+        if (schemas.isEmpty()) {
+            throw new IllegalArgumentException("Manifest entry has no schemas");
+        }
+        List<PropertyDefinition> properties = new ArrayList<>();
+        for (JsonNode property : node.path("properties")) {
+            properties.add(new PropertyDefinition(
+                property.path("name").asText(),
+                property.path("type").asText(),
+                property.path("required").asBoolean(false),
+                property.path("writable").asBoolean(true),
+                property.path("description").asText("")));
+        }
+        return new Entry(textOrNull(node, "etag"), textOrNull(node, "lastModified"),
+            textOrNull(node, "tableHash"), schemas, properties)
+            .withPolling(node.path("lastChecked").asLong(0), node.path("interval").asLong(0),
+                node.path("changeCount").asInt(0));
+    }
+
+    private static void writeEntry(ObjectNode node, Entry entry) {
+        node.put("etag", entry.getEtag());
+        node.put("lastModified", entry.getLastModified());
+        node.put("tableHash", entry.getTableHash());
+        ArrayNode schemas = node.putArray("schemas");
+        entry.getSchemas().forEach(schemas::add);
+        ArrayNode properties = node.putArray("properties");
+        for (PropertyDefinition property : entry.getProperties()) {
+            ObjectNode propertyNode = properties.addObject();
+            propertyNode.put("name", property.getName());
+            propertyNode.put("type", property.getType());
+            propertyNode.put("required", property.isRequired());
+            propertyNode.put("writable", property.isWritable());
+            propertyNode.put("description", property.getDescription());
+        }
+        if (entry.getLastChecked() > 0) {
+            node.put("lastChecked", entry.getLastChecked());
+            node.put("interval", entry.getInterval());
+            node.put("changeCount", entry.getChangeCount());
+        }
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BuildManifest that = (BuildManifest) o;
+        return Objects.equals(entries, that.entries);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entries);
+    }
+
+    /**
+     * Manifest entry for a single source URL.
+     */
+    public static class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final String tableHash;
+        private final List<String> schemas;
+        private final List<PropertyDefinition> properties;
+        private final long lastChecked;
+        private final long interval;
+        private final int changeCount;
+
+        /**
+         * Creates a new manifest entry without property definitions.
+         *
+         * @param etag the ETag of the last fetch, or null
+         * @param lastModified the Last-Modified value of the last fetch, or null
+         * @param tableHash the hash of the extracted property table
+         * @param schemas the schema names produced from the page
+         */
+        public Entry(String etag, String lastModified, String tableHash, Collection<String> schemas) {
+            this(etag, lastModified, tableHash, schemas, Collections.emptyList());
+        }
+
+        /**
+         * Creates a new manifest entry.
+         *
+         * @param etag the ETag of the last fetch, or null
+         * @param lastModified the Last-Modified value of the last fetch, or null
+         * @param tableHash the hash of the extracted property table
+         * @param schemas the schema names produced from the page
+         * @param properties the property definitions extracted from the page
+         */
+        public Entry(String etag, String lastModified, String tableHash, Collection<String> schemas,
+                     Collection<PropertyDefinition> properties) {
+            this(etag, lastModified, tableHash, Collections.unmodifiableList(new ArrayList<>(schemas)),
+                Collections.unmodifiableList(new ArrayList<>(properties)), 0, 0, 0);
+        }
+
+        private Entry(String etag, String lastModified, String tableHash, List<String> schemas,
+                      List<PropertyDefinition> properties, long lastChecked, long interval, int changeCount) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.tableHash = tableHash;
+            this.schemas = schemas;
+            this.properties = properties;
+            this.lastChecked = lastChecked;
+            this.interval = interval;
+            this.changeCount = changeCount;
+        }
+
+        /**
+         * Creates a copy of this entry with the given polling history.
+         *
+         * @param lastChecked when the page was last fetched, in epoch milliseconds, or 0 if never scheduled
+         * @param interval how long to wait before checking the page again, in milliseconds
+         * @param changeCount how many scheduled checks found the table changed
+         * @return the new entry
+         */
+        public Entry withPolling(long lastChecked, long interval, int changeCount) {
+            return new Entry(etag, lastModified, tableHash, schemas, properties, lastChecked, interval, changeCount);
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public String getTableHash() {
+            return tableHash;
+        }
+
+        public List<String> getSchemas() {
+            return schemas;
+        }
+
+        public List<PropertyDefinition> getProperties() {
+            return properties;
+        }
+
+        public long getLastChecked() {
+            return lastChecked;
+        }
+
+        public long getInterval() {
+            return interval;
+        }
+
+        public int getChangeCount() {
+            return changeCount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Entry entry = (Entry) o;
+            return Objects.equals(etag, entry.etag) &&
+                   Objects.equals(lastModified, entry.lastModified) &&
+                   Objects.equals(tableHash, entry.tableHash) &&
+                   Objects.equals(schemas, entry.schemas) &&
+                   Objects.equals(properties, entry.properties) &&
+                   lastChecked == entry.lastChecked &&
+                   interval == entry.interval &&
+                   changeCount == entry.changeCount;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(etag, lastModified, tableHash, schemas, properties, lastChecked, interval, changeCount);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.apiweaver;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides which pages of a periodic incremental run are fetched, from each page's polling
+ * history in the build manifest. A page whose table changed is checked again after the
+ * shortest interval; each check that finds it unchanged doubles its interval, up to the
+ * longest. Pages that are not yet due are not fetched at all and reuse the schemas of the
+ * previous build. An optional request budget caps the pages fetched per run: the most
+ * overdue pages go first, and the rest wait for the next run.
+ */
+public class ChangeScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeScheduler.class);
+
+    public static final long DEFAULT_MIN_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+    public static final long DEFAULT_MAX_INTERVAL_MS = TimeUnit.DAYS.toMillis(7);
+
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final int requestBudget;
+    private final Clock clock;
+    private final RunMetrics metrics;
+
+    private ChangeScheduler(Builder builder) {
+        if (builder.minIntervalMs <= 0) {
+            throw new IllegalArgumentException("Minimum interval must be positive: " + builder.minIntervalMs);
+        }
+        if (builder.maxIntervalMs < builder.minIntervalMs) {
+            throw new IllegalArgumentException("Maximum interval " + builder.maxIntervalMs
+                + " is shorter than the minimum interval " + builder.minIntervalMs);
+        }
+        if (builder.requestBudget < 0) {
+            throw new IllegalArgumentException("Request budget cannot be negative: " + builder.requestBudget);
+        }
+        this.minIntervalMs = builder.minIntervalMs;
+        this.maxIntervalMs = builder.maxIntervalMs;
+        this.requestBudget = builder.requestBudget;
+        this.clock = builder.clock != null ? builder.clock : Clock.systemUTC();
+        this.metrics = builder.metrics != null ? builder.metrics : RunMetrics.disabled();
+    }
+
+    /**
+     * Creates a new builder with the default intervals and no request budget.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Splits the URLs of a run into pages to fetch and pages to reuse. Pages without a
+     * manifest entry have no schema to reuse, so they are always fetched and count against
+     * the budget first.
+     *
+     * @param urls the URLs of the run
+     * @param previousManifest the manifest of the previous build
+     * @return the plan for this run
+     */
+    public Plan plan(List<String> urls, BuildManifest previousManifest) {
+        long now = clock.millis();
+        Set<String> due = new HashSet<>();
+        List<String> candidates = new ArrayList<>();
+        int notDue = 0;
+        for (String url : new LinkedHashSet<>(urls)) {
+            BuildManifest.Entry entry = previousManifest.getEntry(url);
+            if (entry == null) {
+                due.add(url);
+            } else if (isDue(entry, now)) {
+                candidates.add(url);
+            } else {
+                notDue++;
+            }
+        }
+
+        int deferred = 0;
+        if (requestBudget > 0 && due.size() + candidates.size() > requestBudget) {
+            // Most overdue first; among equally overdue pages, the ones that changed most often
+            candidates.sort(Comparator.comparingDouble((String url) -> -overdue(previousManifest.getEntry(url), now))
+                .thenComparingInt(url -> -previousManifest.getEntry(url).getChangeCount()));
+            int room = Math.max(0, requestBudget - due.size());
+            deferred = candidates.size() - room;
+            candidates = candidates.subList(0, room);
+            if (due.size() > requestBudget) {
+                logger.warn("{} new pages exceed the request budget of {}; they are fetched anyway", due.size(), requestBudget);
+            }
+        }
+        due.addAll(candidates);
+
+        List<String> dueUrls = urls.stream().filter(due::contains).distinct().collect(Collectors.toList());
+        metrics.add(RunMetrics.SCHEDULE_DUE, dueUrls.size());
+        metrics.add(RunMetrics.SCHEDULE_NOT_DUE, notDue);
+        metrics.add(RunMetrics.SCHEDULE_DEFERRED, deferred);
+        logger.info("Scheduled {} of {} pages; {} not due, {} deferred by the request budget",
+            dueUrls.size(), urls.size(), notDue, deferred);
+        return new Plan(dueUrls, notDue, deferred, previousManifest, now);
+    }
+
+    private static boolean isDue(BuildManifest.Entry entry, long now) {
+        return entry.getLastChecked() <= 0 || now >= entry.getLastChecked() + entry.getInterval();
+    }
+
+    /**
+     * How far past its due time a page is, in multiples of its interval. Pages without
+     * polling history come first.
+     */
+    private static double overdue(BuildManifest.Entry entry, long now) {
+        if (entry.getLastChecked() <= 0 || entry.getInterval() <= 0) {
+            return Double.MAX_VALUE;
+        }
+        return (double) (now - entry.getLastChecked()) / entry.getInterval();
+    }
+
+    /**
+     * Computes the polling history after a page was fetched.
+     *
+     * @param previous the page's previous manifest entry, or null for a new page
+     * @param page the result of this run's fetch
+     * @param now the time of the check in epoch milliseconds
+     * @return the page's new manifest entry
+     */
+    BuildManifest.Entry reschedule(BuildManifest.Entry previous, PageResult page, long now) {
+        BuildManifest.Entry entry = BuildManifest.entryFor(page);
+        if (previous == null || previous.getLastChecked() <= 0) {
+            return entry.withPolling(now, minIntervalMs, 0);
+        }
+        if (!page.isUnchanged()) {
+            return entry.withPolling(now, minIntervalMs, previous.getChangeCount() + 1);
+        }
+        long interval = Math.min(maxIntervalMs, Math.max(minIntervalMs, previous.getInterval()) * 2);
+        return entry.withPolling(now, interval, previous.getChangeCount());
+    }
+
+    /**
+     * The pages one run fetches, and what the run reuses from the previous build.
+     */
+    public final class Plan {
+        private final List<String> dueUrls;
+        private final Set<String> due;
+        private final int notDueCount;
+        private final int deferredCount;
+        private final BuildManifest previousManifest;
+        private final long now;
+
+        private Plan(List<String> dueUrls, int notDueCount, int deferredCount, BuildManifest previousManifest, long now) {
+            this.dueUrls = Collections.unmodifiableList(dueUrls);
+            this.due = new HashSet<>(dueUrls);
+            this.notDueCount = notDueCount;
+            this.deferredCount = deferredCount;
+            this.previousManifest = previousManifest;
+            this.now = now;
+        }
+
+        /**
+         * Gets the URLs to fetch this run, in run order.
+         *
+         * @return the due URLs
+         */
+        public List<String> getDueUrls() {
+            return dueUrls;
+        }
+
+        public int getNotDueCount() {
+            return notDueCount;
+        }
+
+        public int getDeferredCount() {
+            return deferredCount;
+        }
+
+        /**
+         * Tells whether a page is reused from the previous build instead of fetched: it has
+         * a manifest entry and is not due, or the request budget deferred it. URLs the plan
+         * did not cover, e.g. pages a crawl found after planning, are not reused.
+         *
+         * @param url the page URL
+         * @return true if the page is not fetched this run
+         */
+        public boolean isReused(String url) {
+            return !due.contains(url) && previousManifest.getEntry(url) != null;
+        }
+
+        /**
+         * Combines the fetched pages with the reused ones, in run order. Reused pages are
+         * unchanged results built from their manifest entries. Due pages that were not
+         * fetched, e.g. because the deadline passed, are left out, as are URLs the plan did
+         * not cover that were not fetched.
+         *
+         * @param urls the URLs of the run
+         * @param fetched the results of the due pages
+         * @return the results of all pages
+         */
+        public List<PageResult> pages(List<String> urls, List<PageResult> fetched) {
+            Map<String, PageResult> byUrl = fetched.stream()
+                .collect(Collectors.toMap(PageResult::getUrl, Function.identity(), (a, b) -> a));
+            List<PageResult> pages = new ArrayList<>(urls.size());
+            for (String url : new LinkedHashSet<>(urls)) {
+                if (!isReused(url)) {
+                    PageResult page = byUrl.get(url);
+                    if (page != null) {
+                        pages.add(page);
+                    }
+                    continue;
+                }
+                BuildManifest.Entry entry = previousManifest.getEntry(url);
+                pages.add(PageResult.builder(url, entry.getSchemas().get(0))
+                    .tableHash(entry.getTableHash())
+                    .etag(entry.getEtag())
+                    .lastModified(entry.getLastModified())
+                    .unchanged(true)
+                    .properties(entry.getProperties())
+                    .build());
+            }
+            return pages;
+        }
+
+        /**
+         * Creates the manifest entry of a page for the next run: fetched pages are
+         * rescheduled, reused pages keep their previous entry.
+         *
+         * @param page a page of this run
+         * @return the manifest entry
+         */
+        public BuildManifest.Entry entryFor(PageResult page) {
+            BuildManifest.Entry previous = previousManifest.getEntry(page.getUrl());
+            if (isReused(page.getUrl())) {
+                return previous;
+            }
+            return reschedule(previous, page, now);
+        }
+    }
+
+    /**
+     * Builder for creating ChangeScheduler instances.
+     */
+    public static class Builder {
+        private long minIntervalMs = DEFAULT_MIN_INTERVAL_MS;
+        private long maxIntervalMs = DEFAULT_MAX_INTERVAL_MS;
+        private int requestBudget;
+        private Clock clock;
+        private RunMetrics metrics;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets how soon a page is checked again after its table changed.
+         *
+         * @param minIntervalMs the shortest interval in milliseconds
+         * @return this builder
+         */
+        public Builder minInterval(long minIntervalMs) {
+            this.minIntervalMs = minIntervalMs;
+            return this;
+        }
+
+        /**
+         * Sets the longest a stable page waits between checks.
+         *
+         * @param maxIntervalMs the longest interval in milliseconds
+         * @return this builder
+         */
+        public Builder maxInterval(long maxIntervalMs) {
+            this.maxIntervalMs = maxIntervalMs;
+            return this;
+        }
+
+        /**
+         * Sets the most pages fetched per run.
+         *
+         * @param requestBudget the budget, or 0 for no limit
+         * @return this builder
+         */
+        public Builder requestBudget(int requestBudget) {
+            this.requestBudget = requestBudget;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public Builder metrics(RunMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public ChangeScheduler build() {
+            return new ChangeScheduler(this);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.apiweaver;
+
+/**
+ * UrlFetcher decorator that runs every fetch under a {@link HostConcurrencyLimiter} permit
+ * for the URL's host and feeds the outcome back into the limiter.
+ */
+public class ConcurrencyLimitingUrlFetcher implements UrlFetcher {
+
+    private final UrlFetcher delegate;
+    private final HostConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitingUrlFetcher(UrlFetcher delegate, HostConcurrencyLimiter limiter) {
+        if (delegate == null || limiter == null) {
+            throw new IllegalArgumentException("Delegate and limiter cannot be null");
+        }
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public String fetchHtmlContent(String url) throws FetchException {
+        HostConcurrencyLimiter.Permit permit = acquire(url);
+        String content;
+        try {
+            content = delegate.fetchHtmlContent(url);
+        } catch (FetchException | RuntimeException e) {
+            release(permit);
+            throw e;
+        }
+        permit.onSuccess();
+        return content;
+    }
+
+    @Override
+    public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+        HostConcurrencyLimiter.Permit permit = acquire(url);
+        FetchedPage page;
+        try {
+            page = delegate.fetchPage(url, etag, lastModified);
+        } catch (FetchException | RuntimeException e) {
+            release(permit);
+            throw e;
+        }
+        permit.onSuccess();
+        return page;
+    }
+
+    /**
+     * Releases the permit of a request that threw. A request interrupted because it was
+     * cancelled, e.g. the loser of a hedge, does not count as a failure of the host.
+     */
+    private static void release(HostConcurrencyLimiter.Permit permit) {
+        if (Thread.currentThread().isInterrupted()) {
+            permit.onCancelled();
+        } else {
+            permit.onFailure();
+        }
+    }
+
+    private HostConcurrencyLimiter.Permit acquire(String url) throws FetchException {
+        try {
+            return limiter.acquire(HostConcurrencyLimiter.hostOf(url));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetchException("Interrupted while waiting for a request slot", url, e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.apiweaver;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration class that holds all command-line options and settings for ApiWeaver.
@@ -12,6 +14,37 @@ public class Configuration {
     private final String existingSpecFile;
     private final boolean verbose;
     private final int timeoutMs;
+    private final String batchFile;
+    private final String journalFile;
+    private final boolean incremental;
+    private final String statsFile;
+    private final String jfrFile;
+    private final String traceFile;
+    private final int concurrency;
+    private final boolean fixedTimeout;
+    private final boolean hedge;
+    private final String mirrorUrl;
+    private final int deadlineMs;
+    private final int pageDeadlineMs;
+    private final String archiveFile;
+    private final String recordDir;
+    private final String replayDir;
+    private final boolean replayLatency;
+    private final boolean crawl;
+    private final String crawlPattern;
+    private final int crawlDepth;
+    private final int crawlMaxPages;
+    private final boolean schedule;
+    private final int pollIntervalMinutes;
+    private final int maxPollIntervalMinutes;
+    private final int requestBudget;
+    private final String spoolDir;
+    private final boolean worker;
+    private final List<String> mergeFiles;
+    private final SpecMerger.ConflictPolicy conflictPolicy;
+    private final boolean sharded;
+    private final String showSchema;
+    private final boolean snapshot;
 
     private Configuration(Builder builder) {
         this.url = builder.url;
@@ -19,6 +52,37 @@ public class Configuration {
         this.existingSpecFile = builder.existingSpecFile;
         this.verbose = builder.verbose;
         this.timeoutMs = builder.timeoutMs;
+        this.batchFile = builder.batchFile;
+        this.journalFile = builder.journalFile;
+        this.incremental = builder.incremental;
+        this.statsFile = builder.statsFile;
+        this.jfrFile = builder.jfrFile;
+        this.traceFile = builder.traceFile;
+        this.concurrency = builder.concurrency;
+        this.fixedTimeout = builder.fixedTimeout;
+        this.hedge = builder.hedge;
+        this.mirrorUrl = builder.mirrorUrl;
+        this.deadlineMs = builder.deadlineMs;
+        this.pageDeadlineMs = builder.pageDeadlineMs;
+        this.archiveFile = builder.archiveFile;
+        this.recordDir = builder.recordDir;
+        this.replayDir = builder.replayDir;
+        this.replayLatency = builder.replayLatency;
+        this.crawl = builder.crawl;
+        this.crawlPattern = builder.crawlPattern;
+        this.crawlDepth = builder.crawlDepth;
+        this.crawlMaxPages = builder.crawlMaxPages;
+        this.schedule = builder.schedule;
+        this.pollIntervalMinutes = builder.pollIntervalMinutes;
+        this.maxPollIntervalMinutes = builder.maxPollIntervalMinutes;
+        this.requestBudget = builder.requestBudget;
+        this.spoolDir = builder.spoolDir;
+        this.worker = builder.worker;
+        this.mergeFiles = builder.mergeFiles != null ? List.copyOf(builder.mergeFiles) : null;
+        this.conflictPolicy = builder.conflictPolicy;
+        this.sharded = builder.sharded;
+        this.showSchema = builder.showSchema;
+        this.snapshot = builder.snapshot;
     }
 
     public String getUrl() {
@@ -41,15 +105,188 @@ public class Configuration {
         return timeoutMs;
     }
 
+    public String getBatchFile() {
+        return batchFile;
+    }
+
+    public String getJournalFile() {
+        return journalFile;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public String getStatsFile() {
+        return statsFile;
+    }
+
+    public String getJfrFile() {
+        return jfrFile;
+    }
+
+    public String getTraceFile() {
+        return traceFile;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public boolean isFixedTimeout() {
+        return fixedTimeout;
+    }
+
+    public boolean isHedge() {
+        return hedge;
+    }
+
+    public String getMirrorUrl() {
+        return mirrorUrl;
+    }
+
+    public int getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    public int getPageDeadlineMs() {
+        return pageDeadlineMs;
+    }
+
+    public String getArchiveFile() {
+        return archiveFile;
+    }
+
+    public String getRecordDir() {
+        return recordDir;
+    }
+
+    public String getReplayDir() {
+        return replayDir;
+    }
+
+    public boolean isReplayLatency() {
+        return replayLatency;
+    }
+
+    public boolean isCrawl() {
+        return crawl;
+    }
+
+    public String getCrawlPattern() {
+        return crawlPattern;
+    }
+
+    public int getCrawlDepth() {
+        return crawlDepth;
+    }
+
+    public int getCrawlMaxPages() {
+        return crawlMaxPages;
+    }
+
+    public boolean isSchedule() {
+        return schedule;
+    }
+
+    public int getPollIntervalMinutes() {
+        return pollIntervalMinutes;
+    }
+
+    public int getMaxPollIntervalMinutes() {
+        return maxPollIntervalMinutes;
+    }
+
+    public int getRequestBudget() {
+        return requestBudget;
+    }
+
+    public String getSpoolDir() {
+        return spoolDir;
+    }
+
+    /**
+     * Checks whether this process works on the spool queue of another run instead of
+     * running one of its own.
+     * 
+     * @return true in worker mode
+     */
+    public boolean isWorker() {
+        return worker;
+    }
+
+    public List<String> getMergeFiles() {
+        return mergeFiles;
+    }
+
+    /**
+     * Checks whether this run merges existing specification files instead of fetching pages.
+     * 
+     * @return true if merge input files are set
+     */
+    public boolean isMerge() {
+        return mergeFiles != null && !mergeFiles.isEmpty();
+    }
+
+    public SpecMerger.ConflictPolicy getConflictPolicy() {
+        return conflictPolicy;
+    }
+
+    /**
+     * Checks whether the output is written as a root document plus one file per schema.
+     * 
+     * @return true for the sharded layout
+     */
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public String getShowSchema() {
+        return showSchema;
+    }
+
+    /**
+     * Checks whether this run prints one schema of the output file instead of writing it.
+     * 
+     * @return true if a schema to show is set
+     */
+    public boolean isShow() {
+        return showSchema != null && !showSchema.isEmpty();
+    }
+
+    /**
+     * Checks whether a binary snapshot is written next to a single-file output so the next
+     * run can reload it without parsing the YAML.
+     * 
+     * @return true if snapshots are written
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Checks whether this configuration processes a list of URLs, read from a batch file
+     * or discovered by crawling from the URL.
+     * 
+     * @return true if batch or crawl mode is enabled
+     */
+    public boolean isBatchMode() {
+        return batchFile != null && !batchFile.trim().isEmpty() || crawl;
+    }
+
     /**
      * Validates that the configuration has all required values.
+     * A URL or a batch file must be provided, unless this is a spool worker, a merge or a show.
      * 
      * @return true if the configuration is valid
      */
     public boolean isValid() {
-        return url != null && !url.trim().isEmpty() &&
+        return (url != null && !url.trim().isEmpty() || isBatchMode() || worker && spoolDir != null ||
+                isMerge() || isShow()) &&
                outputFile != null && !outputFile.trim().isEmpty() &&
-               timeoutMs > 0;
+               timeoutMs > 0 && concurrency > 0 && deadlineMs >= 0 && pageDeadlineMs >= 0 &&
+               crawlDepth >= 0 && crawlMaxPages > 0 &&
+               pollIntervalMinutes > 0 && maxPollIntervalMinutes >= pollIntervalMinutes && requestBudget >= 0;
     }
 
     /**
@@ -70,6 +307,37 @@ public class Configuration {
         private String existingSpecFile;
         private boolean verbose = false;
         private int timeoutMs = 30000;
+        private String batchFile;
+        private String journalFile;
+        private boolean incremental = false;
+        private String statsFile;
+        private String jfrFile;
+        private String traceFile;
+        private int concurrency = 1;
+        private boolean fixedTimeout = false;
+        private boolean hedge = false;
+        private String mirrorUrl;
+        private int deadlineMs = 0;
+        private int pageDeadlineMs = 0;
+        private String archiveFile;
+        private String recordDir;
+        private String replayDir;
+        private boolean replayLatency = false;
+        private boolean crawl = false;
+        private String crawlPattern;
+        private int crawlDepth = DocumentationCrawler.DEFAULT_MAX_DEPTH;
+        private int crawlMaxPages = DocumentationCrawler.DEFAULT_MAX_PAGES;
+        private boolean schedule = false;
+        private int pollIntervalMinutes = (int) TimeUnit.MILLISECONDS.toMinutes(ChangeScheduler.DEFAULT_MIN_INTERVAL_MS);
+        private int maxPollIntervalMinutes = (int) TimeUnit.MILLISECONDS.toMinutes(ChangeScheduler.DEFAULT_MAX_INTERVAL_MS);
+        private int requestBudget = 0;
+        private String spoolDir;
+        private boolean worker = false;
+        private List<String> mergeFiles;
+        private SpecMerger.ConflictPolicy conflictPolicy = SpecMerger.ConflictPolicy.FAIL;
+        private boolean sharded = false;
+        private String showSchema;
+        private boolean snapshot = false;
 
         public Builder url(String url) {
             this.url = url;
@@ -96,6 +364,161 @@ public class Configuration {
             return this;
         }
 
+        public Builder batchFile(String batchFile) {
+            this.batchFile = batchFile;
+            return this;
+        }
+
+        public Builder journalFile(String journalFile) {
+            this.journalFile = journalFile;
+            return this;
+        }
+
+        public Builder incremental(boolean incremental) {
+            this.incremental = incremental;
+            return this;
+        }
+
+        public Builder statsFile(String statsFile) {
+            this.statsFile = statsFile;
+            return this;
+        }
+
+        public Builder jfrFile(String jfrFile) {
+            this.jfrFile = jfrFile;
+            return this;
+        }
+
+        public Builder traceFile(String traceFile) {
+            this.traceFile = traceFile;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder fixedTimeout(boolean fixedTimeout) {
+            this.fixedTimeout = fixedTimeout;
+            return this;
+        }
+
+        public Builder hedge(boolean hedge) {
+            this.hedge = hedge;
+            return this;
+        }
+
+        public Builder mirrorUrl(String mirrorUrl) {
+            this.mirrorUrl = mirrorUrl;
+            return this;
+        }
+
+        public Builder deadlineMs(int deadlineMs) {
+            this.deadlineMs = deadlineMs;
+            return this;
+        }
+
+        public Builder pageDeadlineMs(int pageDeadlineMs) {
+            this.pageDeadlineMs = pageDeadlineMs;
+            return this;
+        }
+
+        public Builder archiveFile(String archiveFile) {
+            this.archiveFile = archiveFile;
+            return this;
+        }
+
+        public Builder recordDir(String recordDir) {
+            this.recordDir = recordDir;
+            return this;
+        }
+
+        public Builder replayDir(String replayDir) {
+            this.replayDir = replayDir;
+            return this;
+        }
+
+        public Builder replayLatency(boolean replayLatency) {
+            this.replayLatency = replayLatency;
+            return this;
+        }
+
+        public Builder crawl(boolean crawl) {
+            this.crawl = crawl;
+            return this;
+        }
+
+        public Builder crawlPattern(String crawlPattern) {
+            this.crawlPattern = crawlPattern;
+            return this;
+        }
+
+        public Builder crawlDepth(int crawlDepth) {
+            this.crawlDepth = crawlDepth;
+            return this;
+        }
+
+        public Builder crawlMaxPages(int crawlMaxPages) {
+            this.crawlMaxPages = crawlMaxPages;
+            return this;
+        }
+
+        public Builder schedule(boolean schedule) {
+            this.schedule = schedule;
+            return this;
+        }
+
+        public Builder pollIntervalMinutes(int pollIntervalMinutes) {
+            this.pollIntervalMinutes = pollIntervalMinutes;
+            return this;
+        }
+
+        public Builder maxPollIntervalMinutes(int maxPollIntervalMinutes) {
+            this.maxPollIntervalMinutes = maxPollIntervalMinutes;
+            return this;
+        }
+
+        public Builder requestBudget(int requestBudget) {
+            this.requestBudget = requestBudget;
+            return this;
+        }
+
+        public Builder spoolDir(String spoolDir) {
+            this.spoolDir = spoolDir;
+            return this;
+        }
+
+        public Builder worker(boolean worker) {
+            this.worker = worker;
+            return this;
+        }
+
+        public Builder mergeFiles(List<String> mergeFiles) {
+            this.mergeFiles = mergeFiles;
+            return this;
+        }
+
+        public Builder conflictPolicy(SpecMerger.ConflictPolicy conflictPolicy) {
+            this.conflictPolicy = conflictPolicy;
+            return this;
+        }
+
+        public Builder sharded(boolean sharded) {
+            this.sharded = sharded;
+            return this;
+        }
+
+        public Builder showSchema(String showSchema) {
+            this.showSchema = showSchema;
+            return this;
+        }
+
+        public Builder snapshot(boolean snapshot) {
+            this.snapshot = snapshot;
+            return this;
+        }
+
         public Configuration build() {
             return new Configuration(this);
         }
@@ -107,15 +530,47 @@ public class Configuration {
         if (o == null || getClass() != o.getClass()) return false;
         Configuration that = (Configuration) o;
         return verbose == that.verbose &&
+               snapshot == that.snapshot &&
+               sharded == that.sharded &&
+               worker == that.worker &&
+               requestBudget == that.requestBudget &&
+               maxPollIntervalMinutes == that.maxPollIntervalMinutes &&
+               pollIntervalMinutes == that.pollIntervalMinutes &&
+               schedule == that.schedule &&
+               crawlMaxPages == that.crawlMaxPages &&
+               crawlDepth == that.crawlDepth &&
+               crawl == that.crawl &&
+               replayLatency == that.replayLatency &&
+               pageDeadlineMs == that.pageDeadlineMs &&
+               deadlineMs == that.deadlineMs &&
+               hedge == that.hedge &&
+               fixedTimeout == that.fixedTimeout &&
+               concurrency == that.concurrency &&
                timeoutMs == that.timeoutMs &&
+               incremental == that.incremental &&
                Objects.equals(url, that.url) &&
                Objects.equals(outputFile, that.outputFile) &&
-               Objects.equals(existingSpecFile, that.existingSpecFile);
+               Objects.equals(existingSpecFile, that.existingSpecFile) &&
+               Objects.equals(batchFile, that.batchFile) &&
+               Objects.equals(journalFile, that.journalFile) &&
+               Objects.equals(statsFile, that.statsFile) &&
+               Objects.equals(jfrFile, that.jfrFile) &&
+               Objects.equals(traceFile, that.traceFile) &&
+               Objects.equals(mirrorUrl, that.mirrorUrl) &&
+               Objects.equals(archiveFile, that.archiveFile) &&
+               Objects.equals(recordDir, that.recordDir) &&
+               Objects.equals(replayDir, that.replayDir) &&
+               Objects.equals(crawlPattern, that.crawlPattern) &&
+               Objects.equals(spoolDir, that.spoolDir) &&
+               Objects.equals(mergeFiles, that.mergeFiles) &&
+               Objects.equals(conflictPolicy, that.conflictPolicy) &&
+               Objects.equals(showSchema, that.showSchema);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(url, outputFile, existingSpecFile, verbose, timeoutMs);
+        return Objects.hash(url, outputFile, existingSpecFile, verbose, timeoutMs, batchFile, journalFile,
+            incremental, statsFile, jfrFile, traceFile, concurrency, fixedTimeout, hedge, mirrorUrl, deadlineMs, pageDeadlineMs, archiveFile, recordDir, replayDir, replayLatency, crawl, crawlPattern, crawlDepth, crawlMaxPages, schedule, pollIntervalMinutes, maxPollIntervalMinutes, requestBudget, spoolDir, worker, mergeFiles, conflictPolicy, sharded, showSchema, snapshot);
     }
 
     @Override
@@ -126,6 +581,37 @@ public class Configuration {
                ", existingSpecFile='" + existingSpecFile + '\'' +
                ", verbose=" + verbose +
                ", timeoutMs=" + timeoutMs +
+               ", batchFile='" + batchFile + '\'' +
+               ", journalFile='" + journalFile + '\'' +
+               ", incremental=" + incremental +
+               ", statsFile='" + statsFile + '\'' +
+               ", jfrFile='" + jfrFile + '\'' +
+               ", traceFile='" + traceFile + '\'' +
+               ", concurrency=" + concurrency +
+               ", fixedTimeout=" + fixedTimeout +
+               ", hedge=" + hedge +
+               ", mirrorUrl='" + mirrorUrl + '\'' +
+               ", deadlineMs=" + deadlineMs +
+               ", pageDeadlineMs=" + pageDeadlineMs +
+               ", archiveFile='" + archiveFile + '\'' +
+               ", recordDir='" + recordDir + '\'' +
+               ", replayDir='" + replayDir + '\'' +
+               ", replayLatency=" + replayLatency +
+               ", crawl=" + crawl +
+               ", crawlPattern='" + crawlPattern + '\'' +
+               ", crawlDepth=" + crawlDepth +
+               ", crawlMaxPages=" + crawlMaxPages +
+               ", schedule=" + schedule +
+               ", pollIntervalMinutes=" + pollIntervalMinutes +
+               ", maxPollIntervalMinutes=" + maxPollIntervalMinutes +
+               ", requestBudget=" + requestBudget +
+               ", spoolDir='" + spoolDir + '\'' +
+               ", worker=" + worker +
+               ", mergeFiles=" + mergeFiles +
+               ", conflictPolicy=" + conflictPolicy +
+               ", sharded=" + sharded +
+               ", showSchema='" + showSchema + '\'' +
+               ", snapshot=" + snapshot +
                '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.apiweaver;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utility for computing stable content hashes of fetched pages and generated artifacts.
+ * Hashes are SHA-256 digests rendered as lowercase hexadecimal strings.
+ */
+public final class ContentHash {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ContentHash() {
+    }
+
+    /**
+     * Computes the SHA-256 hash of a string encoded as UTF-8.
+     *
+     * @param content the content to hash
+     * @return the lowercase hexadecimal digest
+     */
+    public static String sha256Hex(String content) {
+        return sha256Hex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Computes the SHA-256 hash of a byte array.
+     *
+     * @param content the content to hash
+     * @return the lowercase hexadecimal digest
+     */
+    public static String sha256Hex(byte[] content) {
+        MessageDigest digest = newSha256();
+        return toHex(digest.digest(content));
+    }
+
+    /**
+     * Creates a new SHA-256 message digest.
+     *
+     * @return a fresh digest instance
+     */
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException("SHA-256 digest not available", e);
+        }
+    }
+
+    /**
+     * Renders a digest as a lowercase hexadecimal string.
+     *
+     * @param bytes the digest bytes
+     * @return the hexadecimal representation
+     */
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,93 @@
+package com.apiweaver;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outcome of a documentation crawl: the pages that hold an object values table, in crawl
+ * order, and their fetched content so they do not have to be fetched a second time.
+ */
+public class CrawlResult {
+
+    private final List<String> schemaUrls;
+    private final Map<String, FetchedPage> pages;
+    private final int visitedCount;
+    private final List<String> failedUrls;
+    private final boolean truncated;
+
+    /**
+     * Creates a crawl result.
+     *
+     * @param schemaUrls the URLs of the pages with an object values table, in crawl order
+     * @param pages the fetched schema pages by URL
+     * @param visitedCount the number of pages fetched, including index pages
+     * @param failedUrls the URLs that could not be fetched or parsed
+     * @param truncated true if the page limit or the deadline stopped the crawl
+     */
+    public CrawlResult(List<String> schemaUrls, Map<String, FetchedPage> pages, int visitedCount,
+                       List<String> failedUrls, boolean truncated) {
+        this.schemaUrls = Collections.unmodifiableList(schemaUrls);
+        this.pages = new ConcurrentHashMap<>(pages);
+        this.visitedCount = visitedCount;
+        this.failedUrls = Collections.unmodifiableList(failedUrls);
+        this.truncated = truncated;
+    }
+
+    public List<String> getSchemaUrls() {
+        return schemaUrls;
+    }
+
+    public int getVisitedCount() {
+        return visitedCount;
+    }
+
+    public List<String> getFailedUrls() {
+        return failedUrls;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Creates a fetcher that hands out each crawled page once and then forgets it, so the
+     * pages are not kept after extraction. A conditional fetch whose validators match the
+     * crawled page is answered as not modified; pages that were not crawled go to the fallback.
+     *
+     * @param fallback the fetcher for everything else
+     * @return the fetcher
+     */
+    public UrlFetcher fetcher(UrlFetcher fallback) {
+        return new UrlFetcher() {
+            @Override
+            public String fetchHtmlContent(String url) throws FetchException {
+                return fetchPage(url, null, null).getContent();
+            }
+
+            @Override
+            public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+                FetchedPage page = pages.remove(url);
+                if (page == null) {
+                    return fallback.fetchPage(url, etag, lastModified);
+                }
+                if (etag != null && etag.equals(page.getEtag())
+                        || etag == null && lastModified != null && lastModified.equals(page.getLastModified())) {
+                    return FetchedPage.notModified(url, page.getEtag(), page.getLastModified());
+                }
+                return page;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "CrawlResult{" +
+               "schemaPages=" + schemaUrls.size() +
+               ", visited=" + visitedCount +
+               ", failed=" + failedUrls.size() +
+               ", truncated=" + truncated +
+               '}';
+    }
+}
@@ -0,0 +1,109 @@
+package com.apiweaver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which work has to be finished, measured on {@link System#nanoTime()}.
+ * Stages check it cooperatively with {@link #check(String)} at points where they can stop
+ * cleanly, for example between table rows. {@link #none()} never expires.
+ */
+public final class Deadline {
+
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+    private Deadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Returns the deadline that never expires.
+     *
+     * @return the unbounded deadline
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a deadline a given time from now.
+     *
+     * @param millis the time budget in milliseconds
+     * @return the deadline
+     */
+    public static Deadline afterMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time budget cannot be negative: " + millis);
+        }
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis), true);
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Gets the time left.
+     *
+     * @return the remaining nanoseconds, 0 once expired, or {@link Long#MAX_VALUE} if unbounded
+     */
+    public long remainingNanos() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * Gets the earlier of this deadline and another.
+     *
+     * @param other the other deadline
+     * @return whichever deadline expires first
+     */
+    public Deadline min(Deadline other) {
+        if (!other.bounded) {
+            return this;
+        }
+        if (!bounded) {
+            return other;
+        }
+        return deadlineNanos - other.deadlineNanos <= 0 ? this : other;
+    }
+
+    /**
+     * Throws if the deadline has passed.
+     *
+     * @param stage the stage that checks, used in the message
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check(String stage) throws DeadlineExceededException {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded during " + stage);
+        }
+    }
+
+    /**
+     * Throws if the deadline has passed.
+     *
+     * @param stage the stage that checks, used in the message
+     * @param context the URL being processed
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check(String stage, String context) throws DeadlineExceededException {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded during " + stage + " of " + context, context);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? "Deadline{remainingMs=" + TimeUnit.NANOSECONDS.toMillis(remainingNanos()) + '}' : "Deadline{none}";
+    }
+}
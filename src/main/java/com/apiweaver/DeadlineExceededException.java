@@ -0,0 +1,24 @@
+package com.apiweaver;
+
+/**
+ * Exception thrown when a run or page deadline passes before a pipeline stage completes.
+ * The context is the URL of the page being processed, when there is one.
+ */
+public class DeadlineExceededException extends ApiWeaverException {
+    
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+    
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+    
+    public DeadlineExceededException(String message, String context) {
+        super(message, context);
+    }
+    
+    public DeadlineExceededException(String message, String context, Throwable cause) {
+        super(message, context, cause);
+    }
+}
@@ -0,0 +1,386 @@
+package com.apiweaver;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Discovers documentation pages by following links from an index page.
+ * Links matching the URL pattern are queued by depth, so pages closer to the index are
+ * fetched first, and each URL is fetched at most once. Up to {@code concurrency} pages are
+ * fetched at a time. Only the coordinating thread touches the queue and the visited set;
+ * page tasks fetch, parse and return the page's links. Pages with an object values table
+ * become the schema pages of the result. Known schema pages that a scheduled run reuses
+ * can be skipped: they are kept as schema pages without being fetched, and their links are
+ * not followed.
+ */
+public class DocumentationCrawler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentationCrawler.class);
+
+    public static final int DEFAULT_MAX_DEPTH = 2;
+    public static final int DEFAULT_MAX_PAGES = 500;
+
+    private final UrlFetcher fetcher;
+    private final HtmlParser parser;
+    private final Pattern pattern;
+    private final int maxDepth;
+    private final int maxPages;
+    private final int concurrency;
+    private final Predicate<String> skip;
+    private final RunMetrics metrics;
+
+    private DocumentationCrawler(Builder builder) {
+        if (builder.fetcher == null || builder.parser == null) {
+            throw new IllegalArgumentException("Fetcher and parser cannot be null");
+        }
+        if (builder.maxDepth < 0) {
+            throw new IllegalArgumentException("Crawl depth cannot be negative: " + builder.maxDepth);
+        }
+        if (builder.maxPages < 1) {
+            throw new IllegalArgumentException("Crawl page limit must be at least 1: " + builder.maxPages);
+        }
+        if (builder.concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + builder.concurrency);
+        }
+        this.fetcher = builder.fetcher;
+        this.parser = builder.parser;
+        this.pattern = builder.pattern;
+        this.maxDepth = builder.maxDepth;
+        this.maxPages = builder.maxPages;
+        this.concurrency = builder.concurrency;
+        this.skip = builder.skip != null ? builder.skip : url -> false;
+        this.metrics = builder.metrics != null ? builder.metrics : RunMetrics.disabled();
+    }
+
+    /**
+     * Creates a builder for a crawler.
+     *
+     * @param fetcher the fetcher used for every page
+     * @param parser the parser used to find links and object values tables
+     * @return the builder
+     */
+    public static Builder builder(UrlFetcher fetcher, HtmlParser parser) {
+        return new Builder(fetcher, parser);
+    }
+
+    /**
+     * Crawls from an index page without a time limit.
+     *
+     * @param startUrl the index page
+     * @return the discovered schema pages
+     * @throws ApiWeaverException if the index page cannot be fetched
+     */
+    public CrawlResult crawl(String startUrl) throws ApiWeaverException {
+        return crawl(startUrl, Deadline.none());
+    }
+
+    /**
+     * Crawls from an index page. Pages other than the index page that fail are logged and
+     * skipped. When the deadline passes, the pages found so far are returned.
+     *
+     * @param startUrl the index page
+     * @param deadline when to stop discovering pages
+     * @return the discovered schema pages
+     * @throws ApiWeaverException if the index page cannot be fetched
+     */
+    public CrawlResult crawl(String startUrl, Deadline deadline) throws ApiWeaverException {
+        String start = normalize(startUrl);
+        if (start == null) {
+            throw new ConfigurationException("Invalid crawl start URL: " + startUrl, startUrl);
+        }
+        Pattern scope = pattern != null ? pattern : defaultPattern(start);
+        logger.info("Crawling from {} (links matching {}, depth {}, at most {} pages)", start, scope, maxDepth, maxPages);
+
+        PriorityQueue<Link> frontier = new PriorityQueue<>(
+            Comparator.comparingInt((Link link) -> link.depth).thenComparingLong(link -> link.sequence));
+        Set<String> visited = new HashSet<>();
+        Map<String, Link> schemaLinks = new HashMap<>();
+        Map<String, FetchedPage> schemaPages = new HashMap<>();
+        List<String> failed = new ArrayList<>();
+        long sequence = 0;
+        int submitted = 0;
+        int inFlight = 0;
+        int skipped = 0;
+        boolean truncated = false;
+
+        visited.add(start);
+        frontier.add(new Link(start, 0, sequence++));
+        ExecutorService executor = PageExecutors.newPageExecutor(concurrency);
+        CompletionService<Visit> completion = new ExecutorCompletionService<>(executor);
+        try {
+            while (true) {
+                while (inFlight < concurrency && !frontier.isEmpty() && submitted < maxPages && !deadline.isExpired()) {
+                    Link link = frontier.poll();
+                    if (link.depth > 0 && skip.test(link.url)) {
+                        schemaLinks.put(link.url, link);
+                        skipped++;
+                        continue;
+                    }
+                    completion.submit(() -> visit(link));
+                    inFlight++;
+                    submitted++;
+                }
+                if (inFlight == 0) {
+                    truncated = !frontier.isEmpty();
+                    break;
+                }
+
+                Future<Visit> done = deadline.isBounded()
+                    ? completion.poll(deadline.remainingNanos(), TimeUnit.NANOSECONDS)
+                    : completion.take();
+                if (done == null) {
+                    logger.warn("Deadline passed while crawling, {} pages still in flight are skipped", inFlight);
+                    truncated = true;
+                    break;
+                }
+                inFlight--;
+                Visit visit = result(done);
+                metrics.increment(RunMetrics.CRAWL_PAGES);
+
+                if (visit.error != null) {
+                    if (visit.link.depth == 0) {
+                        throw visit.error;
+                    }
+                    logger.warn("Skipping {}: {}", visit.link.url, visit.error.getMessage());
+                    metrics.increment(RunMetrics.CRAWL_FAILURES);
+                    failed.add(visit.link.url);
+                    continue;
+                }
+                if (visit.schemaPage) {
+                    schemaLinks.put(visit.link.url, visit.link);
+                    schemaPages.put(visit.link.url, visit.page);
+                }
+                if (visit.link.depth < maxDepth) {
+                    for (String url : visit.links) {
+                        if (scope.matcher(url).find() && visited.add(url)) {
+                            frontier.add(new Link(url, visit.link.depth + 1, sequence++));
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiWeaverException("Crawl was interrupted", start, e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Completion order varies between runs; order by depth and URL so the output does not depend on fetch timing
+        List<String> schemaUrls = new ArrayList<>(schemaLinks.keySet());
+        schemaUrls.sort(Comparator.comparingInt((String url) -> schemaLinks.get(url).depth).thenComparing(url -> url));
+        metrics.add(RunMetrics.CRAWL_SCHEMA_PAGES, schemaUrls.size());
+        if (truncated) {
+            logger.warn("Crawl stopped at the page limit or deadline after {} pages", submitted);
+        }
+        logger.info("Crawl visited {} pages and found {} schema pages, {} of them skipped", submitted, schemaUrls.size(), skipped);
+        return new CrawlResult(schemaUrls, schemaPages, submitted, failed, truncated);
+    }
+
+    /**
+     * Fetches and parses one page. Runs on a page thread.
+     */
+    private Visit visit(Link link) {
+        try {
+            FetchedPage page = fetcher.fetchPage(link.url, null, null);
+            Document doc = parser.parseHtml(page.getContent());
+            boolean schemaPage = !parser.findH2ElementsWithIdEndingIn(doc, PageProcessor.OBJECT_VALUES_SUFFIX).isEmpty();
+            Set<String> links = new LinkedHashSet<>();
+            if (link.depth < maxDepth) {
+                for (Element anchor : doc.select("a[href]")) {
+                    String url = resolve(link.url, anchor.attr("href"));
+                    if (url != null) {
+                        links.add(url);
+                    }
+                }
+            }
+            return new Visit(link, schemaPage ? page : null, schemaPage, links, null);
+        } catch (ApiWeaverException e) {
+            return new Visit(link, null, false, Set.of(), e);
+        } catch (RuntimeException e) {
+            return new Visit(link, null, false, Set.of(),
+                new ParseException("Failed to parse crawled page: " + e.getMessage(), link.url, e));
+        }
+    }
+
+    private static Visit result(Future<Visit> done) throws ApiWeaverException {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            throw new ApiWeaverException("Crawl task failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiWeaverException("Crawl was interrupted", e);
+        }
+    }
+
+    /**
+     * Resolves a link against the page it appears on, keeping only http(s) URLs without their fragment.
+     *
+     * @param base the page URL
+     * @param href the link target
+     * @return the absolute URL, or null if the link does not point to a web page
+     */
+    static String resolve(String base, String href) {
+        String target = href.trim();
+        if (target.isEmpty() || target.startsWith("#")) {
+            return null;
+        }
+        try {
+            return normalize(new URI(base).resolve(target).toString());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Normalizes a URL for the visited set: http(s) only, fragment removed, host lower-cased.
+     *
+     * @param url the URL
+     * @return the normalized URL, or null if it is not an http(s) URL
+     */
+    static String normalize(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : null;
+            if (!"http".equals(scheme) && !"https".equals(scheme) || uri.getHost() == null) {
+                return null;
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            return new URI(scheme, uri.getRawAuthority().toLowerCase(), null, null, null).toString()
+                + path + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Keeps the crawl on the start page's host and below its directory.
+     *
+     * @param start the normalized start URL
+     * @return the default link pattern
+     */
+    static Pattern defaultPattern(String start) {
+        String prefix = start.contains("?") ? start.substring(0, start.indexOf('?')) : start;
+        prefix = prefix.substring(0, prefix.lastIndexOf('/') + 1);
+        return Pattern.compile("^" + Pattern.quote(prefix));
+    }
+
+    /**
+     * A URL waiting in the frontier.
+     */
+    private static final class Link {
+        private final String url;
+        private final int depth;
+        private final long sequence;
+
+        private Link(String url, int depth, long sequence) {
+            this.url = url;
+            this.depth = depth;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * What a page task found.
+     */
+    private static final class Visit {
+        private final Link link;
+        private final FetchedPage page;
+        private final boolean schemaPage;
+        private final Set<String> links;
+        private final ApiWeaverException error;
+
+        private Visit(Link link, FetchedPage page, boolean schemaPage, Set<String> links, ApiWeaverException error) {
+            this.link = link;
+            this.page = page;
+            this.schemaPage = schemaPage;
+            this.links = links;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Builder for {@link DocumentationCrawler}.
+     */
+    public static class Builder {
+        private final UrlFetcher fetcher;
+        private final HtmlParser parser;
+        private Pattern pattern;
+        private int maxDepth = DEFAULT_MAX_DEPTH;
+        private int maxPages = DEFAULT_MAX_PAGES;
+        private int concurrency = 1;
+        private Predicate<String> skip;
+        private RunMetrics metrics;
+
+        private Builder(UrlFetcher fetcher, HtmlParser parser) {
+            this.fetcher = fetcher;
+            this.parser = parser;
+        }
+
+        /**
+         * Sets the pattern links must match (anywhere in the URL) to be followed.
+         * Without one, the crawl stays on the start page's host and below its directory.
+         */
+        public Builder pattern(Pattern pattern) {
+            this.pattern = pattern;
+            return this;
+        }
+
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        public Builder maxPages(int maxPages) {
+            this.maxPages = maxPages;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Sets which linked pages are known schema pages that need no fetch. A skipped page
+         * is a schema page of the result without content, so it is not served by
+         * {@link CrawlResult#fetcher(UrlFetcher)}. The index page is always fetched.
+         */
+        public Builder skip(Predicate<String> skip) {
+            this.skip = skip;
+            return this;
+        }
+
+        public Builder metrics(RunMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public DocumentationCrawler build() {
+            return new DocumentationCrawler(this);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.apiweaver;
+
+import java.util.Objects;
+
+/**
+ * Represents the response to a (possibly conditional) page fetch.
+ * Carries the HTML content together with the HTTP validators needed for later
+ * conditional requests. A not-modified response has no content.
+ */
+public class FetchedPage {
+    private final String url;
+    private final String content;
+    private final String etag;
+    private final String lastModified;
+    private final boolean notModified;
+
+    private FetchedPage(String url, String content, String etag, String lastModified, boolean notModified) {
+        this.url = Objects.requireNonNull(url, "URL cannot be null");
+        this.content = content;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.notModified = notModified;
+    }
+
+    /**
+     * Creates a page fetched with a full response body.
+     *
+     * @param url the URL the page was fetched from
+     * @param content the HTML content
+     * @param etag the ETag response header, or null
+     * @param lastModified the Last-Modified response header, or null
+     * @return the fetched page
+     */
+    public static FetchedPage of(String url, String content, String etag, String lastModified) {
+        return new FetchedPage(url, Objects.requireNonNull(content, "Content cannot be null"), etag, lastModified, false);
+    }
+
+    /**
+     * Creates a page fetched without validators.
+     *
+     * @param url the URL the page was fetched from
+     * @param content the HTML content
+     * @return the fetched page
+     */
+    public static FetchedPage of(String url, String content) {
+        return of(url, content, null, null);
+    }
+
+    /**
+     * Creates a response indicating the page has not changed since the given validators were issued.
+     *
+     * @param url the URL that was requested
+     * @param etag the current ETag, or null
+     * @param lastModified the current Last-Modified value, or null
+     * @return the not-modified page
+     */
+    public static FetchedPage notModified(String url, String etag, String lastModified) {
+        return new FetchedPage(url, null, etag, lastModified, true);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FetchedPage that = (FetchedPage) o;
+        return notModified == that.notModified &&
+               Objects.equals(url, that.url) &&
+               Objects.equals(content, that.content) &&
+               Objects.equals(etag, that.etag) &&
+               Objects.equals(lastModified, that.lastModified);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(url, content, etag, lastModified, notModified);
+    }
+
+    @Override
+    public String toString() {
+        return "FetchedPage{" +
+               "url='" + url + '\'' +
+               ", contentLength=" + (content != null ? content.length() : 0) +
+               ", etag='" + etag + '\'' +
+               ", lastModified='" + lastModified + '\'' +
+               ", notModified=" + notModified +
+               '}';
+    }
+}
@@ -0,0 +1,74 @@
+package com.apiweaver;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process Java Flight Recorder recording that is dumped to a file when closed.
+ * Uses the JDK's "default" settings, so ApiWeaver's {@link PipelineEvents} can be lined up
+ * with GC, allocation and thread events without starting the JVM with an agent or flags.
+ */
+public class FlightRecording implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecording.class);
+
+    private final Recording recording;
+    private final Path destination;
+
+    private FlightRecording(Recording recording, Path destination) {
+        this.recording = recording;
+        this.destination = destination;
+    }
+
+    /**
+     * Starts a recording with the JDK's default settings and all ApiWeaver events enabled.
+     *
+     * @param destination the file the recording is dumped to when closed
+     * @return the running recording
+     * @throws ConfigurationException if the recording cannot be started
+     */
+    public static FlightRecording start(Path destination) throws ConfigurationException {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("ApiWeaver");
+            for (Class<?> eventClass : PipelineEvents.class.getClasses()) {
+                recording.enable(eventClass.asSubclass(Event.class)).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            logger.info("Started flight recording, dumping to {} at exit", destination);
+            return new FlightRecording(recording, destination);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            throw new ConfigurationException("Failed to start flight recording: " + e.getMessage(), destination.toString(), e);
+        }
+    }
+
+    public Path getDestination() {
+        return destination;
+    }
+
+    /**
+     * Stops the recording and writes it to the destination file.
+     *
+     * @throws IOException if the recording cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            recording.stop();
+            recording.dump(destination);
+            logger.info("Wrote flight recording to {}", destination);
+        } finally {
+            recording.close();
+        }
+    }
+}
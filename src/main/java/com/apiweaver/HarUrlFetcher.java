@@ -0,0 +1,246 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Base64;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves pages from a HAR file exported from a browser's developer tools.
+ * The HAR is read once with a streaming parser that records where each response's
+ * {@code content.text} string sits in the file instead of keeping the text; a fetch parses
+ * just that string back out of the mapping. Base64-encoded content is decoded with the
+ * charset of the recorded MIME type.
+ */
+class HarUrlFetcher extends ArchiveUrlFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HarUrlFetcher.class);
+
+    private static final int TEXT = 0;
+    private static final int BASE64 = 1;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    HarUrlFetcher(java.nio.file.Path path, RunMetrics metrics) throws ConfigurationException {
+        super(path, metrics);
+    }
+
+    @Override
+    void buildIndex() throws ConfigurationException {
+        try (JsonParser parser = JSON.createParser(stream(mapping()))) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (!"log".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String logField = parser.currentName();
+                    parser.nextToken();
+                    if ("entries".equals(logField)) {
+                        readEntries(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("Malformed HAR file: " + e.getMessage(), getPath().toString(), e);
+        }
+    }
+
+    private void readEntries(JsonParser parser) throws IOException, ConfigurationException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            HarEntry harEntry = new HarEntry();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("request".equals(field)) {
+                    readRequest(parser, harEntry);
+                } else if ("response".equals(field)) {
+                    readResponse(parser, harEntry);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            harEntry.index(this);
+        }
+    }
+
+    private static void readRequest(JsonParser parser, HarEntry harEntry) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("url".equals(field)) {
+                harEntry.url = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readResponse(JsonParser parser, HarEntry harEntry) throws IOException, ConfigurationException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("status".equals(field)) {
+                harEntry.status = parser.getValueAsInt(0);
+            } else if ("redirectURL".equals(field)) {
+                harEntry.redirectUrl = parser.getValueAsString();
+            } else if ("headers".equals(field) && value == JsonToken.START_ARRAY) {
+                readHeaders(parser, harEntry);
+            } else if ("content".equals(field) && value == JsonToken.START_OBJECT) {
+                readContent(parser, harEntry);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readHeaders(JsonParser parser, HarEntry harEntry) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            String value = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("name".equals(field)) {
+                    name = parser.getValueAsString();
+                } else if ("value".equals(field)) {
+                    value = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (name != null) {
+                harEntry.header(name.toLowerCase(Locale.ROOT), value);
+            }
+        }
+    }
+
+    private void readContent(JsonParser parser, HarEntry harEntry) throws IOException, ConfigurationException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("mimeType".equals(field)) {
+                harEntry.mimeType = parser.getValueAsString();
+            } else if ("encoding".equals(field)) {
+                harEntry.base64 = "base64".equalsIgnoreCase(parser.getValueAsString());
+            } else if ("text".equals(field) && value == JsonToken.VALUE_STRING) {
+                // Remember where the string literal is; the parser skips its contents on the next token
+                harEntry.textOffset = parser.currentTokenLocation().getByteOffset();
+                harEntry.textLength = literalLength(harEntry.textOffset);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Measures the JSON string literal starting at an offset, quotes included.
+     */
+    private int literalLength(long offset) throws ConfigurationException {
+        ByteBuffer buffer = mapping();
+        int start = (int) offset;
+        if (start < 0 || start >= buffer.limit() || buffer.get(start) != '"') {
+            throw new ConfigurationException("Malformed HAR content text at offset " + offset, getPath().toString());
+        }
+        for (int i = start + 1; i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                return i - start + 1;
+            }
+        }
+        throw new ConfigurationException("Unterminated HAR content text at offset " + offset, getPath().toString());
+    }
+
+    @Override
+    String content(Entry entry, ByteBuffer body) throws IOException {
+        if (entry.length == 0) {
+            return "";
+        }
+        String text;
+        try (JsonParser parser = JSON.createParser(stream(body))) {
+            parser.nextToken();
+            text = parser.getText();
+        }
+        if (entry.encoding == BASE64) {
+            return new String(Base64.getMimeDecoder().decode(text), entry.charset);
+        }
+        return text;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("expected " + expected + " but found " + actual + " at " + parser.currentLocation());
+        }
+    }
+
+    /**
+     * The parts of one HAR entry collected while streaming through it.
+     */
+    private static final class HarEntry {
+        private String url;
+        private int status;
+        private String redirectUrl;
+        private String mimeType;
+        private String contentType;
+        private String etag;
+        private String lastModified;
+        private String location;
+        private boolean base64;
+        private long textOffset = -1;
+        private int textLength;
+
+        private void header(String name, String value) {
+            switch (name) {
+                case "content-type":
+                    contentType = value;
+                    break;
+                case "etag":
+                    etag = value;
+                    break;
+                case "last-modified":
+                    lastModified = value;
+                    break;
+                case "location":
+                    location = value;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void index(HarUrlFetcher fetcher) {
+            if (url == null || status == 0) {
+                logger.debug("Skipping HAR entry without a URL or response status");
+                return;
+            }
+            boolean redirect = status >= 300 && status < 400;
+            String target = redirectUrl != null && !redirectUrl.isEmpty() ? redirectUrl : location;
+            Charset charset = charsetOf(mimeType != null ? mimeType : contentType);
+            fetcher.put(url, Entry.builder(Math.max(0, textOffset), textOffset >= 0 ? textLength : 0)
+                .status(status)
+                .encoding(base64 ? BASE64 : TEXT)
+                .charset(charset)
+                .etag(etag)
+                .lastModified(lastModified)
+                .location(redirect ? target : null)
+                .build());
+        }
+    }
+}
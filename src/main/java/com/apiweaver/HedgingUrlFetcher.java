@@ -0,0 +1,291 @@
+package com.apiweaver;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * UrlFetcher decorator that hedges slow requests. When a fetch has not completed within the
+ * p95 of the host's recent fetch latencies, a second request is sent, to the mirror if one
+ * is configured and otherwise to the same URL, and whichever succeeds first is returned. The
+ * other request is cancelled. With a mirror, a fetch that fails outright is also retried
+ * against the mirror once. Hedges are capped at {@link #MAX_HEDGE_FRACTION} of all fetches, so
+ * a host that slows down across the board does not receive twice the traffic.
+ * <p>
+ * Latencies are kept per host actually requested, so mirror responses do not count towards
+ * the original host's p95. Every attempt is recorded, including failures, timeouts and
+ * cancelled losers. A cancelled attempt counts with the time it ran until it was cancelled,
+ * but at least the hedge delay, since it was no faster than that; a timed-out one counts with
+ * at most the delegate's timeout. The p95 is therefore not skewed towards the requests that
+ * happened to succeed.
+ * <p>
+ * Requests run on {@link PageExecutors#newRequestExecutor()}. On virtual threads cancelling
+ * the loser closes its socket at once; on platform threads it stops at the next line read or
+ * when its read timeout fires.
+ */
+public class HedgingUrlFetcher implements UrlFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgingUrlFetcher.class);
+
+    static final double HEDGE_PERCENTILE = 95.0;
+    static final double MAX_HEDGE_FRACTION = 0.1;
+    static final int MIN_SAMPLES = 20;
+    static final int WINDOW_SIZE = 256;
+
+    private final UrlFetcher delegate;
+    private final String mirrorBase;
+    private final RunMetrics metrics;
+    private final ExecutorService executor;
+    private final Map<String, LatencyWindow> latencies;
+    private final AtomicLong fetches;
+    private final AtomicLong hedges;
+    private final AtomicLong hedgeWins;
+
+    /**
+     * Creates a hedging fetcher that sends hedged requests to the same URL.
+     *
+     * @param delegate the fetcher that performs each request
+     */
+    public HedgingUrlFetcher(UrlFetcher delegate) {
+        this(delegate, null, RunMetrics.disabled());
+    }
+
+    /**
+     * Creates a hedging fetcher.
+     *
+     * @param delegate the fetcher that performs each request
+     * @param mirrorBase the scheme and host of a mirror, for example {@code https://mirror.example.com},
+     *                   whose paths match the original host, or null to hedge to the same URL
+     * @param metrics the metrics collector for hedge counters
+     */
+    public HedgingUrlFetcher(UrlFetcher delegate, String mirrorBase, RunMetrics metrics) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate cannot be null");
+        }
+        this.delegate = delegate;
+        this.mirrorBase = mirrorBase != null && !mirrorBase.trim().isEmpty() ? stripTrailingSlash(mirrorBase.trim()) : null;
+        this.metrics = metrics != null ? metrics : RunMetrics.disabled();
+        this.executor = PageExecutors.newRequestExecutor();
+        this.latencies = new ConcurrentHashMap<>();
+        this.fetches = new AtomicLong();
+        this.hedges = new AtomicLong();
+        this.hedgeWins = new AtomicLong();
+    }
+
+    @Override
+    public String fetchHtmlContent(String url) throws FetchException {
+        return fetchPage(url, null, null).getContent();
+    }
+
+    @Override
+    public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+        fetches.incrementAndGet();
+        metrics.increment(RunMetrics.FETCH_HEDGE_CANDIDATES);
+        String host = HostConcurrencyLimiter.hostOf(url);
+        String hedgeUrl = mirrorBase != null ? mirrorUrl(url) : url;
+        long hedgeDelayNanos = hedgeDelayNanos(host);
+
+        CompletionService<FetchedPage> completion = new ExecutorCompletionService<>(executor);
+        List<Future<FetchedPage>> attempts = new ArrayList<>(2);
+        Attempts context = new Attempts(completion, hedgeDelayNanos);
+        Future<FetchedPage> primary = submit(context, attempts, url, etag, lastModified);
+        int pending = 1;
+        boolean secondSent = false;
+        try {
+            Future<FetchedPage> done = hedgeDelayNanos >= 0
+                ? completion.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS)
+                : completion.take();
+            if (done == null) {
+                if (reserveHedge()) {
+                    logger.debug("No response from {} after {}ms, hedging to {}",
+                        url, TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos), hedgeUrl);
+                    submit(context, attempts, hedgeUrl, etag, lastModified);
+                    pending++;
+                    secondSent = true;
+                }
+                done = completion.take();
+            }
+
+            FetchException failure;
+            try {
+                return outcome(done, done != primary, url);
+            } catch (FetchException e) {
+                failure = e;
+            } finally {
+                pending--;
+            }
+
+            if (!secondSent && mirrorBase != null) {
+                logger.warn("Fetch of {} failed, retrying against mirror {}: {}", url, hedgeUrl, failure.getMessage());
+                metrics.increment(RunMetrics.FETCH_FAILOVERS);
+                submit(context, attempts, hedgeUrl, etag, lastModified);
+                pending++;
+            }
+            while (pending > 0) {
+                Future<FetchedPage> next = completion.take();
+                pending--;
+                try {
+                    return outcome(next, next != primary, url);
+                } catch (FetchException e) {
+                    logger.debug("Second request for {} failed as well: {}", url, e.getMessage());
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetchException("Interrupted while fetching " + url, url, e);
+        } finally {
+            context.settled.set(true);
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Gets the fraction of fetches that sent a hedged request.
+     *
+     * @return the hedge rate, between 0 and {@link #MAX_HEDGE_FRACTION} plus one fetch
+     */
+    public double getHedgeRate() {
+        long total = fetches.get();
+        return total == 0 ? 0.0 : (double) hedges.get() / total;
+    }
+
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWins.get();
+    }
+
+    /**
+     * Gets the time to wait for a response before hedging.
+     *
+     * @return the delay in nanoseconds, or -1 while the host has too few samples to know its p95
+     */
+    long hedgeDelayNanos(String host) {
+        LatencyWindow window = latencies.get(host);
+        return window != null && window.size() >= MIN_SAMPLES ? window.percentile(HEDGE_PERCENTILE) : -1;
+    }
+
+    /**
+     * Maps a URL to the same path and query on the mirror.
+     */
+    String mirrorUrl(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+            String query = uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "";
+            return mirrorBase + path + query;
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Takes one hedge from the budget; the check and the increment are one atomic step,
+     * so concurrent fetches cannot overshoot it.
+     */
+    private boolean reserveHedge() {
+        while (true) {
+            long current = hedges.get();
+            if (current + 1 > Math.max(1, fetches.get() * MAX_HEDGE_FRACTION)) {
+                logger.debug("Hedge budget of {}% spent, not hedging", (int) (MAX_HEDGE_FRACTION * 100));
+                return false;
+            }
+            if (hedges.compareAndSet(current, current + 1)) {
+                metrics.increment(RunMetrics.FETCH_HEDGES);
+                return true;
+            }
+        }
+    }
+
+    private Future<FetchedPage> submit(Attempts context, List<Future<FetchedPage>> attempts,
+                                       String url, String etag, String lastModified) {
+        String host = HostConcurrencyLimiter.hostOf(url);
+        Callable<FetchedPage> attempt = () -> {
+            long start = System.nanoTime();
+            try {
+                return delegate.fetchPage(url, etag, lastModified);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (context.settled.get()) {
+                    // Cancelled as the loser: the time until cancellation understates its latency
+                    elapsed = Math.max(elapsed, context.hedgeDelayNanos);
+                }
+                latencies.computeIfAbsent(host, k -> new LatencyWindow(WINDOW_SIZE)).record(elapsed);
+            }
+        };
+        Future<FetchedPage> future = context.completion.submit(attempt);
+        attempts.add(future);
+        return future;
+    }
+
+    /**
+     * Gets the page of a completed attempt, under the original URL even if the mirror answered.
+     */
+    private FetchedPage outcome(Future<FetchedPage> attempt, boolean second, String url) throws FetchException {
+        try {
+            FetchedPage page = attempt.get();
+            if (second) {
+                hedgeWins.incrementAndGet();
+                metrics.increment(RunMetrics.FETCH_HEDGE_WINS);
+            }
+            if (url.equals(page.getUrl())) {
+                return page;
+            }
+            return page.isNotModified()
+                ? FetchedPage.notModified(url, page.getEtag(), page.getLastModified())
+                : FetchedPage.of(url, page.getContent(), page.getEtag(), page.getLastModified());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof FetchException) {
+                throw (FetchException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FetchException("Failed to fetch content from URL: " + url + " - " + cause.getMessage(), url, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetchException("Interrupted while fetching " + url, url, e);
+        }
+    }
+
+    private static String stripTrailingSlash(String base) {
+        return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+
+    /**
+     * The requests of one fetch. Once the fetch has its outcome it is settled, and requests
+     * still running are losers about to be cancelled.
+     */
+    private static final class Attempts {
+        private final CompletionService<FetchedPage> completion;
+        private final long hedgeDelayNanos;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Attempts(CompletionService<FetchedPage> completion, long hedgeDelayNanos) {
+            this.completion = completion;
+            this.hedgeDelayNanos = hedgeDelayNanos;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.apiweaver;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the number of in-flight requests per host with additive-increase/multiplicative-decrease.
+ * Each host starts at the initial limit. A request that succeeds at close to the host's normal
+ * latency raises the limit by {@code 1/limit}, about one more slot per round of requests, up to
+ * the maximum. A failed request halves the limit and a request slower than
+ * {@link #LATENCY_TOLERANCE} times the host's baseline latency cuts it by a quarter. Only
+ * one decrease applies per round: requests started before the last decrease do not decrease
+ * the limit again, so a burst of failures from one overload episode backs off once.
+ */
+public class HostConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HostConcurrencyLimiter.class);
+
+    static final int DEFAULT_INITIAL_LIMIT = 4;
+    static final double FAILURE_BACKOFF = 0.5;
+    static final double LATENCY_BACKOFF = 0.75;
+    static final double LATENCY_TOLERANCE = 3.0;
+    static final double BASELINE_PERCENTILE = 10.0;
+    static final int MIN_SAMPLES = 10;
+    static final int WINDOW_SIZE = 100;
+
+    private final int initialLimit;
+    private final int maxLimit;
+    private final RunMetrics metrics;
+    private final Map<String, HostLimit> hosts;
+
+    /**
+     * Creates a limiter that starts every host at {@link #DEFAULT_INITIAL_LIMIT} in-flight requests.
+     *
+     * @param maxLimit the highest limit any host can reach
+     */
+    public HostConcurrencyLimiter(int maxLimit) {
+        this(Math.min(DEFAULT_INITIAL_LIMIT, maxLimit), maxLimit, RunMetrics.disabled());
+    }
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit the limit of a host that has not answered any request yet
+     * @param maxLimit the highest limit any host can reach
+     * @param metrics the metrics collector for limiter waits and decreases
+     */
+    public HostConcurrencyLimiter(int initialLimit, int maxLimit, RunMetrics metrics) {
+        if (initialLimit < 1 || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= initial <= max: " + initialLimit + ", " + maxLimit);
+        }
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.metrics = metrics != null ? metrics : RunMetrics.disabled();
+        this.hosts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the key requests are limited by: the lower-case host and the port, if the URL has one.
+     *
+     * @param url the request URL
+     * @return the host key, or the URL itself if it cannot be parsed
+     */
+    public static String hostOf(String url) {
+        if (url == null) {
+            return "";
+        }
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getHost() == null) {
+                return url;
+            }
+            String host = uri.getHost().toLowerCase(Locale.ROOT);
+            return uri.getPort() >= 0 ? host + ":" + uri.getPort() : host;
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Waits until the host has a free slot and takes it. The returned permit must be
+     * completed with {@link Permit#onSuccess()} or {@link Permit#onFailure()}.
+     *
+     * @param host the host key
+     * @return the permit for one request
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public Permit acquire(String host) throws InterruptedException {
+        HostLimit limit = hosts.computeIfAbsent(host, k -> new HostLimit(k, initialLimit));
+        long waitStart = System.nanoTime();
+        long generation = limit.acquire();
+        metrics.recordSince(RunMetrics.FETCH_LIMIT_WAIT, waitStart);
+        return new Permit(limit, generation);
+    }
+
+    /**
+     * Gets the current limit of a host.
+     *
+     * @param host the host key
+     * @return the number of requests the host may have in flight
+     */
+    public int getLimit(String host) {
+        HostLimit limit = hosts.get(host);
+        return limit != null ? limit.currentLimit() : initialLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * One request slot of a host. Completing it releases the slot and adjusts the host's limit.
+     */
+    public final class Permit {
+        private final HostLimit limit;
+        private final long generation;
+        private final long startNanos;
+        private boolean completed;
+
+        private Permit(HostLimit limit, long generation) {
+            this.limit = limit;
+            this.generation = generation;
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Releases the slot after a successful request, using the time since the permit was taken.
+         */
+        public void onSuccess() {
+            complete(true, System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Releases the slot after a failed or timed-out request.
+         */
+        public void onFailure() {
+            complete(false, System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Releases the slot of a cancelled request, such as a hedged request that lost the
+         * race, without adjusting the limit: its outcome says nothing about the host.
+         */
+        public void onCancelled() {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            limit.releaseCancelled();
+        }
+
+        void complete(boolean success, long latencyNanos) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            if (limit.release(success, latencyNanos, generation)) {
+                metrics.increment(RunMetrics.FETCH_LIMIT_DECREASES);
+            }
+        }
+    }
+
+    /**
+     * AIMD state of one host, guarded by its own lock. Waiting uses a {@link Condition}
+     * rather than {@code Object.wait}, which would pin a virtual thread to its carrier while
+     * it waits for a slot.
+     */
+    private final class HostLimit {
+        private final String host;
+        private final LatencyWindow latencies;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition slotFreed = lock.newCondition();
+        private double limit;
+        private int inFlight;
+        private long generation;
+
+        HostLimit(String host, int initialLimit) {
+            this.host = host;
+            this.latencies = new LatencyWindow(WINDOW_SIZE);
+            this.limit = initialLimit;
+        }
+
+        long acquire() throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (inFlight >= (int) limit) {
+                    try {
+                        slotFreed.await();
+                    } catch (InterruptedException e) {
+                        // Pass on a wake-up this thread may have taken so the free slot is not lost
+                        if (inFlight < (int) limit) {
+                            slotFreed.signal();
+                        }
+                        throw e;
+                    }
+                }
+                inFlight++;
+                return generation;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int currentLimit() {
+            lock.lock();
+            try {
+                return (int) limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Releases a slot and applies the outcome to the limit.
+         *
+         * @return true if the limit was decreased
+         */
+        boolean release(boolean success, long latencyNanos, long requestGeneration) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (!success) {
+                    return decrease(FAILURE_BACKOFF, requestGeneration, "failed request");
+                }
+                long baseline = latencies.size() >= MIN_SAMPLES ? latencies.percentile(BASELINE_PERCENTILE) : 0;
+                latencies.record(latencyNanos);
+                if (baseline > 0 && latencyNanos > baseline * LATENCY_TOLERANCE) {
+                    return decrease(LATENCY_BACKOFF, requestGeneration, "slow response");
+                }
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+                return false;
+            } finally {
+                signalFreeSlots();
+                lock.unlock();
+            }
+        }
+
+        void releaseCancelled() {
+            lock.lock();
+            try {
+                inFlight--;
+            } finally {
+                signalFreeSlots();
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Wakes one waiter per free slot rather than every waiting page task. Called with the lock held.
+         */
+        private void signalFreeSlots() {
+            for (int free = (int) limit - inFlight; free > 0; free--) {
+                slotFreed.signal();
+            }
+        }
+
+        private boolean decrease(double factor, long requestGeneration, String reason) {
+            if (requestGeneration != generation) {
+                return false;
+            }
+            double previous = limit;
+            limit = Math.max(1.0, limit * factor);
+            generation++;
+            logger.debug("Concurrency limit for {} lowered from {} to {} after a {}",
+                host, (int) previous, (int) limit, reason);
+            return true;
+        }
+    }
+}
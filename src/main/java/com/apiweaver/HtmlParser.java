@@ -18,6 +18,22 @@ public interface HtmlParser {
      */
     Document parseHtml(String htmlContent);
     
+    /**
+     * Parses HTML content, giving up once the deadline has passed. The default implementation
+     * checks the deadline before and after {@link #parseHtml(String)}.
+     * 
+     * @param htmlContent the HTML content to parse
+     * @param deadline the deadline of the page being processed
+     * @return parsed document object
+     * @throws DeadlineExceededException if the deadline passes
+     */
+    default Document parseHtml(String htmlContent, Deadline deadline) throws DeadlineExceededException {
+        deadline.check("parse");
+        Document doc = parseHtml(htmlContent);
+        deadline.check("parse");
+        return doc;
+    }
+    
     /**
      * Finds H2 elements with id attributes ending in the specified suffix.
      * 
@@ -35,4 +51,20 @@ public interface HtmlParser {
      * @return the first table element found, or null if none exists
      */
     Element findFirstTableAfterElement(Document doc, Element element);
+    
+    /**
+     * Finds the first table element that follows the given element, giving up once the
+     * deadline has passed. The default implementation checks the deadline before the lookup.
+     * 
+     * @param doc the parsed document
+     * @param element the element to search after
+     * @param deadline the deadline of the page being processed
+     * @return the first table element found, or null if none exists
+     * @throws DeadlineExceededException if the deadline passes
+     */
+    default Element findFirstTableAfterElement(Document doc, Element element, Deadline deadline)
+            throws DeadlineExceededException {
+        deadline.check("table lookup");
+        return findFirstTableAfterElement(doc, element);
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.apiweaver;
 
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
@@ -14,7 +16,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of UrlFetcher using Java's built-in HttpURLConnection.
- * Provides configurable timeout and user-agent settings for HTTP requests.
+ * Provides configurable timeout and user-agent settings for HTTP requests. With an adaptive
+ * {@link AdaptiveTimeout}, the connect and read timeout of each request follows the recent
+ * latency of its host, and the configured timeout is only the upper bound.
  */
 public class HttpUrlFetcher implements UrlFetcher {
     
@@ -22,6 +26,8 @@ public class HttpUrlFetcher implements UrlFetcher {
     
     private final int timeoutMs;
     private final String userAgent;
+    private final RunMetrics metrics;
+    private final AdaptiveTimeout timeout;
     
     /**
      * Creates a new HttpUrlFetcher with default settings.
@@ -38,6 +44,30 @@ public class HttpUrlFetcher implements UrlFetcher {
      * @param userAgent the user-agent string to send with requests
      */
     public HttpUrlFetcher(int timeoutMs, String userAgent) {
+        this(timeoutMs, userAgent, RunMetrics.disabled());
+    }
+    
+    /**
+     * Creates a new HttpUrlFetcher that records connect, time-to-first-byte and download
+     * latencies and the number of bytes received.
+     * 
+     * @param timeoutMs the timeout in milliseconds for HTTP requests
+     * @param userAgent the user-agent string to send with requests
+     * @param metrics the metrics collector
+     */
+    public HttpUrlFetcher(int timeoutMs, String userAgent, RunMetrics metrics) {
+        this(timeoutMs, userAgent, metrics, false);
+    }
+    
+    /**
+     * Creates a new HttpUrlFetcher whose timeout can adapt to the latency of each host.
+     * 
+     * @param timeoutMs the timeout in milliseconds, the upper bound when adaptive
+     * @param userAgent the user-agent string to send with requests
+     * @param metrics the metrics collector
+     * @param adaptiveTimeout true to derive each request's timeout from the host's recent latency
+     */
+    public HttpUrlFetcher(int timeoutMs, String userAgent, RunMetrics metrics, boolean adaptiveTimeout) {
         if (timeoutMs <= 0) {
             logger.error("Invalid timeout value: {}", timeoutMs);
             throw new IllegalArgumentException("Timeout must be positive");
@@ -49,11 +79,29 @@ public class HttpUrlFetcher implements UrlFetcher {
         
         this.timeoutMs = timeoutMs;
         this.userAgent = userAgent;
-        logger.debug("HttpUrlFetcher initialized with timeout: {}ms, user-agent: {}", timeoutMs, userAgent);
+        this.metrics = metrics != null ? metrics : RunMetrics.disabled();
+        this.timeout = adaptiveTimeout ? AdaptiveTimeout.adaptive(timeoutMs) : AdaptiveTimeout.fixed(timeoutMs);
+        logger.debug("HttpUrlFetcher initialized with {} timeout: {}ms, user-agent: {}",
+            adaptiveTimeout ? "adaptive" : "fixed", timeoutMs, userAgent);
     }
     
     @Override
     public String fetchHtmlContent(String url) throws FetchException {
+        return fetchPage(url, null, null).getContent();
+    }
+    
+    /**
+     * Fetches a page with a conditional GET when validators are given.
+     * A 304 response is returned as a not-modified page without content.
+     * 
+     * @param url the URL to fetch content from
+     * @param etag the ETag from a previous fetch, sent as If-None-Match, or null
+     * @param lastModified the Last-Modified value from a previous fetch, sent as If-Modified-Since, or null
+     * @return the fetched or not-modified page with its current validators
+     * @throws FetchException if the URL cannot be fetched or is invalid
+     */
+    @Override
+    public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
         if (url == null || url.trim().isEmpty()) {
             logger.error("Attempted to fetch content with null or empty URL");
             throw new FetchException("URL cannot be null or empty");
@@ -61,6 +109,11 @@ public class HttpUrlFetcher implements UrlFetcher {
         
         logger.info("Fetching HTML content from URL: {}", url);
         
+        PipelineEvents.FetchEvent event = new PipelineEvents.FetchEvent();
+        event.url = url;
+        event.begin();
+        String host = HostConcurrencyLimiter.hostOf(url);
+        int requestTimeoutMs = timeout.timeoutMs(host);
         try {
             URL urlObj = new URL(url.trim());
             
@@ -77,16 +130,43 @@ public class HttpUrlFetcher implements UrlFetcher {
             
             // Configure connection
             connection.setRequestMethod("GET");
-            connection.setConnectTimeout(timeoutMs);
-            connection.setReadTimeout(timeoutMs);
+            connection.setConnectTimeout(requestTimeoutMs);
+            connection.setReadTimeout(requestTimeoutMs);
             connection.setRequestProperty("User-Agent", userAgent);
             connection.setRequestProperty("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
             connection.setInstanceFollowRedirects(true);
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", lastModified);
+            }
+            
+            metrics.increment(RunMetrics.FETCH_REQUESTS);
+            long connectStart = System.nanoTime();
+            connection.connect();
+            metrics.recordSince(RunMetrics.FETCH_CONNECT, connectStart);
             
             // Check response code
+            long requestStart = System.nanoTime();
             int responseCode = connection.getResponseCode();
+            metrics.recordSince(RunMetrics.FETCH_TTFB, requestStart);
+            timeout.record(host, System.nanoTime() - connectStart);
+            event.statusCode = responseCode;
             logger.debug("HTTP response code: {} for URL: {}", responseCode, url);
             
+            String responseEtag = connection.getHeaderField("ETag");
+            String responseLastModified = connection.getHeaderField("Last-Modified");
+            
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && (etag != null || lastModified != null)) {
+                logger.info("Content not modified since previous fetch for URL: {}", url);
+                metrics.increment(RunMetrics.FETCH_NOT_MODIFIED);
+                event.notModified = true;
+                return FetchedPage.notModified(url,
+                    responseEtag != null ? responseEtag : etag,
+                    responseLastModified != null ? responseLastModified : lastModified);
+            }
+            
             if (responseCode < 200 || responseCode >= 300) {
                 String errorMsg = String.format("HTTP request failed with status %d: %s", 
                     responseCode, connection.getResponseMessage());
@@ -95,30 +175,42 @@ public class HttpUrlFetcher implements UrlFetcher {
             }
             
             // Read response
+            long downloadStart = System.nanoTime();
             StringBuilder content = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            CountingInputStream body = new CountingInputStream(connection.getInputStream());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
                 
                 String line;
                 while ((line = reader.readLine()) != null) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        // A hedged request that lost the race: stop downloading
+                        throw new FetchException("Fetch cancelled for URL: " + url, url);
+                    }
                     content.append(line).append("\n");
                 }
             }
+            metrics.recordSince(RunMetrics.FETCH_DOWNLOAD, downloadStart);
+            metrics.add(RunMetrics.FETCH_BYTES, body.getCount());
+            event.bytes = body.getCount();
             
             String result = content.toString();
             logger.info("Successfully fetched {} characters from URL: {}", result.length(), url);
             logger.debug("Content preview: {}", result.length() > 100 ? result.substring(0, 100) + "..." : result);
-            return result;
+            return FetchedPage.of(url, result, responseEtag, responseLastModified);
             
         } catch (MalformedURLException e) {
             logger.error("Invalid URL format: {} - {}", url, e.getMessage());
             throw new FetchException("Invalid URL format: " + url, e);
         } catch (SocketTimeoutException e) {
-            logger.error("Request timed out after {}ms for URL: {} - {}", timeoutMs, url, e.getMessage());
-            throw new FetchException("Request timed out after " + timeoutMs + "ms for URL: " + url, e);
+            metrics.increment(RunMetrics.FETCH_TIMEOUTS);
+            timeout.recordTimeout(host, requestTimeoutMs);
+            logger.error("Request timed out after {}ms for URL: {} - {}", requestTimeoutMs, url, e.getMessage());
+            throw new FetchException("Request timed out after " + requestTimeoutMs + "ms for URL: " + url, e);
         } catch (IOException e) {
             logger.error("IO error while fetching content from URL: {} - {}", url, e.getMessage());
             throw new FetchException("Failed to fetch content from URL: " + url + " - " + e.getMessage(), e);
+        } finally {
+            event.commit();
         }
     }
     
@@ -131,6 +223,20 @@ public class HttpUrlFetcher implements UrlFetcher {
         return timeoutMs;
     }
     
+    /**
+     * Gets the timeout the next request to a URL's host would use.
+     * 
+     * @param url the URL
+     * @return the timeout in milliseconds
+     */
+    public int getTimeoutMs(String url) {
+        return timeout.timeoutMs(HostConcurrencyLimiter.hostOf(url));
+    }
+    
+    public boolean isAdaptiveTimeout() {
+        return timeout.isAdaptive();
+    }
+    
     /**
      * Gets the configured user-agent string.
      * 
@@ -139,4 +245,37 @@ public class HttpUrlFetcher implements UrlFetcher {
     public String getUserAgent() {
         return userAgent;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Input stream that counts the bytes read through it.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+        
+        long getCount() {
+            return count;
+        }
+    }
+}
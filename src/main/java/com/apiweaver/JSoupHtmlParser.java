@@ -18,6 +18,27 @@ public class JSoupHtmlParser implements HtmlParser {
     
     private static final Logger logger = LoggerFactory.getLogger(JSoupHtmlParser.class);
     
+    /** Elements walked between two deadline checks in the table lookup. */
+    static final int DEADLINE_CHECK_INTERVAL = 1024;
+    
+    private final RunMetrics metrics;
+    
+    /**
+     * Creates a parser that records no metrics.
+     */
+    public JSoupHtmlParser() {
+        this(RunMetrics.disabled());
+    }
+    
+    /**
+     * Creates a parser that records parse time, document size and element count.
+     * 
+     * @param metrics the metrics collector
+     */
+    public JSoupHtmlParser(RunMetrics metrics) {
+        this.metrics = metrics != null ? metrics : RunMetrics.disabled();
+    }
+    
     /**
      * Parses HTML content into a JSoup Document.
      * 
@@ -32,7 +53,22 @@ public class JSoupHtmlParser implements HtmlParser {
         }
         
         logger.debug("Parsing HTML content ({} characters)", htmlContent.length());
+        PipelineEvents.ParseEvent event = new PipelineEvents.ParseEvent();
+        event.begin();
+        long start = System.nanoTime();
         Document doc = Jsoup.parse(htmlContent);
+        event.end();
+        if (event.shouldCommit()) {
+            event.characters = htmlContent.length();
+            event.elements = doc.getAllElements().size();
+            event.commit();
+        }
+        if (metrics.isEnabled()) {
+            metrics.recordSince(RunMetrics.PARSE_TIME, start);
+            metrics.increment(RunMetrics.PARSE_DOCUMENTS);
+            metrics.add(RunMetrics.PARSE_CHARS, htmlContent.length());
+            metrics.add(RunMetrics.PARSE_ELEMENTS, doc.getAllElements().size());
+        }
         logger.debug("Successfully parsed HTML document with title: {}", doc.title());
         return doc;
     }
@@ -59,6 +95,8 @@ public class JSoupHtmlParser implements HtmlParser {
         
         logger.debug("Searching for H2 elements with id ending in: {}", suffix);
         
+        PipelineEvents.TableLookupEvent event = new PipelineEvents.TableLookupEvent();
+        event.begin();
         List<Element> matchingElements = new ArrayList<>();
         Elements h2Elements = doc.select("h2[id]");
         
@@ -70,6 +108,14 @@ public class JSoupHtmlParser implements HtmlParser {
             }
         }
         
+        event.end();
+        if (event.shouldCommit()) {
+            event.target = "h2";
+            event.key = suffix;
+            event.matches = matchingElements.size();
+            event.commit();
+        }
+        
         logger.info("Found {} H2 elements with id ending in '{}'", matchingElements.size(), suffix);
         return matchingElements;
     }
@@ -85,6 +131,26 @@ public class JSoupHtmlParser implements HtmlParser {
      */
     @Override
     public Element findFirstTableAfterElement(Document doc, Element element) {
+        try {
+            return findFirstTableAfterElement(doc, element, Deadline.none());
+        } catch (DeadlineExceededException e) {
+            throw new IllegalStateException("Unbounded deadline expired", e);
+        }
+    }
+    
+    /**
+     * Finds the first table element that follows the given element in the DOM, checking the
+     * deadline every {@value #DEADLINE_CHECK_INTERVAL} elements of the document walk.
+     * 
+     * @param doc the parsed document
+     * @param element the element to search after
+     * @param deadline the deadline of the page being processed
+     * @return the first table element found, or null if none exists
+     * @throws DeadlineExceededException if the deadline passes during the walk
+     */
+    @Override
+    public Element findFirstTableAfterElement(Document doc, Element element, Deadline deadline)
+            throws DeadlineExceededException {
         if (doc == null) {
             logger.error("Attempted to find table after element in null document");
             throw new IllegalArgumentException("Document cannot be null");
@@ -96,13 +162,24 @@ public class JSoupHtmlParser implements HtmlParser {
         
         logger.debug("Searching for first table after element: {}", element.tagName() + "#" + element.id());
         
+        PipelineEvents.TableLookupEvent event = new PipelineEvents.TableLookupEvent();
+        event.target = "table";
+        event.key = element.id();
+        event.begin();
+        
         // Get all elements that come after the given element in document order
         Elements allElements = doc.getAllElements();
         boolean foundStartElement = false;
+        int walked = 0;
         
         for (Element currentElement : allElements) {
+            if (++walked % DEADLINE_CHECK_INTERVAL == 0) {
+                deadline.check("table lookup");
+            }
             if (foundStartElement && "table".equals(currentElement.tagName())) {
                 logger.debug("Found table after element: {}", currentElement.toString().substring(0, Math.min(100, currentElement.toString().length())));
+                event.matches = 1;
+                event.commit();
                 return currentElement;
             }
             
@@ -113,6 +190,7 @@ public class JSoupHtmlParser implements HtmlParser {
         }
         
         logger.warn("No table found after element: {}", element.tagName() + "#" + element.id());
+        event.commit();
         return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.apiweaver;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe log-linear histogram of non-negative values, in the style of an HDR histogram.
+ * Values below 128 are counted exactly; larger values fall into buckets of 64 linear
+ * sub-buckets per power of two, so every recorded value is reported with a relative error
+ * of at most 1/64 while the whole {@code long} range fits in a fixed array of counters.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount;
+    private final AtomicLong sum;
+    private final AtomicLong min;
+    private final AtomicLong max;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.totalCount = new AtomicLong();
+        this.sum = new AtomicLong();
+        this.min = new AtomicLong(Long.MAX_VALUE);
+        this.max = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value, for example a duration in nanoseconds
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Histogram values cannot be negative: " + value);
+        }
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        sum.addAndGet(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    public long getMax() {
+        return getCount() == 0 ? 0 : max.get();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0.0 : (double) sum.get() / count;
+    }
+
+    /**
+     * Gets the value at a percentile. The result is the highest value that falls into
+     * the same bucket as the requested rank, capped at the recorded maximum.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int magnitude = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> magnitude);
+        return magnitude * SUB_BUCKET_HALF + subBucket;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int magnitude = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        long upper = ((subBucket + 1) << magnitude) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
@@ -0,0 +1,56 @@
+package com.apiweaver;
+
+import java.util.Arrays;
+
+/**
+ * Thread-safe ring of the most recent latency samples. Unlike {@link LatencyHistogram},
+ * which covers a whole run, old samples drop out, so percentiles follow the current
+ * behaviour of a host.
+ */
+final class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param capacity the number of most recent samples kept
+     */
+    LatencyWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = Math.max(0, nanos);
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the value at a percentile of the samples in the window, using the nearest-rank method.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the percentile, or 0 if the window is empty
+     */
+    synchronized long percentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -22,6 +22,11 @@ public class OpenApi31Generator implements OpenApiGenerator {
     
     private static final Logger logger = LoggerFactory.getLogger(OpenApi31Generator.class);
     
+    /**
+     * Prefix of a JSON reference to a schema in the components section.
+     */
+    public static final String SCHEMA_REF_PREFIX = "#/components/schemas/";
+    
     private final ObjectMapper yamlMapper;
     
     public OpenApi31Generator() {
@@ -36,6 +41,15 @@ public class OpenApi31Generator implements OpenApiGenerator {
     
     @Override
     public OpenApiSpec generateOrAmendSpec(List<OpenApiProperty> properties, OpenApiSpec existing) {
+        return generateOrAmendSpec(PageProcessor.DEFAULT_SCHEMA_NAME, properties, existing);
+    }
+    
+    @Override
+    public OpenApiSpec generateOrAmendSpec(String schemaName, List<OpenApiProperty> properties, OpenApiSpec existing) {
+        if (schemaName == null || schemaName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Schema name cannot be null or empty");
+        }
+        
         if (properties == null) {
             properties = new ArrayList<>();
         }
@@ -57,10 +71,8 @@ public class OpenApi31Generator implements OpenApiGenerator {
         // Create a schema for the properties (even if empty)
         OpenApiSpec.Schema schema = createSchemaFromProperties(properties);
         
-        // Add the schema to the spec - using a generic name for now
-        // In a real implementation, this might be derived from the URL or user input
-        spec.addSchema("GeneratedObject", schema);
-        logger.debug("Added schema 'GeneratedObject' with {} properties", properties.size());
+        spec.addSchema(schemaName, schema);
+        logger.debug("Added schema '{}' with {} properties", schemaName, properties.size());
         
         return spec;
     }
@@ -118,8 +130,9 @@ public class OpenApi31Generator implements OpenApiGenerator {
     
     /**
      * Creates an OpenAPI schema from a list of properties.
+     * Package-private so its allocation budget can be tested.
      */
-    private OpenApiSpec.Schema createSchemaFromProperties(List<OpenApiProperty> properties) {
+    OpenApiSpec.Schema createSchemaFromProperties(List<OpenApiProperty> properties) {
         OpenApiSpec.Schema schema = new OpenApiSpec.Schema();
         schema.setType("object");
         
@@ -128,7 +141,18 @@ public class OpenApi31Generator implements OpenApiGenerator {
         
         for (OpenApiProperty property : properties) {
             Map<String, Object> propertyDef = new HashMap<>();
-            propertyDef.put("type", property.getType());
+            if (property.getRef() != null) {
+                Map<String, Object> reference = new HashMap<>();
+                reference.put("$ref", SCHEMA_REF_PREFIX + property.getRef());
+                if ("array".equals(property.getType())) {
+                    propertyDef.put("type", "array");
+                    propertyDef.put("items", reference);
+                } else {
+                    propertyDef.putAll(reference);
+                }
+            } else {
+                propertyDef.put("type", property.getType());
+            }
             
             if (property.getFormat() != null && !property.getFormat().isEmpty()) {
                 propertyDef.put("format", property.getFormat());
@@ -18,6 +18,16 @@ public interface OpenApiGenerator {
      */
     OpenApiSpec generateOrAmendSpec(List<OpenApiProperty> properties, OpenApiSpec existing);
     
+    /**
+     * Generates a new OpenAPI specification or amends an existing one with a named schema.
+     * 
+     * @param schemaName the name of the schema to add or replace
+     * @param properties the list of OpenAPI properties to include
+     * @param existing the existing OpenAPI specification to amend, or null for new spec
+     * @return the generated or amended OpenAPI specification
+     */
+    OpenApiSpec generateOrAmendSpec(String schemaName, List<OpenApiProperty> properties, OpenApiSpec existing);
+    
     /**
      * Creates a new empty OpenAPI 3.1.1 specification.
      * 
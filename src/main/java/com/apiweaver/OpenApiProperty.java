@@ -13,6 +13,7 @@ public class OpenApiProperty {
     private final boolean required;
     private final boolean readOnly;
     private final String description;
+    private final String ref;
 
     /**
      * Creates a new OpenAPI property.
@@ -25,12 +26,29 @@ public class OpenApiProperty {
      * @param description the property description
      */
     public OpenApiProperty(String name, String type, String format, boolean required, boolean readOnly, String description) {
+        this(name, type, format, required, readOnly, description, null);
+    }
+
+    /**
+     * Creates a new OpenAPI property that may reference another schema.
+     * 
+     * @param name the property name
+     * @param type the OpenAPI type; "object" for a direct reference, "array" for a list of references
+     * @param format the OpenAPI format (date-time, email, etc.), can be null
+     * @param required whether the property is required
+     * @param readOnly whether the property is read-only
+     * @param description the property description
+     * @param ref the name of the referenced schema, or null if the property has a plain type
+     */
+    public OpenApiProperty(String name, String type, String format, boolean required, boolean readOnly,
+                           String description, String ref) {
         this.name = Objects.requireNonNull(name, "Property name cannot be null");
         this.type = Objects.requireNonNull(type, "Property type cannot be null");
         this.format = format;
         this.required = required;
         this.readOnly = readOnly;
         this.description = description != null ? description : "";
+        this.ref = ref;
     }
 
     public String getName() {
@@ -57,6 +75,15 @@ public class OpenApiProperty {
         return description;
     }
 
+    /**
+     * Gets the name of the schema this property references.
+     * 
+     * @return the referenced schema name, or null if the property has a plain type
+     */
+    public String getRef() {
+        return ref;
+    }
+
     /**
      * Creates a builder for constructing OpenAPI properties.
      * 
@@ -78,6 +105,7 @@ public class OpenApiProperty {
         private boolean required = false;
         private boolean readOnly = false;
         private String description = "";
+        private String ref;
 
         private Builder(String name, String type) {
             this.name = name;
@@ -104,8 +132,13 @@ public class OpenApiProperty {
             return this;
         }
 
+        public Builder ref(String ref) {
+            this.ref = ref;
+            return this;
+        }
+
         public OpenApiProperty build() {
-            return new OpenApiProperty(name, type, format, required, readOnly, description);
+            return new OpenApiProperty(name, type, format, required, readOnly, description, ref);
         }
     }
 
@@ -119,12 +152,13 @@ public class OpenApiProperty {
                Objects.equals(name, that.name) &&
                Objects.equals(type, that.type) &&
                Objects.equals(format, that.format) &&
-               Objects.equals(description, that.description);
+               Objects.equals(description, that.description) &&
+               Objects.equals(ref, that.ref);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, type, format, required, readOnly, description);
+        return Objects.hash(name, type, format, required, readOnly, description, ref);
     }
 
     @Override
@@ -136,6 +170,7 @@ public class OpenApiProperty {
                ", required=" + required +
                ", readOnly=" + readOnly +
                ", description='" + description + '\'' +
+               ", ref='" + ref + '\'' +
                '}';
     }
 }
\ No newline at end of file
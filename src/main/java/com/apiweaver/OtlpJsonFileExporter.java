@@ -0,0 +1,161 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes spans to a local file in the OTLP/JSON trace format, one
+ * {@code ExportTraceServiceRequest} per line, so traces can be inspected offline or
+ * loaded into any OpenTelemetry-compatible viewer without running a collector.
+ * Spans are buffered and written in batches.
+ */
+public class OtlpJsonFileExporter implements SpanExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtlpJsonFileExporter.class);
+
+    static final int BATCH_SIZE = 512;
+    private static final String SERVICE_NAME = "apiweaver";
+    private static final String SCOPE_NAME = "com.apiweaver";
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int STATUS_CODE_OK = 1;
+    private static final int STATUS_CODE_ERROR = 2;
+
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+    private final Path destination;
+    private final List<Span> buffer;
+    private boolean closed;
+
+    /**
+     * Creates an exporter that writes to a file, replacing any existing content.
+     *
+     * @param destination the trace file
+     * @throws ConfigurationException if the file cannot be opened
+     */
+    public OtlpJsonFileExporter(Path destination) throws ConfigurationException {
+        this.objectMapper = new ObjectMapper();
+        this.destination = destination;
+        this.buffer = new ArrayList<>();
+        try {
+            this.writer = Files.newBufferedWriter(destination, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ConfigurationException("Failed to open trace file: " + e.getMessage(), destination.toString(), e);
+        }
+    }
+
+    @Override
+    public synchronized void export(Span span) {
+        if (closed) {
+            return;
+        }
+        buffer.add(span);
+        if (buffer.size() >= BATCH_SIZE) {
+            try {
+                flush();
+            } catch (IOException e) {
+                logger.warn("Failed to write {} spans to {}: {}", buffer.size(), destination, e.getMessage());
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes any buffered spans and closes the file.
+     *
+     * @throws IOException if the spans cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            logger.info("Wrote trace to {}", destination);
+        } finally {
+            writer.close();
+        }
+    }
+
+    public Path getDestination() {
+        return destination;
+    }
+
+    private void flush() throws IOException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        writer.write(objectMapper.writeValueAsString(toRequest(buffer)));
+        writer.newLine();
+        writer.flush();
+        buffer.clear();
+    }
+
+    private ObjectNode toRequest(List<Span> spans) {
+        ObjectNode request = objectMapper.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        ArrayNode resourceAttributes = resourceSpans.putObject("resource").putArray("attributes");
+        addAttribute(resourceAttributes, "service.name", SERVICE_NAME);
+
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", SCOPE_NAME);
+        ArrayNode spanArray = scopeSpans.putArray("spans");
+        for (Span span : spans) {
+            spanArray.add(toJson(span));
+        }
+        return request;
+    }
+
+    private ObjectNode toJson(Span span) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("traceId", span.getTraceId());
+        node.put("spanId", span.getSpanId());
+        if (span.getParentSpanId() != null) {
+            node.put("parentSpanId", span.getParentSpanId());
+        }
+        node.put("name", span.getName());
+        node.put("kind", SPAN_KIND_INTERNAL);
+        // OTLP/JSON encodes 64-bit integers as strings
+        node.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+        node.put("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+
+        ArrayNode attributes = node.putArray("attributes");
+        for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+            addAttribute(attributes, attribute.getKey(), attribute.getValue());
+        }
+
+        ObjectNode status = node.putObject("status");
+        status.put("code", span.getStatus() == Span.Status.ERROR ? STATUS_CODE_ERROR : STATUS_CODE_OK);
+        if (span.getStatusMessage() != null) {
+            status.put("message", span.getStatusMessage());
+        }
+        return node;
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        ObjectNode valueNode = attribute.putObject("value");
+        if (value instanceof Long) {
+            valueNode.put("intValue", value.toString());
+        } else if (value instanceof Boolean) {
+            valueNode.put("boolValue", (Boolean) value);
+        } else {
+            valueNode.put("stringValue", value.toString());
+        }
+    }
+}
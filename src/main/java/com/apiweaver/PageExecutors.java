@@ -0,0 +1,69 @@
+package com.apiweaver;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executor that runs concurrent page fetch and extraction in batch mode.
+ * This is the Java 11 implementation, which uses a bounded pool of daemon platform threads.
+ * The multi-release JAR carries a Java 21 implementation in {@code META-INF/versions/21}
+ * that starts one virtual thread per page instead.
+ */
+final class PageExecutors {
+
+    private PageExecutors() {
+    }
+
+    /**
+     * Gets the number of pages in flight when {@code --concurrency} is not given. This is a
+     * method rather than a constant so callers are not compiled against one release's value.
+     *
+     * @return the default concurrency
+     */
+    static int defaultConcurrency() {
+        return 8;
+    }
+
+    /**
+     * Creates an executor for page tasks.
+     *
+     * @param concurrency the maximum number of pages processed at the same time
+     * @return a fixed pool of {@code concurrency} platform threads
+     */
+    static ExecutorService newPageExecutor(int concurrency) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "apiweaver-page-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(concurrency, threadFactory);
+    }
+
+    /**
+     * Creates an executor for single HTTP requests that run alongside a page task, such as
+     * hedged requests. It is unbounded because the callers already limit how many they start.
+     *
+     * @return a cached pool of daemon platform threads
+     */
+    static ExecutorService newRequestExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "apiweaver-request-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Describes the threads used by {@link #newPageExecutor(int)}, for log messages.
+     *
+     * @return a short description of the thread model
+     */
+    static String threadModel() {
+        return "platform threads";
+    }
+}
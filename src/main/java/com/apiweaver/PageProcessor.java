@@ -0,0 +1,178 @@
+package com.apiweaver;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the parse and extraction stages for a single documentation page.
+ * Locates the "ObjectValues" H2 element, the property table that follows it,
+ * and derives a schema name from the H2 id.
+ */
+public class PageProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageProcessor.class);
+
+    /**
+     * Suffix of the H2 id that marks the property table section of a page.
+     */
+    public static final String OBJECT_VALUES_SUFFIX = "ObjectValues";
+
+    /**
+     * Schema name used when no name can be derived from the page.
+     */
+    public static final String DEFAULT_SCHEMA_NAME = "GeneratedObject";
+
+    private final HtmlParser parser;
+    private final TableExtractor extractor;
+
+    /**
+     * Creates a new PageProcessor using the default JSoup parser and property table extractor.
+     */
+    public PageProcessor() {
+        this(new JSoupHtmlParser(), new PropertyTableExtractor());
+    }
+
+    /**
+     * Creates a new PageProcessor with custom parsing and extraction components.
+     *
+     * @param parser the HTML parser to use
+     * @param extractor the table extractor to use
+     */
+    public PageProcessor(HtmlParser parser, TableExtractor extractor) {
+        if (parser == null || extractor == null) {
+            throw new IllegalArgumentException("Parser and extractor cannot be null");
+        }
+        this.parser = parser;
+        this.extractor = extractor;
+    }
+
+    /**
+     * Parses a fetched page and extracts the property definitions of its object table.
+     *
+     * @param url the URL the content was fetched from
+     * @param htmlContent the fetched HTML content
+     * @return the page result with schema name, content hash and properties
+     * @throws ParseException if the content cannot be parsed
+     * @throws ExtractionException if the page has no object table or it cannot be extracted
+     */
+    public PageResult process(String url, String htmlContent) throws ParseException, ExtractionException {
+        return process(FetchedPage.of(url, htmlContent), null);
+    }
+
+    /**
+     * Parses a fetched page and extracts the property definitions of its object table. The
+     * table is fingerprinted while its rows are extracted; if the fingerprint matches the table
+     * hash recorded by a previous run, an unchanged result without properties is returned.
+     *
+     * @param page the fetched page
+     * @param previousTableHash the table hash from the previous run, or null to always extract
+     * @return the page result with schema name, hashes, validators and properties
+     * @throws ParseException if the content cannot be parsed
+     * @throws ExtractionException if the page has no object table or it cannot be extracted
+     */
+    public PageResult process(FetchedPage page, String previousTableHash) throws ParseException, ExtractionException {
+        try {
+            return process(page, previousTableHash, Deadline.none());
+        } catch (DeadlineExceededException e) {
+            throw new IllegalStateException("Unbounded deadline expired", e);
+        }
+    }
+
+    /**
+     * Parses a fetched page and extracts the property definitions of its object table like
+     * {@link #process(FetchedPage, String)}, giving up once the deadline has passed. The parser
+     * and extractor check the deadline between elements and rows.
+     *
+     * @param page the fetched page
+     * @param previousTableHash the table hash from the previous run, or null to always extract
+     * @param deadline the deadline of the page
+     * @return the page result with schema name, hashes, validators and properties
+     * @throws ParseException if the content cannot be parsed
+     * @throws ExtractionException if the page has no object table or it cannot be extracted
+     * @throws DeadlineExceededException if the deadline passes before the page is processed
+     */
+    public PageResult process(FetchedPage page, String previousTableHash, Deadline deadline)
+            throws ParseException, ExtractionException, DeadlineExceededException {
+        PipelineEvents.PageEvent event = new PipelineEvents.PageEvent();
+        event.url = page.getUrl();
+        event.bytes = page.getContent() != null ? page.getContent().length() : 0;
+        event.begin();
+        try {
+            PageResult result = processPage(page, previousTableHash, deadline);
+            event.schemaName = result.getSchemaName();
+            event.properties = result.getProperties().size();
+            event.unchanged = result.isUnchanged();
+            return result;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private PageResult processPage(FetchedPage page, String previousTableHash, Deadline deadline)
+            throws ParseException, ExtractionException, DeadlineExceededException {
+        String url = page.getUrl();
+        Document doc;
+        try {
+            doc = parser.parseHtml(page.getContent(), deadline);
+        } catch (IllegalArgumentException e) {
+            throw new ParseException("Failed to parse HTML content: " + e.getMessage(), url, e);
+        }
+
+        List<Element> h2Elements = parser.findH2ElementsWithIdEndingIn(doc, OBJECT_VALUES_SUFFIX);
+        if (h2Elements.isEmpty()) {
+            throw new ExtractionException("No H2 elements found with id ending in '" + OBJECT_VALUES_SUFFIX + "'", url);
+        }
+        if (h2Elements.size() > 1) {
+            logger.warn("Multiple H2 elements found with '{}' suffix ({}) on {}. Processing only the first one.",
+                OBJECT_VALUES_SUFFIX, h2Elements.size(), url);
+        }
+
+        Element targetH2 = h2Elements.get(0);
+        Element targetTable = parser.findFirstTableAfterElement(doc, targetH2, deadline);
+        if (targetTable == null) {
+            throw new ExtractionException("No table found after H2 element with id: " + targetH2.attr("id"), url);
+        }
+
+        String schemaName = deriveSchemaName(targetH2.attr("id"));
+        TableExtraction extraction = extractor.extractTable(targetTable, deadline);
+        PageResult.Builder result = PageResult.builder(url, schemaName)
+            .contentHash(ContentHash.sha256Hex(page.getContent()))
+            .tableHash(extraction.getFingerprint())
+            .etag(page.getEtag())
+            .lastModified(page.getLastModified());
+
+        if (previousTableHash != null && previousTableHash.equals(extraction.getFingerprint())) {
+            logger.info("Property table for schema '{}' unchanged on {}, reusing the previous schema", schemaName, url);
+            return result.unchanged(true).build();
+        }
+
+        List<PropertyDefinition> properties = extraction.getProperties();
+        logger.info("Extracted {} properties for schema '{}' from {}", properties.size(), schemaName, url);
+
+        return result.properties(properties).build();
+    }
+
+    /**
+     * Derives a schema name from an H2 id by removing the "ObjectValues" suffix.
+     * For example, "ResourceObjectValues" becomes "Resource".
+     *
+     * @param h2Id the id attribute of the H2 element
+     * @return the derived schema name, or the default name if nothing remains
+     */
+    public static String deriveSchemaName(String h2Id) {
+        if (h2Id == null) {
+            return DEFAULT_SCHEMA_NAME;
+        }
+
+        String name = h2Id.trim();
+        if (name.endsWith(OBJECT_VALUES_SUFFIX)) {
+            name = name.substring(0, name.length() - OBJECT_VALUES_SUFFIX.length());
+        }
+
+        return name.isEmpty() ? DEFAULT_SCHEMA_NAME : name;
+    }
+}
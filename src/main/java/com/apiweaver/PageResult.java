@@ -0,0 +1,196 @@
+package com.apiweaver;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents the outcome of processing a single documentation page.
+ * Holds the source URL, the schema name derived from the page, the extracted property definitions
+ * and the change-detection data (content hash, table hash and HTTP validators) of the page.
+ * An unchanged result carries no properties; its schema is reused from the previous output.
+ */
+public class PageResult {
+    private final String url;
+    private final String schemaName;
+    private final String contentHash;
+    private final String tableHash;
+    private final String etag;
+    private final String lastModified;
+    private final boolean unchanged;
+    private final List<PropertyDefinition> properties;
+
+    /**
+     * Creates a new page result.
+     *
+     * @param url the URL the page was fetched from
+     * @param schemaName the schema name derived from the page
+     * @param contentHash the hash of the page content
+     * @param properties the property definitions extracted from the page
+     */
+    public PageResult(String url, String schemaName, String contentHash, List<PropertyDefinition> properties) {
+        this(builder(url, schemaName).contentHash(contentHash).properties(properties));
+    }
+
+    private PageResult(Builder builder) {
+        this.url = Objects.requireNonNull(builder.url, "URL cannot be null");
+        this.schemaName = Objects.requireNonNull(builder.schemaName, "Schema name cannot be null");
+        this.contentHash = builder.contentHash;
+        this.tableHash = builder.tableHash;
+        this.etag = builder.etag;
+        this.lastModified = builder.lastModified;
+        this.unchanged = builder.unchanged;
+        this.properties = builder.properties != null
+            ? Collections.unmodifiableList(builder.properties)
+            : Collections.emptyList();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public String getTableHash() {
+        return tableHash;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Indicates that the page's property table has not changed since the previous run,
+     * so extraction was skipped and the previously generated schema should be reused.
+     *
+     * @return true if the page is unchanged
+     */
+    public boolean isUnchanged() {
+        return unchanged;
+    }
+
+    public List<PropertyDefinition> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Creates a builder for constructing page results.
+     *
+     * @param url the URL the page was fetched from
+     * @param schemaName the schema name derived from the page
+     * @return a new builder instance
+     */
+    public static Builder builder(String url, String schemaName) {
+        return new Builder(url, schemaName);
+    }
+
+    /**
+     * Creates a builder initialized with the values of this result.
+     *
+     * @return a new builder instance
+     */
+    public Builder toBuilder() {
+        return new Builder(url, schemaName)
+            .contentHash(contentHash)
+            .tableHash(tableHash)
+            .etag(etag)
+            .lastModified(lastModified)
+            .unchanged(unchanged)
+            .properties(properties);
+    }
+
+    /**
+     * Builder class for creating page results with optional attributes.
+     */
+    public static class Builder {
+        private final String url;
+        private final String schemaName;
+        private String contentHash;
+        private String tableHash;
+        private String etag;
+        private String lastModified;
+        private boolean unchanged = false;
+        private List<PropertyDefinition> properties;
+
+        private Builder(String url, String schemaName) {
+            this.url = url;
+            this.schemaName = schemaName;
+        }
+
+        public Builder contentHash(String contentHash) {
+            this.contentHash = contentHash;
+            return this;
+        }
+
+        public Builder tableHash(String tableHash) {
+            this.tableHash = tableHash;
+            return this;
+        }
+
+        public Builder etag(String etag) {
+            this.etag = etag;
+            return this;
+        }
+
+        public Builder lastModified(String lastModified) {
+            this.lastModified = lastModified;
+            return this;
+        }
+
+        public Builder unchanged(boolean unchanged) {
+            this.unchanged = unchanged;
+            return this;
+        }
+
+        public Builder properties(List<PropertyDefinition> properties) {
+            this.properties = properties;
+            return this;
+        }
+
+        public PageResult build() {
+            return new PageResult(this);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PageResult that = (PageResult) o;
+        return unchanged == that.unchanged &&
+               Objects.equals(url, that.url) &&
+               Objects.equals(schemaName, that.schemaName) &&
+               Objects.equals(contentHash, that.contentHash) &&
+               Objects.equals(tableHash, that.tableHash) &&
+               Objects.equals(etag, that.etag) &&
+               Objects.equals(lastModified, that.lastModified) &&
+               Objects.equals(properties, that.properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(url, schemaName, contentHash, tableHash, etag, lastModified, unchanged, properties);
+    }
+
+    @Override
+    public String toString() {
+        return "PageResult{" +
+               "url='" + url + '\'' +
+               ", schemaName='" + schemaName + '\'' +
+               ", contentHash='" + contentHash + '\'' +
+               ", tableHash='" + tableHash + '\'' +
+               ", unchanged=" + unchanged +
+               ", properties=" + properties.size() +
+               '}';
+    }
+}
@@ -0,0 +1,169 @@
+package com.apiweaver;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events emitted by the pipeline stages.
+ * Events are only committed while a recording that enables them is running; otherwise
+ * creating and ending an event costs little more than an object allocation.
+ */
+public final class PipelineEvents {
+
+    private static final String CATEGORY = "ApiWeaver";
+
+    private PipelineEvents() {
+    }
+
+    /**
+     * An HTTP fetch of one documentation page.
+     */
+    @Name("com.apiweaver.Fetch")
+    @Label("Page Fetch")
+    @Category({CATEGORY, "Fetch"})
+    @Description("HTTP request for one documentation page")
+    @StackTrace(false)
+    public static class FetchEvent extends Event {
+        @Label("URL")
+        public String url;
+
+        @Label("Status Code")
+        public int statusCode;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Not Modified")
+        public boolean notModified;
+    }
+
+    /**
+     * Parsing of one HTML document.
+     */
+    @Name("com.apiweaver.Parse")
+    @Label("HTML Parse")
+    @Category({CATEGORY, "Parse"})
+    @Description("Parsing of one HTML document into a DOM")
+    @StackTrace(false)
+    public static class ParseEvent extends Event {
+        @Label("Characters")
+        public long characters;
+
+        @Label("Elements")
+        public int elements;
+    }
+
+    /**
+     * Lookup of the object H2 heading or the property table that follows it.
+     */
+    @Name("com.apiweaver.TableLookup")
+    @Label("H2/Table Lookup")
+    @Category({CATEGORY, "Parse"})
+    @Description("Search for the object heading or the table following it")
+    @StackTrace(false)
+    public static class TableLookupEvent extends Event {
+        @Label("Target")
+        @Description("What was searched for: h2 or table")
+        public String target;
+
+        @Label("Key")
+        @Description("The id suffix for an h2 lookup, or the start element id for a table lookup")
+        public String key;
+
+        @Label("Matches")
+        public int matches;
+    }
+
+    /**
+     * Extraction of the property definitions of one table.
+     */
+    @Name("com.apiweaver.Extraction")
+    @Label("Table Extraction")
+    @Category({CATEGORY, "Extraction"})
+    @Description("Extraction of property definitions from one table")
+    @StackTrace(false)
+    public static class ExtractionEvent extends Event {
+        @Label("Rows")
+        public int rows;
+
+        @Label("Properties")
+        public int properties;
+
+        @Label("Failed Rows")
+        public int failedRows;
+    }
+
+    /**
+     * Processing of one page from parsed content to property definitions.
+     */
+    @Name("com.apiweaver.Page")
+    @Label("Page Processing")
+    @Category({CATEGORY})
+    @Description("Parse, table lookup and extraction of one page")
+    @StackTrace(false)
+    public static class PageEvent extends Event {
+        @Label("URL")
+        public String url;
+
+        @Label("Schema Name")
+        public String schemaName;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Properties")
+        public int properties;
+
+        @Label("Unchanged")
+        public boolean unchanged;
+    }
+
+    /**
+     * Mapping of one property definition to an OpenAPI property.
+     */
+    @Name("com.apiweaver.Mapping")
+    @Label("Property Mapping")
+    @Category({CATEGORY, "Mapping"})
+    @Description("Mapping of one property definition to an OpenAPI property")
+    @StackTrace(false)
+    public static class MappingEvent extends Event {
+        @Label("Property Name")
+        public String propertyName;
+
+        @Label("Source Type")
+        public String sourceType;
+
+        @Label("OpenAPI Type")
+        public String openApiType;
+
+        @Label("Reference")
+        public String ref;
+    }
+
+    /**
+     * Serialization and write of the output specification.
+     */
+    @Name("com.apiweaver.Serialization")
+    @Label("Spec Serialization")
+    @Category({CATEGORY, "Generation"})
+    @Description("Serialization of the OpenAPI specification to the output file")
+    @StackTrace(false)
+    public static class SerializationEvent extends Event {
+        @Label("Output File")
+        public String outputFile;
+
+        @Label("Schemas")
+        public int schemas;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+}
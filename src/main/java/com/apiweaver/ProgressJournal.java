@@ -0,0 +1,279 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal that records the completion state of each page in a batch run.
+ * Every record is a single NDJSON line holding the URL, its status, the content hash
+ * and the extracted property definitions, so an interrupted run can resume without
+ * fetching completed pages again.
+ */
+public class ProgressJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgressJournal.class);
+
+    static final String STATUS_COMPLETED = "COMPLETED";
+    static final String STATUS_FAILED = "FAILED";
+
+    private final Path path;
+    private final ObjectMapper mapper;
+    private FileChannel channel;
+
+    /**
+     * Creates a journal backed by the given file. The file is created on the first append.
+     *
+     * @param path the journal file path
+     */
+    public ProgressJournal(Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException("Journal path cannot be null");
+        }
+        this.path = path;
+        this.mapper = new ObjectMapper();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Replays the journal in a single sequential read and returns the completed pages.
+     * Later records for the same URL supersede earlier ones, so a page that failed after
+     * completing in an earlier run is fetched again. A torn trailing line left by a crash
+     * is skipped.
+     *
+     * @return completed page results keyed by URL, in journal order
+     * @throws ApiWeaverException if the journal exists but cannot be read
+     */
+    public synchronized Map<String, PageResult> replay() throws ApiWeaverException {
+        Map<String, PageResult> completed = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            logger.debug("No journal found at {}, starting a fresh run", path);
+            return completed;
+        }
+
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    applyRecord(mapper.readTree(line), completed);
+                } catch (IOException | IllegalArgumentException e) {
+                    logger.warn("Skipping unreadable journal record at {}:{} - {}", path, lineNumber, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new ApiWeaverException("Failed to read progress journal", path.toString(), e);
+        }
+
+        logger.info("Replayed {} journal records, {} pages already completed", lineNumber, completed.size());
+        return completed;
+    }
+
+    /**
+     * Appends a completion record for a processed page.
+     *
+     * @param result the processed page
+     * @throws ApiWeaverException if the record cannot be written
+     */
+    public synchronized void recordCompleted(PageResult result) throws ApiWeaverException {
+        append(completedRecord(mapper, result));
+    }
+
+    /**
+     * Creates the record of a completed page. Spool result files use the same format.
+     *
+     * @param mapper the mapper that creates the record
+     * @param result the processed page
+     * @return the record
+     */
+    static ObjectNode completedRecord(ObjectMapper mapper, PageResult result) {
+        ObjectNode record = mapper.createObjectNode();
+        record.put("url", result.getUrl());
+        record.put("status", STATUS_COMPLETED);
+        record.put("contentHash", result.getContentHash());
+        record.put("schemaName", result.getSchemaName());
+        record.put("tableHash", result.getTableHash());
+        record.put("etag", result.getEtag());
+        record.put("lastModified", result.getLastModified());
+        record.put("unchanged", result.isUnchanged());
+
+        ArrayNode properties = record.putArray("properties");
+        for (PropertyDefinition property : result.getProperties()) {
+            ObjectNode node = properties.addObject();
+            node.put("name", property.getName());
+            node.put("type", property.getType());
+            node.put("required", property.isRequired());
+            node.put("writable", property.isWritable());
+            node.put("description", property.getDescription());
+        }
+        return record;
+    }
+
+    /**
+     * Appends a failure record for a page that could not be processed.
+     *
+     * @param url the URL that failed
+     * @param error the failure message
+     * @throws ApiWeaverException if the record cannot be written
+     */
+    public synchronized void recordFailed(String url, String error) throws ApiWeaverException {
+        ObjectNode record = mapper.createObjectNode();
+        record.put("url", url);
+        record.put("status", STATUS_FAILED);
+        record.put("error", error);
+        append(record);
+    }
+
+    /**
+     * Closes the journal and deletes the file. Called once a batch run has completed
+     * and its output has been written, so the next run starts fresh.
+     *
+     * @throws ApiWeaverException if the journal cannot be removed
+     */
+    public synchronized void complete() throws ApiWeaverException {
+        close();
+        try {
+            Files.deleteIfExists(path);
+            logger.debug("Removed progress journal {}", path);
+        } catch (IOException e) {
+            throw new ApiWeaverException("Failed to remove progress journal", path.toString(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close progress journal {}: {}", path, e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Writes a record as one line and forces it to disk before returning.
+     */
+    private void append(ObjectNode record) throws ApiWeaverException {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+                channel.position(channel.size());
+                terminateTornRecord();
+            }
+            byte[] line = (mapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new ApiWeaverException("Failed to append to progress journal", path.toString(), e);
+        }
+    }
+
+    /**
+     * Terminates a partial last line left by a crash so the next record starts on its own line.
+     */
+    private void terminateTornRecord() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, size - 1);
+        if (last.get(0) != '\n') {
+            logger.warn("Progress journal {} ends with an incomplete record, terminating it", path);
+            channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+        }
+    }
+
+    /**
+     * Applies a single journal record to the replay state.
+     */
+    private void applyRecord(JsonNode record, Map<String, PageResult> completed) {
+        String url = requiredText(record, "url");
+        String status = record.path("status").asText();
+
+        if (!STATUS_COMPLETED.equals(status)) {
+            completed.remove(url);
+            return;
+        }
+
+        completed.put(url, pageOf(record));
+    }
+
+    /**
+     * Reads the page result from a completed record.
+     *
+     * @param record a record created by {@link #completedRecord}
+     * @return the page result
+     * @throws IllegalArgumentException if a mandatory field is missing
+     */
+    static PageResult pageOf(JsonNode record) {
+        List<PropertyDefinition> properties = new ArrayList<>();
+        for (JsonNode node : record.path("properties")) {
+            properties.add(new PropertyDefinition(
+                requiredText(node, "name"),
+                requiredText(node, "type"),
+                node.path("required").asBoolean(false),
+                node.path("writable").asBoolean(true),
+                node.path("description").asText("")));
+        }
+
+        return PageResult.builder(requiredText(record, "url"), requiredText(record, "schemaName"))
+            .contentHash(optionalText(record, "contentHash"))
+            .tableHash(optionalText(record, "tableHash"))
+            .etag(optionalText(record, "etag"))
+            .lastModified(optionalText(record, "lastModified"))
+            .unchanged(record.path("unchanged").asBoolean(false))
+            .properties(properties)
+            .build();
+    }
+    
+    /**
+     * Reads a mandatory text field from a journal record.
+     */
+    private static String requiredText(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            throw new IllegalArgumentException("Missing field '" + field + "'");
+        }
+        return value.asText();
+    }
+    
+    /**
+     * Reads an optional text field from a journal record.
+     */
+    private static String optionalText(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -17,6 +17,9 @@ public class PropertyTableExtractor implements TableExtractor {
     
     private static final Logger logger = LoggerFactory.getLogger(PropertyTableExtractor.class);
     
+    /** Rows extracted between two deadline checks. */
+    static final int DEADLINE_CHECK_INTERVAL = 64;
+    
     // Expected column names with variations for fuzzy matching
     private static final Map<String, Pattern> COLUMN_PATTERNS = new HashMap<>();
     
@@ -28,17 +31,50 @@ public class PropertyTableExtractor implements TableExtractor {
         COLUMN_PATTERNS.put("description", Pattern.compile("description", Pattern.CASE_INSENSITIVE));
     }
     
+    private final RunMetrics metrics;
+    
+    /**
+     * Creates an extractor that records no metrics.
+     */
+    public PropertyTableExtractor() {
+        this(RunMetrics.disabled());
+    }
+    
+    /**
+     * Creates an extractor that records the rows seen, skipped and failed, and extraction time.
+     * 
+     * @param metrics the metrics collector
+     */
+    public PropertyTableExtractor(RunMetrics metrics) {
+        this.metrics = metrics != null ? metrics : RunMetrics.disabled();
+    }
+    
     @Override
     public List<PropertyDefinition> extractProperties(Element table) throws ExtractionException {
-        if (table == null) {
-            logger.error("Attempted to extract properties from null table");
-            throw new ExtractionException("Table element cannot be null");
-        }
-        
-        if (!"table".equals(table.tagName().toLowerCase())) {
-            logger.error("Attempted to extract properties from non-table element: {}", table.tagName());
-            throw new ExtractionException("Element is not a table: " + table.tagName());
+        try {
+            return extractProperties(table, Deadline.none());
+        } catch (DeadlineExceededException e) {
+            throw new IllegalStateException("Unbounded deadline expired", e);
         }
+    }
+    
+    /**
+     * Extracts property definitions, checking the deadline every {@value #DEADLINE_CHECK_INTERVAL} rows.
+     */
+    @Override
+    public List<PropertyDefinition> extractProperties(Element table, Deadline deadline)
+            throws ExtractionException, DeadlineExceededException {
+        return extractTable(table, deadline).getProperties();
+    }
+    
+    /**
+     * Extracts property definitions and fingerprints the table in the same pass over its rows.
+     * Each data row's cells are read once and feed both the fingerprint and the property.
+     */
+    @Override
+    public TableExtraction extractTable(Element table, Deadline deadline)
+            throws ExtractionException, DeadlineExceededException {
+        validateTable(table);
         
         logger.debug("Starting property extraction from table");
         
@@ -55,7 +91,13 @@ public class PropertyTableExtractor implements TableExtractor {
         validateRequiredColumns(columnMap);
         logger.debug("Column mapping: {}", columnMap);
         
+        TableFingerprint fingerprint = new TableFingerprint();
+        fingerprint.addHeader(columnMap);
+        
         List<PropertyDefinition> properties = new ArrayList<>();
+        long start = System.nanoTime();
+        PipelineEvents.ExtractionEvent event = new PipelineEvents.ExtractionEvent();
+        event.begin();
         
         // Skip header row(s) and process data rows
         boolean headerProcessed = false;
@@ -66,26 +108,88 @@ public class PropertyTableExtractor implements TableExtractor {
                 continue;
             }
             
+            if (event.rows % DEADLINE_CHECK_INTERVAL == 0) {
+                deadline.check("extraction");
+            }
+            metrics.increment(RunMetrics.EXTRACT_ROWS_SEEN);
+            event.rows++;
             try {
-                PropertyDefinition property = parseRow(row, columnMap);
+                String[] cells = readCells(row, columnMap);
+                if (cells != null) {
+                    fingerprint.addRow(cells);
+                }
+                PropertyDefinition property = parseRow(cells);
                 if (property != null && property.isValid()) {
                     properties.add(property);
                     logger.debug("Successfully parsed property: {}", property.getName());
                 } else {
                     logger.debug("Skipped invalid property from row");
+                    metrics.increment(RunMetrics.EXTRACT_ROWS_SKIPPED);
                 }
             } catch (Exception e) {
                 logger.warn("Failed to parse table row, skipping: {}", e.getMessage());
+                metrics.increment(RunMetrics.EXTRACT_ROWS_FAILED);
+                event.failedRows++;
             }
         }
+        metrics.recordSince(RunMetrics.EXTRACT_TIME, start);
+        event.properties = properties.size();
+        event.commit();
         
         if (properties.isEmpty()) {
             logger.error("No valid properties extracted from table");
             throw new ExtractionException("No valid properties extracted from table");
         }
         
+        String hash = fingerprint.toHex();
         logger.info("Successfully extracted {} properties from table", properties.size());
-        return properties;
+        logger.debug("Computed table fingerprint {} over {} rows", hash, fingerprint.getRowCount());
+        return new TableExtraction(properties, hash);
+    }
+    
+    /**
+     * Computes a canonical fingerprint of a property table without extracting its properties.
+     * The identified column layout and the normalized cells of each data row are hashed as the
+     * rows are read, in the fixed order name, type, required, writable, description. Markup,
+     * attributes, whitespace and column order do not affect the fingerprint, which is the same
+     * one {@link #extractTable(Element, Deadline)} returns.
+     */
+    @Override
+    public String fingerprintTable(Element table) throws ExtractionException {
+        validateTable(table);
+        
+        Map<String, Integer> columnMap = identifyColumns(table);
+        validateRequiredColumns(columnMap);
+        
+        TableFingerprint fingerprint = new TableFingerprint();
+        fingerprint.addHeader(columnMap);
+        
+        Elements rows = table.select("tr");
+        for (int i = 1; i < rows.size(); i++) {
+            String[] cells = readCells(rows.get(i), columnMap);
+            if (cells != null) {
+                fingerprint.addRow(cells);
+            }
+        }
+        
+        String result = fingerprint.toHex();
+        logger.debug("Computed table fingerprint {} over {} rows", result, fingerprint.getRowCount());
+        return result;
+    }
+    
+    /**
+     * Validates that the element is a table.
+     */
+    private void validateTable(Element table) throws ExtractionException {
+        if (table == null) {
+            logger.error("Attempted to extract properties from null table");
+            throw new ExtractionException("Table element cannot be null");
+        }
+        
+        if (!"table".equals(table.tagName().toLowerCase())) {
+            logger.error("Attempted to extract properties from non-table element: {}", table.tagName());
+            throw new ExtractionException("Element is not a table: " + table.tagName());
+        }
     }
     
     /**
@@ -140,27 +244,47 @@ public class PropertyTableExtractor implements TableExtractor {
     }
     
     /**
-     * Parses a single table row to extract property information.
+     * Reads the normalized text of a row's cells in the fixed order name, type, required,
+     * writable, description. Missing cells are null.
+     * 
+     * @return the cell texts, or null if the row has no cells
      */
-    private PropertyDefinition parseRow(Element row, Map<String, Integer> columnMap) {
+    private String[] readCells(Element row, Map<String, Integer> columnMap) {
         Elements cells = row.select("td, th");
         
         if (cells.isEmpty()) {
             return null;
         }
         
+        return new String[] {
+            extractCellText(cells, columnMap.get("name")),
+            extractCellText(cells, columnMap.get("type")),
+            extractCellText(cells, columnMap.get("required")),
+            extractCellText(cells, columnMap.get("writable")),
+            extractCellText(cells, columnMap.get("description"))
+        };
+    }
+    
+    /**
+     * Parses the cell texts of a single table row into property information.
+     */
+    private PropertyDefinition parseRow(String[] cells) {
+        if (cells == null) {
+            return null;
+        }
+        
         // Extract required fields
-        String name = extractCellText(cells, columnMap.get("name"));
-        String type = extractCellText(cells, columnMap.get("type"));
+        String name = cells[0];
+        String type = cells[1];
         
         if (name == null || name.trim().isEmpty() || type == null || type.trim().isEmpty()) {
             return null;
         }
         
         // Extract optional fields with defaults
-        boolean required = parseBooleanValue(extractCellText(cells, columnMap.get("required")), false);
-        boolean writable = parseBooleanValue(extractCellText(cells, columnMap.get("writable")), true);
-        String description = extractDescription(cells, columnMap.get("description"));
+        boolean required = parseBooleanValue(cells[2], false);
+        boolean writable = parseBooleanValue(cells[3], true);
+        String description = cells[4] != null ? cells[4] : "";
         
         return new PropertyDefinition(
             name.trim(),
@@ -172,7 +296,7 @@ public class PropertyTableExtractor implements TableExtractor {
     }
     
     /**
-     * Extracts text from a cell at the specified column index.
+     * Extracts the normalized text of a cell at the specified column index.
      */
     private String extractCellText(Elements cells, Integer columnIndex) {
         if (columnIndex == null || columnIndex >= cells.size()) {
@@ -180,20 +304,7 @@ public class PropertyTableExtractor implements TableExtractor {
         }
         
         Element cell = cells.get(columnIndex);
-        return cell.text().trim();
-    }
-    
-    /**
-     * Extracts and cleans description text from a cell.
-     */
-    private String extractDescription(Elements cells, Integer columnIndex) {
-        String description = extractCellText(cells, columnIndex);
-        if (description == null || description.isEmpty()) {
-            return "";
-        }
-        
-        // Clean up common HTML artifacts and normalize whitespace
-        return description.replaceAll("\\s+", " ").trim();
+        return TableFingerprint.normalize(cell.text());
     }
     
     /**
@@ -0,0 +1,43 @@
+package com.apiweaver;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorator that records every page its delegate fetches into a {@link SnapshotStore},
+ * together with the validators and the time the fetch took, so the run can later be
+ * replayed with {@link ReplayUrlFetcher}. Failed fetches are not recorded.
+ */
+public class RecordingUrlFetcher implements UrlFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordingUrlFetcher.class);
+
+    private final UrlFetcher delegate;
+    private final SnapshotStore store;
+
+    public RecordingUrlFetcher(UrlFetcher delegate, SnapshotStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public String fetchHtmlContent(String url) throws FetchException {
+        return fetchPage(url, null, null).getContent();
+    }
+
+    @Override
+    public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+        long startNanos = System.nanoTime();
+        FetchedPage page = delegate.fetchPage(url, etag, lastModified);
+        long latencyNanos = System.nanoTime() - startNanos;
+        try {
+            store.record(page, latencyNanos);
+            logger.debug("Recorded {} in {}", url, store.getDirectory());
+        } catch (IOException e) {
+            throw new FetchException("Failed to record snapshot of URL: " + url + " - " + e.getMessage(), url, e);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,95 @@
+package com.apiweaver;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves pages recorded by {@link RecordingUrlFetcher} without touching the network.
+ * By default pages are returned immediately, so repeated runs see no fetch variance at all;
+ * with simulated latency each fetch instead takes as long as it did when it was recorded.
+ * A conditional fetch whose ETag or Last-Modified value matches the recording is answered
+ * as not modified.
+ */
+public class ReplayUrlFetcher implements UrlFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayUrlFetcher.class);
+
+    private final SnapshotStore store;
+    private final boolean simulateLatency;
+    private final RunMetrics metrics;
+
+    /**
+     * Creates a replay fetcher that answers immediately.
+     *
+     * @param store the recorded snapshot
+     */
+    public ReplayUrlFetcher(SnapshotStore store) {
+        this(store, false, null);
+    }
+
+    /**
+     * Creates a replay fetcher.
+     *
+     * @param store the recorded snapshot
+     * @param simulateLatency true to wait the recorded fetch time before answering
+     * @param metrics the run metrics to record fetches in, or null
+     */
+    public ReplayUrlFetcher(SnapshotStore store, boolean simulateLatency, RunMetrics metrics) {
+        this.store = store;
+        this.simulateLatency = simulateLatency;
+        this.metrics = metrics != null ? metrics : RunMetrics.disabled();
+    }
+
+    public boolean isSimulateLatency() {
+        return simulateLatency;
+    }
+
+    @Override
+    public String fetchHtmlContent(String url) throws FetchException {
+        return fetchPage(url, null, null).getContent();
+    }
+
+    @Override
+    public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+        if (url == null || url.trim().isEmpty()) {
+            throw new FetchException("URL cannot be null or empty");
+        }
+        metrics.increment(RunMetrics.FETCH_REQUESTS);
+        SnapshotStore.Snapshot snapshot = store.get(url);
+        if (snapshot == null) {
+            metrics.increment(RunMetrics.FETCH_REPLAY_MISSES);
+            throw new FetchException("URL was not recorded in snapshot " + store.getDirectory() + ": " + url, url);
+        }
+        if (simulateLatency) {
+            pause(snapshot.getLatencyNanos(), url);
+        }
+
+        boolean etagMatches = etag != null && etag.equals(snapshot.getEtag());
+        boolean lastModifiedMatches = etag == null && lastModified != null && lastModified.equals(snapshot.getLastModified());
+        if (etagMatches || lastModifiedMatches) {
+            metrics.increment(RunMetrics.FETCH_NOT_MODIFIED);
+            return FetchedPage.notModified(url, snapshot.getEtag(), snapshot.getLastModified());
+        }
+
+        try {
+            String content = store.readBody(snapshot);
+            metrics.add(RunMetrics.FETCH_BYTES, snapshot.getBytes());
+            logger.debug("Replayed {} recorded at {}", url, snapshot.getRecordedAt());
+            return FetchedPage.of(url, content, snapshot.getEtag(), snapshot.getLastModified());
+        } catch (IOException e) {
+            throw new FetchException("Cannot read recorded body for URL: " + url + " - " + e.getMessage(), url, e);
+        }
+    }
+
+    private static void pause(long nanos, String url) throws FetchException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetchException("Fetch cancelled for URL: " + url, url, e);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counters and latency histograms collected over one run, written as a JSON run report.
+ * Pipeline components record into the instance they are constructed with; components created
+ * without one use {@link #disabled()}, which ignores every call.
+ */
+public class RunMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunMetrics.class);
+
+    // Fetch stage
+    public static final String FETCH_REQUESTS = "fetch.requests";
+    public static final String FETCH_NOT_MODIFIED = "fetch.notModified";
+    public static final String FETCH_BYTES = "fetch.bytes";
+    public static final String FETCH_CONNECT = "fetch.connect";
+    public static final String FETCH_TTFB = "fetch.ttfb";
+    public static final String FETCH_DOWNLOAD = "fetch.download";
+    public static final String FETCH_TIMEOUTS = "fetch.timeouts";
+    public static final String FETCH_LIMIT_WAIT = "fetch.limitWait";
+    public static final String FETCH_LIMIT_DECREASES = "fetch.limitDecreases";
+    public static final String FETCH_HEDGE_CANDIDATES = "fetch.hedgeCandidates";
+    public static final String FETCH_HEDGES = "fetch.hedges";
+    public static final String FETCH_HEDGE_WINS = "fetch.hedgeWins";
+    public static final String FETCH_FAILOVERS = "fetch.failovers";
+    public static final String FETCH_ARCHIVE_MISSES = "fetch.archiveMisses";
+    public static final String FETCH_REPLAY_MISSES = "fetch.replayMisses";
+
+    // Crawl
+    public static final String CRAWL_PAGES = "crawl.pages";
+    public static final String CRAWL_SCHEMA_PAGES = "crawl.schemaPages";
+    public static final String CRAWL_FAILURES = "crawl.failures";
+
+    // Scheduling
+    public static final String SCHEDULE_DUE = "schedule.due";
+    public static final String SCHEDULE_NOT_DUE = "schedule.notDue";
+    public static final String SCHEDULE_DEFERRED = "schedule.deferred";
+
+    // Spool queue
+    public static final String SPOOL_CLAIMED = "spool.claimed";
+    public static final String SPOOL_CLAIM_CONFLICTS = "spool.claimConflicts";
+    public static final String SPOOL_REQUEUED = "spool.requeued";
+
+    // Merge
+    public static final String MERGE_INPUTS = "merge.inputs";
+    public static final String MERGE_SCHEMAS = "merge.schemas";
+    public static final String MERGE_CONFLICTS = "merge.conflicts";
+
+    // Deadlines
+    public static final String DEADLINE_MISSED_PAGES = "deadline.missedPages";
+
+    // Parse stage
+    public static final String PARSE_DOCUMENTS = "parse.documents";
+    public static final String PARSE_CHARS = "parse.chars";
+    public static final String PARSE_ELEMENTS = "parse.elements";
+    public static final String PARSE_TIME = "parse.time";
+
+    // Extraction stage
+    public static final String EXTRACT_ROWS_SEEN = "extract.rowsSeen";
+    public static final String EXTRACT_ROWS_SKIPPED = "extract.rowsSkipped";
+    public static final String EXTRACT_ROWS_FAILED = "extract.rowsFailed";
+    public static final String EXTRACT_TIME = "extract.time";
+
+    // Mapping stage
+    public static final String MAP_PROPERTIES = "map.properties";
+    public static final String MAP_CACHE_HITS = "map.cacheHits";
+    public static final String MAP_CACHE_MISSES = "map.cacheMisses";
+    public static final String MAP_FALLBACKS = "map.fallbacks";
+    public static final String MAP_REFERENCES = "map.references";
+
+    // Generation and write stage
+    public static final String GENERATE_TIME = "generate.time";
+    public static final String WRITE_BYTES = "write.bytes";
+    public static final String WRITE_TIME = "write.time";
+    public static final String WRITE_SHARDS = "write.shards";
+    public static final String WRITE_SHARDS_UNCHANGED = "write.shardsUnchanged";
+
+    private static final RunMetrics DISABLED = new RunMetrics(false);
+
+    private final boolean enabled;
+    private final Instant startedAt;
+    private final long startNanos;
+    private final Map<String, LongAdder> counters;
+    private final Map<String, LatencyHistogram> histograms;
+
+    /**
+     * Creates an enabled metrics collector and resets the peak memory usage of the JVM.
+     */
+    public RunMetrics() {
+        this(true);
+    }
+
+    private RunMetrics(boolean enabled) {
+        this.enabled = enabled;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+        this.counters = new ConcurrentHashMap<>();
+        this.histograms = new ConcurrentHashMap<>();
+        if (enabled) {
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+    }
+
+    /**
+     * Returns the shared collector that records nothing.
+     *
+     * @return the disabled collector
+     */
+    public static RunMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Increments a counter by one.
+     *
+     * @param name the counter name
+     */
+    public void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param name the counter name
+     * @param delta the amount to add
+     */
+    public void add(String name, long delta) {
+        if (enabled) {
+            counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * Records a duration in a latency histogram.
+     *
+     * @param name the histogram name
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordNanos(String name, long nanos) {
+        if (enabled) {
+            histograms.computeIfAbsent(name, k -> new LatencyHistogram()).record(Math.max(0, nanos));
+        }
+    }
+
+    /**
+     * Records the time elapsed since a start timestamp taken with {@link System#nanoTime()}.
+     *
+     * @param name the histogram name
+     * @param startNanos the start timestamp
+     */
+    public void recordSince(String name, long startNanos) {
+        if (enabled) {
+            recordNanos(name, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Gets the current value of a counter.
+     *
+     * @param name the counter name
+     * @return the counter value, or 0 if nothing was recorded
+     */
+    public long getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Gets a latency histogram.
+     *
+     * @param name the histogram name
+     * @return the histogram, or null if nothing was recorded
+     */
+    public LatencyHistogram getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * Gets the highest heap usage since this collector was created, as the sum of the
+     * peak usage of each heap memory pool.
+     *
+     * @return the peak heap usage in bytes
+     */
+    public static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Builds the run report.
+     *
+     * @param status the outcome of the run, for example "success" or "failed"
+     * @return the report as a JSON tree
+     */
+    public ObjectNode toReport(String status) {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode report = mapper.createObjectNode();
+        report.put("status", status);
+        report.put("startedAt", startedAt.toString());
+        report.put("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+
+        ObjectNode counterNode = report.putObject("counters");
+        new TreeMap<>(counters).forEach((name, value) -> counterNode.put(name, value.sum()));
+
+        ObjectNode latencyNode = report.putObject("latenciesMs");
+        new TreeMap<>(histograms).forEach((name, histogram) -> {
+            ObjectNode node = latencyNode.putObject(name);
+            node.put("count", histogram.getCount());
+            node.put("min", toMillis(histogram.getMin()));
+            node.put("mean", toMillis((long) histogram.getMean()));
+            node.put("p50", toMillis(histogram.getValueAtPercentile(50)));
+            node.put("p90", toMillis(histogram.getValueAtPercentile(90)));
+            node.put("p99", toMillis(histogram.getValueAtPercentile(99)));
+            node.put("max", toMillis(histogram.getMax()));
+        });
+
+        Runtime runtime = Runtime.getRuntime();
+        ObjectNode memory = report.putObject("memory");
+        memory.put("peakHeapBytes", peakHeapBytes());
+        memory.put("usedHeapBytes", runtime.totalMemory() - runtime.freeMemory());
+        memory.put("maxHeapBytes", runtime.maxMemory());
+        return report;
+    }
+
+    /**
+     * Writes the run report to a file.
+     *
+     * @param path the report file path
+     * @param status the outcome of the run
+     * @throws GenerationException if the report cannot be written
+     */
+    public void writeReport(Path path, String status) throws GenerationException {
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), toReport(status));
+            logger.info("Wrote run report to {}", path);
+        } catch (IOException e) {
+            throw new GenerationException("Failed to write run report: " + path, e);
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,110 @@
+package com.apiweaver;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Directed graph of references between schemas.
+ * An edge from A to B means a property of schema A names type B. Edges are recorded by
+ * type name whether or not B currently exists, so adding or removing B affects A as well.
+ */
+public class SchemaDependencyGraph {
+
+    private final Map<String, Set<String>> references;
+    private final Map<String, Set<String>> dependents;
+
+    /**
+     * Creates an empty dependency graph.
+     */
+    public SchemaDependencyGraph() {
+        this.references = new HashMap<>();
+        this.dependents = new HashMap<>();
+    }
+
+    /**
+     * Sets the type names referenced by a schema, replacing any previously recorded references.
+     *
+     * @param schemaName the referencing schema
+     * @param referencedNames the type names referenced by the schema's properties
+     */
+    public void setReferences(String schemaName, Collection<String> referencedNames) {
+        String from = key(schemaName);
+        Set<String> previous = references.remove(from);
+        if (previous != null) {
+            for (String to : previous) {
+                Set<String> sources = dependents.get(to);
+                sources.remove(schemaName);
+                if (sources.isEmpty()) {
+                    dependents.remove(to);
+                }
+            }
+        }
+
+        Set<String> targets = new LinkedHashSet<>();
+        for (String referencedName : referencedNames) {
+            String to = key(referencedName);
+            if (!to.equals(from)) {
+                targets.add(to);
+                dependents.computeIfAbsent(to, k -> new LinkedHashSet<>()).add(schemaName);
+            }
+        }
+        references.put(from, targets);
+    }
+
+    /**
+     * Gets the type names directly referenced by a schema.
+     *
+     * @param schemaName the schema name
+     * @return the referenced type names, in lower case
+     */
+    public Set<String> getReferences(String schemaName) {
+        return Collections.unmodifiableSet(references.getOrDefault(key(schemaName), Collections.emptySet()));
+    }
+
+    /**
+     * Gets the schemas that directly reference a type name.
+     *
+     * @param typeName the referenced type name
+     * @return the names of the referencing schemas
+     */
+    public Set<String> getDependents(String typeName) {
+        return Collections.unmodifiableSet(dependents.getOrDefault(key(typeName), Collections.emptySet()));
+    }
+
+    /**
+     * Computes every schema that has to be rebuilt when the given schemas change: the
+     * changed schemas themselves plus all schemas that reference them, directly or transitively.
+     *
+     * @param changedNames the names of the changed, added or removed schemas
+     * @return the schemas to rebuild, including the changed names
+     */
+    public Set<String> affectedBy(Collection<String> changedNames) {
+        Set<String> affected = new LinkedHashSet<>(changedNames);
+        Deque<String> queue = new ArrayDeque<>(changedNames);
+        while (!queue.isEmpty()) {
+            for (String dependent : getDependents(queue.poll())) {
+                if (affected.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        return affected;
+    }
+
+    public int size() {
+        return references.size();
+    }
+
+    private static String key(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Schema name cannot be null");
+        }
+        return name.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,413 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Byte offset index of the schemas in a single-file specification, stored next to it.
+ * Each schema under {@code components} maps to the offset and length of its entry in the
+ * file, so one schema can be read without reading or parsing the rest of the file.
+ *
+ * <p>The index file holds a header, one fixed-size record per schema sorted by the UTF-8
+ * bytes of its name, and the names themselves. A lookup bisects the records with positioned
+ * reads, so it reads a few hundred bytes of the index whatever the number of schemas.
+ *
+ * <p>Each record carries a hash of the entry's bytes, written together with the offsets.
+ * The bytes read from the specification file are checked against it, and a lookup whose
+ * bytes do not match, or whose name the index does not have, scans the file instead. An
+ * outdated index costs time but never returns the wrong bytes.
+ */
+public class SchemaIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndex.class);
+
+    /**
+     * Suffix appended to the specification file name to locate the index.
+     */
+    public static final String FILE_SUFFIX = ".index";
+
+    private static final int MAGIC = 0x41574958;
+    private static final int FORMAT_VERSION = 2;
+
+    /** Magic number, format version and record count. */
+    private static final int HEADER_SIZE = 12;
+    /** Leading bytes of the SHA-256 of an entry that are kept in its record. */
+    private static final int HASH_LENGTH = 16;
+    /** Name offset and length, entry offset and length, and entry hash. */
+    private static final int RECORD_SIZE = 4 + 4 + 8 + 4 + HASH_LENGTH;
+
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory());
+
+    private static final Entry MISSING = new Entry(-1, 0, null);
+
+    private final Map<String, Entry> entries;
+
+    private SchemaIndex(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the index path that belongs to a specification file.
+     *
+     * @param specFile the specification file
+     * @return the index path next to the specification file
+     */
+    public static Path pathFor(String specFile) {
+        return Paths.get(specFile + FILE_SUFFIX);
+    }
+
+    /**
+     * Builds the index of serialized specification content.
+     *
+     * @param content the YAML content as written to the file
+     * @return the index
+     * @throws GenerationException if a schema name cannot be read
+     */
+    public static SchemaIndex scan(byte[] content) throws GenerationException {
+        try {
+            return scan(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new GenerationException("Failed to index specification: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Builds the index of a specification file, reading it once from start to end.
+     *
+     * @param specFile the YAML specification file
+     * @return the index
+     * @throws GenerationException if the file cannot be read
+     */
+    public static SchemaIndex scan(Path specFile) throws GenerationException {
+        try (InputStream in = Files.newInputStream(specFile)) {
+            return scan(in);
+        } catch (IOException e) {
+            throw new GenerationException("Failed to index specification: " + e.getMessage(), specFile.toString(), e);
+        }
+    }
+
+    /**
+     * Scans the content line by line. Within the {@code components} block, a line indented
+     * by exactly two spaces starts the next schema; the block ends at the next line that is
+     * not indented.
+     */
+    private static SchemaIndex scan(InputStream content) throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        InputStream in = new BufferedInputStream(content);
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        MessageDigest digest = ContentHash.newSha256();
+        boolean inComponents = false;
+        String current = null;
+        long currentStart = 0;
+        long lineStart = 0;
+        long offset = 0;
+        int b;
+        do {
+            b = in.read();
+            if (b >= 0) {
+                offset++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+            }
+            byte[] bytes = line.toByteArray();
+            line.reset();
+            if (bytes.length > 0 && bytes[0] != '\r') {
+                boolean starts = bytes[0] != ' ';
+                boolean schema = inComponents && bytes.length > 2 && bytes[1] == ' '
+                    && bytes[2] != ' ' && bytes[2] != '#';
+                if ((starts || schema) && current != null) {
+                    entries.put(current, new Entry(currentStart, Math.toIntExact(lineStart - currentStart),
+                        truncate(digest.digest())));
+                    current = null;
+                }
+                if (starts) {
+                    inComponents = "components:".equals(new String(bytes, StandardCharsets.UTF_8).trim());
+                } else if (schema) {
+                    current = keyOf(bytes);
+                    currentStart = lineStart;
+                }
+            }
+            if (current != null) {
+                digest.update(bytes);
+                if (b >= 0) {
+                    digest.update((byte) '\n');
+                }
+            }
+            lineStart = offset;
+        } while (b >= 0);
+        if (current != null) {
+            entries.put(current, new Entry(currentStart, Math.toIntExact(offset - currentStart),
+                truncate(digest.digest())));
+        }
+        return new SchemaIndex(entries);
+    }
+
+    private static byte[] truncate(byte[] hash) {
+        return Arrays.copyOf(hash, HASH_LENGTH);
+    }
+
+    private static String keyOf(byte[] line) throws IOException {
+        JsonNode node = YAML.readTree(new String(line, StandardCharsets.UTF_8).trim());
+        if (node == null || !node.isObject() || node.size() != 1) {
+            throw new IOException("Unexpected schema line: " + new String(line, StandardCharsets.UTF_8).trim());
+        }
+        return node.fieldNames().next();
+    }
+
+    /**
+     * Gets the entry of a schema.
+     *
+     * @param name the schema name
+     * @return the entry, or null if the specification has no such schema
+     */
+    public Entry get(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * Gets the number of indexed schemas.
+     *
+     * @return the number of schemas
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the index through a temporary file.
+     *
+     * @param indexFile the index file path
+     * @throws GenerationException if the index cannot be written
+     */
+    public void save(Path indexFile) throws GenerationException {
+        List<byte[]> names = new ArrayList<>(entries.size());
+        int namesLength = 0;
+        for (String name : entries.keySet()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            names.add(bytes);
+            namesLength += bytes.length;
+        }
+        names.sort(Arrays::compareUnsigned);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + names.size() * RECORD_SIZE + namesLength);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(names.size());
+        int nameOffset = 0;
+        for (byte[] name : names) {
+            Entry entry = entries.get(new String(name, StandardCharsets.UTF_8));
+            buffer.putInt(nameOffset).putInt(name.length).putLong(entry.getOffset()).putInt(entry.getLength())
+                .put(entry.hash);
+            nameOffset += name.length;
+        }
+        for (byte[] name : names) {
+            buffer.put(name);
+        }
+
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                logger.debug("Could not remove temporary schema index {}", temp);
+            }
+            throw new GenerationException("Failed to write schema index: " + indexFile, e);
+        }
+        logger.debug("Wrote schema index with {} schemas to {}", entries.size(), indexFile);
+    }
+
+    /**
+     * Reads the YAML entry of one schema from a specification file. With a current index
+     * only a few index records and the entry's bytes are read; without one, or when the
+     * index does not have the name, the file is scanned.
+     *
+     * @param specFile the single-file YAML specification
+     * @param name the schema name
+     * @return the schema's lines as they appear in the file, or null if there is no such schema
+     * @throws GenerationException if the file cannot be read
+     */
+    public static String read(Path specFile, String name) throws GenerationException {
+        Path indexFile = pathFor(specFile.toString());
+        Entry entry = null;
+        try {
+            entry = find(indexFile, name);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable schema index {}: {}", indexFile, e.getMessage());
+        }
+        if (entry == null) {
+            logger.warn("Schema index {} is missing or unusable, scanning {}", indexFile, specFile);
+        } else if (entry == MISSING) {
+            // The schema may have been added after the index was written
+            logger.debug("Schema '{}' is not in index {}, scanning {}", name, indexFile, specFile);
+        } else {
+            byte[] slice = readSlice(specFile, entry);
+            if (slice != null && entry.matches(slice)) {
+                return new String(slice, StandardCharsets.UTF_8);
+            }
+            logger.warn("Schema index {} is out of date, scanning {}", indexFile, specFile);
+        }
+        entry = scan(specFile).get(name);
+        if (entry == null) {
+            return null;
+        }
+        byte[] slice = readSlice(specFile, entry);
+        if (slice == null) {
+            throw new GenerationException("Specification file changed while it was read", specFile.toString());
+        }
+        return new String(slice, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Looks a schema up by bisecting the sorted records of the index.
+     *
+     * @return the entry, {@link #MISSING} if the index has no such schema, or null if
+     *         there is no usable index
+     */
+    private static Entry find(Path indexFile, String name) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        byte[] target = name.getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (!readFully(channel, header, 0) || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                return null;
+            }
+            int count = header.getInt(8);
+            long namesStart = HEADER_SIZE + (long) count * RECORD_SIZE;
+            if (count < 0 || channel.size() < namesStart) {
+                throw new IOException("truncated index");
+            }
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                record.clear();
+                if (!readFully(channel, record, HEADER_SIZE + (long) middle * RECORD_SIZE)) {
+                    throw new IOException("truncated index");
+                }
+                int nameLength = record.getInt(4);
+                if (record.getInt(0) < 0 || nameLength < 0) {
+                    throw new IOException("malformed index record");
+                }
+                ByteBuffer recordName = ByteBuffer.allocate(nameLength);
+                if (!readFully(channel, recordName, namesStart + record.getInt(0))) {
+                    throw new IOException("truncated index");
+                }
+                int comparison = Arrays.compareUnsigned(recordName.array(), target);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    byte[] hash = new byte[HASH_LENGTH];
+                    record.position(20);
+                    record.get(hash);
+                    return new Entry(record.getLong(8), record.getInt(16), hash);
+                }
+            }
+            return MISSING;
+        }
+    }
+
+    /**
+     * Reads an entry's bytes.
+     *
+     * @return the bytes, or null if the file ends before the entry does
+     */
+    private static byte[] readSlice(Path specFile, Entry entry) throws GenerationException {
+        if (entry.getOffset() < 0 || entry.getLength() < 0) {
+            throw new GenerationException("Malformed schema index entry", specFile.toString());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(entry.getLength());
+        try (FileChannel channel = FileChannel.open(specFile, StandardOpenOption.READ)) {
+            return readFully(channel, buffer, entry.getOffset()) ? buffer.array() : null;
+        } catch (IOException e) {
+            throw new GenerationException("Failed to read specification: " + e.getMessage(), specFile.toString(), e);
+        }
+    }
+
+    /**
+     * Fills the buffer with positioned reads.
+     *
+     * @return false if the channel ends first
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return false;
+            }
+            position += read;
+        }
+        return true;
+    }
+
+    /**
+     * Location of one schema in the specification file.
+     */
+    public static class Entry {
+        private final long offset;
+        private final int length;
+        private final byte[] hash;
+
+        Entry(long offset, int length, byte[] hash) {
+            this.offset = offset;
+            this.length = length;
+            this.hash = hash;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Checks bytes read from the specification file against the hash recorded for the entry.
+         */
+        boolean matches(byte[] bytes) {
+            return hash != null && Arrays.equals(hash, truncate(ContentHash.newSha256().digest(bytes)));
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{offset=" + offset + ", length=" + length + "}";
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.apiweaver;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Global table of the schema names known to a run.
+ * Used to resolve property types that name another documented object (for example a
+ * {@code Business} or {@code Location[]} typed field) to a reference to that object's schema.
+ */
+public class SchemaSymbolTable {
+
+    /**
+     * Matches collection wrappers such as {@code Array[Business]} or {@code List<Business>}.
+     */
+    private static final Pattern COLLECTION_TYPE = Pattern.compile("(?i)(?:array|list)\\s*[\\[<]\\s*(.+?)\\s*[\\]>]");
+
+    private static final Pattern TYPE_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_]*");
+
+    private final Map<String, String> namesByKey;
+
+    /**
+     * Creates an empty symbol table.
+     */
+    public SchemaSymbolTable() {
+        this.namesByKey = new HashMap<>();
+    }
+
+    /**
+     * Creates a symbol table containing the given schema names.
+     *
+     * @param schemaNames the known schema names
+     * @return the symbol table
+     */
+    public static SchemaSymbolTable of(Collection<String> schemaNames) {
+        SchemaSymbolTable table = new SchemaSymbolTable();
+        schemaNames.forEach(table::define);
+        return table;
+    }
+
+    /**
+     * Adds a schema name to the table.
+     *
+     * @param schemaName the schema name
+     */
+    public void define(String schemaName) {
+        if (schemaName == null || schemaName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Schema name cannot be null or empty");
+        }
+        namesByKey.put(schemaName.trim().toLowerCase(), schemaName.trim());
+    }
+
+    /**
+     * Resolves a type name to a known schema name. Matching ignores case.
+     *
+     * @param typeName the type name, without array or nullable decorations
+     * @return the schema name, or null if no schema of that name is known
+     */
+    public String resolve(String typeName) {
+        if (typeName == null) {
+            return null;
+        }
+        return namesByKey.get(typeName.trim().toLowerCase());
+    }
+
+    public boolean contains(String schemaName) {
+        return resolve(schemaName) != null;
+    }
+
+    public int size() {
+        return namesByKey.size();
+    }
+
+    public Collection<String> getSchemaNames() {
+        return Collections.unmodifiableCollection(namesByKey.values());
+    }
+
+    /**
+     * Strips nullable and collection decorations from an HTML type string, so that
+     * {@code Business?}, {@code Business[]}, {@code Array[Business]} and {@code List<Business>}
+     * all yield {@code Business}.
+     *
+     * @param htmlType the type string from HTML documentation
+     * @return the bare type name, or null if the type is not a simple identifier
+     */
+    public static String baseTypeName(String htmlType) {
+        if (htmlType == null) {
+            return null;
+        }
+
+        String type = htmlType.trim();
+        if (type.endsWith("?")) {
+            type = type.substring(0, type.length() - 1).trim();
+        }
+        if (type.endsWith("[]")) {
+            type = type.substring(0, type.length() - 2).trim();
+        }
+        Matcher collection = COLLECTION_TYPE.matcher(type);
+        if (collection.matches()) {
+            type = collection.group(1);
+        }
+        if (type.endsWith("?")) {
+            type = type.substring(0, type.length() - 1).trim();
+        }
+
+        return TYPE_NAME.matcher(type).matches() ? type : null;
+    }
+
+    /**
+     * Determines whether an HTML type string describes a collection.
+     *
+     * @param htmlType the type string from HTML documentation
+     * @return true if the type is an array or list of another type
+     */
+    public static boolean isCollectionType(String htmlType) {
+        if (htmlType == null) {
+            return false;
+        }
+        String type = htmlType.trim();
+        if (type.endsWith("?")) {
+            type = type.substring(0, type.length() - 1).trim();
+        }
+        return type.endsWith("[]") || COLLECTION_TYPE.matcher(type).matches();
+    }
+}
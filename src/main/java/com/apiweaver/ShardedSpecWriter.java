@@ -0,0 +1,456 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a specification as one file per schema plus a small root document that
+ * references them. Schema {@code Business} of a root {@code api.yaml} is written to
+ * {@code components/schemas/Business.yaml} next to it, and the root's
+ * {@code components.schemas.Business} is a {@code $ref} to that file. References between
+ * schemas become references between the schema files, so every file stands on its own.
+ *
+ * <p>Schema files are serialized and written in parallel, each through a temporary file
+ * so readers never see a partial file. A file whose content would not change is not
+ * written at all, and files of schemas no longer in the specification are removed. Only
+ * files the previous root document referenced are removed, so other files in the schema
+ * directory, including those of another root document, are left alone.
+ */
+public class ShardedSpecWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedSpecWriter.class);
+
+    /**
+     * Directory of the schema files, relative to the directory of the root document.
+     */
+    public static final String SHARD_DIR = "components/schemas";
+
+    private static final String SHARD_SUFFIX = ".yaml";
+    private static final Pattern SHARD_NAME = Pattern.compile("[A-Za-z0-9_][A-Za-z0-9_.-]*");
+    private static final Pattern SHARD_REF = Pattern.compile("(?:\\./)?([A-Za-z0-9_][A-Za-z0-9_.-]*)\\.yaml");
+
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory())
+        .configure(SerializationFeature.INDENT_OUTPUT, true)
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final Path root;
+    private final Path shardDir;
+    private final int concurrency;
+    private final RunMetrics metrics;
+
+    private ShardedSpecWriter(Builder builder) {
+        if (builder.root == null) {
+            throw new IllegalArgumentException("Root document path cannot be null");
+        }
+        if (builder.concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + builder.concurrency);
+        }
+        this.root = builder.root.toAbsolutePath();
+        this.shardDir = shardDir(root);
+        this.concurrency = builder.concurrency;
+        this.metrics = builder.metrics != null ? builder.metrics : RunMetrics.disabled();
+    }
+
+    /**
+     * Creates a new builder for a writer of the given root document.
+     *
+     * @param root the root document, typically the configured output file
+     * @return a new builder instance
+     */
+    public static Builder builder(Path root) {
+        return new Builder(root);
+    }
+
+    private static Path shardDir(Path root) {
+        return root.toAbsolutePath().getParent().resolve(SHARD_DIR);
+    }
+
+    /**
+     * Returns the schema file that belongs to a schema of a root document.
+     *
+     * @param root the root document
+     * @param name the schema name
+     * @return the schema file, or null if the name cannot be a schema file name
+     */
+    public static Path shardFor(Path root, String name) {
+        return SHARD_NAME.matcher(name).matches() ? shardDir(root).resolve(name + SHARD_SUFFIX) : null;
+    }
+
+    /**
+     * Writes the schema files that changed, removes those of dropped schemas and writes
+     * the root document if it changed.
+     *
+     * @param spec the specification to write
+     * @return what was written
+     * @throws GenerationException if a schema name cannot be used as a file name or a
+     *         file cannot be written
+     */
+    public Result write(OpenApiSpec spec) throws GenerationException {
+        Map<String, OpenApiSpec.Schema> schemas = new TreeMap<>(spec.getComponents());
+        for (String name : schemas.keySet()) {
+            if (!SHARD_NAME.matcher(name).matches()) {
+                throw new GenerationException("Schema name cannot be used as a file name: " + name, name);
+            }
+        }
+        try {
+            Files.createDirectories(shardDir);
+        } catch (IOException e) {
+            throw new GenerationException("Failed to create schema directory: " + e.getMessage(), shardDir.toString(), e);
+        }
+
+        Set<Path> previousShards = previousShards();
+        Result result = new Result();
+        ExecutorService executor = PageExecutors.newPageExecutor(Math.max(1, Math.min(concurrency, schemas.size())));
+        List<Future<Long>> writes = new ArrayList<>(schemas.size());
+        try {
+            for (Map.Entry<String, OpenApiSpec.Schema> schema : schemas.entrySet()) {
+                writes.add(executor.submit(() -> writeShard(schema.getKey(), schema.getValue())));
+            }
+            for (Future<Long> write : writes) {
+                long bytes = await(write);
+                if (bytes < 0) {
+                    result.unchanged++;
+                } else {
+                    result.written++;
+                    result.bytes += bytes;
+                }
+            }
+        } finally {
+            writes.forEach(write -> write.cancel(true));
+            executor.shutdownNow();
+        }
+
+        result.deleted = deleteStaleShards(previousShards, schemas.keySet());
+        long rootBytes = writeIfChanged(root, serializeRoot(spec, schemas.keySet()));
+        if (rootBytes >= 0) {
+            result.bytes += rootBytes;
+        }
+
+        metrics.add(RunMetrics.WRITE_SHARDS, result.written);
+        metrics.add(RunMetrics.WRITE_SHARDS_UNCHANGED, result.unchanged);
+        logger.info("Wrote {} of {} schema files to {}; {} unchanged, {} removed",
+            result.written, schemas.size(), shardDir, result.unchanged, result.deleted);
+        return result;
+    }
+
+    private long writeShard(String name, OpenApiSpec.Schema schema) throws GenerationException {
+        JsonNode node = YAML.valueToTree(schema);
+        rewriteRefs(node, ShardedSpecWriter::toShardRef);
+        try {
+            return writeIfChanged(shardDir.resolve(name + SHARD_SUFFIX), YAML.writeValueAsBytes(node));
+        } catch (IOException e) {
+            throw new GenerationException("Failed to write schema file: " + e.getMessage(), name, e);
+        }
+    }
+
+    private byte[] serializeRoot(OpenApiSpec spec, Set<String> names) throws GenerationException {
+        ObjectNode document = YAML.createObjectNode();
+        document.put("openapi", spec.getOpenapi());
+        if (spec.getInfo() != null) {
+            document.set("info", YAML.valueToTree(spec.getInfo()));
+        }
+        ObjectNode refs = document.putObject("components").putObject("schemas");
+        for (String name : names) {
+            refs.putObject(name).put("$ref", SHARD_DIR + "/" + name + SHARD_SUFFIX);
+        }
+        try {
+            return YAML.writeValueAsBytes(document);
+        } catch (IOException e) {
+            throw new GenerationException("Failed to serialize root document: " + e.getMessage(), root.toString(), e);
+        }
+    }
+
+    /**
+     * Writes a file unless it already has exactly this content.
+     *
+     * @return the number of bytes written, or -1 if the file was left as it was
+     */
+    private static long writeIfChanged(Path file, byte[] content) throws GenerationException {
+        try {
+            if (Files.isRegularFile(file) && Files.size(file) == content.length
+                && Arrays.equals(Files.readAllBytes(file), content)) {
+                return -1;
+            }
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, content);
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return content.length;
+        } catch (IOException e) {
+            throw new GenerationException("Failed to write " + file + ": " + e.getMessage(), file.toString(), e);
+        }
+    }
+
+    /**
+     * Lists the schema files the existing root document references.
+     *
+     * @return the schema files of the previous write, empty if there is no readable root document
+     */
+    private Set<Path> previousShards() {
+        Set<Path> shards = new HashSet<>();
+        if (!Files.isRegularFile(root)) {
+            return shards;
+        }
+        try {
+            Iterator<JsonNode> schemas = YAML.readTree(root.toFile()).path("components").path("schemas").elements();
+            while (schemas.hasNext()) {
+                JsonNode ref = schemas.next().get("$ref");
+                if (ref == null || !ref.isTextual() || ref.asText().startsWith("#")) {
+                    continue;
+                }
+                Path shard = root.getParent().resolve(ref.asText()).normalize();
+                if (shardDir.equals(shard.getParent()) && shard.getFileName().toString().endsWith(SHARD_SUFFIX)) {
+                    shards.add(shard);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Cannot read previous root document {}, keeping existing schema files: {}", root, e.getMessage());
+        }
+        return shards;
+    }
+
+    private int deleteStaleShards(Set<Path> previousShards, Set<String> names) throws GenerationException {
+        int deleted = 0;
+        try {
+            for (Path shard : previousShards) {
+                String fileName = shard.getFileName().toString();
+                if (!names.contains(fileName.substring(0, fileName.length() - SHARD_SUFFIX.length()))
+                    && Files.deleteIfExists(shard)) {
+                    deleted++;
+                    logger.debug("Removed schema file {}", shard);
+                }
+            }
+        } catch (IOException e) {
+            throw new GenerationException("Failed to remove stale schema files: " + e.getMessage(), shardDir.toString(), e);
+        }
+        return deleted;
+    }
+
+    /**
+     * Checks whether a file is a root document written by this class. Only the start of
+     * the {@code components} section is read, so the check is cheap for large single-file
+     * specifications too.
+     *
+     * @param file the file to check
+     * @return true if the file's schemas are references to schema files
+     */
+    public static boolean isShardedRoot(Path file) {
+        try (JsonParser parser = YAML.getFactory().createParser(file.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_OBJECT || !"components".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                // A root document has components.schemas; a single-file ApiWeaver spec has schemas directly
+                if (parser.nextToken() != JsonToken.FIELD_NAME || !"schemas".equals(parser.currentName())
+                    || parser.nextToken() != JsonToken.START_OBJECT
+                    || parser.nextToken() != JsonToken.FIELD_NAME
+                    || parser.nextToken() != JsonToken.START_OBJECT) {
+                    return false;
+                }
+                JsonNode first = parser.readValueAsTree();
+                JsonNode ref = first.get("$ref");
+                return ref != null && ref.isTextual() && !ref.asText().startsWith("#");
+            }
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a root document and the schema files it references back into one specification,
+     * with references between schemas pointing into the components section again.
+     *
+     * @param file the root document
+     * @return the assembled specification
+     * @throws GenerationException if the root document or a schema file cannot be read
+     */
+    public static OpenApiSpec read(Path file) throws GenerationException {
+        JsonNode document;
+        try {
+            document = YAML.readTree(file.toFile());
+        } catch (IOException e) {
+            throw new GenerationException("Failed to read root document: " + e.getMessage(), file.toString(), e);
+        }
+        OpenApiSpec spec = new OpenApiSpec();
+        try {
+            if (document.hasNonNull("openapi")) {
+                spec.setOpenapi(document.get("openapi").asText());
+            }
+            if (document.has("info")) {
+                spec.setInfo(YAML.treeToValue(document.get("info"), OpenApiSpec.Info.class));
+            }
+        } catch (IOException e) {
+            throw new GenerationException("Malformed root document: " + e.getMessage(), file.toString(), e);
+        }
+        Path base = file.toAbsolutePath().getParent();
+        Map<String, OpenApiSpec.Schema> schemas = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = document.path("components").path("schemas").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode ref = field.getValue().get("$ref");
+            Path shard = ref != null && ref.isTextual() && !ref.asText().startsWith("#")
+                ? base.resolve(ref.asText()).normalize()
+                : null;
+            try {
+                JsonNode node = shard != null ? YAML.readTree(shard.toFile()) : field.getValue();
+                rewriteRefs(node, ShardedSpecWriter::fromShardRef);
+                schemas.put(field.getKey(), YAML.treeToValue(node, OpenApiSpec.Schema.class));
+            } catch (IOException e) {
+                throw new GenerationException("Failed to read schema file " + shard + ": " + e.getMessage(),
+                    field.getKey(), e);
+            }
+        }
+        spec.setComponents(schemas);
+        logger.debug("Read {} schema files referenced by {}", schemas.size(), file);
+        return spec;
+    }
+
+    private static String toShardRef(String ref) {
+        if (ref.startsWith(OpenApi31Generator.SCHEMA_REF_PREFIX)) {
+            return ref.substring(OpenApi31Generator.SCHEMA_REF_PREFIX.length()) + SHARD_SUFFIX;
+        }
+        return ref;
+    }
+
+    private static String fromShardRef(String ref) {
+        Matcher matcher = SHARD_REF.matcher(ref);
+        return matcher.matches() ? OpenApi31Generator.SCHEMA_REF_PREFIX + matcher.group(1) : ref;
+    }
+
+    private static void rewriteRefs(JsonNode node, UnaryOperator<String> rewrite) {
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            JsonNode ref = object.get("$ref");
+            if (ref != null && ref.isTextual()) {
+                object.put("$ref", rewrite.apply(ref.asText()));
+            }
+            object.forEach(child -> rewriteRefs(child, rewrite));
+        } else if (node.isArray()) {
+            node.forEach(child -> rewriteRefs(child, rewrite));
+        }
+    }
+
+    private static long await(Future<Long> write) throws GenerationException {
+        try {
+            return write.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GenerationException) {
+                throw (GenerationException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new GenerationException("Schema file write failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerationException("Interrupted while writing schema files", e);
+        }
+    }
+
+    /**
+     * What one write did.
+     */
+    public static final class Result {
+        private int written;
+        private int unchanged;
+        private int deleted;
+        private long bytes;
+
+        private Result() {
+        }
+
+        public int getWrittenCount() {
+            return written;
+        }
+
+        public int getUnchangedCount() {
+            return unchanged;
+        }
+
+        public int getDeletedCount() {
+            return deleted;
+        }
+
+        /**
+         * Gets the bytes written, root document included.
+         *
+         * @return the number of bytes written
+         */
+        public long getBytesWritten() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Builder for creating ShardedSpecWriter instances.
+     */
+    public static class Builder {
+        private final Path root;
+        private int concurrency = PageExecutors.defaultConcurrency();
+        private RunMetrics metrics;
+
+        private Builder(Path root) {
+            this.root = root;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder metrics(RunMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public ShardedSpecWriter build() {
+            return new ShardedSpecWriter(this);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Directory of recorded fetches that a run can be replayed from without network access.
+ * {@code index.ndjson} holds one line per fetch with the URL, the validators, the fetch
+ * latency and the SHA-256 of the body; bodies are stored once per distinct content as
+ * {@code bodies/<hash>.gz}, so recording the same pages again only grows the index.
+ * Later index lines for a URL supersede earlier ones.
+ */
+public class SnapshotStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotStore.class);
+
+    static final String INDEX_FILE = "index.ndjson";
+    static final String BODIES_DIR = "bodies";
+
+    private final Path directory;
+    private final ObjectMapper mapper;
+    private final Map<String, Snapshot> snapshots;
+    private FileChannel index;
+
+    private SnapshotStore(Path directory, Map<String, Snapshot> snapshots) {
+        this.directory = directory;
+        this.mapper = new ObjectMapper();
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Opens a store for recording, creating the directory if needed. Fetches recorded
+     * into an existing store are added to it.
+     *
+     * @param directory the store directory
+     * @return the store
+     * @throws ConfigurationException if the directory cannot be created or its index read
+     */
+    public static SnapshotStore create(Path directory) throws ConfigurationException {
+        try {
+            Files.createDirectories(directory.resolve(BODIES_DIR));
+        } catch (IOException e) {
+            throw new ConfigurationException("Cannot create snapshot directory: " + e.getMessage(), directory.toString(), e);
+        }
+        return new SnapshotStore(directory, readIndex(directory));
+    }
+
+    /**
+     * Opens an existing store for replay.
+     *
+     * @param directory the store directory
+     * @return the store
+     * @throws ConfigurationException if the directory holds no snapshot index
+     */
+    public static SnapshotStore open(Path directory) throws ConfigurationException {
+        if (!Files.isRegularFile(directory.resolve(INDEX_FILE))) {
+            throw new ConfigurationException("No snapshot found, expected " + directory.resolve(INDEX_FILE),
+                directory.toString());
+        }
+        SnapshotStore store = new SnapshotStore(directory, readIndex(directory));
+        logger.info("Loaded {} recorded fetches from {}", store.size(), directory);
+        return store;
+    }
+
+    /**
+     * Reads the index in one sequential pass. A torn trailing line left by an interrupted
+     * recording is skipped.
+     */
+    private static Map<String, Snapshot> readIndex(Path directory) throws ConfigurationException {
+        Map<String, Snapshot> snapshots = new LinkedHashMap<>();
+        Path path = directory.resolve(INDEX_FILE);
+        if (!Files.exists(path)) {
+            return snapshots;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Snapshot snapshot = Snapshot.fromJson(mapper.readTree(line));
+                    Snapshot previous = snapshots.get(snapshot.getUrl());
+                    // A not-modified answer has no body; keep the full recording it refers to
+                    if (snapshot.getBodyHash() != null || previous == null || previous.getBodyHash() == null) {
+                        snapshots.put(snapshot.getUrl(), snapshot);
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    logger.warn("Skipping unreadable snapshot record at {}:{} - {}", path, lineNumber, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("Failed to read snapshot index: " + e.getMessage(), path.toString(), e);
+        }
+        return snapshots;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the latest recording of a URL.
+     *
+     * @param url the URL
+     * @return the recording, or null if the URL was never recorded
+     */
+    public synchronized Snapshot get(String url) {
+        return snapshots.get(url.trim());
+    }
+
+    /**
+     * Gets the number of recorded URLs.
+     *
+     * @return the number of URLs
+     */
+    public synchronized int size() {
+        return snapshots.size();
+    }
+
+    public synchronized Map<String, Snapshot> getSnapshots() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(snapshots));
+    }
+
+    /**
+     * Records a fetched page. The body is written before the index line, so every indexed
+     * hash has a body on disk.
+     *
+     * @param page the fetched page
+     * @param latencyNanos how long the fetch took
+     * @throws IOException if the body or the index line cannot be written
+     */
+    public void record(FetchedPage page, long latencyNanos) throws IOException {
+        String bodyHash = null;
+        int bytes = 0;
+        if (!page.isNotModified()) {
+            byte[] body = page.getContent().getBytes(StandardCharsets.UTF_8);
+            bodyHash = ContentHash.sha256Hex(body);
+            bytes = body.length;
+            writeBody(bodyHash, body);
+        }
+        Snapshot snapshot = new Snapshot(page.getUrl().trim(), page.getEtag(), page.getLastModified(),
+            page.isNotModified(), latencyNanos, bodyHash, bytes, Instant.now().toString());
+        synchronized (this) {
+            append(snapshot.toJson(mapper));
+            Snapshot previous = snapshots.get(snapshot.getUrl());
+            if (bodyHash != null || previous == null || previous.getBodyHash() == null) {
+                snapshots.put(snapshot.getUrl(), snapshot);
+            }
+        }
+    }
+
+    /**
+     * Reads the recorded body of a snapshot.
+     *
+     * @param snapshot a snapshot with a body
+     * @return the page content
+     * @throws IOException if the body file is missing or corrupt
+     */
+    public String readBody(Snapshot snapshot) throws IOException {
+        if (snapshot.getBodyHash() == null) {
+            throw new IOException("Snapshot of " + snapshot.getUrl() + " was recorded as not modified and has no body");
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(bodyPath(snapshot.getBodyHash())))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, snapshot.getBytes()));
+            in.transferTo(out);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Writes a body unless one with the same hash already exists. The body goes to a
+     * temporary file first and is moved into place, so a reader never sees a partial body.
+     */
+    private void writeBody(String hash, byte[] body) throws IOException {
+        Path target = bodyPath(hash);
+        if (Files.exists(target)) {
+            return;
+        }
+        Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(body);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // Recorded concurrently by another page with the same content
+            logger.debug("Body {} already recorded", hash);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path bodyPath(String hash) {
+        return directory.resolve(BODIES_DIR).resolve(hash + ".gz");
+    }
+
+    /**
+     * Writes a record as one index line.
+     */
+    private void append(ObjectNode record) throws IOException {
+        if (index == null) {
+            index = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            index.position(index.size());
+            terminateTornRecord();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap((mapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            index.write(buffer);
+        }
+    }
+
+    /**
+     * Terminates a partial last line left by an interrupted recording.
+     */
+    private void terminateTornRecord() throws IOException {
+        long size = index.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        index.read(last, size - 1);
+        if (last.get(0) != '\n') {
+            logger.warn("Snapshot index in {} ends with an incomplete record, terminating it", directory);
+            index.write(ByteBuffer.wrap(new byte[]{'\n'}));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (index != null) {
+            try {
+                index.force(false);
+            } finally {
+                index.close();
+                index = null;
+            }
+        }
+    }
+
+    /**
+     * One recorded fetch.
+     */
+    public static final class Snapshot {
+        private final String url;
+        private final String etag;
+        private final String lastModified;
+        private final boolean notModified;
+        private final long latencyNanos;
+        private final String bodyHash;
+        private final int bytes;
+        private final String recordedAt;
+
+        Snapshot(String url, String etag, String lastModified, boolean notModified, long latencyNanos,
+                 String bodyHash, int bytes, String recordedAt) {
+            this.url = url;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.notModified = notModified;
+            this.latencyNanos = latencyNanos;
+            this.bodyHash = bodyHash;
+            this.bytes = bytes;
+            this.recordedAt = recordedAt;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public boolean isNotModified() {
+            return notModified;
+        }
+
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        public String getBodyHash() {
+            return bodyHash;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+
+        public String getRecordedAt() {
+            return recordedAt;
+        }
+
+        private ObjectNode toJson(ObjectMapper mapper) {
+            ObjectNode record = mapper.createObjectNode();
+            record.put("url", url);
+            record.put("etag", etag);
+            record.put("lastModified", lastModified);
+            record.put("notModified", notModified);
+            record.put("latencyNanos", latencyNanos);
+            record.put("bodyHash", bodyHash);
+            record.put("bytes", bytes);
+            record.put("recordedAt", recordedAt);
+            return record;
+        }
+
+        private static Snapshot fromJson(JsonNode record) {
+            JsonNode url = record.get("url");
+            if (url == null || url.isNull()) {
+                throw new IllegalArgumentException("Missing field 'url'");
+            }
+            return new Snapshot(url.asText(), text(record, "etag"), text(record, "lastModified"),
+                record.path("notModified").asBoolean(false), record.path("latencyNanos").asLong(0),
+                text(record, "bodyHash"), record.path("bytes").asInt(0), text(record, "recordedAt"));
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.apiweaver;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A timed operation within a trace, modelled on the OpenTelemetry span.
+ * Spans are created by a {@link Tracer}, carry string, numeric and boolean attributes,
+ * and are handed to the tracer's exporter when they end.
+ */
+public class Span {
+
+    /**
+     * Outcome of the operation a span covers.
+     */
+    public enum Status {
+        UNSET, OK, ERROR
+    }
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final long startEpochNanos;
+    private final Map<String, Object> attributes;
+    private final AtomicBoolean ended;
+    private volatile long endEpochNanos;
+    private volatile Status status;
+    private volatile String statusMessage;
+
+    Span(Tracer tracer, String traceId, String spanId, String parentSpanId, String name, long startEpochNanos) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.startEpochNanos = startEpochNanos;
+        this.attributes = new LinkedHashMap<>();
+        this.ended = new AtomicBoolean();
+        this.status = Status.UNSET;
+    }
+
+    /**
+     * Sets a string attribute. Null values are ignored.
+     *
+     * @param key the attribute key
+     * @param value the attribute value
+     * @return this span
+     */
+    public Span setAttribute(String key, String value) {
+        return putAttribute(key, value);
+    }
+
+    /**
+     * Sets a numeric attribute.
+     *
+     * @param key the attribute key
+     * @param value the attribute value
+     * @return this span
+     */
+    public Span setAttribute(String key, long value) {
+        return putAttribute(key, value);
+    }
+
+    /**
+     * Sets a boolean attribute.
+     *
+     * @param key the attribute key
+     * @param value the attribute value
+     * @return this span
+     */
+    public Span setAttribute(String key, boolean value) {
+        return putAttribute(key, value);
+    }
+
+    /**
+     * Marks the span as failed with the exception's type and message.
+     *
+     * @param error the failure
+     */
+    public void recordError(Throwable error) {
+        if (!isRecording()) {
+            return;
+        }
+        status = Status.ERROR;
+        statusMessage = error.getMessage();
+        putAttribute("exception.type", error.getClass().getName());
+    }
+
+    /**
+     * Ends the span and exports it. Calling end more than once has no effect.
+     */
+    public void end() {
+        if (tracer == null || !ended.compareAndSet(false, true)) {
+            return;
+        }
+        endEpochNanos = tracer.nowEpochNanos();
+        if (status == Status.UNSET) {
+            status = Status.OK;
+        }
+        tracer.export(this);
+    }
+
+    /**
+     * Checks whether the span records attributes and will be exported.
+     *
+     * @return false for the spans of a disabled tracer
+     */
+    public boolean isRecording() {
+        return tracer != null;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+
+    public Map<String, Object> getAttributes() {
+        synchronized (attributes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        }
+    }
+
+    private Span putAttribute(String key, Object value) {
+        if (isRecording() && value != null) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" +
+               "name='" + name + '\'' +
+               ", traceId='" + traceId + '\'' +
+               ", spanId='" + spanId + '\'' +
+               ", parentSpanId='" + parentSpanId + '\'' +
+               ", status=" + status +
+               '}';
+    }
+}
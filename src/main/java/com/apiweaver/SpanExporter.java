@@ -0,0 +1,17 @@
+package com.apiweaver;
+
+import java.io.Closeable;
+
+/**
+ * Receives spans when they end. Implementations must be thread-safe and should not
+ * let export failures interrupt the traced work.
+ */
+public interface SpanExporter extends Closeable {
+
+    /**
+     * Exports an ended span.
+     *
+     * @param span the ended span
+     */
+    void export(Span span);
+}
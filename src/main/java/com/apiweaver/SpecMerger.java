@@ -0,0 +1,647 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges OpenAPI specification files into one without holding them in memory together.
+ * Each input's schemas are streamed in name order and a k-way merge writes every schema
+ * name once, in sorted order; a name that several inputs define differently is resolved
+ * by the {@link ConflictPolicy}. Only the current schema of each input is in memory, and
+ * at most {@value #DEFAULT_MAX_FAN_IN} inputs are open at a time unless configured otherwise.
+ * An input whose schemas are not sorted, such as a hand-edited file, is read in full
+ * first; specifications written by ApiWeaver are sorted and stream.
+ *
+ * <p>Schemas are read from {@code components.schemas} or, as ApiWeaver writes them,
+ * directly from {@code components}, and written the way ApiWeaver writes them. The
+ * {@code openapi} and {@code info} sections come from the first input that has them;
+ * other top-level sections are not merged.
+ */
+public class SpecMerger {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpecMerger.class);
+
+    /**
+     * Sections of an OpenAPI components object other than schemas, which are skipped.
+     */
+    private static final Set<String> COMPONENT_SECTIONS = Set.of("responses", "parameters", "examples",
+        "requestBodies", "headers", "securitySchemes", "links", "callbacks", "pathItems");
+
+    /**
+     * Default maximum number of inputs open at a time, each holding a parser and its buffers.
+     */
+    public static final int DEFAULT_MAX_FAN_IN = 256;
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final YAMLFactory YAML = new YAMLFactory();
+
+    /**
+     * How a schema name defined differently by several inputs is resolved. Inputs that
+     * define a schema identically never conflict.
+     */
+    public enum ConflictPolicy {
+        /** Fail the merge. */
+        FAIL("fail"),
+        /** Keep the schema of the earliest input. */
+        FIRST_WINS("first"),
+        /** Keep the schema of the latest input. */
+        LAST_WINS("last"),
+        /**
+         * Keep the earliest schema and add the properties and required names the later
+         * ones add; a property defined differently keeps its earliest definition.
+         */
+        UNION_PROPERTIES("union");
+
+        private final String option;
+
+        ConflictPolicy(String option) {
+            this.option = option;
+        }
+
+        public String getOption() {
+            return option;
+        }
+
+        /**
+         * Looks up a policy by its command-line name.
+         *
+         * @param option fail, first, last or union
+         * @return the policy
+         * @throws IllegalArgumentException if no policy has that name
+         */
+        public static ConflictPolicy forOption(String option) {
+            for (ConflictPolicy policy : values()) {
+                if (policy.option.equalsIgnoreCase(option)) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException("Unknown conflict policy '" + option + "'; expected fail, first, last or union");
+        }
+    }
+
+    private final ConflictPolicy conflictPolicy;
+    private final RunMetrics metrics;
+    private final int maxFanIn;
+    private final ObjectMapper mapper;
+
+    private SpecMerger(Builder builder) {
+        this.conflictPolicy = builder.conflictPolicy != null ? builder.conflictPolicy : ConflictPolicy.FAIL;
+        this.metrics = builder.metrics != null ? builder.metrics : RunMetrics.disabled();
+        this.maxFanIn = builder.maxFanIn;
+        this.mapper = new ObjectMapper();
+    }
+
+    /**
+     * Creates a new builder for a merger that fails on conflicting schemas.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Merges the input files into the output file. The output is written to a temporary
+     * file first and only replaces the output file once the merge succeeded. Files ending
+     * in {@code .json} are read and written as JSON, all others as YAML.
+     *
+     * <p>At most {@link Builder#maxFanIn(int) maxFanIn} inputs are open at a time. With more
+     * inputs, consecutive groups of them are merged into temporary JSON files next to the
+     * output first, round by round, until few enough are left for the final merge. Groups
+     * keep the input order, so the conflict policies resolve object schemas as they would
+     * in a single round.
+     *
+     * @param inputs the specification files, in precedence order
+     * @param output the merged specification file
+     * @return what the merge did
+     * @throws GenerationException if an input cannot be read, schemas conflict under
+     *         {@link ConflictPolicy#FAIL}, or the output cannot be written
+     */
+    public Result merge(List<Path> inputs, Path output) throws GenerationException {
+        if (inputs == null || inputs.isEmpty()) {
+            throw new IllegalArgumentException("At least one input file is required");
+        }
+        ObjectNode header = mapper.createObjectNode();
+        Result result = new Result(inputs.size());
+        List<Input> round = new ArrayList<>(inputs.size());
+        for (Path input : inputs) {
+            boolean sorted = scan(input, header);
+            if (!sorted) {
+                result.bufferedInputs++;
+            }
+            round.add(new Input(input, input.toString(), input.toString(), sorted, false));
+        }
+        if (!header.has("openapi")) {
+            header.put("openapi", new OpenApiSpec().getOpenapi());
+        }
+        if (!header.has("info")) {
+            header.set("info", mapper.valueToTree(new OpenApiSpec().getInfo()));
+        }
+
+        Path absolute = output.toAbsolutePath();
+        Set<String> conflicts = new HashSet<>();
+        List<Path> temporaries = new ArrayList<>();
+        try {
+            while (round.size() > maxFanIn) {
+                List<Input> next = new ArrayList<>((round.size() + maxFanIn - 1) / maxFanIn);
+                for (int start = 0; start < round.size(); start += maxFanIn) {
+                    List<Input> group = round.subList(start, Math.min(round.size(), start + maxFanIn));
+                    if (group.size() == 1) {
+                        next.add(group.get(0));
+                        continue;
+                    }
+                    Path part = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".part.json");
+                    temporaries.add(part);
+                    mergeRound(group, part, false, null, conflicts);
+                    next.add(new Input(part, group.get(0).first, group.get(group.size() - 1).last, true, true));
+                }
+                for (Input input : round) {
+                    if (input.temporary && !next.contains(input)) {
+                        delete(input.path);
+                    }
+                }
+                result.rounds++;
+                logger.debug("Merged {} inputs into {} in round {}", round.size(), next.size(), result.rounds);
+                round = next;
+            }
+            Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            temporaries.add(temp);
+            result.schemas = mergeRound(round, temp, isYaml(output), header, conflicts);
+            result.rounds++;
+            move(temp, output);
+        } catch (IOException e) {
+            throw new GenerationException("Failed to merge specifications: " + e.getMessage(), output.toString(), e);
+        } finally {
+            temporaries.forEach(SpecMerger::delete);
+        }
+        result.conflicts = conflicts.size();
+
+        metrics.add(RunMetrics.MERGE_INPUTS, inputs.size());
+        metrics.add(RunMetrics.MERGE_SCHEMAS, result.schemas);
+        metrics.add(RunMetrics.MERGE_CONFLICTS, result.conflicts);
+        logger.info("Merged {} schemas from {} inputs into {} in {} rounds; {} conflicts, {} unsorted inputs",
+            result.schemas, inputs.size(), output, result.rounds, result.conflicts, result.bufferedInputs);
+        return result;
+    }
+
+    /**
+     * Merges one group of inputs into a target file with a k-way merge over one cursor per input.
+     *
+     * @param yaml whether to write YAML rather than JSON
+     * @param header the header sections to write, or null for an intermediate file that only
+     *        holds the merged schemas
+     * @param conflicts collects the names of the schemas the inputs define differently
+     * @return the number of schemas written
+     */
+    private int mergeRound(List<Input> inputs, Path target, boolean yaml, ObjectNode header, Set<String> conflicts)
+            throws GenerationException, IOException {
+        List<Cursor> cursors = new ArrayList<>(inputs.size());
+        int schemas = 0;
+        try {
+            PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(1, inputs.size()),
+                Comparator.comparing((Cursor cursor) -> cursor.name).thenComparingInt(cursor -> cursor.index));
+            for (int i = 0; i < inputs.size(); i++) {
+                Cursor cursor = open(inputs.get(i), i);
+                cursors.add(cursor);
+                if (cursor.next(true)) {
+                    queue.add(cursor);
+                }
+            }
+            try (OutputStream out = Files.newOutputStream(target);
+                 JsonGenerator generator = (yaml ? YAML : JSON).createGenerator(out)) {
+                if (header != null && !yaml) {
+                    generator.useDefaultPrettyPrinter();
+                }
+                generator.setCodec(mapper);
+                generator.writeStartObject();
+                if (header != null) {
+                    for (Iterator<Map.Entry<String, JsonNode>> fields = header.fields(); fields.hasNext(); ) {
+                        Map.Entry<String, JsonNode> field = fields.next();
+                        generator.writeFieldName(field.getKey());
+                        generator.writeTree(field.getValue());
+                    }
+                }
+                generator.writeObjectFieldStart("components");
+                List<Cursor> sources = new ArrayList<>();
+                while (!queue.isEmpty()) {
+                    sources.clear();
+                    sources.add(queue.poll());
+                    String name = sources.get(0).name;
+                    while (!queue.isEmpty() && queue.peek().name.equals(name)) {
+                        sources.add(queue.poll());
+                    }
+                    generator.writeFieldName(name);
+                    generator.writeTree(resolve(name, sources, conflicts));
+                    schemas++;
+                    for (Cursor source : sources) {
+                        if (source.next(true)) {
+                            queue.add(source);
+                        }
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+        } finally {
+            cursors.forEach(Cursor::closeQuietly);
+        }
+        return schemas;
+    }
+
+    /**
+     * Reads an input once without keeping its schemas, collecting the header sections not
+     * seen in earlier inputs and checking that its schema names are strictly ascending.
+     *
+     * @return true if the input's schemas can be streamed in order
+     */
+    private boolean scan(Path input, ObjectNode header) throws GenerationException {
+        try (Cursor cursor = new Cursor(input, -1, header)) {
+            String previous = null;
+            boolean sorted = true;
+            while (cursor.next(false)) {
+                if (previous != null && previous.compareTo(cursor.name) >= 0) {
+                    sorted = false;
+                }
+                previous = cursor.name;
+            }
+            if (!sorted) {
+                logger.warn("Schemas in {} are not sorted by name; reading it into memory", input);
+            }
+            return sorted;
+        } catch (IOException e) {
+            throw new GenerationException("Failed to read specification: " + e.getMessage(), input.toString(), e);
+        }
+    }
+
+    private Cursor open(Input input, int index) throws GenerationException {
+        try {
+            Cursor cursor = new Cursor(input.path, index, null);
+            cursor.label = input.first.equals(input.last) ? input.first : "inputs " + input.first + " to " + input.last;
+            if (!input.sorted) {
+                cursor.buffer();
+            }
+            return cursor;
+        } catch (IOException e) {
+            throw new GenerationException("Failed to read specification: " + e.getMessage(), input.path.toString(), e);
+        }
+    }
+
+    /**
+     * Chooses the schema to write for a name defined by one or more inputs.
+     *
+     * @param sources the cursors positioned on the name, in input order
+     * @param conflicts collects the name if the sources define it differently
+     */
+    private JsonNode resolve(String name, List<Cursor> sources, Set<String> conflicts) throws GenerationException {
+        JsonNode schema = sources.get(0).schema;
+        boolean conflict = false;
+        for (int i = 1; i < sources.size(); i++) {
+            JsonNode other = sources.get(i).schema;
+            if (other.equals(schema)) {
+                continue;
+            }
+            conflict = true;
+            switch (conflictPolicy) {
+                case FAIL:
+                    throw new GenerationException("Schema '" + name + "' is defined differently in "
+                        + sources.get(0).label + " and " + sources.get(i).label, name);
+                case FIRST_WINS:
+                    break;
+                case LAST_WINS:
+                    schema = other;
+                    break;
+                case UNION_PROPERTIES:
+                    schema = union(schema, other);
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled conflict policy: " + conflictPolicy);
+            }
+        }
+        if (conflict) {
+            conflicts.add(name);
+            logger.debug("Schema '{}' differs between {} inputs; resolved with {}", name, sources.size(), conflictPolicy);
+        }
+        return schema;
+    }
+
+    /**
+     * Adds the properties and required names of a later schema to an earlier one.
+     */
+    static JsonNode union(JsonNode earlier, JsonNode later) {
+        if (!earlier.isObject() || !later.isObject()) {
+            return earlier;
+        }
+        ObjectNode merged = ((ObjectNode) earlier).deepCopy();
+        JsonNode laterProperties = later.get("properties");
+        if (laterProperties != null && laterProperties.isObject()) {
+            JsonNode properties = merged.get("properties");
+            ObjectNode target = properties != null && properties.isObject()
+                ? (ObjectNode) properties : merged.putObject("properties");
+            laterProperties.fields().forEachRemaining(field -> {
+                if (!target.has(field.getKey())) {
+                    target.set(field.getKey(), field.getValue());
+                }
+            });
+        }
+        JsonNode laterRequired = later.get("required");
+        if (laterRequired != null && laterRequired.isArray()) {
+            JsonNode required = merged.get("required");
+            ArrayNode target = required != null && required.isArray() ? (ArrayNode) required : merged.putArray("required");
+            Set<String> names = new HashSet<>();
+            target.forEach(element -> names.add(element.asText()));
+            laterRequired.forEach(element -> {
+                if (names.add(element.asText())) {
+                    target.add(element);
+                }
+            });
+        }
+        return merged;
+    }
+
+    private static void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static boolean isYaml(Path path) {
+        return !path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    private static JsonFactory factoryFor(Path path) {
+        return isYaml(path) ? YAML : JSON;
+    }
+
+    /**
+     * One input of a merge round: an input file or the intermediate file of an earlier round.
+     */
+    private static final class Input {
+        private final Path path;
+        /** The first and last input file this input covers, for conflict messages. */
+        private final String first;
+        private final String last;
+        private final boolean sorted;
+        private final boolean temporary;
+
+        Input(Path path, String first, String last, boolean sorted, boolean temporary) {
+            this.path = path;
+            this.first = first;
+            this.last = last;
+            this.sorted = sorted;
+            this.temporary = temporary;
+        }
+    }
+
+    /**
+     * Streams the schemas of one input. The parser walks down into the components object
+     * and stops at each schema; everything else in the file is skipped.
+     */
+    private final class Cursor implements Closeable {
+        private static final int TOP = 0;
+        private static final int COMPONENTS = 1;
+        private static final int SCHEMAS = 2;
+
+        private final Path path;
+        private final int index;
+        private final ObjectNode header;
+        private String label;
+        private JsonParser parser;
+        private int level = TOP;
+        private Iterator<Map.Entry<String, JsonNode>> buffered;
+        private String name;
+        private JsonNode schema;
+
+        /**
+         * @param header the header to fill in while walking the file, or null to skip it
+         */
+        Cursor(Path path, int index, ObjectNode header) throws IOException {
+            this.path = path;
+            this.index = index;
+            this.header = header;
+            this.label = path.toString();
+            this.parser = factoryFor(path).createParser(path.toFile());
+            parser.setCodec(mapper);
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                level = -1;
+            } else if (token != JsonToken.START_OBJECT) {
+                throw new IOException("expected an object but found " + token + " at " + parser.currentLocation());
+            }
+        }
+
+        /**
+         * Reads the whole input into a sorted map, for inputs whose schemas are out of order.
+         * A name defined twice keeps its later definition, as a map-based reader would.
+         */
+        void buffer() throws IOException {
+            Map<String, JsonNode> schemas = new TreeMap<>();
+            while (next(true)) {
+                schemas.put(name, schema);
+            }
+            buffered = schemas.entrySet().iterator();
+            close();
+        }
+
+        /**
+         * Moves to the next schema.
+         *
+         * @param read whether to read the schema, or only its name
+         * @return false once the input has no more schemas
+         */
+        boolean next(boolean read) throws IOException {
+            name = null;
+            schema = null;
+            if (buffered != null) {
+                if (!buffered.hasNext()) {
+                    return false;
+                }
+                Map.Entry<String, JsonNode> entry = buffered.next();
+                name = entry.getKey();
+                schema = entry.getValue();
+                return true;
+            }
+            if (level < TOP) {
+                return false;
+            }
+            while (true) {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_OBJECT && level == TOP) {
+                    level = -1;
+                    return false;
+                }
+                if (token == JsonToken.END_OBJECT) {
+                    level--;
+                    continue;
+                }
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (level == TOP) {
+                    if ("components".equals(field) && value == JsonToken.START_OBJECT) {
+                        level = COMPONENTS;
+                    } else if (header != null && ("openapi".equals(field) || "info".equals(field)) && !header.has(field)) {
+                        header.set(field, parser.readValueAsTree());
+                    } else {
+                        parser.skipChildren();
+                    }
+                } else if (level == COMPONENTS && "schemas".equals(field) && value == JsonToken.START_OBJECT) {
+                    level = SCHEMAS;
+                } else if (level == COMPONENTS && (COMPONENT_SECTIONS.contains(field) || value != JsonToken.START_OBJECT)) {
+                    parser.skipChildren();
+                } else {
+                    name = field;
+                    if (read) {
+                        schema = parser.readValueAsTree();
+                    } else {
+                        parser.skipChildren();
+                    }
+                    return true;
+                }
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                close();
+            } catch (IOException e) {
+                logger.debug("Could not close {}: {}", path, e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (parser != null) {
+                parser.close();
+                parser = null;
+            }
+        }
+    }
+
+    /**
+     * What one merge did.
+     */
+    public static final class Result {
+        private final int inputs;
+        private int schemas;
+        private int conflicts;
+        private int bufferedInputs;
+        private int rounds;
+
+        private Result(int inputs) {
+            this.inputs = inputs;
+        }
+
+        public int getInputCount() {
+            return inputs;
+        }
+
+        public int getSchemaCount() {
+            return schemas;
+        }
+
+        /**
+         * Gets the number of schema names that inputs defined differently.
+         *
+         * @return the number of conflicts the policy resolved
+         */
+        public int getConflictCount() {
+            return conflicts;
+        }
+
+        /**
+         * Gets the number of inputs that were read into memory because their schemas were
+         * not sorted.
+         *
+         * @return the number of unsorted inputs
+         */
+        public int getBufferedInputCount() {
+            return bufferedInputs;
+        }
+
+        /**
+         * Gets the number of merge rounds, including the final one that wrote the output.
+         *
+         * @return 1 unless there were more inputs than the fan-in limit
+         */
+        public int getRoundCount() {
+            return rounds;
+        }
+    }
+
+    /**
+     * Builder for creating SpecMerger instances.
+     */
+    public static class Builder {
+        private ConflictPolicy conflictPolicy = ConflictPolicy.FAIL;
+        private RunMetrics metrics;
+        private int maxFanIn = DEFAULT_MAX_FAN_IN;
+
+        private Builder() {
+        }
+
+        public Builder conflictPolicy(ConflictPolicy conflictPolicy) {
+            this.conflictPolicy = conflictPolicy;
+            return this;
+        }
+
+        public Builder metrics(RunMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets how many inputs are open at a time; more inputs are merged in rounds.
+         *
+         * @param maxFanIn the maximum number of open inputs, at least 2
+         * @return this builder
+         */
+        public Builder maxFanIn(int maxFanIn) {
+            if (maxFanIn < 2) {
+                throw new IllegalArgumentException("Fan-in must be at least 2");
+            }
+            this.maxFanIn = maxFanIn;
+            return this;
+        }
+
+        public SpecMerger build() {
+            return new SpecMerger(this);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binary snapshot of a single-file specification, stored next to it in Jackson's Smile
+ * format. Decoding Smile is much cheaper than parsing YAML, so runs that amend or reuse a
+ * large previous output load the snapshot instead.
+ *
+ * <p>A snapshot carries the SHA-256 of the YAML content it was written with and is only
+ * used while the YAML file still has exactly that content. Editing the YAML by hand, or
+ * writing it without a snapshot, makes the next load parse the YAML again.
+ */
+public final class SpecSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpecSnapshot.class);
+
+    /**
+     * Suffix appended to the specification file name to locate the snapshot.
+     */
+    public static final String FILE_SUFFIX = ".smile";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory());
+
+    private SpecSnapshot() {
+    }
+
+    /**
+     * Returns the snapshot path that belongs to a specification file.
+     *
+     * @param specFile the specification file
+     * @return the snapshot path next to the specification file
+     */
+    public static Path pathFor(String specFile) {
+        return Paths.get(specFile + FILE_SUFFIX);
+    }
+
+    /**
+     * Writes the snapshot of a specification through a temporary file.
+     *
+     * @param snapshotFile the snapshot file path
+     * @param spec the specification
+     * @param yamlContent the YAML content the specification was written as
+     * @throws GenerationException if the snapshot cannot be written
+     */
+    public static void write(Path snapshotFile, OpenApiSpec spec, byte[] yamlContent) throws GenerationException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonGenerator generator = SMILE.getFactory().createGenerator(bytes)) {
+            // The hash comes first so a load can reject a stale snapshot before decoding the spec
+            generator.writeStartObject();
+            generator.writeNumberField("version", FORMAT_VERSION);
+            generator.writeStringField("hash", ContentHash.sha256Hex(yamlContent));
+            generator.writeFieldName("spec");
+            SMILE.writeValue(generator, spec);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new GenerationException("Failed to encode snapshot: " + e.getMessage(), snapshotFile.toString(), e);
+        }
+
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            Files.write(temp, bytes.toByteArray());
+            try {
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                logger.debug("Could not remove temporary snapshot {}", temp);
+            }
+            throw new GenerationException("Failed to write snapshot: " + snapshotFile, e);
+        }
+        logger.debug("Wrote snapshot of {} schemas ({} bytes) to {}", spec.getComponents().size(), bytes.size(),
+            snapshotFile);
+    }
+
+    /**
+     * Loads the specification from its snapshot if the snapshot was written with the given
+     * YAML content.
+     *
+     * @param snapshotFile the snapshot file path
+     * @param yamlContent the current content of the YAML specification file
+     * @return the specification, or null if there is no usable snapshot
+     */
+    public static OpenApiSpec load(Path snapshotFile, byte[] yamlContent) {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+        try (JsonParser parser = SMILE.getFactory().createParser(snapshotFile.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                logger.warn("Ignoring malformed snapshot {}", snapshotFile);
+                return null;
+            }
+            boolean matched = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "version":
+                        if (parser.getValueAsInt() != FORMAT_VERSION) {
+                            logger.warn("Ignoring snapshot {} with unsupported version {}", snapshotFile,
+                                parser.getText());
+                            return null;
+                        }
+                        break;
+                    case "hash":
+                        if (!ContentHash.sha256Hex(yamlContent).equals(parser.getText())) {
+                            logger.debug("Snapshot {} does not match the specification file, ignoring it", snapshotFile);
+                            return null;
+                        }
+                        matched = true;
+                        break;
+                    case "spec":
+                        if (!matched) {
+                            logger.warn("Ignoring snapshot {} without a content hash", snapshotFile);
+                            return null;
+                        }
+                        OpenApiSpec spec = parser.readValueAs(OpenApiSpec.class);
+                        logger.debug("Loaded snapshot of {} schemas from {}", spec.getComponents().size(), snapshotFile);
+                        return spec;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            logger.warn("Ignoring snapshot {} without a specification", snapshotFile);
+            return null;
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable snapshot {}: {}", snapshotFile, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Work queue in a directory shared by the processes of a distributed batch run. Every URL
+ * is a work item file that moves from {@code pending/} to {@code claimed/} and then to
+ * {@code done/} or {@code failed/}. Claiming is an atomic rename, so of several workers
+ * racing for an item exactly one wins, without locks or a broker. A worker writes the
+ * item's result to {@code results/} before moving it on, in the progress journal's record
+ * format. {@code items.txt} lists the run's URLs in order; it is written last, so a queue
+ * with this file is complete. A queue instance lists the pending items once and claims
+ * from that batch, shared by its threads; the directory is listed again only when the
+ * batch runs out.
+ */
+public class SpoolQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpoolQueue.class);
+
+    static final String ITEMS_FILE = "items.txt";
+    static final String PENDING_DIR = "pending";
+    static final String CLAIMED_DIR = "claimed";
+    static final String DONE_DIR = "done";
+    static final String FAILED_DIR = "failed";
+    static final String RESULTS_DIR = "results";
+
+    /** How long an item may stay claimed before it is given to another worker. */
+    public static final long DEFAULT_LEASE_MS = 5 * 60 * 1000;
+
+    private final Path directory;
+    private final List<String> urls;
+    private final ObjectMapper mapper;
+    private final RunMetrics metrics;
+    private final Deque<String> candidates = new ArrayDeque<>();
+
+    private SpoolQueue(Path directory, List<String> urls, RunMetrics metrics) {
+        this.directory = directory;
+        this.urls = Collections.unmodifiableList(urls);
+        this.mapper = new ObjectMapper();
+        this.metrics = metrics != null ? metrics : RunMetrics.disabled();
+    }
+
+    /**
+     * Creates a queue for a list of URLs, or reopens the queue of an interrupted run with
+     * the same URLs. Items that failed in that run are queued again.
+     *
+     * @param directory the spool directory
+     * @param urls the URLs of the run, in order
+     * @param metrics the run metrics, or null
+     * @return the queue
+     * @throws ConfigurationException if the directory cannot be written or holds the queue of a different run
+     */
+    public static SpoolQueue create(Path directory, List<String> urls, RunMetrics metrics) throws ConfigurationException {
+        Path itemsFile = directory.resolve(ITEMS_FILE);
+        try {
+            for (String dir : new String[]{PENDING_DIR, CLAIMED_DIR, DONE_DIR, FAILED_DIR, RESULTS_DIR}) {
+                Files.createDirectories(directory.resolve(dir));
+            }
+            if (Files.exists(itemsFile)) {
+                SpoolQueue queue = new SpoolQueue(directory, readItems(itemsFile), metrics);
+                if (!queue.urls.equals(urls)) {
+                    throw new ConfigurationException("Spool directory holds the queue of a different run; "
+                        + "remove it or use another directory", directory.toString());
+                }
+                int retried = queue.move(FAILED_DIR, PENDING_DIR, 0);
+                logger.info("Resuming spool queue in {} ({} failed items queued again)", directory, retried);
+                return queue;
+            }
+
+            for (int i = 0; i < urls.size(); i++) {
+                writeAtomically(directory.resolve(PENDING_DIR).resolve(itemId(i)), urls.get(i) + "\n");
+            }
+            writeAtomically(itemsFile, String.join("\n", urls) + "\n");
+            logger.info("Queued {} work items in {}", urls.size(), directory);
+            return new SpoolQueue(directory, new ArrayList<>(urls), metrics);
+        } catch (IOException e) {
+            throw new ConfigurationException("Cannot create spool queue: " + e.getMessage(), directory.toString(), e);
+        }
+    }
+
+    /**
+     * Opens the queue a coordinator created, for a worker.
+     *
+     * @param directory the spool directory
+     * @param metrics the run metrics, or null
+     * @return the queue
+     * @throws ConfigurationException if the directory holds no complete queue
+     */
+    public static SpoolQueue open(Path directory, RunMetrics metrics) throws ConfigurationException {
+        Path itemsFile = directory.resolve(ITEMS_FILE);
+        if (!Files.isRegularFile(itemsFile)) {
+            throw new ConfigurationException("No spool queue found, expected " + itemsFile, directory.toString());
+        }
+        try {
+            return new SpoolQueue(directory, readItems(itemsFile), metrics);
+        } catch (IOException e) {
+            throw new ConfigurationException("Cannot read spool queue: " + e.getMessage(), directory.toString(), e);
+        }
+    }
+
+    private static List<String> readItems(Path itemsFile) throws IOException {
+        return Files.readAllLines(itemsFile, StandardCharsets.UTF_8).stream()
+            .filter(line -> !line.isEmpty())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Names the work item of the URL at an index; the names sort in queue order.
+     */
+    static String itemId(int index) {
+        return String.format("%08d", index);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    /**
+     * Claims the next pending item. An item another worker claimed first is skipped in
+     * favour of the next one in the batch.
+     *
+     * @return the claimed item, or null if no item is pending
+     * @throws ApiWeaverException if the spool directory cannot be read or renamed in
+     */
+    public Item claim() throws ApiWeaverException {
+        String id;
+        while ((id = nextCandidate()) != null) {
+            Path claimed = directory.resolve(CLAIMED_DIR).resolve(id);
+            try {
+                Files.move(directory.resolve(PENDING_DIR).resolve(id), claimed, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException | FileAlreadyExistsException e) {
+                // Another worker claimed it first
+                metrics.increment(RunMetrics.SPOOL_CLAIM_CONFLICTS);
+                continue;
+            } catch (AtomicMoveNotSupportedException e) {
+                throw new ConfigurationException("Spool directory does not support atomic renames", directory.toString(), e);
+            } catch (IOException e) {
+                throw new ApiWeaverException("Failed to claim work item " + id + ": " + e.getMessage(), directory.toString(), e);
+            }
+            try {
+                // The lease starts now, not when the item was queued
+                Files.setLastModifiedTime(claimed, FileTime.fromMillis(System.currentTimeMillis()));
+                String url = new String(Files.readAllBytes(claimed), StandardCharsets.UTF_8).trim();
+                metrics.increment(RunMetrics.SPOOL_CLAIMED);
+                return new Item(id, url);
+            } catch (NoSuchFileException e) {
+                // Handed to another worker as stale in between; it is that worker's now
+                continue;
+            } catch (IOException e) {
+                throw new ApiWeaverException("Failed to read work item " + id + ": " + e.getMessage(), directory.toString(), e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes the next item of the batch, listing the pending items again once it is empty.
+     *
+     * @return the item name, or null if no item is pending
+     */
+    private synchronized String nextCandidate() throws ApiWeaverException {
+        if (candidates.isEmpty()) {
+            candidates.addAll(list(PENDING_DIR));
+        }
+        return candidates.poll();
+    }
+
+    /**
+     * Records the result of a claimed item and marks it done.
+     *
+     * @param item the claimed item
+     * @param result the processed page
+     * @throws ApiWeaverException if the result cannot be written
+     */
+    public void complete(Item item, PageResult result) throws ApiWeaverException {
+        finish(item, ProgressJournal.completedRecord(mapper, result), DONE_DIR);
+    }
+
+    /**
+     * Records the failure of a claimed item and marks it failed.
+     *
+     * @param item the claimed item
+     * @param error the failure message
+     * @throws ApiWeaverException if the failure cannot be written
+     */
+    public void fail(Item item, String error) throws ApiWeaverException {
+        ObjectNode record = mapper.createObjectNode();
+        record.put("url", item.getUrl());
+        record.put("status", ProgressJournal.STATUS_FAILED);
+        record.put("error", error);
+        finish(item, record, FAILED_DIR);
+    }
+
+    /**
+     * Puts a claimed item back so another worker, or a later run, processes it.
+     *
+     * @param item the claimed item
+     * @throws ApiWeaverException if the item cannot be moved
+     */
+    public void release(Item item) throws ApiWeaverException {
+        try {
+            Files.move(directory.resolve(CLAIMED_DIR).resolve(item.getId()),
+                directory.resolve(PENDING_DIR).resolve(item.getId()), StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            // Already requeued as stale
+        } catch (IOException e) {
+            throw new ApiWeaverException("Failed to release work item " + item.getId() + ": " + e.getMessage(),
+                item.getUrl(), e);
+        }
+    }
+
+    /**
+     * Writes the result before moving the item, so a done item always has its result.
+     * If the item was meanwhile handed to another worker as stale, whichever worker
+     * finishes first moves it; both results are equivalent.
+     */
+    private void finish(Item item, ObjectNode record, String target) throws ApiWeaverException {
+        try {
+            writeAtomically(directory.resolve(RESULTS_DIR).resolve(item.getId() + ".json"), mapper.writeValueAsString(record));
+            Path to = directory.resolve(target).resolve(item.getId());
+            for (String from : new String[]{CLAIMED_DIR, PENDING_DIR}) {
+                try {
+                    Files.move(directory.resolve(from).resolve(item.getId()), to, StandardCopyOption.ATOMIC_MOVE);
+                    return;
+                } catch (NoSuchFileException e) {
+                    // Not there: requeued as stale, or already finished by another worker
+                }
+            }
+        } catch (IOException e) {
+            throw new ApiWeaverException("Failed to record work item " + item.getId() + ": " + e.getMessage(),
+                item.getUrl(), e);
+        }
+    }
+
+    /**
+     * Moves items claimed longer than the lease back to pending, so items of a crashed
+     * worker are processed by another one.
+     *
+     * @param leaseMs how long an item may stay claimed
+     * @return the number of items queued again
+     * @throws ApiWeaverException if the spool directory cannot be read
+     */
+    public int requeueStale(long leaseMs) throws ApiWeaverException {
+        try {
+            int requeued = move(CLAIMED_DIR, PENDING_DIR, System.currentTimeMillis() - leaseMs);
+            if (requeued > 0) {
+                logger.warn("Queued {} work items again whose worker held them longer than {} ms", requeued, leaseMs);
+                metrics.add(RunMetrics.SPOOL_REQUEUED, requeued);
+            }
+            return requeued;
+        } catch (IOException e) {
+            throw new ApiWeaverException("Failed to requeue stale work items: " + e.getMessage(), directory.toString(), e);
+        }
+    }
+
+    /**
+     * Moves the items of one state directory to another.
+     *
+     * @param olderThan only move items last modified before this time, or 0 for all
+     */
+    private int move(String from, String to, long olderThan) throws IOException {
+        int moved = 0;
+        for (String id : listFiles(from)) {
+            Path source = directory.resolve(from).resolve(id);
+            try {
+                if (olderThan > 0 && Files.getLastModifiedTime(source).toMillis() >= olderThan) {
+                    continue;
+                }
+                Files.move(source, directory.resolve(to).resolve(id), StandardCopyOption.ATOMIC_MOVE);
+                moved++;
+            } catch (NoSuchFileException e) {
+                // Finished in the meantime
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Counts the items in each state.
+     *
+     * @return the number of items by state directory name
+     * @throws ApiWeaverException if the spool directory cannot be read
+     */
+    public Map<String, Integer> counts() throws ApiWeaverException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String dir : new String[]{PENDING_DIR, CLAIMED_DIR, DONE_DIR, FAILED_DIR}) {
+            counts.put(dir, list(dir).size());
+        }
+        return counts;
+    }
+
+    /**
+     * Checks whether every item is done or failed.
+     *
+     * @return true if no item is pending or claimed
+     * @throws ApiWeaverException if the spool directory cannot be read
+     */
+    public boolean isFinished() throws ApiWeaverException {
+        return list(PENDING_DIR).isEmpty() && list(CLAIMED_DIR).isEmpty();
+    }
+
+    /**
+     * Reads the results of all finished items, in queue order.
+     *
+     * @return the pages of done items, the errors of failed items and the URLs not yet finished
+     * @throws ApiWeaverException if a result cannot be read
+     */
+    public Results results() throws ApiWeaverException {
+        List<PageResult> pages = new ArrayList<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+        List<String> unfinished = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String id = itemId(i);
+            boolean done = Files.exists(directory.resolve(DONE_DIR).resolve(id));
+            if (!done && !Files.exists(directory.resolve(FAILED_DIR).resolve(id))) {
+                unfinished.add(urls.get(i));
+                continue;
+            }
+            Path path = directory.resolve(RESULTS_DIR).resolve(id + ".json");
+            try {
+                JsonNode record = mapper.readTree(path.toFile());
+                if (done) {
+                    pages.add(ProgressJournal.pageOf(record));
+                } else {
+                    failures.put(urls.get(i), record.path("error").asText("unknown error"));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                throw new ApiWeaverException("Failed to read result of work item " + id + ": " + e.getMessage(),
+                    path.toString(), e);
+            }
+        }
+        return new Results(pages, failures, unfinished);
+    }
+
+    /**
+     * Deletes the queue once its results have been merged, so the next run starts fresh.
+     *
+     * @throws ApiWeaverException if the queue cannot be removed
+     */
+    public void clear() throws ApiWeaverException {
+        try {
+            // The items file goes first, so workers stop treating the directory as a queue
+            Files.deleteIfExists(directory.resolve(ITEMS_FILE));
+            for (String dir : new String[]{PENDING_DIR, CLAIMED_DIR, DONE_DIR, FAILED_DIR, RESULTS_DIR}) {
+                for (String name : listFiles(dir)) {
+                    Files.deleteIfExists(directory.resolve(dir).resolve(name));
+                }
+                Files.deleteIfExists(directory.resolve(dir));
+            }
+            logger.debug("Removed spool queue in {}", directory);
+        } catch (IOException e) {
+            throw new ApiWeaverException("Failed to remove spool queue: " + e.getMessage(), directory.toString(), e);
+        }
+    }
+
+    private List<String> list(String dir) throws ApiWeaverException {
+        try {
+            return listFiles(dir);
+        } catch (IOException e) {
+            throw new ApiWeaverException("Failed to list spool directory: " + e.getMessage(), directory.resolve(dir).toString(), e);
+        }
+    }
+
+    /**
+     * Lists the item names in a state directory, in queue order, leaving out files still being written.
+     */
+    private List<String> listFiles(String dir) throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(dir))) {
+            return files.map(path -> path.getFileName().toString())
+                .filter(name -> !name.endsWith(".tmp"))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (NoSuchFileException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Writes a file through a temporary file and a rename, so readers never see it partly written.
+     */
+    private static void writeAtomically(Path target, String content) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * A claimed work item.
+     */
+    public static final class Item {
+        private final String id;
+        private final String url;
+
+        Item(String id, String url) {
+            this.id = id;
+            this.url = url;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public String toString() {
+            return id + " " + url;
+        }
+    }
+
+    /**
+     * The results of a queue's finished items.
+     */
+    public static final class Results {
+        private final List<PageResult> pages;
+        private final Map<String, String> failures;
+        private final List<String> unfinished;
+
+        Results(List<PageResult> pages, Map<String, String> failures, List<String> unfinished) {
+            this.pages = Collections.unmodifiableList(pages);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.unfinished = Collections.unmodifiableList(unfinished);
+        }
+
+        public List<PageResult> getPages() {
+            return pages;
+        }
+
+        public Map<String, String> getFailures() {
+            return failures;
+        }
+
+        public List<String> getUnfinished() {
+            return unfinished;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.apiweaver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes the work items of a {@link SpoolQueue} until none is pending. Each item is
+ * fetched and extracted like a page of a batch run and its result written back to the
+ * queue, so any number of workers in any number of processes can share a queue. A page
+ * that fails is recorded as failed and the worker moves on; the coordinator decides what
+ * a failure means for the run. When the deadline passes, the item in hand is put back.
+ */
+public class SpoolWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpoolWorker.class);
+
+    private final SpoolQueue queue;
+    private final UrlFetcher fetcher;
+    private final PageProcessor pageProcessor;
+    private final Tracer tracer;
+    private final int concurrency;
+    private final Deadline deadline;
+
+    private SpoolWorker(Builder builder) {
+        if (builder.queue == null || builder.fetcher == null || builder.pageProcessor == null) {
+            throw new IllegalArgumentException("Queue, fetcher and page processor cannot be null");
+        }
+        if (builder.concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + builder.concurrency);
+        }
+        this.queue = builder.queue;
+        this.fetcher = builder.fetcher;
+        this.pageProcessor = builder.pageProcessor;
+        this.tracer = builder.tracer != null ? builder.tracer : Tracer.noop();
+        this.concurrency = builder.concurrency;
+        this.deadline = builder.deadline != null ? builder.deadline : Deadline.none();
+    }
+
+    /**
+     * Creates a new builder for a worker that processes one item at a time.
+     *
+     * @param queue the queue to take items from
+     * @param fetcher the fetcher used to retrieve pages
+     * @param pageProcessor the processor used to extract properties from each page
+     * @return a new builder instance
+     */
+    public static Builder builder(SpoolQueue queue, UrlFetcher fetcher, PageProcessor pageProcessor) {
+        return new Builder(queue, fetcher, pageProcessor);
+    }
+
+    /**
+     * Claims and processes items until the queue has no pending item or the deadline passes.
+     *
+     * @return the number of items this worker finished
+     * @throws ApiWeaverException if the queue cannot be read or written
+     */
+    public int run() throws ApiWeaverException {
+        AtomicInteger finished = new AtomicInteger();
+        Span parent = tracer.current();
+        ExecutorService executor = PageExecutors.newPageExecutor(concurrency);
+        List<Future<Void>> loops = new ArrayList<>(concurrency);
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                loops.add(executor.submit(() -> {
+                    SpoolQueue.Item item;
+                    while (!deadline.isExpired() && (item = queue.claim()) != null) {
+                        if (process(item, parent)) {
+                            finished.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> loop : loops) {
+                await(loop);
+            }
+        } finally {
+            loops.forEach(loop -> loop.cancel(true));
+            executor.shutdownNow();
+        }
+        if (finished.get() > 0) {
+            logger.info("Worker finished {} items from {}", finished.get(), queue.getDirectory());
+        }
+        return finished.get();
+    }
+
+    /**
+     * Processes one item and records its outcome in the queue.
+     *
+     * @return true if the item was finished, false if it was put back at the deadline
+     */
+    private boolean process(SpoolQueue.Item item, Span parent) throws ApiWeaverException {
+        Span span = tracer.startSpan("page", parent).setAttribute("url.full", item.getUrl());
+        try (Tracer.Scope scope = tracer.activate(span)) {
+            FetchedPage page = fetcher.fetchPage(item.getUrl(), null, null);
+            deadline.check("fetch", item.getUrl());
+            PageResult result = pageProcessor.process(page, null, deadline);
+            span.setAttribute("apiweaver.schema", result.getSchemaName());
+            queue.complete(item, result);
+            return true;
+        } catch (DeadlineExceededException e) {
+            span.recordError(e);
+            logger.warn("Deadline passed while processing {}, returning it to the queue", item.getUrl());
+            queue.release(item);
+            return false;
+        } catch (ApiWeaverException e) {
+            span.recordError(e);
+            logger.error("Failed to process {}: {}", item.getUrl(), e.getMessage());
+            queue.fail(item, e.getMessage());
+            return true;
+        } finally {
+            span.end();
+        }
+    }
+
+    private static void await(Future<Void> loop) throws ApiWeaverException {
+        try {
+            loop.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiWeaverException) {
+                throw (ApiWeaverException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ApiWeaverException("Worker failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiWeaverException("Worker was interrupted", e);
+        }
+    }
+
+    /**
+     * Builder for creating SpoolWorker instances.
+     */
+    public static class Builder {
+        private final SpoolQueue queue;
+        private final UrlFetcher fetcher;
+        private final PageProcessor pageProcessor;
+        private Tracer tracer;
+        private int concurrency = 1;
+        private Deadline deadline;
+
+        private Builder(SpoolQueue queue, UrlFetcher fetcher, PageProcessor pageProcessor) {
+            this.queue = queue;
+            this.fetcher = fetcher;
+            this.pageProcessor = pageProcessor;
+        }
+
+        public Builder tracer(Tracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder deadline(Deadline deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        public SpoolWorker build() {
+            return new SpoolWorker(this);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.apiweaver;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The property definitions extracted from a table together with the table's fingerprint.
+ */
+public class TableExtraction {
+    private final List<PropertyDefinition> properties;
+    private final String fingerprint;
+
+    /**
+     * Creates a new table extraction.
+     *
+     * @param properties the property definitions extracted from the table
+     * @param fingerprint the fingerprint of the table as a hexadecimal string
+     */
+    public TableExtraction(List<PropertyDefinition> properties, String fingerprint) {
+        this.properties = properties != null ? Collections.unmodifiableList(properties) : Collections.emptyList();
+        this.fingerprint = fingerprint;
+    }
+
+    public List<PropertyDefinition> getProperties() {
+        return properties;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+}
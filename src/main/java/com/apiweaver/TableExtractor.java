@@ -17,4 +17,52 @@ public interface TableExtractor {
      * @throws ExtractionException if the table structure is invalid or cannot be parsed
      */
     List<PropertyDefinition> extractProperties(Element table) throws ExtractionException;
+    
+    /**
+     * Extracts property definitions from a table, giving up once the deadline has passed.
+     * The default implementation checks the deadline before {@link #extractProperties(Element)}.
+     * 
+     * @param table the HTML table element to extract from
+     * @param deadline the deadline of the page being processed
+     * @return list of property definitions extracted from the table
+     * @throws ExtractionException if the table structure is invalid or cannot be parsed
+     * @throws DeadlineExceededException if the deadline passes
+     */
+    default List<PropertyDefinition> extractProperties(Element table, Deadline deadline)
+            throws ExtractionException, DeadlineExceededException {
+        deadline.check("extraction");
+        return extractProperties(table);
+    }
+    
+    /**
+     * Computes a fingerprint of a table that changes only when the extracted content would change.
+     * The default implementation hashes the table markup.
+     * 
+     * @param table the HTML table element to fingerprint
+     * @return the table fingerprint as a hexadecimal string
+     * @throws ExtractionException if the table structure is invalid
+     */
+    default String fingerprintTable(Element table) throws ExtractionException {
+        if (table == null) {
+            throw new ExtractionException("Table element cannot be null");
+        }
+        return ContentHash.sha256Hex(table.outerHtml());
+    }
+
+    /**
+     * Extracts property definitions from a table and fingerprints it.
+     * The default implementation calls {@link #fingerprintTable(Element)} and
+     * {@link #extractProperties(Element, Deadline)}; implementations should compute both in one pass.
+     *
+     * @param table the HTML table element to extract from
+     * @param deadline the deadline of the page being processed
+     * @return the extracted property definitions and the table fingerprint
+     * @throws ExtractionException if the table structure is invalid or cannot be parsed
+     * @throws DeadlineExceededException if the deadline passes
+     */
+    default TableExtraction extractTable(Element table, Deadline deadline)
+            throws ExtractionException, DeadlineExceededException {
+        String fingerprint = fingerprintTable(table);
+        return new TableExtraction(extractProperties(table, deadline), fingerprint);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.apiweaver;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Incrementally computed canonical fingerprint of a property table.
+ * The header layout and each row's cells are fed into a SHA-256 digest as they are read,
+ * so two tables with the same logical content produce the same fingerprint regardless of
+ * surrounding markup, attributes, whitespace or column order.
+ */
+public class TableFingerprint {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final byte HEADER_MARKER = 'H';
+    private static final byte ROW_MARKER = 'R';
+
+    private final MessageDigest digest;
+    private int rowCount;
+
+    /**
+     * Creates an empty fingerprint.
+     */
+    public TableFingerprint() {
+        this.digest = ContentHash.newSha256();
+    }
+
+    /**
+     * Adds the normalized header layout: the logical columns that were identified in the table.
+     * Column positions are not part of the layout, so reordering columns does not change it.
+     *
+     * @param columnMap the logical column names mapped to their positions
+     */
+    public void addHeader(Map<String, Integer> columnMap) {
+        digest.update(HEADER_MARKER);
+        for (String column : new TreeMap<>(columnMap).keySet()) {
+            addValue(column);
+        }
+    }
+
+    /**
+     * Adds one row. Values must be given in canonical column order; missing cells are passed as null.
+     *
+     * @param cells the normalized cell values of the row
+     */
+    public void addRow(String... cells) {
+        digest.update(ROW_MARKER);
+        for (String cell : cells) {
+            addValue(cell);
+        }
+        rowCount++;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Completes the fingerprint. The fingerprint cannot be updated afterwards.
+     *
+     * @return the lowercase hexadecimal fingerprint
+     */
+    public String toHex() {
+        return ContentHash.toHex(digest.digest());
+    }
+
+    /**
+     * Normalizes cell text by collapsing whitespace runs and trimming.
+     *
+     * @param text the raw cell text
+     * @return the normalized text, or null if the input is null
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (isNormalized(text)) {
+            return text;
+        }
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    /**
+     * Checks for text that normalizing would return unchanged, which is most cell text, so
+     * the common case allocates nothing.
+     */
+    private static boolean isNormalized(String text) {
+        int length = text.length();
+        if (length > 0 && (text.charAt(0) <= ' ' || text.charAt(length - 1) <= ' ')) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == ' ' ? i > 0 && text.charAt(i - 1) == ' ' : isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Matches the characters of the {@code \s} class other than the space.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Feeds a length-prefixed value so adjacent values cannot run into each other.
+     */
+    private void addValue(String value) {
+        if (value == null) {
+            updateInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateInt(bytes.length);
+        digest.update(bytes);
+    }
+
+    private void updateInt(int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+}
@@ -2,6 +2,7 @@ package com.apiweaver;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +10,8 @@ import org.slf4j.LoggerFactory;
 /**
  * Implementation of PropertyMapper for TimeTap API documentation.
  * Maps HTML property types to OpenAPI 3.1.1 compliant types and formats.
+ * When a schema symbol table is given, types that name another documented object
+ * are mapped to references to that object's schema.
  */
 public class TimeTapPropertyMapper implements PropertyMapper {
     
@@ -82,6 +85,45 @@ public class TimeTapPropertyMapper implements PropertyMapper {
         TYPE_MAPPINGS.put("URI", new String[]{"string", "uri"});
     }
     
+    /**
+     * Upper bound on the number of distinct type strings kept in the resolution cache.
+     */
+    private static final int MAX_CACHED_TYPES = 4096;
+    
+    private final SchemaSymbolTable symbolTable;
+    private final RunMetrics metrics;
+    private final Map<String, ResolvedType> resolvedTypes = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a mapper without cross-schema references.
+     */
+    public TimeTapPropertyMapper() {
+        this(new SchemaSymbolTable());
+    }
+    
+    /**
+     * Creates a mapper that resolves object-typed properties against the given schema names.
+     * 
+     * @param symbolTable the schema names that can be referenced
+     */
+    public TimeTapPropertyMapper(SchemaSymbolTable symbolTable) {
+        this(symbolTable, RunMetrics.disabled());
+    }
+    
+    /**
+     * Creates a mapper that also records type-resolution cache hits, fallbacks and references.
+     * 
+     * @param symbolTable the schema names that can be referenced
+     * @param metrics the metrics collector
+     */
+    public TimeTapPropertyMapper(SchemaSymbolTable symbolTable, RunMetrics metrics) {
+        if (symbolTable == null) {
+            throw new IllegalArgumentException("Symbol table cannot be null");
+        }
+        this.symbolTable = symbolTable;
+        this.metrics = metrics != null ? metrics : RunMetrics.disabled();
+    }
+    
     @Override
     public OpenApiProperty mapToOpenApiProperty(PropertyDefinition property) {
         if (property == null) {
@@ -95,9 +137,46 @@ public class TimeTapPropertyMapper implements PropertyMapper {
         }
         
         logger.debug("Mapping property '{}' of type '{}' to OpenAPI", property.getName(), property.getType());
+        metrics.increment(RunMetrics.MAP_PROPERTIES);
+        
+        PipelineEvents.MappingEvent event = new PipelineEvents.MappingEvent();
+        event.begin();
+        OpenApiProperty result = mapProperty(property);
+        event.end();
+        if (event.shouldCommit()) {
+            event.propertyName = result.getName();
+            event.sourceType = property.getType();
+            event.openApiType = result.getType();
+            event.ref = result.getRef();
+            event.commit();
+        }
+        return result;
+    }
+    
+    /**
+     * Maps a validated property definition to a schema reference or a plain typed property.
+     */
+    private OpenApiProperty mapProperty(PropertyDefinition property) {
+        String ref = symbolTable.resolve(referencedTypeName(property.getType()));
+        if (ref != null) {
+            String refType = SchemaSymbolTable.isCollectionType(property.getType()) ? "array" : "object";
+            logger.debug("Mapped property '{}': {} -> reference to schema '{}'", property.getName(), property.getType(), ref);
+            metrics.increment(RunMetrics.MAP_REFERENCES);
+            return OpenApiProperty.builder(property.getName(), refType)
+                    .ref(ref)
+                    .required(property.isRequired())
+                    .readOnly(!property.isWritable())
+                    .description(property.getDescription())
+                    .build();
+        }
         
-        String openApiType = mapHtmlTypeToOpenApiType(property.getType());
-        String format = getFormatForType(property.getType());
+        ResolvedType resolved = resolveType(property.getType());
+        if (resolved.fallback) {
+            logger.debug("No mapping for type '{}' of property '{}', using 'string'", property.getType(), property.getName());
+            metrics.increment(RunMetrics.MAP_FALLBACKS);
+        }
+        String openApiType = resolved.type;
+        String format = resolved.format;
         
         OpenApiProperty result = OpenApiProperty.builder(property.getName(), openApiType)
                 .format(format)
@@ -115,9 +194,40 @@ public class TimeTapPropertyMapper implements PropertyMapper {
     
     @Override
     public String mapHtmlTypeToOpenApiType(String htmlType) {
+        String openApiType = mapKnownType(htmlType);
+        return openApiType != null ? openApiType : "string"; // Default fallback type
+    }
+    
+    /**
+     * Resolves the OpenAPI type and format of an HTML type, caching the result per type string.
+     */
+    private ResolvedType resolveType(String htmlType) {
+        String key = htmlType != null ? htmlType : "";
+        ResolvedType resolved = resolvedTypes.get(key);
+        if (resolved != null) {
+            metrics.increment(RunMetrics.MAP_CACHE_HITS);
+            return resolved;
+        }
+        
+        metrics.increment(RunMetrics.MAP_CACHE_MISSES);
+        String openApiType = mapKnownType(htmlType);
+        resolved = new ResolvedType(openApiType != null ? openApiType : "string", getFormatForType(htmlType), openApiType == null);
+        if (resolvedTypes.size() < MAX_CACHED_TYPES) {
+            resolvedTypes.putIfAbsent(key, resolved);
+        }
+        return resolved;
+    }
+    
+    /**
+     * Maps an HTML type to an OpenAPI type using the known mappings and naming heuristics.
+     * 
+     * @param htmlType the HTML type string
+     * @return the OpenAPI type, or null if no mapping applies
+     */
+    private String mapKnownType(String htmlType) {
         if (htmlType == null || htmlType.trim().isEmpty()) {
             logger.debug("Mapping null/empty HTML type to default 'string' type");
-            return "string"; // Default fallback type
+            return null;
         }
         
         String trimmedType = htmlType.trim();
@@ -137,7 +247,7 @@ public class TimeTapPropertyMapper implements PropertyMapper {
         // Handle nullable types (e.g., "string?", "Integer?")
         if (trimmedType.endsWith("?")) {
             String baseType = trimmedType.substring(0, trimmedType.length() - 1);
-            return mapHtmlTypeToOpenApiType(baseType);
+            return mapKnownType(baseType);
         }
         
         // Case-insensitive fallback for common types
@@ -158,8 +268,22 @@ public class TimeTapPropertyMapper implements PropertyMapper {
             return "object";
         }
         
-        // Default fallback
-        return "string";
+        return null;
+    }
+    
+    /**
+     * Gets the name of the object type an HTML type refers to, ignoring array and nullable
+     * decorations. Built-in types such as {@code string} or {@code DateTime} are not object types.
+     * 
+     * @param htmlType the HTML type string
+     * @return the referenced type name, or null if the type is a built-in type
+     */
+    public String referencedTypeName(String htmlType) {
+        String baseType = SchemaSymbolTable.baseTypeName(htmlType);
+        if (baseType == null || TYPE_MAPPINGS.containsKey(baseType)) {
+            return null;
+        }
+        return baseType;
     }
     
     /**
@@ -189,4 +313,19 @@ public class TimeTapPropertyMapper implements PropertyMapper {
         
         return null;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Cached result of resolving an HTML type string.
+     */
+    private static final class ResolvedType {
+        private final String type;
+        private final String format;
+        private final boolean fallback;
+        
+        ResolvedType(String type, String format, boolean fallback) {
+            this.type = type;
+            this.format = format;
+            this.fallback = fallback;
+        }
+    }
+}
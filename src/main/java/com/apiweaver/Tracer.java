@@ -0,0 +1,147 @@
+package com.apiweaver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates spans and tracks the active span of each thread, so spans started while another
+ * span is active become its children. Context does not follow work to other threads on its
+ * own: code that hands work to another thread passes the parent span explicitly and
+ * activates it there.
+ */
+public class Tracer implements Closeable {
+
+    private static final Tracer NOOP = new Tracer(null);
+    private static final Span NOOP_SPAN = new Span(null, "", "", null, "", 0);
+
+    private final SpanExporter exporter;
+    private final long baseEpochNanos;
+    private final long baseNanoTime;
+    private final ThreadLocal<Deque<Span>> activeSpans = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Creates a tracer that hands every ended span to the exporter.
+     *
+     * @param exporter the span exporter
+     */
+    public Tracer(SpanExporter exporter) {
+        this.exporter = exporter;
+        Instant now = Instant.now();
+        this.baseEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.baseNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Returns the shared tracer that records nothing.
+     *
+     * @return the disabled tracer
+     */
+    public static Tracer noop() {
+        return NOOP;
+    }
+
+    public boolean isEnabled() {
+        return exporter != null;
+    }
+
+    /**
+     * Starts a span as a child of the current thread's active span, or as the root of a new
+     * trace when no span is active.
+     *
+     * @param name the span name
+     * @return the started span
+     */
+    public Span startSpan(String name) {
+        return startSpan(name, current());
+    }
+
+    /**
+     * Starts a span with an explicit parent.
+     *
+     * @param name the span name
+     * @param parent the parent span, or null to start a new trace
+     * @return the started span
+     */
+    public Span startSpan(String name, Span parent) {
+        if (!isEnabled()) {
+            return NOOP_SPAN;
+        }
+        boolean root = parent == null || !parent.isRecording();
+        String traceId = root ? randomHex(16) : parent.getTraceId();
+        String parentSpanId = root ? null : parent.getSpanId();
+        return new Span(this, traceId, randomHex(8), parentSpanId, name, nowEpochNanos());
+    }
+
+    /**
+     * Gets the active span of the current thread.
+     *
+     * @return the active span, or null if none is active
+     */
+    public Span current() {
+        return isEnabled() ? activeSpans.get().peek() : null;
+    }
+
+    /**
+     * Makes a span the active span of the current thread until the returned scope is closed.
+     *
+     * @param span the span to activate
+     * @return the scope that restores the previously active span
+     */
+    public Scope activate(Span span) {
+        if (!isEnabled() || !span.isRecording()) {
+            return () -> { };
+        }
+        Deque<Span> stack = activeSpans.get();
+        stack.push(span);
+        return () -> {
+            stack.remove(span);
+            if (stack.isEmpty()) {
+                activeSpans.remove();
+            }
+        };
+    }
+
+    long nowEpochNanos() {
+        return baseEpochNanos + (System.nanoTime() - baseNanoTime);
+    }
+
+    void export(Span span) {
+        if (exporter != null) {
+            exporter.export(span);
+        }
+    }
+
+    /**
+     * Flushes and closes the exporter.
+     *
+     * @throws IOException if buffered spans cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (exporter != null) {
+            exporter.close();
+        }
+    }
+
+    private static String randomHex(int bytes) {
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            hex.append(String.format("%02x", random.nextInt(256)));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Scope of an activated span. Closing it restores the previously active span.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
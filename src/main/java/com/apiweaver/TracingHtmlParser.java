@@ -0,0 +1,114 @@
+package com.apiweaver;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.List;
+
+/**
+ * HtmlParser decorator that records a span for parsing and for each element lookup.
+ */
+public class TracingHtmlParser implements HtmlParser {
+
+    private final HtmlParser delegate;
+    private final Tracer tracer;
+
+    public TracingHtmlParser(HtmlParser delegate, Tracer tracer) {
+        if (delegate == null || tracer == null) {
+            throw new IllegalArgumentException("Delegate and tracer cannot be null");
+        }
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Wraps a parser when tracing is enabled.
+     *
+     * @param parser the parser to trace
+     * @param tracer the tracer
+     * @return the traced parser, or the parser itself if the tracer is disabled
+     */
+    public static HtmlParser wrap(HtmlParser parser, Tracer tracer) {
+        return tracer.isEnabled() ? new TracingHtmlParser(parser, tracer) : parser;
+    }
+
+    @Override
+    public Document parseHtml(String htmlContent) {
+        Span span = tracer.startSpan("parse")
+                .setAttribute("apiweaver.chars", htmlContent != null ? htmlContent.length() : 0);
+        try {
+            return delegate.parseHtml(htmlContent);
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public Document parseHtml(String htmlContent, Deadline deadline) throws DeadlineExceededException {
+        Span span = tracer.startSpan("parse")
+                .setAttribute("apiweaver.chars", htmlContent != null ? htmlContent.length() : 0);
+        try {
+            return delegate.parseHtml(htmlContent, deadline);
+        } catch (DeadlineExceededException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public List<Element> findH2ElementsWithIdEndingIn(Document doc, String suffix) {
+        Span span = tracer.startSpan("parse.findH2").setAttribute("apiweaver.suffix", suffix);
+        try {
+            List<Element> elements = delegate.findH2ElementsWithIdEndingIn(doc, suffix);
+            span.setAttribute("apiweaver.matches", elements.size());
+            return elements;
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public Element findFirstTableAfterElement(Document doc, Element element) {
+        Span span = tracer.startSpan("parse.findTable");
+        if (element != null) {
+            span.setAttribute("apiweaver.element_id", element.id());
+        }
+        try {
+            Element table = delegate.findFirstTableAfterElement(doc, element);
+            span.setAttribute("apiweaver.found", table != null);
+            return table;
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public Element findFirstTableAfterElement(Document doc, Element element, Deadline deadline)
+            throws DeadlineExceededException {
+        Span span = tracer.startSpan("parse.findTable");
+        if (element != null) {
+            span.setAttribute("apiweaver.element_id", element.id());
+        }
+        try {
+            Element table = delegate.findFirstTableAfterElement(doc, element, deadline);
+            span.setAttribute("apiweaver.found", table != null);
+            return table;
+        } catch (DeadlineExceededException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
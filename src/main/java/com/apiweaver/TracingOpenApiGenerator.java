@@ -0,0 +1,74 @@
+package com.apiweaver;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * OpenApiGenerator decorator that records a span for every schema generation.
+ */
+public class TracingOpenApiGenerator implements OpenApiGenerator {
+
+    private final OpenApiGenerator delegate;
+    private final Tracer tracer;
+
+    public TracingOpenApiGenerator(OpenApiGenerator delegate, Tracer tracer) {
+        if (delegate == null || tracer == null) {
+            throw new IllegalArgumentException("Delegate and tracer cannot be null");
+        }
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Wraps a generator when tracing is enabled.
+     *
+     * @param generator the generator to trace
+     * @param tracer the tracer
+     * @return the traced generator, or the generator itself if the tracer is disabled
+     */
+    public static OpenApiGenerator wrap(OpenApiGenerator generator, Tracer tracer) {
+        return tracer.isEnabled() ? new TracingOpenApiGenerator(generator, tracer) : generator;
+    }
+
+    @Override
+    public OpenApiSpec generateOrAmendSpec(List<OpenApiProperty> properties, OpenApiSpec existing) {
+        Span span = startGenerateSpan(PageProcessor.DEFAULT_SCHEMA_NAME, properties);
+        try {
+            return delegate.generateOrAmendSpec(properties, existing);
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public OpenApiSpec generateOrAmendSpec(String schemaName, List<OpenApiProperty> properties, OpenApiSpec existing) {
+        Span span = startGenerateSpan(schemaName, properties);
+        try {
+            return delegate.generateOrAmendSpec(schemaName, properties, existing);
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public OpenApiSpec createNewSpec() {
+        return delegate.createNewSpec();
+    }
+
+    @Override
+    public OpenApiSpec loadExistingSpec(String filePath) throws IOException {
+        return delegate.loadExistingSpec(filePath);
+    }
+
+    private Span startGenerateSpan(String schemaName, List<OpenApiProperty> properties) {
+        return tracer.startSpan("generate")
+                .setAttribute("apiweaver.schema", schemaName)
+                .setAttribute("apiweaver.properties", properties != null ? properties.size() : 0);
+    }
+}
@@ -0,0 +1,53 @@
+package com.apiweaver;
+
+/**
+ * PropertyMapper decorator that records a span for every property mapping.
+ */
+public class TracingPropertyMapper implements PropertyMapper {
+
+    private final PropertyMapper delegate;
+    private final Tracer tracer;
+
+    public TracingPropertyMapper(PropertyMapper delegate, Tracer tracer) {
+        if (delegate == null || tracer == null) {
+            throw new IllegalArgumentException("Delegate and tracer cannot be null");
+        }
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Wraps a mapper when tracing is enabled.
+     *
+     * @param mapper the mapper to trace
+     * @param tracer the tracer
+     * @return the traced mapper, or the mapper itself if the tracer is disabled
+     */
+    public static PropertyMapper wrap(PropertyMapper mapper, Tracer tracer) {
+        return tracer.isEnabled() ? new TracingPropertyMapper(mapper, tracer) : mapper;
+    }
+
+    @Override
+    public OpenApiProperty mapToOpenApiProperty(PropertyDefinition property) {
+        Span span = tracer.startSpan("map");
+        if (property != null) {
+            span.setAttribute("apiweaver.property", property.getName())
+                .setAttribute("apiweaver.source_type", property.getType());
+        }
+        try {
+            OpenApiProperty mapped = delegate.mapToOpenApiProperty(property);
+            span.setAttribute("apiweaver.openapi_type", mapped.getType());
+            return mapped;
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public String mapHtmlTypeToOpenApiType(String htmlType) {
+        return delegate.mapHtmlTypeToOpenApiType(htmlType);
+    }
+}
@@ -0,0 +1,102 @@
+package com.apiweaver;
+
+import org.jsoup.nodes.Element;
+
+import java.util.List;
+
+/**
+ * TableExtractor decorator that records a span for every table extraction.
+ */
+public class TracingTableExtractor implements TableExtractor {
+
+    private final TableExtractor delegate;
+    private final Tracer tracer;
+
+    public TracingTableExtractor(TableExtractor delegate, Tracer tracer) {
+        if (delegate == null || tracer == null) {
+            throw new IllegalArgumentException("Delegate and tracer cannot be null");
+        }
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Wraps an extractor when tracing is enabled.
+     *
+     * @param extractor the extractor to trace
+     * @param tracer the tracer
+     * @return the traced extractor, or the extractor itself if the tracer is disabled
+     */
+    public static TableExtractor wrap(TableExtractor extractor, Tracer tracer) {
+        return tracer.isEnabled() ? new TracingTableExtractor(extractor, tracer) : extractor;
+    }
+
+    @Override
+    public List<PropertyDefinition> extractProperties(Element table) throws ExtractionException {
+        Span span = tracer.startSpan("extract");
+        if (table != null) {
+            span.setAttribute("apiweaver.rows", table.select("tr").size());
+        }
+        try {
+            List<PropertyDefinition> properties = delegate.extractProperties(table);
+            span.setAttribute("apiweaver.properties", properties.size());
+            return properties;
+        } catch (ExtractionException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public List<PropertyDefinition> extractProperties(Element table, Deadline deadline)
+            throws ExtractionException, DeadlineExceededException {
+        Span span = tracer.startSpan("extract");
+        if (table != null) {
+            span.setAttribute("apiweaver.rows", table.select("tr").size());
+        }
+        try {
+            List<PropertyDefinition> properties = delegate.extractProperties(table, deadline);
+            span.setAttribute("apiweaver.properties", properties.size());
+            return properties;
+        } catch (ExtractionException | DeadlineExceededException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public TableExtraction extractTable(Element table, Deadline deadline)
+            throws ExtractionException, DeadlineExceededException {
+        Span span = tracer.startSpan("extract");
+        if (table != null) {
+            span.setAttribute("apiweaver.rows", table.select("tr").size());
+        }
+        try {
+            TableExtraction extraction = delegate.extractTable(table, deadline);
+            span.setAttribute("apiweaver.properties", extraction.getProperties().size());
+            return extraction;
+        } catch (ExtractionException | DeadlineExceededException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public String fingerprintTable(Element table) throws ExtractionException {
+        Span span = tracer.startSpan("extract.fingerprint");
+        try {
+            return delegate.fingerprintTable(table);
+        } catch (ExtractionException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.apiweaver;
+
+/**
+ * UrlFetcher decorator that records a span for every fetch.
+ */
+public class TracingUrlFetcher implements UrlFetcher {
+
+    private final UrlFetcher delegate;
+    private final Tracer tracer;
+
+    public TracingUrlFetcher(UrlFetcher delegate, Tracer tracer) {
+        if (delegate == null || tracer == null) {
+            throw new IllegalArgumentException("Delegate and tracer cannot be null");
+        }
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Wraps a fetcher when tracing is enabled.
+     *
+     * @param fetcher the fetcher to trace
+     * @param tracer the tracer
+     * @return the traced fetcher, or the fetcher itself if the tracer is disabled
+     */
+    public static UrlFetcher wrap(UrlFetcher fetcher, Tracer tracer) {
+        return tracer.isEnabled() ? new TracingUrlFetcher(fetcher, tracer) : fetcher;
+    }
+
+    @Override
+    public String fetchHtmlContent(String url) throws FetchException {
+        Span span = tracer.startSpan("fetch").setAttribute("url.full", url);
+        try {
+            String content = delegate.fetchHtmlContent(url);
+            span.setAttribute("apiweaver.chars", content != null ? content.length() : 0);
+            return content;
+        } catch (FetchException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @Override
+    public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+        Span span = tracer.startSpan("fetch").setAttribute("url.full", url)
+                .setAttribute("apiweaver.conditional", etag != null || lastModified != null);
+        try {
+            FetchedPage page = delegate.fetchPage(url, etag, lastModified);
+            span.setAttribute("apiweaver.not_modified", page.isNotModified());
+            if (page.getContent() != null) {
+                span.setAttribute("apiweaver.chars", page.getContent().length());
+            }
+            return page;
+        } catch (FetchException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
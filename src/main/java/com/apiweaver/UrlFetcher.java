@@ -14,4 +14,18 @@ public interface UrlFetcher {
      * @throws FetchException if the URL cannot be fetched or is invalid
      */
     String fetchHtmlContent(String url) throws FetchException;
+    
+    /**
+     * Fetches a page, sending the given validators so an unchanged page can be answered
+     * without a body. Implementations without conditional request support fetch the full page.
+     * 
+     * @param url the URL to fetch content from
+     * @param etag the ETag from a previous fetch, or null
+     * @param lastModified the Last-Modified value from a previous fetch, or null
+     * @return the fetched page, or a not-modified page if the validators still match
+     * @throws FetchException if the URL cannot be fetched or is invalid
+     */
+    default FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+        return FetchedPage.of(url, fetchHtmlContent(url));
+    }
 }
\ No newline at end of file
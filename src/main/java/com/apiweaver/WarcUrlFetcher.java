@@ -0,0 +1,215 @@
+package com.apiweaver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves pages from an uncompressed WARC file, such as one written by wget's
+ * {@code --warc-file} option. {@code response} records are parsed as HTTP responses;
+ * {@code resource} records are served as they are. Other record types are skipped.
+ * Bodies that were stored chunked or compressed are decoded when they are fetched.
+ */
+class WarcUrlFetcher extends ArchiveUrlFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarcUrlFetcher.class);
+
+    private static final int CHUNKED = 1;
+    private static final int GZIP = 2;
+    private static final int DEFLATE = 4;
+
+    WarcUrlFetcher(java.nio.file.Path path, RunMetrics metrics) throws ConfigurationException {
+        super(path, metrics);
+    }
+
+    @Override
+    void buildIndex() throws ConfigurationException {
+        ByteBuffer buffer = mapping();
+        while (skipBlankLines(buffer)) {
+            int recordStart = buffer.position();
+            String version = readLine(buffer);
+            if (version == null || !version.startsWith("WARC/")) {
+                throw new ConfigurationException("Malformed WARC record at offset " + recordStart, getPath().toString());
+            }
+            Map<String, String> headers = readHeaders(buffer);
+            long contentLength = parseLength(headers.get("content-length"), recordStart);
+            int blockStart = buffer.position();
+            if (blockStart + contentLength > buffer.limit()) {
+                throw new ConfigurationException("Truncated WARC record at offset " + recordStart, getPath().toString());
+            }
+
+            String type = headers.getOrDefault("warc-type", "");
+            String uri = targetUri(headers.get("warc-target-uri"));
+            if (uri != null && "response".equals(type)) {
+                indexResponse(uri, blockStart, (int) contentLength);
+            } else if (uri != null && "resource".equals(type)) {
+                put(uri, Entry.builder(blockStart, contentLength)
+                    .charset(charsetOf(headers.get("content-type")))
+                    .build());
+            }
+            buffer.position(blockStart + (int) contentLength);
+        }
+    }
+
+    private void indexResponse(String uri, int blockStart, int blockLength) {
+        ByteBuffer block = mapping();
+        block.position(blockStart).limit(blockStart + blockLength);
+        String statusLine = readLine(block);
+        if (statusLine == null || !statusLine.startsWith("HTTP/")) {
+            logger.debug("Skipping WARC response for {} without an HTTP status line", uri);
+            return;
+        }
+        String[] parts = statusLine.split(" ", 3);
+        int status;
+        try {
+            status = Integer.parseInt(parts.length > 1 ? parts[1] : "");
+        } catch (NumberFormatException e) {
+            logger.debug("Skipping WARC response for {} with status line '{}'", uri, statusLine);
+            return;
+        }
+
+        Map<String, String> headers = readHeaders(block);
+        int encoding = 0;
+        if (headers.getOrDefault("transfer-encoding", "").toLowerCase(Locale.ROOT).contains("chunked")) {
+            encoding |= CHUNKED;
+        }
+        String contentEncoding = headers.getOrDefault("content-encoding", "").toLowerCase(Locale.ROOT);
+        if (contentEncoding.contains("gzip")) {
+            encoding |= GZIP;
+        } else if (contentEncoding.contains("deflate")) {
+            encoding |= DEFLATE;
+        }
+
+        put(uri, Entry.builder(block.position(), block.remaining())
+            .status(status)
+            .encoding(encoding)
+            .charset(charsetOf(headers.get("content-type")))
+            .etag(headers.get("etag"))
+            .lastModified(headers.get("last-modified"))
+            .location(status >= 300 && status < 400 ? headers.get("location") : null)
+            .build());
+    }
+
+    @Override
+    String content(Entry entry, ByteBuffer body) throws IOException {
+        if (entry.encoding == 0) {
+            return entry.charset.decode(body).toString();
+        }
+        InputStream in = (entry.encoding & CHUNKED) != 0 ? stream(dechunk(body)) : stream(body);
+        if ((entry.encoding & GZIP) != 0) {
+            in = new GZIPInputStream(in);
+        } else if ((entry.encoding & DEFLATE) != 0) {
+            in = new InflaterInputStream(in);
+        }
+        return decode(in, entry.charset);
+    }
+
+    private static String decode(InputStream in, Charset charset) throws IOException {
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            body.transferTo(out);
+            return new String(out.toByteArray(), charset);
+        }
+    }
+
+    /**
+     * Removes the chunk framing of a body stored with {@code Transfer-Encoding: chunked}.
+     */
+    static ByteBuffer dechunk(ByteBuffer body) throws IOException {
+        ByteBuffer in = body.duplicate();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(in.remaining());
+        while (true) {
+            String sizeLine = readLine(in);
+            if (sizeLine == null) {
+                throw new IOException("Chunked body ended without a last chunk");
+            }
+            int extension = sizeLine.indexOf(';');
+            String hex = (extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim();
+            if (hex.isEmpty()) {
+                continue;
+            }
+            int size;
+            try {
+                size = Integer.parseInt(hex, 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid chunk size: " + sizeLine);
+            }
+            if (size == 0) {
+                return ByteBuffer.wrap(out.toByteArray());
+            }
+            if (size > in.remaining()) {
+                throw new IOException("Chunk of " + size + " bytes exceeds the recorded body");
+            }
+            byte[] chunk = new byte[size];
+            in.get(chunk);
+            out.write(chunk);
+        }
+    }
+
+    /**
+     * Advances past blank lines between records.
+     *
+     * @return true if another record follows
+     */
+    private static boolean skipBlankLines(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get(buffer.position());
+            if (b != '\r' && b != '\n') {
+                return true;
+            }
+            buffer.get();
+        }
+        return false;
+    }
+
+    /**
+     * Reads header lines up to the blank line that ends them. Names are lower-cased.
+     */
+    private static Map<String, String> readHeaders(ByteBuffer buffer) {
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = readLine(buffer)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.putIfAbsent(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private long parseLength(String value, int recordStart) throws ConfigurationException {
+        try {
+            long length = Long.parseLong(value != null ? value.trim() : "");
+            if (length < 0) {
+                throw new NumberFormatException();
+            }
+            return length;
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("WARC record at offset " + recordStart + " has no valid Content-Length",
+                getPath().toString());
+        }
+    }
+
+    /**
+     * Strips the angle brackets WARC/1.0 writers put around the target URI.
+     */
+    private static String targetUri(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (value.startsWith("<") && value.endsWith(">")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
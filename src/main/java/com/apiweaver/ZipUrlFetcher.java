@@ -0,0 +1,188 @@
+package com.apiweaver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Serves pages from a ZIP mirror of the documentation site, for example a zipped
+ * {@code wget --mirror} directory. The central directory is read from the mapping to index
+ * the entries; stored entries are decoded straight from their slice and deflated entries are
+ * inflated from it. A URL is looked up as {@code host/path} first and as {@code path} second,
+ * with {@code index.html} and {@code .html} tried for directory-style and extensionless paths.
+ */
+class ZipUrlFetcher extends ArchiveUrlFetcher {
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_HEADER = 0x02014b50;
+    private static final int LOCAL_FILE_HEADER = 0x04034b50;
+    private static final int END_RECORD_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xffff;
+    private static final long ZIP64_MARKER = 0xffffffffL;
+
+    ZipUrlFetcher(java.nio.file.Path path, RunMetrics metrics) throws ConfigurationException {
+        super(path, metrics);
+    }
+
+    @Override
+    void buildIndex() throws ConfigurationException {
+        ByteBuffer buffer = mapping().order(ByteOrder.LITTLE_ENDIAN);
+        int end = findEndRecord(buffer);
+        int entries = buffer.getShort(end + 10) & 0xffff;
+        long directoryOffset = buffer.getInt(end + 16) & 0xffffffffL;
+        if (directoryOffset == ZIP64_MARKER || entries == 0xffff) {
+            throw new ConfigurationException("ZIP64 archives are not supported: " + getPath(), getPath().toString());
+        }
+
+        int position = (int) directoryOffset;
+        for (int i = 0; i < entries; i++) {
+            if (position + 46 > buffer.limit() || buffer.getInt(position) != CENTRAL_DIRECTORY_HEADER) {
+                throw malformed("central directory entry " + i);
+            }
+            int flags = buffer.getShort(position + 8) & 0xffff;
+            int method = buffer.getShort(position + 10) & 0xffff;
+            long compressedSize = buffer.getInt(position + 20) & 0xffffffffL;
+            long size = buffer.getInt(position + 24) & 0xffffffffL;
+            int nameLength = buffer.getShort(position + 28) & 0xffff;
+            int extraLength = buffer.getShort(position + 30) & 0xffff;
+            int commentLength = buffer.getShort(position + 32) & 0xffff;
+            long localOffset = buffer.getInt(position + 42) & 0xffffffffL;
+            String name = name(buffer, position + 46, nameLength);
+            position += 46 + nameLength + extraLength + commentLength;
+
+            boolean encrypted = (flags & 1) != 0;
+            if (name.endsWith("/") || encrypted || (method != STORED && method != DEFLATED)) {
+                continue;
+            }
+            long dataOffset = dataOffset(buffer, localOffset);
+            if (dataOffset + compressedSize > buffer.limit()) {
+                throw malformed("entry " + name);
+            }
+            put(name, Entry.builder(dataOffset, compressedSize)
+                // A ZIP entry's encoding is its inflated size if deflated, or -1 if stored
+                .encoding(method == DEFLATED ? (int) Math.min(size, Integer.MAX_VALUE) : -1)
+                .build());
+        }
+    }
+
+    /**
+     * Tries the entry names a mirror tool would have written for the URL.
+     */
+    @Override
+    Entry find(String url) {
+        for (String candidate : candidates(url)) {
+            Entry entry = super.find(candidate);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    static List<String> candidates(String url) {
+        List<String> names = new ArrayList<>();
+        String host = null;
+        String path = url.trim();
+        try {
+            URI uri = new URI(path);
+            if (uri.getHost() != null) {
+                host = uri.getHost().toLowerCase(java.util.Locale.ROOT);
+                if (uri.getPort() != -1) {
+                    // wget names the directory of a non-default port host:port
+                    host += ":" + uri.getPort();
+                }
+                path = uri.getRawPath() != null ? uri.getRawPath() : "";
+                if (uri.getRawQuery() != null) {
+                    path += "?" + uri.getRawQuery();
+                }
+            }
+        } catch (URISyntaxException e) {
+            // Not a URL, look it up as an entry name
+        }
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+
+        List<String> paths = new ArrayList<>();
+        if (path.isEmpty() || path.endsWith("/")) {
+            paths.add(path + "index.html");
+        } else {
+            paths.add(path);
+            String lastSegment = path.substring(path.lastIndexOf('/') + 1);
+            if (!lastSegment.contains(".")) {
+                paths.add(path + ".html");
+                paths.add(path + "/index.html");
+            }
+        }
+        if (host != null) {
+            for (String candidate : paths) {
+                names.add(host + "/" + candidate);
+            }
+        }
+        names.addAll(paths);
+        return names;
+    }
+
+    @Override
+    String content(Entry entry, ByteBuffer body) throws IOException {
+        if (entry.encoding < 0) {
+            return entry.charset.decode(body).toString();
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(body);
+            ByteBuffer out = ByteBuffer.allocate(entry.encoding);
+            while (out.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(out) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Deflated entry ended early");
+                }
+            }
+            out.flip();
+            return entry.charset.decode(out).toString();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt deflated entry: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private int findEndRecord(ByteBuffer buffer) throws ConfigurationException {
+        int lowest = Math.max(0, buffer.limit() - END_RECORD_SIZE - MAX_COMMENT_SIZE);
+        for (int position = buffer.limit() - END_RECORD_SIZE; position >= lowest; position--) {
+            if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY) {
+                return position;
+            }
+        }
+        throw malformed("end of central directory");
+    }
+
+    private long dataOffset(ByteBuffer buffer, long localOffset) throws ConfigurationException {
+        int position = (int) localOffset;
+        if (position + 30 > buffer.limit() || buffer.getInt(position) != LOCAL_FILE_HEADER) {
+            throw malformed("local header at offset " + localOffset);
+        }
+        int nameLength = buffer.getShort(position + 26) & 0xffff;
+        int extraLength = buffer.getShort(position + 28) & 0xffff;
+        return localOffset + 30 + nameLength + extraLength;
+    }
+
+    private static String name(ByteBuffer buffer, int position, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position).limit(position + length);
+        return StandardCharsets.UTF_8.decode(view).toString();
+    }
+
+    private ConfigurationException malformed(String what) {
+        return new ConfigurationException("Malformed ZIP archive, cannot read " + what, getPath().toString());
+    }
+}
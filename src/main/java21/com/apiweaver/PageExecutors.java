@@ -0,0 +1,57 @@
+package com.apiweaver;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executor that runs concurrent page fetch and extraction in batch mode.
+ * This is the Java 21 implementation from {@code META-INF/versions/21}: every page runs on
+ * its own virtual thread, so blocking HTTP reads in {@link HttpUrlFetcher} do not tie up a
+ * platform thread and the concurrency limit can be raised without sizing a pool.
+ */
+final class PageExecutors {
+
+    private PageExecutors() {
+    }
+
+    /**
+     * Gets the number of pages in flight when {@code --concurrency} is not given. This is a
+     * method rather than a constant so callers are not compiled against one release's value.
+     *
+     * @return the default concurrency
+     */
+    static int defaultConcurrency() {
+        return 256;
+    }
+
+    /**
+     * Creates an executor for page tasks.
+     *
+     * @param concurrency the maximum number of pages processed at the same time, which
+     *                    {@link BatchProcessor} enforces itself
+     * @return an executor that starts a virtual thread per task
+     */
+    static ExecutorService newPageExecutor(int concurrency) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("apiweaver-page-", 1).factory());
+    }
+
+    /**
+     * Creates an executor for single HTTP requests that run alongside a page task, such as
+     * hedged requests. Interrupting a virtual thread blocked on a socket closes the socket,
+     * so cancelling a request stops it at once.
+     *
+     * @return an executor that starts a virtual thread per task
+     */
+    static ExecutorService newRequestExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("apiweaver-request-", 1).factory());
+    }
+
+    /**
+     * Describes the threads used by {@link #newPageExecutor(int)}, for log messages.
+     *
+     * @return a short description of the thread model
+     */
+    static String threadModel() {
+        return "virtual threads";
+    }
+}
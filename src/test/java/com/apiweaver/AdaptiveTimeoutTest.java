@@ -0,0 +1,106 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveTimeout class.
+ */
+class AdaptiveTimeoutTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void testCeilingAppliesUntilEnoughSamples() {
+        AdaptiveTimeout timeout = AdaptiveTimeout.adaptive(100, 30000);
+        for (int i = 0; i < AdaptiveTimeout.MIN_SAMPLES - 1; i++) {
+            timeout.record("docs", 50 * MILLIS);
+        }
+
+        assertEquals(30000, timeout.timeoutMs("docs"));
+        timeout.record("docs", 50 * MILLIS);
+        assertEquals(50 * AdaptiveTimeout.MULTIPLIER, timeout.timeoutMs("docs"));
+        assertEquals(30000, timeout.timeoutMs("other"));
+    }
+
+    @Test
+    void testTimeoutFollowsTheRollingPercentile() {
+        AdaptiveTimeout timeout = AdaptiveTimeout.adaptive(100, 30000);
+        for (int i = 0; i < AdaptiveTimeout.WINDOW_SIZE; i++) {
+            timeout.record("docs", 2000 * MILLIS);
+        }
+        assertEquals(8000, timeout.timeoutMs("docs"));
+
+        // Once the slow samples have rolled out of the window, the timeout tightens again
+        for (int i = 0; i < AdaptiveTimeout.WINDOW_SIZE; i++) {
+            timeout.record("docs", 100 * MILLIS);
+        }
+        assertEquals(400, timeout.timeoutMs("docs"));
+    }
+
+    @Test
+    void testTimeoutIsClampedToFloorAndCeiling() {
+        AdaptiveTimeout fast = AdaptiveTimeout.adaptive(1000, 5000);
+        AdaptiveTimeout slow = AdaptiveTimeout.adaptive(1000, 5000);
+        for (int i = 0; i < AdaptiveTimeout.MIN_SAMPLES; i++) {
+            fast.record("docs", MILLIS);
+            slow.record("docs", 4000 * MILLIS);
+        }
+
+        assertEquals(1000, fast.timeoutMs("docs"));
+        assertEquals(5000, slow.timeoutMs("docs"));
+    }
+
+    @Test
+    void testFixedTimeoutIgnoresSamples() {
+        AdaptiveTimeout timeout = AdaptiveTimeout.fixed(30000);
+        for (int i = 0; i < AdaptiveTimeout.MIN_SAMPLES; i++) {
+            timeout.record("docs", MILLIS);
+        }
+
+        assertFalse(timeout.isAdaptive());
+        assertEquals(30000, timeout.timeoutMs("docs"));
+    }
+
+    @Test
+    void testHostThatSlowsDownAndRecovers() {
+        AdaptiveTimeout timeout = AdaptiveTimeout.adaptive(100, 30000);
+        for (int i = 0; i < AdaptiveTimeout.WINDOW_SIZE; i++) {
+            assertTrue(request(timeout, 100));
+        }
+        assertEquals(400, timeout.timeoutMs("docs"));
+
+        // The host now takes 5 s; a few requests time out while the timeout backs off
+        int timeouts = 0;
+        while (!request(timeout, 5000)) {
+            timeouts++;
+            assertTrue(timeouts < 10, "the timeout never grew past the host's latency");
+        }
+        assertTrue(timeouts > 0);
+        for (int i = 0; i < AdaptiveTimeout.WINDOW_SIZE; i++) {
+            assertTrue(request(timeout, 5000), "request " + i + " timed out at " + timeout.timeoutMs("docs") + " ms");
+        }
+
+        // Once the host is fast again, the timeout tightens as the slow samples roll out
+        for (int i = 0; i < AdaptiveTimeout.WINDOW_SIZE; i++) {
+            assertTrue(request(timeout, 100));
+        }
+        assertEquals(400, timeout.timeoutMs("docs"));
+    }
+
+    /**
+     * Simulates a request to the host "docs" that takes the given time.
+     *
+     * @return true if it completed within the timeout
+     */
+    private static boolean request(AdaptiveTimeout timeout, int latencyMs) {
+        int timeoutMs = timeout.timeoutMs("docs");
+        if (latencyMs > timeoutMs) {
+            timeout.recordTimeout("docs", timeoutMs);
+            return false;
+        }
+        timeout.record("docs", latencyMs * MILLIS);
+        return true;
+    }
+}
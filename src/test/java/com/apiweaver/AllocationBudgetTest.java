@@ -0,0 +1,159 @@
+package com.apiweaver;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation-budget tests for the extraction and mapping hot paths.
+ * Each test measures the bytes the current thread allocates per table row and fails when
+ * the budget in allocation-budgets.properties is exceeded. The operation is repeated first
+ * so the measured runs use JIT-compiled code, and the lowest of several runs is compared,
+ * which keeps one-off allocations such as class initialization out of the result.
+ */
+class AllocationBudgetTest {
+
+    private static final int ROWS = 2000;
+    private static final int WARMUP_RUNS = 30;
+    private static final int MEASURED_RUNS = 10;
+    private static final String[] TYPES = {
+        "string", "integer", "long", "boolean", "double", "date", "datetime",
+        "string[]", "Array[integer]", "Location", "List<Staff>", "money", "enum"
+    };
+
+    private static com.sun.management.ThreadMXBean threadBean;
+    private static Properties budgets;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Thread allocation counters are not available");
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            assertNotNull(in, "allocation-budgets.properties is missing");
+            budgets.load(in);
+        }
+    }
+
+    @Test
+    void testExtractProperties_StaysWithinBudget() {
+        Element table = Jsoup.parse(tableHtml(ROWS)).selectFirst("table");
+        PropertyTableExtractor extractor = new PropertyTableExtractor();
+
+        assertWithinBudget("extractProperties", () -> assertEquals(ROWS, extractor.extractProperties(table).size()));
+    }
+
+    @Test
+    void testMapToOpenApiProperty_StaysWithinBudget() {
+        List<PropertyDefinition> definitions = definitions(ROWS);
+        TimeTapPropertyMapper mapper = new TimeTapPropertyMapper(SchemaSymbolTable.of(Arrays.asList("Location", "Staff")));
+
+        assertWithinBudget("mapToOpenApiProperty", () -> {
+            for (PropertyDefinition definition : definitions) {
+                assertNotNull(mapper.mapToOpenApiProperty(definition));
+            }
+        });
+    }
+
+    @Test
+    void testCreateSchemaFromProperties_StaysWithinBudget() {
+        TimeTapPropertyMapper mapper = new TimeTapPropertyMapper(SchemaSymbolTable.of(Arrays.asList("Location", "Staff")));
+        List<OpenApiProperty> properties = new ArrayList<>();
+        for (PropertyDefinition definition : definitions(ROWS)) {
+            properties.add(mapper.mapToOpenApiProperty(definition));
+        }
+        OpenApi31Generator generator = new OpenApi31Generator();
+
+        assertWithinBudget("createSchemaFromProperties",
+            () -> assertEquals(ROWS, generator.createSchemaFromProperties(properties).getProperties().size()));
+    }
+
+    /**
+     * Runs an operation over {@link #ROWS} rows and checks its lowest per-row allocation
+     * against the named budget.
+     */
+    private static void assertWithinBudget(String budgetKey, RowOperation operation) {
+        try {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                operation.run();
+            }
+            long threadId = currentThreadId();
+            long lowest = Long.MAX_VALUE;
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                long before = threadBean.getThreadAllocatedBytes(threadId);
+                operation.run();
+                lowest = Math.min(lowest, threadBean.getThreadAllocatedBytes(threadId) - before);
+            }
+
+            long perRow = lowest / ROWS;
+            long budget = budget(budgetKey);
+            assertTrue(perRow <= budget, budgetKey + " allocates " + perRow + " bytes per row, over its budget of "
+                + budget + " bytes. Reduce the allocations or raise the budget in allocation-budgets.properties.");
+        } catch (ApiWeaverException | ReflectiveOperationException e) {
+            fail(budgetKey + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the current thread's id through {@code Thread.threadId()} on JDK 19+, where
+     * {@code getId()} is deprecated, and through {@code getId()} on older JDKs.
+     */
+    private static long currentThreadId() throws ReflectiveOperationException {
+        Method method;
+        try {
+            method = Thread.class.getMethod("threadId");
+        } catch (NoSuchMethodException e) {
+            method = Thread.class.getMethod("getId");
+        }
+        return (long) method.invoke(Thread.currentThread());
+    }
+
+    private static long budget(String key) {
+        String value = System.getProperty("apiweaver.allocation." + key, budgets.getProperty(key));
+        assertNotNull(value, "No allocation budget configured for " + key);
+        return Long.parseLong(value.trim());
+    }
+
+    private static String tableHtml(int rows) {
+        StringBuilder html = new StringBuilder("<table><tr><th>Property Name</th><th>Type</th><th>Required</th>")
+            .append("<th>Writable</th><th>Description</th></tr>");
+        for (int i = 0; i < rows; i++) {
+            html.append("<tr><td>property").append(i).append("</td><td>").append(TYPES[i % TYPES.length])
+                .append("</td><td>").append(i % 3 == 0 ? "Yes" : "No")
+                .append("</td><td>").append(i % 2 == 0 ? "Yes" : "No")
+                .append("</td><td>Description of property ").append(i).append(".</td></tr>");
+        }
+        return html.append("</table>").toString();
+    }
+
+    private static List<PropertyDefinition> definitions(int rows) {
+        List<PropertyDefinition> definitions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            definitions.add(new PropertyDefinition("property" + i, TYPES[i % TYPES.length], i % 3 == 0, i % 2 == 0,
+                "Description of property " + i + "."));
+        }
+        return definitions;
+    }
+
+    @FunctionalInterface
+    private interface RowOperation {
+        void run() throws ApiWeaverException;
+    }
+}
@@ -228,4 +228,266 @@ class ApiWeaverCliTest {
         assertTrue(config.isVerbose());
         assertEquals(15000, config.getTimeoutMs());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testParseArguments_BatchMode() throws ParseException {
+        String[] args = {"-b", "urls.txt", "-j", "progress.ndjson", "-o", "batch-output.yaml"};
+        
+        Configuration config = cli.parseArguments(args);
+        
+        assertNotNull(config);
+        assertTrue(config.isBatchMode());
+        assertTrue(config.isValid());
+        assertNull(config.getUrl());
+        assertEquals("urls.txt", config.getBatchFile());
+        assertEquals("progress.ndjson", config.getJournalFile());
+    }
+    
+    @Test
+    void testParseArguments_BatchModeWithUrl() {
+        String[] args = {"--batch", "urls.txt", "https://example.com"};
+        
+        ParseException exception = assertThrows(ParseException.class, () -> {
+            cli.parseArguments(args);
+        });
+        
+        assertTrue(exception.getMessage().contains("cannot be combined with --batch"));
+    }
+    
+    @Test
+    void testParseArguments_JournalWithoutBatch() {
+        String[] args = {"--journal", "progress.ndjson", "https://example.com"};
+        
+        ParseException exception = assertThrows(ParseException.class, () -> {
+            cli.parseArguments(args);
+        });
+        
+        assertTrue(exception.getMessage().contains("--journal can only be used with --batch"));
+    }
+    
+    @Test
+    void testParseArguments_StatsFile() throws ParseException {
+        String[] args = {"--stats", "run-stats.json", "https://example.com"};
+        
+        Configuration config = cli.parseArguments(args);
+        
+        assertEquals("run-stats.json", config.getStatsFile());
+    }
+    
+    @Test
+    void testParseArguments_JfrFile() throws ParseException {
+        String[] args = {"--jfr", "run.jfr", "https://example.com"};
+        
+        Configuration config = cli.parseArguments(args);
+        
+        assertEquals("run.jfr", config.getJfrFile());
+    }
+    
+    @Test
+    void testParseArguments_TraceFile() throws ParseException {
+        String[] args = {"--trace", "trace.jsonl", "https://example.com"};
+        
+        Configuration config = cli.parseArguments(args);
+        
+        assertEquals("trace.jsonl", config.getTraceFile());
+    }
+    
+    @Test
+    void testParseArguments_Concurrency() throws ParseException {
+        assertEquals(PageExecutors.defaultConcurrency(), cli.parseArguments(new String[]{"https://example.com"}).getConcurrency());
+        assertEquals(16, cli.parseArguments(new String[]{"-c", "16", "https://example.com"}).getConcurrency());
+        
+        ParseException exception = assertThrows(ParseException.class, () -> {
+            cli.parseArguments(new String[]{"--concurrency", "0", "https://example.com"});
+        });
+        
+        assertTrue(exception.getMessage().contains("Concurrency must be a positive integer"));
+    }
+    
+    @Test
+    void testParseArguments_FixedTimeout() throws ParseException {
+        assertFalse(cli.parseArguments(new String[]{"https://example.com"}).isFixedTimeout());
+        assertTrue(cli.parseArguments(new String[]{"--fixed-timeout", "https://example.com"}).isFixedTimeout());
+    }
+    
+    @Test
+    void testParseArguments_MirrorImpliesHedge() throws ParseException {
+        Configuration config = cli.parseArguments(new String[]{"--mirror", "https://mirror.example.com", "https://example.com"});
+        
+        assertTrue(config.isHedge());
+        assertEquals("https://mirror.example.com", config.getMirrorUrl());
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--mirror", "ftp://mirror.example.com", "https://example.com"}));
+    }
+    
+    @Test
+    void testParseArguments_Deadlines() throws ParseException {
+        Configuration config = cli.parseArguments(new String[]{"--deadline", "60000", "--page-deadline", "5000", "https://example.com"});
+        
+        assertEquals(60000, config.getDeadlineMs());
+        assertEquals(5000, config.getPageDeadlineMs());
+        assertEquals(0, cli.parseArguments(new String[]{"https://example.com"}).getDeadlineMs());
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--deadline", "0", "https://example.com"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--page-deadline", "soon", "https://example.com"}));
+    }
+    
+    @Test
+    void testParseArguments_Archive() throws ParseException {
+        Configuration config = cli.parseArguments(new String[]{"--archive", "docs.warc", "--batch", "urls.txt"});
+        
+        assertEquals("docs.warc", config.getArchiveFile());
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--archive", "docs.warc", "--hedge", "https://example.com"}));
+    }
+    
+    @Test
+    void testParseArguments_RecordAndReplay() throws ParseException {
+        Configuration recording = cli.parseArguments(new String[]{"--record", "snapshot", "https://example.com"});
+        Configuration replaying = cli.parseArguments(new String[]{"--replay", "snapshot", "--replay-latency", "https://example.com"});
+        
+        assertEquals("snapshot", recording.getRecordDir());
+        assertFalse(recording.isReplayLatency());
+        assertEquals("snapshot", replaying.getReplayDir());
+        assertTrue(replaying.isReplayLatency());
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--record", "a", "--replay", "b", "https://example.com"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--replay-latency", "https://example.com"}));
+    }
+    
+    @Test
+    void testParseArguments_Crawl() throws ParseException {
+        Configuration defaults = cli.parseArguments(new String[]{"--crawl", "https://example.com/api/"});
+        Configuration custom = cli.parseArguments(new String[]{"--crawl", "--crawl-pattern", "/api/v2/",
+            "--crawl-depth", "0", "--crawl-max-pages", "10", "--journal", "run.journal", "https://example.com/api/"});
+        
+        assertTrue(defaults.isCrawl());
+        assertTrue(defaults.isBatchMode());
+        assertNull(defaults.getCrawlPattern());
+        assertEquals(DocumentationCrawler.DEFAULT_MAX_DEPTH, defaults.getCrawlDepth());
+        assertEquals(DocumentationCrawler.DEFAULT_MAX_PAGES, defaults.getCrawlMaxPages());
+        assertEquals("/api/v2/", custom.getCrawlPattern());
+        assertEquals(0, custom.getCrawlDepth());
+        assertEquals(10, custom.getCrawlMaxPages());
+        assertEquals("run.journal", custom.getJournalFile());
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--crawl", "--batch", "urls.txt"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--crawl", "--crawl-pattern", "[", "https://example.com"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--crawl", "--crawl-depth", "-1", "https://example.com"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--crawl", "--crawl-max-pages", "0", "https://example.com"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--crawl-depth", "1", "https://example.com"}));
+    }
+    
+    @Test
+    void testParseArguments_Schedule() throws ParseException {
+        Configuration defaults = cli.parseArguments(new String[]{"-b", "urls.txt", "-i", "--schedule"});
+        Configuration custom = cli.parseArguments(new String[]{"-b", "urls.txt", "-i", "--schedule",
+            "--poll-interval", "15", "--max-poll-interval", "1440", "--request-budget", "50"});
+        
+        assertTrue(defaults.isSchedule());
+        assertEquals(60, defaults.getPollIntervalMinutes());
+        assertEquals(7 * 24 * 60, defaults.getMaxPollIntervalMinutes());
+        assertEquals(0, defaults.getRequestBudget());
+        assertEquals(15, custom.getPollIntervalMinutes());
+        assertEquals(1440, custom.getMaxPollIntervalMinutes());
+        assertEquals(50, custom.getRequestBudget());
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"-b", "urls.txt", "--schedule"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"-b", "urls.txt", "-i", "--request-budget", "5"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"-b", "urls.txt", "-i", "--schedule", "--poll-interval", "120",
+                "--max-poll-interval", "60"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"-b", "urls.txt", "-i", "--schedule", "--request-budget", "0"}));
+    }
+    
+    @Test
+    void testParseArguments_SpoolAndWorker() throws ParseException {
+        Configuration coordinator = cli.parseArguments(new String[]{"-b", "urls.txt", "--spool", "queue"});
+        Configuration worker = cli.parseArguments(new String[]{"--worker", "queue", "-c", "4"});
+        
+        assertEquals("queue", coordinator.getSpoolDir());
+        assertFalse(coordinator.isWorker());
+        assertTrue(worker.isWorker());
+        assertEquals("queue", worker.getSpoolDir());
+        assertNull(worker.getUrl());
+        assertTrue(worker.isValid());
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--spool", "queue", "https://example.com"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"-b", "urls.txt", "-j", "run.journal", "--spool", "queue"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--worker", "queue", "https://example.com"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--worker", "queue", "-b", "urls.txt"}));
+    }
+    
+    @Test
+    void testParseArguments_Merge() throws ParseException {
+        Configuration config = cli.parseArguments(new String[]{"merge", "a.yaml", "b.json", "-o", "all.yaml",
+            "--on-conflict", "union"});
+        
+        assertTrue(config.isMerge());
+        assertEquals(java.util.Arrays.asList("a.yaml", "b.json"), config.getMergeFiles());
+        assertEquals(SpecMerger.ConflictPolicy.UNION_PROPERTIES, config.getConflictPolicy());
+        assertEquals("all.yaml", config.getOutputFile());
+        assertNull(config.getUrl());
+        assertTrue(config.isValid());
+        assertEquals(SpecMerger.ConflictPolicy.FAIL, cli.parseArguments(new String[]{"merge", "a.yaml"}).getConflictPolicy());
+        assertThrows(ParseException.class, () -> cli.parseArguments(new String[]{"merge"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"merge", "a.yaml", "--on-conflict", "newest"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"merge", "a.yaml", "-b", "urls.txt"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--on-conflict", "first", "https://example.com"}));
+    }
+    
+    @Test
+    void testParseArguments_Layout() throws ParseException {
+        assertFalse(cli.parseArguments(new String[]{"https://example.com"}).isSharded());
+        assertTrue(cli.parseArguments(new String[]{"--layout", "sharded", "-b", "urls.txt"}).isSharded());
+        assertFalse(cli.parseArguments(new String[]{"--layout", "single", "https://example.com"}).isSharded());
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--layout", "split", "https://example.com"}));
+    }
+    
+    @Test
+    void testParseArguments_Snapshot() throws ParseException {
+        assertFalse(cli.parseArguments(new String[]{"https://example.com"}).isSnapshot());
+        assertTrue(cli.parseArguments(new String[]{"--snapshot", "-i", "-b", "urls.txt"}).isSnapshot());
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"--snapshot", "--layout", "sharded", "https://example.com"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"merge", "a.yaml", "--snapshot"}));
+    }
+    
+    @Test
+    void testParseArguments_Show() throws ParseException {
+        Configuration config = cli.parseArguments(new String[]{"show", "Business", "-o", "api.yaml"});
+        
+        assertTrue(config.isShow());
+        assertEquals("Business", config.getShowSchema());
+        assertEquals("api.yaml", config.getOutputFile());
+        assertFalse(config.isMerge());
+        assertTrue(config.isValid());
+        assertEquals("generated-api.yaml", cli.parseArguments(new String[]{"show", "Staff", "-v"}).getOutputFile());
+        assertThrows(ParseException.class, () -> cli.parseArguments(new String[]{"show"}));
+        assertThrows(ParseException.class, () -> cli.parseArguments(new String[]{"show", "Business", "Staff"}));
+        assertThrows(ParseException.class,
+            () -> cli.parseArguments(new String[]{"show", "Business", "--layout", "sharded"}));
+    }
+    
+    @Test
+    void testRun_ReturnsExitCodeInsteadOfExiting() {
+        assertEquals(1, cli.run(new String[]{"--no-such-option", "https://example.com"}));
+        assertEquals(0, cli.run(new String[]{"--help"}));
+    }
+}
@@ -0,0 +1,210 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ArchiveUrlFetcher and its WARC, HAR and ZIP implementations.
+ * Archives are written to a temporary directory by the tests themselves.
+ */
+class ArchiveUrlFetcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String BUSINESS = BatchProcessorTest.objectPage("Business", "id", "name");
+    private static final String LOCATION = BatchProcessorTest.objectPage("Location", "id");
+
+    @Test
+    void testWarc_ServesResponsesRedirectsAndEncodedBodies() throws Exception {
+        ByteArrayOutputStream warc = new ByteArrayOutputStream();
+        writeWarcRecord(warc, "warcinfo", null, "software: test\r\n".getBytes(StandardCharsets.UTF_8));
+        writeWarcRecord(warc, "response", "<http://docs.example.com/business.html>", httpResponse(
+            "HTTP/1.1 200 OK\r\nContent-Type: text/html; charset=UTF-8\r\nETag: \"v1\"\r\n",
+            BUSINESS.getBytes(StandardCharsets.UTF_8)));
+        writeWarcRecord(warc, "response", "http://docs.example.com/location.html", httpResponse(
+            "HTTP/1.1 200 OK\r\nContent-Encoding: gzip\r\nTransfer-Encoding: chunked\r\n",
+            chunked(gzip(LOCATION.getBytes(StandardCharsets.UTF_8)))));
+        writeWarcRecord(warc, "response", "http://docs.example.com/old.html", httpResponse(
+            "HTTP/1.1 301 Moved Permanently\r\nLocation: /business.html\r\n", new byte[0]));
+        writeWarcRecord(warc, "response", "http://docs.example.com/missing.html", httpResponse(
+            "HTTP/1.1 404 Not Found\r\n", "gone".getBytes(StandardCharsets.UTF_8)));
+        Path path = tempDir.resolve("docs.warc");
+        Files.write(path, warc.toByteArray());
+
+        RunMetrics metrics = new RunMetrics();
+        try (ArchiveUrlFetcher fetcher = ArchiveUrlFetcher.open(path, metrics)) {
+            assertEquals(4, fetcher.size());
+            // Scheme and host case do not matter
+            FetchedPage business = fetcher.fetchPage("https://Docs.Example.com/business.html", null, null);
+            assertEquals(BUSINESS, business.getContent());
+            assertEquals("\"v1\"", business.getEtag());
+            assertTrue(fetcher.fetchPage("https://docs.example.com/business.html", "\"v1\"", null).isNotModified());
+
+            assertEquals(LOCATION, fetcher.fetchHtmlContent("http://docs.example.com/location.html"));
+            assertEquals(BUSINESS, fetcher.fetchHtmlContent("http://docs.example.com/old.html"));
+
+            FetchException notFound = assertThrows(FetchException.class,
+                () -> fetcher.fetchHtmlContent("http://docs.example.com/missing.html"));
+            assertTrue(notFound.getMessage().contains("HTTP 404"));
+            FetchException missing = assertThrows(FetchException.class,
+                () -> fetcher.fetchHtmlContent("http://docs.example.com/staff.html"));
+            assertEquals("http://docs.example.com/staff.html", missing.getContext());
+        }
+        assertEquals(1, metrics.getCounter(RunMetrics.FETCH_ARCHIVE_MISSES));
+        assertEquals(1, metrics.getCounter(RunMetrics.FETCH_NOT_MODIFIED));
+    }
+
+    @Test
+    void testHar_ServesTextAndBase64Content() throws Exception {
+        String escaped = BUSINESS.replace("\"", "\\\"");
+        String latin1 = "<html><body><p>Café</p></body></html>";
+        String base64 = Base64.getEncoder().encodeToString(latin1.getBytes(StandardCharsets.ISO_8859_1));
+        String har = "{\"log\": {\"version\": \"1.2\", \"creator\": {\"name\": \"test\"}, \"entries\": ["
+            + entry("https://docs.example.com/business.html", 200, "[{\"name\": \"ETag\", \"value\": \"abc\"}]", "",
+                "{\"size\": 1, \"mimeType\": \"text/html\", \"text\": \"" + escaped + "\\n\\u00e9\"}")
+            + "," + entry("https://docs.example.com/cafe.html", 200, "[]", "",
+                "{\"mimeType\": \"text/html; charset=ISO-8859-1\", \"encoding\": \"base64\", \"text\": \"" + base64 + "\"}")
+            + "," + entry("https://docs.example.com/old", 302, "[]", "https://docs.example.com/business.html",
+                "{\"mimeType\": \"\", \"size\": 0}")
+            + "]}}";
+        Path path = tempDir.resolve("session.har");
+        Files.write(path, har.getBytes(StandardCharsets.UTF_8));
+
+        try (ArchiveUrlFetcher fetcher = ArchiveUrlFetcher.open(path, null)) {
+            assertEquals(3, fetcher.size());
+            FetchedPage business = fetcher.fetchPage("https://docs.example.com/business.html", null, null);
+            assertEquals(BUSINESS + "\né", business.getContent());
+            assertEquals("abc", business.getEtag());
+            assertEquals(latin1, fetcher.fetchHtmlContent("https://docs.example.com/cafe.html"));
+            assertEquals(BUSINESS + "\né", fetcher.fetchHtmlContent("https://docs.example.com/old"));
+        }
+    }
+
+    @Test
+    void testZip_LooksUpMirrorPaths() throws Exception {
+        Path path = tempDir.resolve("mirror.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(path))) {
+            zip.putNextEntry(new ZipEntry("docs.example.com/"));
+            zip.putNextEntry(new ZipEntry("docs.example.com/business.html"));
+            zip.write(BUSINESS.getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(stored("docs.example.com/guide/index.html", LOCATION.getBytes(StandardCharsets.UTF_8)));
+            zip.write(LOCATION.getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("staff.html"));
+            zip.write("<html>staff</html>".getBytes(StandardCharsets.UTF_8));
+            zip.setComment("mirror of docs.example.com");
+        }
+
+        try (ArchiveUrlFetcher fetcher = ArchiveUrlFetcher.open(path, null)) {
+            assertEquals(3, fetcher.size());
+            assertEquals(BUSINESS, fetcher.fetchHtmlContent("https://docs.example.com/business.html"));
+            assertEquals(LOCATION, fetcher.fetchHtmlContent("https://docs.example.com/guide/"));
+            assertEquals("<html>staff</html>", fetcher.fetchHtmlContent("https://other.example.com/staff"));
+            assertThrows(FetchException.class, () -> fetcher.fetchHtmlContent("https://docs.example.com/nothing.html"));
+        }
+    }
+
+    @Test
+    void testZip_Candidates() {
+        assertEquals(Arrays.asList("docs.example.com/a/index.html", "a/index.html"),
+            ZipUrlFetcher.candidates("https://docs.example.com/a/"));
+        assertEquals(Arrays.asList("docs.example.com/a", "docs.example.com/a.html", "docs.example.com/a/index.html",
+            "a", "a.html", "a/index.html"), ZipUrlFetcher.candidates("https://docs.example.com/a"));
+        assertEquals(Arrays.asList("docs.example.com:8080/a.html", "a.html"),
+            ZipUrlFetcher.candidates("http://docs.example.com:8080/a.html"));
+    }
+
+    @Test
+    void testOpen_RejectsUnsupportedAndMalformedArchives() throws IOException {
+        Path text = tempDir.resolve("pages.txt");
+        Files.write(text, new byte[]{1});
+        assertThrows(ConfigurationException.class, () -> ArchiveUrlFetcher.open(text, null));
+
+        Path warc = tempDir.resolve("broken.warc");
+        Files.write(warc, "not a warc file".getBytes(StandardCharsets.UTF_8));
+        ConfigurationException exception = assertThrows(ConfigurationException.class,
+            () -> ArchiveUrlFetcher.open(warc, null));
+        assertEquals(warc.toString(), exception.getContext());
+
+        Path zip = tempDir.resolve("broken.zip");
+        Files.write(zip, new byte[64]);
+        assertThrows(ConfigurationException.class, () -> ArchiveUrlFetcher.open(zip, null));
+
+        assertThrows(ConfigurationException.class, () -> ArchiveUrlFetcher.open(tempDir.resolve("absent.har"), null));
+    }
+
+    @Test
+    void testKey_NormalizesUrls() {
+        assertEquals("docs.example.com/a.html", ArchiveUrlFetcher.key("https://DOCS.example.com:443/a.html#top"));
+        assertEquals("docs.example.com:8080/?q=1", ArchiveUrlFetcher.key("http://docs.example.com:8080?q=1"));
+    }
+
+    private static String entry(String url, int status, String headers, String redirectUrl, String content) {
+        return "{\"startedDateTime\": \"2024-01-01T00:00:00Z\", \"request\": {\"method\": \"GET\", \"url\": \"" + url
+            + "\", \"headers\": []}, \"response\": {\"status\": " + status + ", \"headers\": " + headers
+            + ", \"redirectURL\": \"" + redirectUrl + "\", \"content\": " + content + "}, \"timings\": {\"wait\": 1}}";
+    }
+
+    private static void writeWarcRecord(OutputStream out, String type, String uri, byte[] block) throws IOException {
+        StringBuilder header = new StringBuilder("WARC/1.0\r\nWARC-Type: ").append(type).append("\r\n");
+        if (uri != null) {
+            header.append("WARC-Target-URI: ").append(uri).append("\r\n");
+        }
+        header.append("Content-Length: ").append(block.length).append("\r\n\r\n");
+        out.write(header.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.write(block);
+        out.write("\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static byte[] httpResponse(String head, byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write((head + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.write(body);
+        return out.toByteArray();
+    }
+
+    private static byte[] chunked(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int offset = 0; offset < body.length; offset += 100) {
+            int length = Math.min(100, body.length - offset);
+            out.write((Integer.toHexString(length) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.write(body, offset, length);
+            out.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+        out.write("0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static ZipEntry stored(String name, byte[] content) {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.setCrc(crc.getValue());
+        return entry;
+    }
+}
@@ -0,0 +1,402 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BatchProcessor and PageProcessor classes.
+ * Uses an in-memory fetcher so no network access is required.
+ */
+class BatchProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    static String objectPage(String objectName, String... propertyNames) {
+        StringBuilder html = new StringBuilder();
+        html.append("<html><body><h2 id=\"").append(objectName).append("ObjectValues\">")
+            .append(objectName).append(" Object Values</h2>")
+            .append("<table><tr><th>Property Name</th><th>Type</th><th>Description</th></tr>");
+        for (String propertyName : propertyNames) {
+            html.append("<tr><td>").append(propertyName).append("</td><td>string</td><td>")
+                .append(propertyName).append(" description</td></tr>");
+        }
+        html.append("</table></body></html>");
+        return html.toString();
+    }
+
+    @Test
+    void testProcess_ExtractsOneResultPerUrl() throws ApiWeaverException {
+        UrlFetcher fetcher = url -> url.endsWith("/a") ? objectPage("Business", "id", "name") : objectPage("Location", "id");
+        BatchProcessor processor = new BatchProcessor(fetcher, new PageProcessor(), null);
+
+        List<PageResult> results = processor.process(Arrays.asList("https://example.com/a", "https://example.com/b"));
+
+        assertEquals(2, results.size());
+        assertEquals("Business", results.get(0).getSchemaName());
+        assertEquals(2, results.get(0).getProperties().size());
+        assertEquals("Location", results.get(1).getSchemaName());
+        assertNotNull(results.get(1).getContentHash());
+    }
+
+    @Test
+    void testProcess_ResumesFromJournalWithoutRefetching() throws ApiWeaverException {
+        Path journalPath = tempDir.resolve("journal.ndjson");
+        List<String> urls = Arrays.asList("https://example.com/a", "https://example.com/b", "https://example.com/c");
+        List<String> fetched = new ArrayList<>();
+
+        // First run fails on the last page
+        UrlFetcher failingFetcher = url -> {
+            fetched.add(url);
+            if (url.endsWith("/c")) {
+                throw new FetchException("Request timed out after 30000ms for URL: " + url);
+            }
+            return objectPage(url.substring(url.length() - 1).toUpperCase(), "id");
+        };
+        try (ProgressJournal journal = new ProgressJournal(journalPath)) {
+            BatchProcessor firstRun = new BatchProcessor(failingFetcher, new PageProcessor(), journal);
+            assertThrows(FetchException.class, () -> firstRun.process(urls));
+        }
+        assertEquals(urls, fetched);
+
+        // Second run only fetches the page that did not complete
+        fetched.clear();
+        UrlFetcher workingFetcher = url -> {
+            fetched.add(url);
+            return objectPage(url.substring(url.length() - 1).toUpperCase(), "id");
+        };
+        try (ProgressJournal journal = new ProgressJournal(journalPath)) {
+            List<PageResult> results = new BatchProcessor(workingFetcher, new PageProcessor(), journal).process(urls);
+            assertEquals(3, results.size());
+            assertEquals("A", results.get(0).getSchemaName());
+            assertEquals("C", results.get(2).getSchemaName());
+        }
+        assertEquals(Arrays.asList("https://example.com/c"), fetched);
+    }
+
+    @Test
+    void testPageProcessor_NoObjectValuesHeading() {
+        PageProcessor pageProcessor = new PageProcessor();
+
+        ExtractionException exception = assertThrows(ExtractionException.class,
+            () -> pageProcessor.process("https://example.com", "<html><body><h2 id=\"Intro\">Intro</h2></body></html>"));
+        assertEquals("https://example.com", exception.getContext());
+    }
+
+    @Test
+    void testPageProcessor_EmptyContentRaisesParseException() {
+        PageProcessor pageProcessor = new PageProcessor();
+
+        assertThrows(ParseException.class, () -> pageProcessor.process("https://example.com", ""));
+    }
+
+    @Test
+    void testDeriveSchemaName() {
+        assertEquals("Resource", PageProcessor.deriveSchemaName("ResourceObjectValues"));
+        assertEquals("GeneratedObject", PageProcessor.deriveSchemaName("ObjectValues"));
+        assertEquals("GeneratedObject", PageProcessor.deriveSchemaName(null));
+    }
+
+    @Test
+    void testProcess_UnchangedTableSkipsExtraction() throws ApiWeaverException {
+        String url = "https://example.com/business";
+        PageResult first = new BatchProcessor(u -> objectPage("Business", "id"), new PageProcessor(), null)
+            .process(Arrays.asList(url)).get(0);
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry(url, BuildManifest.entryFor(first));
+
+        // Surrounding markup changes, the property table does not
+        UrlFetcher fetcher = u -> objectPage("Business", "id").replace("<body>", "<body><nav>Updated nav</nav>");
+        PageResult second = new BatchProcessor(fetcher, new PageProcessor(), null, manifest)
+            .process(Arrays.asList(url)).get(0);
+
+        assertTrue(second.isUnchanged());
+        assertEquals(first.getProperties(), second.getProperties());
+        assertEquals("Business", second.getSchemaName());
+        assertEquals(first.getTableHash(), second.getTableHash());
+    }
+
+    @Test
+    void testProcess_ChangedTableIsExtracted() throws ApiWeaverException {
+        String url = "https://example.com/business";
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry(url, new BuildManifest.Entry(null, null, "stale-hash", Arrays.asList("Business")));
+
+        PageResult result = new BatchProcessor(u -> objectPage("Business", "id", "name"), new PageProcessor(), null, manifest)
+            .process(Arrays.asList(url)).get(0);
+
+        assertFalse(result.isUnchanged());
+        assertEquals(2, result.getProperties().size());
+    }
+
+    @Test
+    void testProcess_NotModifiedResponseReusesManifestEntry() throws ApiWeaverException {
+        String url = "https://example.com/business";
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry(url, new BuildManifest.Entry("\"v1\"", null, "table-hash", Arrays.asList("Business")));
+        UrlFetcher fetcher = new UrlFetcher() {
+            @Override
+            public String fetchHtmlContent(String u) throws FetchException {
+                throw new FetchException("Full fetch not expected");
+            }
+
+            @Override
+            public FetchedPage fetchPage(String u, String etag, String lastModified) {
+                return FetchedPage.notModified(u, etag, lastModified);
+            }
+        };
+
+        PageResult result = new BatchProcessor(fetcher, new PageProcessor(), null, manifest)
+            .process(Arrays.asList(url)).get(0);
+
+        assertTrue(result.isUnchanged());
+        assertEquals("Business", result.getSchemaName());
+        assertEquals("table-hash", result.getTableHash());
+        assertEquals("\"v1\"", result.getEtag());
+    }
+
+    @Test
+    void testProcess_TracesEachPageUnderTheActiveSpan() throws ApiWeaverException {
+        List<Span> exported = new ArrayList<>();
+        Tracer tracer = new Tracer(new SpanExporter() {
+            @Override
+            public void export(Span span) {
+                exported.add(span);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        UrlFetcher fetcher = TracingUrlFetcher.wrap(url -> objectPage("Business", "id"), tracer);
+        PageProcessor pageProcessor = new PageProcessor(
+            TracingHtmlParser.wrap(new JSoupHtmlParser(), tracer),
+            TracingTableExtractor.wrap(new PropertyTableExtractor(), tracer));
+        BatchProcessor processor = new BatchProcessor(fetcher, pageProcessor, null, null, tracer);
+
+        Span run = tracer.startSpan("run");
+        try (Tracer.Scope scope = tracer.activate(run)) {
+            processor.process(Arrays.asList("https://example.com/a", "https://example.com/b"));
+        }
+        run.end();
+
+        List<Span> pages = new ArrayList<>();
+        for (Span span : exported) {
+            assertEquals(run.getTraceId(), span.getTraceId());
+            if (span.getName().equals("page")) {
+                pages.add(span);
+                assertEquals(run.getSpanId(), span.getParentSpanId());
+            }
+        }
+        assertEquals(2, pages.size());
+        assertEquals("Business", pages.get(0).getAttributes().get("apiweaver.schema"));
+        for (String stage : Arrays.asList("fetch", "parse", "extract")) {
+            long children = exported.stream()
+                .filter(span -> span.getName().equals(stage))
+                .filter(span -> span.getParentSpanId().equals(pages.get(0).getSpanId()))
+                .count();
+            assertEquals(1, children, stage);
+        }
+    }
+
+    @Test
+    void testProcess_ConcurrentPagesKeepUrlOrder() throws ApiWeaverException {
+        List<String> urls = Arrays.asList("https://example.com/a", "https://example.com/b", "https://example.com/c");
+        // Every fetch waits until all three are in flight, so this only completes concurrently
+        CountDownLatch inFlight = new CountDownLatch(urls.size());
+        UrlFetcher fetcher = url -> {
+            inFlight.countDown();
+            try {
+                if (!inFlight.await(10, TimeUnit.SECONDS)) {
+                    throw new FetchException("Pages were not fetched concurrently", url);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FetchException("Interrupted", url, e);
+            }
+            return objectPage(url.substring(url.length() - 1).toUpperCase(), "id");
+        };
+        BatchProcessor processor = BatchProcessor.builder(fetcher, new PageProcessor()).concurrency(3).build();
+
+        List<PageResult> results = processor.process(urls);
+
+        assertEquals(3, results.size());
+        for (int i = 0; i < urls.size(); i++) {
+            assertEquals(urls.get(i), results.get(i).getUrl());
+        }
+        assertEquals("C", results.get(2).getSchemaName());
+    }
+
+    @Test
+    void testProcess_ConcurrentRunReportsFirstFailureInUrlOrder() throws ApiWeaverException {
+        Path journalPath = tempDir.resolve("journal.ndjson");
+        List<String> urls = Arrays.asList("https://example.com/a", "https://example.com/b", "https://example.com/c");
+        UrlFetcher fetcher = url -> {
+            if (!url.endsWith("/a")) {
+                throw new FetchException("Request failed for URL: " + url, url);
+            }
+            return objectPage("A", "id");
+        };
+
+        try (ProgressJournal journal = new ProgressJournal(journalPath)) {
+            BatchProcessor processor = BatchProcessor.builder(fetcher, new PageProcessor())
+                .journal(journal)
+                .concurrency(4)
+                .build();
+            FetchException exception = assertThrows(FetchException.class, () -> processor.process(urls));
+            assertEquals("https://example.com/b", exception.getContext());
+        }
+
+        try (ProgressJournal journal = new ProgressJournal(journalPath)) {
+            assertEquals(1, journal.replay().size());
+            assertNotNull(journal.replay().get("https://example.com/a"));
+        }
+    }
+
+    @Test
+    void testBuilder_RejectsNonPositiveConcurrency() {
+        assertThrows(IllegalArgumentException.class,
+            () -> BatchProcessor.builder(url -> "", new PageProcessor()).concurrency(0).build());
+    }
+
+    @Test
+    void testProcessAll_PageDeadlineSkipsSlowPage() throws ApiWeaverException {
+        List<String> urls = Arrays.asList("https://example.com/a", "https://example.com/slow", "https://example.com/c");
+        UrlFetcher fetcher = url -> {
+            if (url.endsWith("/slow")) {
+                sleep(300);
+            }
+            return objectPage(url.substring(url.lastIndexOf('/') + 1).toUpperCase(), "id");
+        };
+        BatchProcessor processor = BatchProcessor.builder(fetcher, new PageProcessor()).pageDeadlineMs(100).build();
+
+        BatchResult result = processor.processAll(urls);
+
+        assertTrue(result.isPartial());
+        assertEquals(Arrays.asList("https://example.com/slow"), result.getTimedOutUrls());
+        assertEquals(2, result.getPages().size());
+        assertEquals("C", result.getPages().get(1).getSchemaName());
+    }
+
+    @Test
+    void testProcessAll_RunDeadlineStopsWaitingForStuckPage() throws ApiWeaverException {
+        Path journalPath = tempDir.resolve("journal.ndjson");
+        List<String> urls = Arrays.asList("https://example.com/a", "https://example.com/stuck");
+        CountDownLatch never = new CountDownLatch(1);
+        UrlFetcher fetcher = url -> {
+            if (url.endsWith("/stuck")) {
+                // Ignores interrupts, like a read blocked on a socket
+                while (true) {
+                    try {
+                        never.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        // keep blocking
+                    }
+                }
+            }
+            return objectPage("A", "id");
+        };
+
+        long start = System.nanoTime();
+        try (ProgressJournal journal = new ProgressJournal(journalPath)) {
+            BatchProcessor processor = BatchProcessor.builder(fetcher, new PageProcessor())
+                .journal(journal)
+                .concurrency(2)
+                .deadline(Deadline.afterMillis(300))
+                .build();
+
+            BatchResult result = processor.processAll(urls);
+
+            assertEquals(1, result.getPages().size());
+            assertEquals(Arrays.asList("https://example.com/stuck"), result.getTimedOutUrls());
+        } finally {
+            never.countDown();
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+
+        try (ProgressJournal journal = new ProgressJournal(journalPath)) {
+            assertNotNull(journal.replay().get("https://example.com/a"));
+            assertNull(journal.replay().get("https://example.com/stuck"));
+        }
+    }
+
+    @Test
+    void testProcessAll_PageCancelledAfterRunDeadlineLeavesJournalAlone() throws Exception {
+        Path journalPath = tempDir.resolve("journal.ndjson");
+        List<String> urls = Arrays.asList("https://example.com/a", "https://example.com/cancelled");
+        CountDownLatch journalClosed = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        UrlFetcher fetcher = url -> {
+            if (url.endsWith("/cancelled")) {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    // Interrupted by the shutdown after the deadline; fail only once the run is over
+                    try {
+                        journalClosed.await();
+                    } catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                cancelled.countDown();
+                throw new FetchException("Fetch cancelled for URL: " + url, url);
+            }
+            return objectPage("A", "id");
+        };
+
+        try (ProgressJournal journal = new ProgressJournal(journalPath)) {
+            BatchResult result = BatchProcessor.builder(fetcher, new PageProcessor())
+                .journal(journal)
+                .concurrency(2)
+                .deadline(Deadline.afterMillis(300))
+                .build()
+                .processAll(urls);
+            assertEquals(Arrays.asList("https://example.com/cancelled"), result.getTimedOutUrls());
+        } finally {
+            journalClosed.countDown();
+        }
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        String records = java.nio.file.Files.readString(journalPath);
+        assertTrue(records.contains("https://example.com/a"), records);
+        assertFalse(records.contains("https://example.com/cancelled"), records);
+    }
+
+    @Test
+    void testProcess_ThrowsWhenDeadlineCutsRunShort() {
+        UrlFetcher fetcher = url -> objectPage("A", "id");
+        BatchProcessor processor = BatchProcessor.builder(fetcher, new PageProcessor())
+            .deadline(Deadline.afterMillis(0))
+            .build();
+
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+            () -> processor.process(Arrays.asList("https://example.com/a")));
+        assertEquals("https://example.com/a", exception.getContext());
+    }
+
+    @Test
+    void testBuilder_RejectsNegativePageDeadline() {
+        assertThrows(IllegalArgumentException.class,
+            () -> BatchProcessor.builder(url -> "", new PageProcessor()).pageDeadlineMs(-1).build());
+    }
+
+    private static void sleep(long millis) throws FetchException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetchException("Interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BuildManifest class.
+ */
+class BuildManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPathFor_PlacesManifestNextToOutput() {
+        assertEquals("out/api.yaml.manifest.json", BuildManifest.pathFor("out/api.yaml").toString());
+    }
+
+    @Test
+    void testSaveAndLoad_RoundTrip() throws GenerationException {
+        Path path = tempDir.resolve("api.yaml.manifest.json");
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry("https://example.com/business", new BuildManifest.Entry(
+            "\"v1\"", "Mon, 01 Jan 2024 00:00:00 GMT", "hash-1", Collections.singletonList("Business")));
+        manifest.putEntry("https://example.com/location", new BuildManifest.Entry(
+            null, null, "hash-2", Collections.singletonList("Location"),
+            Collections.singletonList(new PropertyDefinition("business", "Business", true, false, "Owner"))));
+
+        manifest.save(path);
+        BuildManifest loaded = BuildManifest.load(path);
+
+        assertEquals(2, loaded.size());
+        BuildManifest.Entry business = loaded.getEntry("https://example.com/business");
+        assertEquals("\"v1\"", business.getEtag());
+        assertEquals("Mon, 01 Jan 2024 00:00:00 GMT", business.getLastModified());
+        assertEquals("hash-1", business.getTableHash());
+        assertEquals(Collections.singletonList("Business"), business.getSchemas());
+        assertNull(loaded.getEntry("https://example.com/location").getEtag());
+        assertEquals(manifest.getEntry("https://example.com/location"), loaded.getEntry("https://example.com/location"));
+        assertEquals(manifest, loaded);
+    }
+
+    @Test
+    void testSaveAndLoad_KeepsPollingHistory() throws GenerationException {
+        Path path = tempDir.resolve("api.yaml.manifest.json");
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry("https://example.com/a", new BuildManifest.Entry(
+            null, null, "h1", Collections.singletonList("A")).withPolling(1_700_000_000_000L, 7_200_000L, 3));
+
+        manifest.save(path);
+        BuildManifest.Entry loaded = BuildManifest.load(path).getEntry("https://example.com/a");
+
+        assertEquals(1_700_000_000_000L, loaded.getLastChecked());
+        assertEquals(7_200_000L, loaded.getInterval());
+        assertEquals(3, loaded.getChangeCount());
+        assertEquals(manifest.getEntry("https://example.com/a"), loaded);
+    }
+
+    @Test
+    void testSave_ReplacesThroughTemporaryFile() throws Exception {
+        Path path = tempDir.resolve("api.yaml.manifest.json");
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry("https://example.com/business", new BuildManifest.Entry(
+            null, null, "hash-1", Collections.singletonList("Business")));
+        manifest.save(path);
+        manifest.putEntry("https://example.com/staff", new BuildManifest.Entry(
+            null, null, "hash-2", Collections.singletonList("Staff")));
+        manifest.save(path);
+
+        assertEquals(manifest, BuildManifest.load(path));
+        assertFalse(Files.exists(tempDir.resolve("api.yaml.manifest.json.tmp")));
+
+        // A target that cannot be replaced fails the save without leaving the temporary file behind
+        Path blocked = tempDir.resolve("blocked.json");
+        Files.createDirectories(blocked.resolve("child"));
+        assertThrows(GenerationException.class, () -> manifest.save(blocked));
+        assertFalse(Files.exists(tempDir.resolve("blocked.json.tmp")));
+    }
+
+    @Test
+    void testLoad_MissingFileGivesEmptyManifest() {
+        assertTrue(BuildManifest.load(tempDir.resolve("missing.json")).isEmpty());
+    }
+
+    @Test
+    void testLoad_CorruptFileGivesEmptyManifest() throws Exception {
+        Path path = tempDir.resolve("corrupt.json");
+        Files.writeString(path, "{\"version\": 1, \"pages\": {\"https://example.com\": ");
+
+        assertTrue(BuildManifest.load(path).isEmpty());
+    }
+
+    @Test
+    void testRetainEntriesWithSchemas() {
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry("https://example.com/a", new BuildManifest.Entry(null, null, "h1", Collections.singletonList("A")));
+        manifest.putEntry("https://example.com/b", new BuildManifest.Entry(null, null, "h2", Collections.singletonList("B")));
+
+        int removed = manifest.retainEntriesWithSchemas(new HashSet<>(Arrays.asList("A", "Other")));
+
+        assertEquals(1, removed);
+        assertNotNull(manifest.getEntry("https://example.com/a"));
+        assertNull(manifest.getEntry("https://example.com/b"));
+    }
+
+    @Test
+    void testEntryFor_PageResult() {
+        PageResult page = PageResult.builder("https://example.com/a", "A")
+            .tableHash("h1")
+            .etag("\"e1\"")
+            .build();
+
+        BuildManifest.Entry entry = BuildManifest.entryFor(page);
+
+        assertEquals("h1", entry.getTableHash());
+        assertEquals("\"e1\"", entry.getEtag());
+        assertEquals(Collections.singletonList("A"), entry.getSchemas());
+    }
+}
@@ -0,0 +1,146 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChangeScheduler class.
+ */
+class ChangeSchedulerTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private static ChangeScheduler.Builder scheduler() {
+        return ChangeScheduler.builder()
+            .minInterval(HOUR)
+            .maxInterval(8 * HOUR)
+            .clock(Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+    }
+
+    private static BuildManifest.Entry entry(String schema, long lastChecked, long interval, int changeCount) {
+        return new BuildManifest.Entry(null, null, schema + "-hash", Collections.singletonList(schema),
+            Collections.singletonList(new PropertyDefinition("id", "string", true, false, "Id")))
+            .withPolling(lastChecked, interval, changeCount);
+    }
+
+    private static PageResult fetched(String url, String schema, boolean unchanged) {
+        return PageResult.builder(url, schema).tableHash(schema + "-hash").unchanged(unchanged).build();
+    }
+
+    @Test
+    void testPlan_FetchesNewAndDuePagesOnly() {
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry("https://example.com/due", entry("Due", NOW - 2 * HOUR, HOUR, 0));
+        manifest.putEntry("https://example.com/fresh", entry("Fresh", NOW - HOUR, 4 * HOUR, 0));
+        manifest.putEntry("https://example.com/unscheduled", entry("Unscheduled", 0, 0, 0));
+        List<String> urls = Arrays.asList("https://example.com/new", "https://example.com/fresh",
+            "https://example.com/due", "https://example.com/unscheduled");
+
+        RunMetrics metrics = new RunMetrics();
+        ChangeScheduler.Plan plan = scheduler().metrics(metrics).build().plan(urls, manifest);
+
+        assertEquals(Arrays.asList("https://example.com/new", "https://example.com/due", "https://example.com/unscheduled"),
+            plan.getDueUrls());
+        assertEquals(1, plan.getNotDueCount());
+        assertEquals(0, plan.getDeferredCount());
+        assertEquals(3, metrics.getCounter(RunMetrics.SCHEDULE_DUE));
+        assertEquals(1, metrics.getCounter(RunMetrics.SCHEDULE_NOT_DUE));
+
+        // Pages not fetched are reused from the manifest, in run order
+        List<PageResult> pages = plan.pages(urls, Arrays.asList(
+            fetched("https://example.com/new", "New", false), fetched("https://example.com/due", "Due", true)));
+        assertEquals(3, pages.size());
+        PageResult fresh = pages.get(1);
+        assertEquals("Fresh", fresh.getSchemaName());
+        assertTrue(fresh.isUnchanged());
+        assertEquals(manifest.getEntry("https://example.com/fresh").getProperties(), fresh.getProperties());
+        assertEquals(manifest.getEntry("https://example.com/fresh"), plan.entryFor(fresh));
+    }
+
+    @Test
+    void testPlan_RequestBudgetPrefersMostOverduePages() {
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry("https://example.com/a", entry("A", NOW - 2 * HOUR, 2 * HOUR, 0));
+        manifest.putEntry("https://example.com/b", entry("B", NOW - 3 * HOUR, HOUR, 0));
+        manifest.putEntry("https://example.com/c", entry("C", NOW - 4 * HOUR, 2 * HOUR, 5));
+        manifest.putEntry("https://example.com/d", entry("D", NOW - 4 * HOUR, 2 * HOUR, 1));
+        List<String> urls = Arrays.asList("https://example.com/new", "https://example.com/a", "https://example.com/b",
+            "https://example.com/c", "https://example.com/d");
+
+        RunMetrics metrics = new RunMetrics();
+        ChangeScheduler.Plan plan = scheduler().requestBudget(3).metrics(metrics).build().plan(urls, manifest);
+
+        // The new page always counts first; B is three intervals overdue, C and D two, and C changed more often
+        assertEquals(Arrays.asList("https://example.com/new", "https://example.com/b", "https://example.com/c"),
+            plan.getDueUrls());
+        assertEquals(2, plan.getDeferredCount());
+        assertEquals(2, metrics.getCounter(RunMetrics.SCHEDULE_DEFERRED));
+
+        // New pages are fetched even beyond the budget, since they have nothing to reuse
+        ChangeScheduler.Plan tight = scheduler().requestBudget(1).build()
+            .plan(Arrays.asList("https://example.com/x", "https://example.com/y", "https://example.com/a"), manifest);
+        assertEquals(Arrays.asList("https://example.com/x", "https://example.com/y"), tight.getDueUrls());
+    }
+
+    @Test
+    void testPlan_FetchesPagesFoundAfterPlanning() {
+        BuildManifest manifest = new BuildManifest();
+        manifest.putEntry("https://example.com/fresh", entry("Fresh", NOW - HOUR, 4 * HOUR, 0));
+        manifest.putEntry("https://example.com/due", entry("Due", NOW - 2 * HOUR, HOUR, 0));
+        ChangeScheduler.Plan plan = scheduler().build().plan(manifest.getUrls().stream().collect(Collectors.toList()), manifest);
+
+        // A crawl run plans over the manifest, then finds a page the manifest does not have
+        assertTrue(plan.isReused("https://example.com/fresh"));
+        assertFalse(plan.isReused("https://example.com/due"));
+        assertFalse(plan.isReused("https://example.com/found"));
+
+        List<String> urls = Arrays.asList("https://example.com/fresh", "https://example.com/found", "https://example.com/due");
+        PageResult found = fetched("https://example.com/found", "Found", false);
+        List<PageResult> pages = plan.pages(urls, Arrays.asList(found, fetched("https://example.com/due", "Due", true)));
+        assertEquals(Arrays.asList("Fresh", "Found", "Due"),
+            pages.stream().map(PageResult::getSchemaName).collect(Collectors.toList()));
+        assertEquals(NOW, plan.entryFor(found).getLastChecked());
+        assertEquals(HOUR, plan.entryFor(found).getInterval());
+    }
+
+    @Test
+    void testReschedule_BacksOffStablePagesAndResetsChangedOnes() {
+        ChangeScheduler scheduler = scheduler().build();
+        String url = "https://example.com/a";
+
+        BuildManifest.Entry first = scheduler.reschedule(null, fetched(url, "A", false), NOW);
+        assertEquals(NOW, first.getLastChecked());
+        assertEquals(HOUR, first.getInterval());
+        assertEquals(0, first.getChangeCount());
+
+        BuildManifest.Entry entry = first;
+        for (long expected : new long[]{2 * HOUR, 4 * HOUR, 8 * HOUR, 8 * HOUR}) {
+            entry = scheduler.reschedule(entry, fetched(url, "A", true), NOW);
+            assertEquals(expected, entry.getInterval());
+        }
+
+        BuildManifest.Entry changed = scheduler.reschedule(entry, fetched(url, "A", false), NOW + HOUR);
+        assertEquals(HOUR, changed.getInterval());
+        assertEquals(1, changed.getChangeCount());
+        assertEquals(NOW + HOUR, changed.getLastChecked());
+    }
+
+    @Test
+    void testBuilder_RejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> ChangeScheduler.builder().minInterval(0).build());
+        assertThrows(IllegalArgumentException.class,
+            () -> ChangeScheduler.builder().minInterval(2 * HOUR).maxInterval(HOUR).build());
+        assertThrows(IllegalArgumentException.class, () -> ChangeScheduler.builder().requestBudget(-1).build());
+    }
+}
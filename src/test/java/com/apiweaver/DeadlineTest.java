@@ -0,0 +1,50 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Deadline class.
+ */
+class DeadlineTest {
+
+    @Test
+    void testNone_NeverExpires() throws DeadlineExceededException {
+        Deadline deadline = Deadline.none();
+
+        assertFalse(deadline.isBounded());
+        assertFalse(deadline.isExpired());
+        assertEquals(Long.MAX_VALUE, deadline.remainingNanos());
+        deadline.check("fetch");
+    }
+
+    @Test
+    void testAfterMillis_ExpiresAndThrowsWithContext() {
+        Deadline deadline = Deadline.afterMillis(0);
+
+        assertTrue(deadline.isBounded());
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingNanos());
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+            () -> deadline.check("extraction", "https://example.com/a"));
+        assertEquals("Deadline exceeded during extraction of https://example.com/a", exception.getMessage());
+        assertEquals("https://example.com/a", exception.getContext());
+    }
+
+    @Test
+    void testAfterMillis_RejectsNegativeBudget() {
+        assertThrows(IllegalArgumentException.class, () -> Deadline.afterMillis(-1));
+    }
+
+    @Test
+    void testMin_PicksEarlierDeadline() {
+        Deadline soon = Deadline.afterMillis(1_000);
+        Deadline later = Deadline.afterMillis(60_000);
+
+        assertSame(soon, soon.min(later));
+        assertSame(soon, later.min(soon));
+        assertSame(soon, Deadline.none().min(soon));
+        assertSame(soon, soon.min(Deadline.none()));
+    }
+}
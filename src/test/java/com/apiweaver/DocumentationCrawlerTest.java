@@ -0,0 +1,157 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DocumentationCrawler and CrawlResult classes.
+ * Pages are served from memory.
+ */
+class DocumentationCrawlerTest {
+
+    private static final String BASE = "https://docs.example.com/api/";
+
+    private final Map<String, String> site = new HashMap<>();
+    private final List<String> fetched = new CopyOnWriteArrayList<>();
+
+    private final UrlFetcher fetcher = new UrlFetcher() {
+        @Override
+        public String fetchHtmlContent(String url) throws FetchException {
+            fetched.add(url);
+            String content = site.get(url);
+            if (content == null) {
+                throw new FetchException("HTTP 404 for " + url, url);
+            }
+            return content;
+        }
+    };
+
+    private static String index(String... hrefs) {
+        StringBuilder html = new StringBuilder("<html><body><h1>Reference</h1><ul>");
+        for (String href : hrefs) {
+            html.append("<li><a href=\"").append(href).append("\">").append(href).append("</a></li>");
+        }
+        return html.append("</ul></body></html>").toString();
+    }
+
+    private DocumentationCrawler.Builder crawler() {
+        return DocumentationCrawler.builder(fetcher, new JSoupHtmlParser());
+    }
+
+    @Test
+    void testCrawl_FindsLinkedSchemaPages() throws Exception {
+        site.put(BASE + "index.html", index("business.html", "guides/location.html#fields", "business.html",
+            "https://other.example.com/api/staff.html", "/blog/post.html", "mailto:docs@example.com", "#top"));
+        site.put(BASE + "business.html", BatchProcessorTest.objectPage("Business", "id", "name") + index("index.html"));
+        site.put(BASE + "guides/location.html", BatchProcessorTest.objectPage("Location", "id"));
+
+        RunMetrics metrics = new RunMetrics();
+        CrawlResult result = crawler().concurrency(4).metrics(metrics).build().crawl(BASE + "index.html");
+
+        assertEquals(Arrays.asList(BASE + "business.html", BASE + "guides/location.html"), result.getSchemaUrls());
+        assertEquals(3, result.getVisitedCount());
+        assertFalse(result.isTruncated());
+        assertTrue(result.getFailedUrls().isEmpty());
+        // Off-site and out-of-directory links are not followed, and each page is fetched once
+        assertEquals(3, fetched.size());
+        assertEquals(3, metrics.getCounter(RunMetrics.CRAWL_PAGES));
+        assertEquals(2, metrics.getCounter(RunMetrics.CRAWL_SCHEMA_PAGES));
+    }
+
+    @Test
+    void testCrawl_RespectsPatternDepthAndPageLimit() throws Exception {
+        site.put(BASE + "index.html", index("a.html", "b.html", "c.html"));
+        site.put(BASE + "a.html", index("deep.html"));
+        site.put(BASE + "b.html", BatchProcessorTest.objectPage("Business", "id"));
+        site.put(BASE + "c.html", BatchProcessorTest.objectPage("Category", "id"));
+        site.put(BASE + "deep.html", BatchProcessorTest.objectPage("Deep", "id"));
+
+        CrawlResult shallow = crawler().maxDepth(1).build().crawl(BASE + "index.html");
+        assertEquals(Arrays.asList(BASE + "b.html", BASE + "c.html"), shallow.getSchemaUrls());
+        assertFalse(fetched.contains(BASE + "deep.html"));
+
+        CrawlResult deep = crawler().build().crawl(BASE + "index.html");
+        assertEquals(Arrays.asList(BASE + "b.html", BASE + "c.html", BASE + "deep.html"), deep.getSchemaUrls());
+
+        CrawlResult filtered = crawler().pattern(Pattern.compile("/c\\.html$")).build().crawl(BASE + "index.html");
+        assertEquals(Arrays.asList(BASE + "c.html"), filtered.getSchemaUrls());
+
+        CrawlResult limited = crawler().maxPages(2).build().crawl(BASE + "index.html");
+        assertEquals(2, limited.getVisitedCount());
+        assertTrue(limited.isTruncated());
+    }
+
+    @Test
+    void testCrawl_SkipsFailedPagesButNotTheIndex() throws Exception {
+        site.put(BASE + "index.html", index("missing.html", "business.html"));
+        site.put(BASE + "business.html", BatchProcessorTest.objectPage("Business", "id"));
+
+        RunMetrics metrics = new RunMetrics();
+        CrawlResult result = crawler().metrics(metrics).build().crawl(BASE + "index.html");
+        assertEquals(Arrays.asList(BASE + "business.html"), result.getSchemaUrls());
+        assertEquals(Arrays.asList(BASE + "missing.html"), result.getFailedUrls());
+        assertEquals(1, metrics.getCounter(RunMetrics.CRAWL_FAILURES));
+
+        FetchException exception = assertThrows(FetchException.class,
+            () -> crawler().build().crawl(BASE + "absent.html"));
+        assertEquals(BASE + "absent.html", exception.getContext());
+        assertThrows(ConfigurationException.class, () -> crawler().build().crawl("ftp://docs.example.com/"));
+    }
+
+    @Test
+    void testCrawl_KeepsSkippedPagesWithoutFetchingThem() throws Exception {
+        site.put(BASE + "index.html", index("business.html", "location.html"));
+        site.put(BASE + "business.html", BatchProcessorTest.objectPage("Business", "id") + index("staff.html"));
+        site.put(BASE + "location.html", BatchProcessorTest.objectPage("Location", "id"));
+        site.put(BASE + "staff.html", BatchProcessorTest.objectPage("Staff", "id"));
+
+        CrawlResult result = crawler().skip(url -> url.equals(BASE + "business.html") || url.equals(BASE + "index.html"))
+            .build().crawl(BASE + "index.html");
+
+        assertEquals(Arrays.asList(BASE + "business.html", BASE + "location.html"), result.getSchemaUrls());
+        // The index page is fetched anyway; the skipped page is not, and neither are its links
+        assertEquals(Arrays.asList(BASE + "index.html", BASE + "location.html"), fetched);
+        assertEquals(2, result.getVisitedCount());
+    }
+
+    @Test
+    void testCrawlResult_ServesCrawledPagesOnce() throws Exception {
+        site.put(BASE + "index.html", index("business.html"));
+        site.put(BASE + "business.html", BatchProcessorTest.objectPage("Business", "id"));
+        CrawlResult result = crawler().build().crawl(BASE + "index.html");
+        fetched.clear();
+
+        UrlFetcher cached = result.fetcher(fetcher);
+        assertEquals(site.get(BASE + "business.html"), cached.fetchHtmlContent(BASE + "business.html"));
+        assertTrue(fetched.isEmpty());
+        assertEquals(site.get(BASE + "business.html"), cached.fetchHtmlContent(BASE + "business.html"));
+        assertEquals(Arrays.asList(BASE + "business.html"), fetched);
+    }
+
+    @Test
+    void testBuilder_RejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> crawler().maxDepth(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> crawler().maxPages(0).build());
+        assertThrows(IllegalArgumentException.class, () -> crawler().concurrency(0).build());
+    }
+
+    @Test
+    void testResolveAndNormalize() {
+        assertEquals("https://docs.example.com/api/b.html", DocumentationCrawler.resolve(BASE + "a.html", "b.html#x"));
+        assertEquals("https://docs.example.com/", DocumentationCrawler.resolve(BASE + "a.html", "../"));
+        assertEquals("http://docs.example.com:8080/a?q=1", DocumentationCrawler.normalize("HTTP://Docs.Example.com:8080/a?q=1"));
+        assertEquals("https://docs.example.com/", DocumentationCrawler.normalize("https://docs.example.com"));
+        assertNull(DocumentationCrawler.resolve(BASE, "javascript:void(0)"));
+        assertNull(DocumentationCrawler.resolve(BASE, "#top"));
+        assertTrue(DocumentationCrawler.defaultPattern(BASE + "index.html?v=2").matcher(BASE + "guides/x.html").find());
+        assertFalse(DocumentationCrawler.defaultPattern(BASE + "index.html").matcher("https://docs.example.com/blog/").find());
+    }
+}
@@ -0,0 +1,207 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HedgingUrlFetcher class.
+ * The end-to-end test runs a slow primary and a fast mirror as local HTTP servers.
+ */
+class HedgingUrlFetcherTest {
+
+    private static void warmUp(UrlFetcher fetcher, String url) throws FetchException {
+        for (int i = 0; i < HedgingUrlFetcher.MIN_SAMPLES; i++) {
+            fetcher.fetchHtmlContent(url);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HttpServer server(String body, AtomicBoolean slow) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            if (slow.get()) {
+                sleep(5000);
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            } catch (IOException e) {
+                // The hedged request won and the client went away
+            }
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    void testNoHedgeUntilEnoughSamples() throws FetchException {
+        HedgingUrlFetcher fetcher = new HedgingUrlFetcher(url -> "<html></html>");
+
+        assertEquals(-1, fetcher.hedgeDelayNanos("example.com"));
+        warmUp(fetcher, "https://example.com/a");
+
+        assertTrue(fetcher.hedgeDelayNanos("example.com") >= 0);
+        assertEquals(0, fetcher.getHedgeCount());
+    }
+
+    @Test
+    void testSlowRequestIsHedgedAndFasterResponseWins() throws FetchException {
+        AtomicInteger calls = new AtomicInteger();
+        RunMetrics metrics = new RunMetrics();
+        HedgingUrlFetcher fetcher = new HedgingUrlFetcher(url -> {
+            // The first request after warm-up stalls; its hedge answers at once
+            if (calls.incrementAndGet() == HedgingUrlFetcher.MIN_SAMPLES + 1) {
+                sleep(5000);
+                return "<html>stalled</html>";
+            }
+            return "<html>fast</html>";
+        }, null, metrics);
+        warmUp(fetcher, "https://example.com/a");
+
+        long start = System.nanoTime();
+        String content = fetcher.fetchHtmlContent("https://example.com/a");
+
+        assertEquals("<html>fast</html>", content);
+        assertTrue(System.nanoTime() - start < 2_000_000_000L, "hedge should not wait for the stalled request");
+        assertEquals(1, fetcher.getHedgeCount());
+        assertEquals(1, fetcher.getHedgeWinCount());
+        assertEquals(1, metrics.getCounter(RunMetrics.FETCH_HEDGES));
+        assertEquals(HedgingUrlFetcher.MIN_SAMPLES + 1, metrics.getCounter(RunMetrics.FETCH_HEDGE_CANDIDATES));
+    }
+
+    @Test
+    void testHedgesAreCappedAtTheBudget() throws FetchException {
+        HedgingUrlFetcher fetcher = new HedgingUrlFetcher(url -> {
+            sleep(url.endsWith("/slow") ? 50 : 1);
+            return "<html></html>";
+        });
+        warmUp(fetcher, "https://example.com/fast");
+
+        for (int i = 0; i < 20; i++) {
+            fetcher.fetchHtmlContent("https://example.com/slow");
+        }
+
+        assertTrue(fetcher.getHedgeRate() <= HedgingUrlFetcher.MAX_HEDGE_FRACTION + 0.01,
+            "hedge rate " + fetcher.getHedgeRate());
+        assertTrue(fetcher.getHedgeCount() > 0);
+    }
+
+    @Test
+    void testFailedFetchFailsOverToMirror() throws FetchException {
+        RunMetrics metrics = new RunMetrics();
+        HedgingUrlFetcher fetcher = new HedgingUrlFetcher(new UrlFetcher() {
+            @Override
+            public String fetchHtmlContent(String url) throws FetchException {
+                return fetchPage(url, null, null).getContent();
+            }
+
+            @Override
+            public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+                if (url.startsWith("https://docs.example.com")) {
+                    throw new FetchException("HTTP request failed with status 503: Service Unavailable");
+                }
+                return FetchedPage.of(url, "<html>mirror</html>", "\"m1\"", null);
+            }
+        }, "https://mirror.example.com/", metrics);
+
+        FetchedPage page = fetcher.fetchPage("https://docs.example.com/objects/business.html", null, null);
+
+        assertEquals("https://docs.example.com/objects/business.html", page.getUrl());
+        assertEquals("<html>mirror</html>", page.getContent());
+        assertEquals("\"m1\"", page.getEtag());
+        assertEquals(1, metrics.getCounter(RunMetrics.FETCH_FAILOVERS));
+    }
+
+    @Test
+    void testLatenciesAreKeptPerRequestedHostIncludingFailures() throws FetchException {
+        HedgingUrlFetcher fetcher = new HedgingUrlFetcher(new UrlFetcher() {
+            @Override
+            public String fetchHtmlContent(String url) throws FetchException {
+                return fetchPage(url, null, null).getContent();
+            }
+
+            @Override
+            public FetchedPage fetchPage(String url, String etag, String lastModified) throws FetchException {
+                if (url.startsWith("https://docs.example.com")) {
+                    sleep(20);
+                    throw new FetchException("HTTP request failed with status 503: Service Unavailable");
+                }
+                return FetchedPage.of(url, "<html>mirror</html>", null, null);
+            }
+        }, "https://mirror.example.com", RunMetrics.disabled());
+
+        for (int i = 0; i < HedgingUrlFetcher.MIN_SAMPLES; i++) {
+            fetcher.fetchHtmlContent("https://docs.example.com/a.html");
+        }
+
+        // The failed primary attempts make up the original host's window; the fast mirror has its own
+        assertTrue(fetcher.hedgeDelayNanos("docs.example.com") >= 20_000_000L,
+            "p95 " + fetcher.hedgeDelayNanos("docs.example.com"));
+        assertTrue(fetcher.hedgeDelayNanos("mirror.example.com") < fetcher.hedgeDelayNanos("docs.example.com"));
+    }
+
+    @Test
+    void testFailureWithoutMirrorIsRethrown() {
+        HedgingUrlFetcher fetcher = new HedgingUrlFetcher(url -> {
+            throw new FetchException("HTTP request failed with status 404: Not Found");
+        });
+
+        FetchException exception = assertThrows(FetchException.class,
+            () -> fetcher.fetchHtmlContent("https://example.com/missing"));
+        assertTrue(exception.getMessage().contains("404"));
+    }
+
+    @Test
+    void testMirrorUrlKeepsPathAndQuery() {
+        HedgingUrlFetcher fetcher = new HedgingUrlFetcher(url -> "", "http://127.0.0.1:9000", RunMetrics.disabled());
+
+        assertEquals("http://127.0.0.1:9000/docs/a.html?v=2", fetcher.mirrorUrl("https://docs.example.com/docs/a.html?v=2"));
+    }
+
+    @Test
+    void testSlowPrimaryServerIsHedgedToMirrorServer() throws Exception {
+        AtomicBoolean primarySlow = new AtomicBoolean(false);
+        HttpServer primary = server("<html>primary</html>", primarySlow);
+        HttpServer mirror = server("<html>mirror</html>", new AtomicBoolean(false));
+        try {
+            String primaryBase = "http://127.0.0.1:" + primary.getAddress().getPort();
+            String mirrorBase = "http://127.0.0.1:" + mirror.getAddress().getPort();
+            HedgingUrlFetcher fetcher = new HedgingUrlFetcher(
+                new HttpUrlFetcher(10000, "ApiWeaver/1.0"), mirrorBase, RunMetrics.disabled());
+            warmUp(fetcher, primaryBase + "/docs/business.html");
+
+            primarySlow.set(true);
+            long start = System.nanoTime();
+            FetchedPage page = fetcher.fetchPage(primaryBase + "/docs/business.html", null, null);
+
+            assertTrue(System.nanoTime() - start < 3_000_000_000L, "hedge should not wait for the slow primary");
+            assertEquals("<html>mirror</html>\n", page.getContent());
+            assertEquals(primaryBase + "/docs/business.html", page.getUrl());
+            assertEquals(1, fetcher.getHedgeWinCount());
+        } finally {
+            primary.stop(0);
+            mirror.stop(0);
+        }
+    }
+}
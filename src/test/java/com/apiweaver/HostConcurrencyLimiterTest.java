@@ -0,0 +1,227 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HostConcurrencyLimiter and ConcurrencyLimitingUrlFetcher classes.
+ */
+class HostConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void testHostOf() {
+        assertEquals("example.com", HostConcurrencyLimiter.hostOf("https://Example.com/docs/a.html"));
+        assertEquals("127.0.0.1:8080", HostConcurrencyLimiter.hostOf("http://127.0.0.1:8080/a"));
+        assertEquals("", HostConcurrencyLimiter.hostOf(null));
+    }
+
+    @Test
+    void testSuccessfulRequestsRaiseTheLimitAdditively() throws InterruptedException {
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(2, 8, RunMetrics.disabled());
+
+        // 2 -> 2.5 -> 2.9 -> 3.24 -> 3.55 -> 3.83 -> 4.09: about one slot per limit's worth of successes
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("docs").complete(true, 10 * MILLIS);
+        }
+        assertEquals(3, limiter.getLimit("docs"));
+        for (int i = 0; i < 2; i++) {
+            limiter.acquire("docs").complete(true, 10 * MILLIS);
+        }
+        assertEquals(4, limiter.getLimit("docs"));
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire("docs").complete(true, 10 * MILLIS);
+        }
+        assertEquals(8, limiter.getLimit("docs"));
+        assertEquals(2, limiter.getLimit("other"));
+    }
+
+    @Test
+    void testFailureHalvesTheLimitOncePerRound() throws InterruptedException {
+        RunMetrics metrics = new RunMetrics();
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(8, 8, metrics);
+        HostConcurrencyLimiter.Permit[] permits = new HostConcurrencyLimiter.Permit[4];
+        for (int i = 0; i < permits.length; i++) {
+            permits[i] = limiter.acquire("docs");
+        }
+
+        // All four requests fail in the same overload episode
+        for (HostConcurrencyLimiter.Permit permit : permits) {
+            permit.onFailure();
+        }
+        assertEquals(4, limiter.getLimit("docs"));
+
+        // A request started after the decrease can decrease again
+        limiter.acquire("docs").onFailure();
+        assertEquals(2, limiter.getLimit("docs"));
+        assertEquals(2, metrics.getCounter(RunMetrics.FETCH_LIMIT_DECREASES));
+    }
+
+    @Test
+    void testSlowResponseLowersTheLimit() throws InterruptedException {
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(8, 8, RunMetrics.disabled());
+        for (int i = 0; i < HostConcurrencyLimiter.MIN_SAMPLES; i++) {
+            limiter.acquire("docs").complete(true, 10 * MILLIS);
+        }
+        assertEquals(8, limiter.getLimit("docs"));
+
+        limiter.acquire("docs").complete(true, 100 * MILLIS);
+
+        assertEquals(6, limiter.getLimit("docs"));
+    }
+
+    @Test
+    void testAcquireBlocksAtTheLimit() throws InterruptedException {
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(1, 1, RunMetrics.disabled());
+        HostConcurrencyLimiter.Permit first = limiter.acquire("docs");
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire("docs").onSuccess();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        first.onSuccess();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+    }
+
+    /**
+     * The page executor of the Java 21 layer: a virtual thread per task. Tests run from the
+     * classes directory, where only the Java 11 {@link PageExecutors} is visible, so on 21 the
+     * same executor is created reflectively; older JDKs use the platform-thread pool.
+     */
+    private static ExecutorService pageExecutor(int concurrency) throws Exception {
+        if (Runtime.version().feature() >= 21) {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        return PageExecutors.newPageExecutor(concurrency);
+    }
+
+    @Test
+    void testSaturatedHostDoesNotStallOtherPageTasks() throws Exception {
+        int tasks = 256;
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(2, 2, RunMetrics.disabled());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger highest = new AtomicInteger();
+        ExecutorService executor = pageExecutor(tasks + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(() -> {
+                    HostConcurrencyLimiter.Permit permit = limiter.acquire("docs");
+                    try {
+                        highest.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        // Blocking like a socket read; a virtual thread needs a free carrier to resume
+                        Thread.sleep(2);
+                        inFlight.decrementAndGet();
+                    } finally {
+                        permit.onSuccess();
+                    }
+                    return null;
+                }));
+            }
+
+            // Tasks waiting for a slot on one host must leave room for work on another
+            Future<?> other = executor.submit(() -> {
+                limiter.acquire("other").onSuccess();
+                return null;
+            });
+            other.get(5, TimeUnit.SECONDS);
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            assertTrue(highest.get() <= limiter.getLimit("docs"), "in flight: " + highest.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInterruptedWaiterDoesNotLoseAFreedSlot() throws Exception {
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(1, 1, RunMetrics.disabled());
+        HostConcurrencyLimiter.Permit first = limiter.acquire("docs");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> interrupted = executor.submit(() -> {
+                limiter.acquire("docs").onSuccess();
+                return null;
+            });
+            Future<?> waiting = executor.submit(() -> {
+                limiter.acquire("docs").onSuccess();
+                return null;
+            });
+            Thread.sleep(100);
+            interrupted.cancel(true);
+            first.onSuccess();
+
+            waiting.get(5, TimeUnit.SECONDS);
+            assertNotNull(limiter.acquire("docs"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLimitingFetcherReleasesPermitWhenFetchFails() throws Exception {
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(1, 1, RunMetrics.disabled());
+        UrlFetcher fetcher = new ConcurrencyLimitingUrlFetcher(url -> {
+            if (url.endsWith("/missing")) {
+                throw new FetchException("HTTP request failed with status 404: Not Found");
+            }
+            return "<html></html>";
+        }, limiter);
+
+        assertThrows(FetchException.class, () -> fetcher.fetchHtmlContent("https://example.com/missing"));
+
+        // With a limit of one, this only completes if the failed fetch gave its slot back
+        AtomicReference<String> content = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                content.set(fetcher.fetchHtmlContent("https://example.com/a"));
+            } catch (FetchException e) {
+                fail(e);
+            }
+        });
+        thread.start();
+        thread.join(5000);
+        assertEquals("<html></html>", content.get());
+    }
+
+    @Test
+    void testCancelledFetchDoesNotLowerTheLimit() throws Exception {
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(4, 8, RunMetrics.disabled());
+        UrlFetcher fetcher = new ConcurrencyLimitingUrlFetcher(url -> {
+            // A hedged request that lost the race is interrupted and gives up
+            Thread.currentThread().interrupt();
+            throw new FetchException("Fetch cancelled for URL: " + url, url);
+        }, limiter);
+
+        assertThrows(FetchException.class, () -> fetcher.fetchHtmlContent("https://example.com/a"));
+        assertTrue(Thread.interrupted());
+
+        assertEquals(4, limiter.getLimit("example.com"));
+        // The slot was given back: all four can be taken again
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire("example.com");
+        }
+    }
+}
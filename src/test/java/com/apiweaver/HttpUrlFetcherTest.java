@@ -5,9 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.sun.net.httpserver.HttpServer;
+
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
 import java.net.SocketTimeoutException;
 import java.net.URL;
@@ -182,4 +186,47 @@ class HttpUrlFetcherTest {
         HttpUrlFetcher customFetcher = new HttpUrlFetcher(5000, "TestAgent/1.0");
         assertEquals("TestAgent/1.0", customFetcher.getUserAgent());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void fetchPage_withMatchingEtag_returnsNotModified() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/page", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = "<html><body>page</body></html>".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/page";
+            
+            RunMetrics metrics = new RunMetrics();
+            HttpUrlFetcher fetcher = new HttpUrlFetcher(5000, "ApiWeaver/1.0", metrics);
+            
+            FetchedPage first = fetcher.fetchPage(url, null, null);
+            assertFalse(first.isNotModified());
+            assertEquals("\"v1\"", first.getEtag());
+            assertTrue(first.getContent().contains("page"));
+            
+            FetchedPage second = fetcher.fetchPage(url, first.getEtag(), null);
+            assertTrue(second.isNotModified());
+            assertNull(second.getContent());
+            assertEquals("\"v1\"", second.getEtag());
+            
+            assertEquals(2, metrics.getCounter(RunMetrics.FETCH_REQUESTS));
+            assertEquals(1, metrics.getCounter(RunMetrics.FETCH_NOT_MODIFIED));
+            assertEquals("<html><body>page</body></html>".length(), metrics.getCounter(RunMetrics.FETCH_BYTES));
+            assertEquals(2, metrics.getHistogram(RunMetrics.FETCH_TTFB).getCount());
+            assertEquals(1, metrics.getHistogram(RunMetrics.FETCH_DOWNLOAD).getCount());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
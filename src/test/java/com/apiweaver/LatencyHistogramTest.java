@@ -0,0 +1,68 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyHistogram class.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(50.5, histogram.getMean(), 0.001);
+    }
+
+    @Test
+    void testLargeValuesStayWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000_000L);
+        }
+
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+
+        assertEquals(5_000_000_000L, p50, 5_000_000_000L / 64.0);
+        assertEquals(9_900_000_000L, p99, 9_900_000_000L / 64.0);
+        assertEquals(10_000_000_000L, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testBucketIndexCoversLongRange() {
+        assertEquals(127, LatencyHistogram.indexOf(127));
+        assertEquals(128, LatencyHistogram.indexOf(128));
+        assertTrue(LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(Long.MAX_VALUE)) >= Long.MAX_VALUE - 1);
+        for (long value : new long[]{128, 1_000, 123_456_789L, Long.MAX_VALUE / 3}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValueAt(index - 1) < value);
+        }
+    }
+
+    @Test
+    void testNegativeValueRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().record(-1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.apiweaver;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Smoke test for the native executable built by the native profile.
+ * Runs the binary named by the apiweaver.native.binary system property against a page
+ * served from a loopback server and checks the generated specification. Skipped when no binary is configured.
+ */
+class NativeImageSmokeIT {
+
+    private static final String BINARY_PROPERTY = "apiweaver.native.binary";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private Path binary;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String binaryPath = System.getProperty(BINARY_PROPERTY);
+        assumeTrue(binaryPath != null && Files.isExecutable(Paths.get(binaryPath)),
+            "No native binary configured in " + BINARY_PROPERTY);
+        binary = Paths.get(binaryPath);
+
+        byte[] page = BatchProcessorTest.objectPage("Resource", "id", "name", "description")
+            .getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/resource.html", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, page.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(page);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testNativeBinary_GeneratesSpecificationFromLocalPage() throws Exception {
+        Path output = tempDir.resolve("resource.yaml");
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/resource.html";
+
+        Process process = new ProcessBuilder(binary.toString(), "-o", output.toString(), url)
+            .directory(tempDir.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(tempDir.resolve("console.log").toFile())
+            .start();
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS), "Native binary did not finish within 60 seconds");
+
+        String console = Files.readString(tempDir.resolve("console.log"), StandardCharsets.UTF_8);
+        assertEquals(0, process.exitValue(), "Native binary failed:\n" + console);
+        String yaml = Files.readString(output, StandardCharsets.UTF_8);
+        assertTrue(yaml.contains("openapi: \"3.1.1\"") || yaml.contains("openapi: 3.1.1"), yaml);
+        assertTrue(yaml.contains(PageProcessor.DEFAULT_SCHEMA_NAME + ":"), yaml);
+        assertTrue(yaml.contains("description: \"name description\""), yaml);
+    }
+}
@@ -288,4 +288,25 @@ class OpenApi31GeneratorTest {
         
         assertTrue(exception.getMessage().contains("Failed to write OpenAPI file"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGenerateOrAmendSpec_EmitsSchemaReferences() {
+        List<OpenApiProperty> properties = Arrays.asList(
+            OpenApiProperty.builder("business", "object").ref("Business").description("Owning business").build(),
+            OpenApiProperty.builder("locations", "array").ref("Location").build());
+
+        OpenApiSpec spec = generator.generateOrAmendSpec("Appointment", properties, null);
+        OpenApiSpec.Schema schema = spec.getComponents().get("Appointment");
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> business = (Map<String, Object>) schema.getProperties().get("business");
+        assertEquals("#/components/schemas/Business", business.get("$ref"));
+        assertEquals("Owning business", business.get("description"));
+        assertFalse(business.containsKey("type"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> locations = (Map<String, Object>) schema.getProperties().get("locations");
+        assertEquals("array", locations.get("type"));
+        assertEquals(Map.of("$ref", "#/components/schemas/Location"), locations.get("items"));
+    }
+}
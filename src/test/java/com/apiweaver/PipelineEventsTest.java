@@ -0,0 +1,53 @@
+package com.apiweaver;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PipelineEvents and FlightRecording classes.
+ */
+class PipelineEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecordingCapturesPipelineEvents() throws Exception {
+        Path file = tempDir.resolve("run.jfr");
+
+        try (FlightRecording recording = FlightRecording.start(file)) {
+            PageResult page = new PageProcessor().process("https://example.com/business",
+                BatchProcessorTest.objectPage("Business", "id", "name"));
+            new TimeTapPropertyMapper().mapToOpenApiProperty(page.getProperties().get(0));
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Set<String> names = events.stream()
+            .map(event -> event.getEventType().getName())
+            .filter(name -> name.startsWith("com.apiweaver."))
+            .collect(Collectors.toSet());
+        assertTrue(names.containsAll(Set.of("com.apiweaver.Page", "com.apiweaver.Parse",
+            "com.apiweaver.TableLookup", "com.apiweaver.Extraction", "com.apiweaver.Mapping")), names.toString());
+
+        RecordedEvent pageEvent = events.stream()
+            .filter(event -> event.getEventType().getName().equals("com.apiweaver.Page"))
+            .findFirst().orElseThrow();
+        assertEquals("https://example.com/business", pageEvent.getString("url"));
+        assertEquals("Business", pageEvent.getString("schemaName"));
+        assertEquals(2, pageEvent.getInt("properties"));
+
+        RecordedEvent extraction = events.stream()
+            .filter(event -> event.getEventType().getName().equals("com.apiweaver.Extraction"))
+            .findFirst().orElseThrow();
+        assertEquals(2, extraction.getInt("rows"));
+    }
+}
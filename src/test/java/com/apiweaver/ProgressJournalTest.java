@@ -0,0 +1,112 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProgressJournal class.
+ */
+class ProgressJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private PageResult samplePage(String url, String schemaName) {
+        List<PropertyDefinition> properties = Arrays.asList(
+            new PropertyDefinition("id", "integer", true, false, "Unique identifier"),
+            new PropertyDefinition("name", "string", false, true, "Display name"));
+        return new PageResult(url, schemaName, "abc123", properties);
+    }
+
+    @Test
+    void testReplay_NoJournalFile() throws ApiWeaverException {
+        ProgressJournal journal = new ProgressJournal(tempDir.resolve("missing.ndjson"));
+
+        assertTrue(journal.replay().isEmpty());
+    }
+
+    @Test
+    void testRecordCompleted_ReplaysPageResult() throws ApiWeaverException {
+        Path path = tempDir.resolve("journal.ndjson");
+        PageResult page = samplePage("https://example.com/resource", "Resource");
+
+        try (ProgressJournal journal = new ProgressJournal(path)) {
+            journal.recordCompleted(page);
+        }
+
+        Map<String, PageResult> completed = new ProgressJournal(path).replay();
+        assertEquals(1, completed.size());
+        assertEquals(page, completed.get("https://example.com/resource"));
+    }
+
+    @Test
+    void testRecordFailed_SupersedesEarlierCompletion() throws ApiWeaverException {
+        Path path = tempDir.resolve("journal.ndjson");
+
+        try (ProgressJournal journal = new ProgressJournal(path)) {
+            journal.recordCompleted(samplePage("https://example.com/a", "A"));
+            journal.recordCompleted(samplePage("https://example.com/b", "B"));
+            journal.recordFailed("https://example.com/a", "Request timed out");
+        }
+
+        Map<String, PageResult> completed = new ProgressJournal(path).replay();
+        assertEquals(1, completed.size());
+        assertTrue(completed.containsKey("https://example.com/b"));
+    }
+
+    @Test
+    void testReplay_SkipsTornTrailingRecord() throws Exception {
+        Path path = tempDir.resolve("journal.ndjson");
+
+        try (ProgressJournal journal = new ProgressJournal(path)) {
+            journal.recordCompleted(samplePage("https://example.com/a", "A"));
+        }
+        Files.write(path, "{\"url\":\"https://example.com/b\",\"sta".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        Map<String, PageResult> completed = new ProgressJournal(path).replay();
+        assertEquals(1, completed.size());
+        assertTrue(completed.containsKey("https://example.com/a"));
+    }
+
+    @Test
+    void testAppend_AfterTornRecordStartsNewLine() throws Exception {
+        Path path = tempDir.resolve("journal.ndjson");
+        Files.write(path, "{\"url\":\"https://example.com/x\",\"sta".getBytes(StandardCharsets.UTF_8));
+
+        try (ProgressJournal journal = new ProgressJournal(path)) {
+            journal.recordCompleted(samplePage("https://example.com/a", "A"));
+        }
+
+        Map<String, PageResult> completed = new ProgressJournal(path).replay();
+        assertEquals(1, completed.size());
+        assertEquals("A", completed.get("https://example.com/a").getSchemaName());
+    }
+
+    @Test
+    void testComplete_RemovesJournalFile() throws ApiWeaverException {
+        Path path = tempDir.resolve("journal.ndjson");
+        ProgressJournal journal = new ProgressJournal(path);
+        journal.recordCompleted(samplePage("https://example.com/a", "A"));
+        assertTrue(Files.exists(path));
+
+        journal.complete();
+
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    void testConstructor_NullPath() {
+        assertThrows(IllegalArgumentException.class, () -> new ProgressJournal(null));
+    }
+}
@@ -360,4 +360,65 @@ class PropertyTableExtractorTest {
         assertFalse(completeProperty.isWritable());
         assertEquals("Complete property", completeProperty.getDescription());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testFingerprintTable_IgnoresMarkupWhitespaceAndColumnOrder() throws ExtractionException {
+        String original = "<table>" +
+            "<tr><th>Property Name</th><th>Type</th><th>Description</th></tr>" +
+            "<tr><td>id</td><td>integer</td><td>Unique identifier</td></tr>" +
+            "</table>";
+        String restyled = "<table class=\"docs\" style=\"width:100%\">" +
+            "<tr><th>Type</th><th>Property  Name</th><th>Description</th></tr>" +
+            "<tr><td><code>integer</code></td><td> id </td><td>Unique\n   identifier</td></tr>" +
+            "</table>";
+        
+        String first = extractor.fingerprintTable(Jsoup.parse(original).select("table").first());
+        String second = extractor.fingerprintTable(Jsoup.parse(restyled).select("table").first());
+        
+        assertEquals(first, second);
+    }
+    
+    @Test
+    void testFingerprintTable_ChangesWhenCellChanges() throws ExtractionException {
+        String original = "<table>" +
+            "<tr><th>Property Name</th><th>Type</th><th>Description</th></tr>" +
+            "<tr><td>id</td><td>integer</td><td>Unique identifier</td></tr>" +
+            "</table>";
+        String changed = original.replace("<td>integer</td>", "<td>string</td>");
+        
+        String first = extractor.fingerprintTable(Jsoup.parse(original).select("table").first());
+        String second = extractor.fingerprintTable(Jsoup.parse(changed).select("table").first());
+        
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testExtractTable_ReturnsPropertiesWithFingerprint() throws ExtractionException, DeadlineExceededException {
+        String html = "<table>" +
+            "<tr><th>Property Name</th><th>Type</th><th>Description</th></tr>" +
+            "<tr><td>id</td><td>integer</td><td>Unique identifier</td></tr>" +
+            "<tr></tr>" +
+            "<tr><td>name</td><td>string</td><td>Display name</td></tr>" +
+            "</table>";
+        Element table = Jsoup.parse(html).select("table").first();
+
+        TableExtraction extraction = extractor.extractTable(table, Deadline.none());
+
+        assertEquals(2, extraction.getProperties().size());
+        assertEquals("name", extraction.getProperties().get(1).getName());
+        assertEquals(extractor.fingerprintTable(table), extraction.getFingerprint());
+    }
+
+    @Test
+    void testExtractProperties_StopsAtExpiredDeadline() throws ExtractionException, DeadlineExceededException {
+        StringBuilder html = new StringBuilder("<table><tr><th>Property Name</th><th>Type</th></tr>");
+        for (int i = 0; i < 200; i++) {
+            html.append("<tr><td>field").append(i).append("</td><td>string</td></tr>");
+        }
+        html.append("</table>");
+        Element table = Jsoup.parse(html.toString()).select("table").first();
+        
+        assertThrows(DeadlineExceededException.class, () -> extractor.extractProperties(table, Deadline.afterMillis(0)));
+        assertEquals(200, extractor.extractProperties(table, Deadline.none()).size());
+    }
+}
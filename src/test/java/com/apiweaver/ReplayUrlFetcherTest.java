@@ -0,0 +1,135 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SnapshotStore, RecordingUrlFetcher and ReplayUrlFetcher classes.
+ * Pages are recorded from a local HTTP server, which is stopped before they are replayed.
+ */
+class ReplayUrlFetcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static HttpServer server(String body) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    void testRecordedPagesReplayWithoutNetwork() throws Exception {
+        String body = BatchProcessorTest.objectPage("Business", "id", "name");
+        HttpServer server = server(body);
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        String recorded;
+        try (SnapshotStore store = SnapshotStore.create(tempDir)) {
+            UrlFetcher recorder = new RecordingUrlFetcher(new HttpUrlFetcher(5000, "ApiWeaver/1.0"), store);
+            recorded = recorder.fetchHtmlContent(base + "/business.html");
+            assertEquals(recorded, recorder.fetchHtmlContent(base + "/copy.html"));
+        } finally {
+            server.stop(0);
+        }
+
+        RunMetrics metrics = new RunMetrics();
+        try (SnapshotStore store = SnapshotStore.open(tempDir)) {
+            ReplayUrlFetcher replay = new ReplayUrlFetcher(store, false, metrics);
+            FetchedPage page = replay.fetchPage(base + "/business.html", null, null);
+            assertEquals(recorded, page.getContent());
+            assertTrue(page.getContent().contains("BusinessObjectValues"));
+            assertEquals("\"v1\"", page.getEtag());
+            assertTrue(replay.fetchPage(base + "/business.html", "\"v1\"", null).isNotModified());
+
+            FetchException missing = assertThrows(FetchException.class, () -> replay.fetchHtmlContent(base + "/other.html"));
+            assertEquals(base + "/other.html", missing.getContext());
+        }
+        assertEquals(1, metrics.getCounter(RunMetrics.FETCH_REPLAY_MISSES));
+
+        // Identical bodies are stored once
+        try (Stream<Path> bodies = Files.list(tempDir.resolve(SnapshotStore.BODIES_DIR))) {
+            assertEquals(1, bodies.count());
+        }
+    }
+
+    @Test
+    void testReplaySimulatesRecordedLatency() throws Exception {
+        try (SnapshotStore store = SnapshotStore.create(tempDir)) {
+            store.record(FetchedPage.of("https://example.com/a", "<html></html>"), TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        try (SnapshotStore store = SnapshotStore.open(tempDir)) {
+            long start = System.nanoTime();
+            new ReplayUrlFetcher(store).fetchHtmlContent("https://example.com/a");
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+
+            start = System.nanoTime();
+            new ReplayUrlFetcher(store, true, null).fetchHtmlContent("https://example.com/a");
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        }
+    }
+
+    @Test
+    void testNotModifiedRecordingKeepsEarlierBody() throws Exception {
+        try (SnapshotStore store = SnapshotStore.create(tempDir)) {
+            store.record(FetchedPage.of("https://example.com/a", "<html>a</html>", "\"v1\"", null), 1000);
+            store.record(FetchedPage.notModified("https://example.com/a", "\"v1\"", null), 1000);
+            store.record(FetchedPage.notModified("https://example.com/b", "\"v2\"", null), 1000);
+        }
+
+        try (SnapshotStore store = SnapshotStore.open(tempDir)) {
+            ReplayUrlFetcher replay = new ReplayUrlFetcher(store);
+            assertEquals("<html>a</html>", replay.fetchHtmlContent("https://example.com/a"));
+            assertTrue(replay.fetchPage("https://example.com/b", "\"v2\"", null).isNotModified());
+            assertThrows(FetchException.class, () -> replay.fetchHtmlContent("https://example.com/b"));
+        }
+    }
+
+    @Test
+    void testTornIndexLineIsSkippedAndTerminated() throws Exception {
+        try (SnapshotStore store = SnapshotStore.create(tempDir)) {
+            store.record(FetchedPage.of("https://example.com/a", "<html>a</html>"), 1000);
+        }
+        Files.write(tempDir.resolve(SnapshotStore.INDEX_FILE), "{\"url\": \"https://exa".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        try (SnapshotStore store = SnapshotStore.create(tempDir)) {
+            assertEquals(1, store.size());
+            store.record(FetchedPage.of("https://example.com/b", "<html>b</html>"), 1000);
+        }
+        try (SnapshotStore store = SnapshotStore.open(tempDir)) {
+            assertEquals(2, store.size());
+            assertEquals("<html>b</html>", new ReplayUrlFetcher(store).fetchHtmlContent("https://example.com/b"));
+        }
+    }
+
+    @Test
+    void testOpen_RequiresRecordedIndex() {
+        ConfigurationException exception = assertThrows(ConfigurationException.class,
+            () -> SnapshotStore.open(tempDir.resolve("empty")));
+        assertEquals(tempDir.resolve("empty").toString(), exception.getContext());
+    }
+}
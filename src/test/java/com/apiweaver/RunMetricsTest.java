@@ -0,0 +1,93 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RunMetrics class and the metrics recorded by pipeline components.
+ */
+class RunMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDisabledMetricsRecordNothing() {
+        RunMetrics metrics = RunMetrics.disabled();
+        metrics.increment(RunMetrics.FETCH_REQUESTS);
+        metrics.recordNanos(RunMetrics.FETCH_TTFB, 1_000);
+
+        assertFalse(metrics.isEnabled());
+        assertEquals(0, metrics.getCounter(RunMetrics.FETCH_REQUESTS));
+        assertNull(metrics.getHistogram(RunMetrics.FETCH_TTFB));
+    }
+
+    @Test
+    void testWriteReport() throws Exception {
+        RunMetrics metrics = new RunMetrics();
+        metrics.add(RunMetrics.FETCH_BYTES, 2048);
+        metrics.recordNanos(RunMetrics.FETCH_TTFB, 2_000_000);
+        metrics.recordNanos(RunMetrics.FETCH_TTFB, 4_000_000);
+        Path report = tempDir.resolve("stats.json");
+
+        metrics.writeReport(report, "success");
+
+        JsonNode root = new ObjectMapper().readTree(report.toFile());
+        assertEquals("success", root.path("status").asText());
+        assertEquals(2048, root.path("counters").path(RunMetrics.FETCH_BYTES).asLong());
+        JsonNode ttfb = root.path("latenciesMs").path(RunMetrics.FETCH_TTFB);
+        assertEquals(2, ttfb.path("count").asLong());
+        assertEquals(4.0, ttfb.path("max").asDouble(), 0.001);
+        assertTrue(root.path("memory").path("peakHeapBytes").asLong() > 0);
+    }
+
+    @Test
+    void testExtractorRecordsRowCounts() throws ExtractionException {
+        RunMetrics metrics = new RunMetrics();
+        String html = "<table>" +
+            "<tr><th>Property Name</th><th>Type</th><th>Description</th></tr>" +
+            "<tr><td>id</td><td>integer</td><td>Identifier</td></tr>" +
+            "<tr><td></td><td>string</td><td>Missing name</td></tr>" +
+            "</table>";
+
+        new PropertyTableExtractor(metrics).extractProperties(Jsoup.parse(html).select("table").first());
+
+        assertEquals(2, metrics.getCounter(RunMetrics.EXTRACT_ROWS_SEEN));
+        assertEquals(1, metrics.getCounter(RunMetrics.EXTRACT_ROWS_SKIPPED));
+        assertEquals(1, metrics.getHistogram(RunMetrics.EXTRACT_TIME).getCount());
+    }
+
+    @Test
+    void testMapperRecordsCacheHitsAndFallbacks() {
+        RunMetrics metrics = new RunMetrics();
+        TimeTapPropertyMapper mapper = new TimeTapPropertyMapper(new SchemaSymbolTable(), metrics);
+
+        mapper.mapToOpenApiProperty(new PropertyDefinition("a", "string", false, true, ""));
+        mapper.mapToOpenApiProperty(new PropertyDefinition("b", "string", false, true, ""));
+        mapper.mapToOpenApiProperty(new PropertyDefinition("c", "Gizmo", false, true, ""));
+        mapper.mapToOpenApiProperty(new PropertyDefinition("d", "Gizmo", false, true, ""));
+
+        assertEquals(4, metrics.getCounter(RunMetrics.MAP_PROPERTIES));
+        assertEquals(2, metrics.getCounter(RunMetrics.MAP_CACHE_MISSES));
+        assertEquals(2, metrics.getCounter(RunMetrics.MAP_CACHE_HITS));
+        assertEquals(2, metrics.getCounter(RunMetrics.MAP_FALLBACKS));
+    }
+
+    @Test
+    void testParserRecordsDocumentSize() {
+        RunMetrics metrics = new RunMetrics();
+        String html = "<html><body><p>One</p><p>Two</p></body></html>";
+
+        new JSoupHtmlParser(metrics).parseHtml(html);
+
+        assertEquals(html.length(), metrics.getCounter(RunMetrics.PARSE_CHARS));
+        assertTrue(metrics.getCounter(RunMetrics.PARSE_ELEMENTS) >= 5);
+    }
+}
@@ -0,0 +1,63 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SchemaDependencyGraph and SchemaSymbolTable classes.
+ */
+class SchemaDependencyGraphTest {
+
+    @Test
+    void testAffectedBy_IncludesTransitiveDependentsOnly() {
+        SchemaDependencyGraph graph = new SchemaDependencyGraph();
+        graph.setReferences("Business", Collections.emptyList());
+        graph.setReferences("Location", Arrays.asList("Business"));
+        graph.setReferences("Appointment", Arrays.asList("Location", "Staff"));
+        graph.setReferences("Staff", Collections.emptyList());
+
+        Set<String> affected = graph.affectedBy(Arrays.asList("Business"));
+
+        assertEquals(new HashSet<>(Arrays.asList("Business", "Location", "Appointment")), affected);
+        assertEquals(Collections.singleton("Appointment"), graph.affectedBy(Arrays.asList("Staff")).stream()
+            .filter(name -> !name.equals("Staff")).collect(java.util.stream.Collectors.toSet()));
+    }
+
+    @Test
+    void testSetReferences_ReplacesPreviousEdges() {
+        SchemaDependencyGraph graph = new SchemaDependencyGraph();
+        graph.setReferences("Location", Arrays.asList("Business"));
+        graph.setReferences("Location", Arrays.asList("Staff"));
+
+        assertTrue(graph.getDependents("Business").isEmpty());
+        assertEquals(Collections.singleton("Location"), graph.getDependents("staff"));
+    }
+
+    @Test
+    void testAffectedBy_HandlesCycles() {
+        SchemaDependencyGraph graph = new SchemaDependencyGraph();
+        graph.setReferences("A", Arrays.asList("B"));
+        graph.setReferences("B", Arrays.asList("A", "B"));
+
+        assertEquals(new HashSet<>(Arrays.asList("A", "B")), graph.affectedBy(Arrays.asList("A")));
+    }
+
+    @Test
+    void testSymbolTable_ResolvesDecoratedTypeNames() {
+        SchemaSymbolTable symbols = SchemaSymbolTable.of(Arrays.asList("Business"));
+
+        assertEquals("Business", symbols.resolve(SchemaSymbolTable.baseTypeName("business")));
+        assertEquals("Business", SchemaSymbolTable.baseTypeName("Business[]"));
+        assertEquals("Business", SchemaSymbolTable.baseTypeName("List<Business>"));
+        assertEquals("Business", SchemaSymbolTable.baseTypeName("Array[Business]?"));
+        assertNull(SchemaSymbolTable.baseTypeName("Map of strings"));
+        assertTrue(SchemaSymbolTable.isCollectionType("Business[]"));
+        assertFalse(SchemaSymbolTable.isCollectionType("Business?"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SchemaIndex class.
+ */
+class SchemaIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory())
+        .configure(SerializationFeature.INDENT_OUTPUT, true)
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final OpenApi31Generator generator = new OpenApi31Generator();
+
+    /**
+     * Writes a specification the way the CLI does and returns its content.
+     */
+    private byte[] writeSpec(Path file) throws Exception {
+        OpenApiSpec spec = generator.createNewSpec();
+        OpenApiProperty id = new OpenApiProperty("id", "string", null, true, true, "Identifier");
+        OpenApiProperty business = new OpenApiProperty("business", "object", null, false, false, "Owning business", "Business");
+        generator.generateOrAmendSpec("Business", Collections.singletonList(id), spec);
+        generator.generateOrAmendSpec("Location", Arrays.asList(id, business), spec);
+        generator.generateOrAmendSpec("Staff member", Collections.singletonList(id), spec);
+        byte[] content = YAML.writeValueAsBytes(spec);
+        Files.write(file, content);
+        return content;
+    }
+
+    @Test
+    void testScan_SlicesAreTheSchemaEntries() throws Exception {
+        Path file = tempDir.resolve("api.yaml");
+        byte[] content = writeSpec(file);
+
+        SchemaIndex index = SchemaIndex.scan(content);
+
+        assertEquals(3, index.size());
+        String all = new String(content, StandardCharsets.UTF_8);
+        for (String name : new String[]{"Business", "Location", "Staff member"}) {
+            SchemaIndex.Entry entry = index.get(name);
+            String slice = new String(content, (int) entry.getOffset(), entry.getLength(), StandardCharsets.UTF_8);
+            // Each slice parses back to exactly that schema
+            assertEquals(YAML.readTree(all).get("components").get(name), YAML.readTree(slice).get(name), slice);
+        }
+        assertNull(index.get("Missing"));
+        assertEquals(index.get("Business").getLength(), SchemaIndex.scan(file).get("Business").getLength());
+    }
+
+    @Test
+    void testRead_ChecksTheIndexedBytesAgainstTheirHash() throws Exception {
+        Path file = tempDir.resolve("api.yaml");
+        byte[] content = writeSpec(file);
+        Path indexFile = SchemaIndex.pathFor(file.toString());
+        SchemaIndex.scan(content).save(indexFile);
+
+        String location = SchemaIndex.read(file, "Location");
+        assertTrue(location.startsWith("  Location:\n"), location);
+        assertTrue(location.contains("Owning business"));
+        assertFalse(location.contains("Staff member"));
+        assertNull(SchemaIndex.read(file, "Missing"));
+
+        // An edit that keeps the size and modification time is still detected
+        FileTime modified = Files.getLastModifiedTime(file);
+        String edited = new String(content, StandardCharsets.UTF_8).replace("Owning business", "Owning company ");
+        Files.writeString(file, edited);
+        Files.setLastModifiedTime(file, modified);
+        assertEquals(content.length, Files.size(file));
+        assertTrue(SchemaIndex.read(file, "Location").contains("Owning company"));
+
+        // A schema added after the index was written is found by scanning
+        Files.writeString(file, edited + "  Zone:\n    type: \"object\"\n");
+        assertEquals("  Zone:\n    type: \"object\"\n", SchemaIndex.read(file, "Zone"));
+
+        Files.write(indexFile, Arrays.copyOf(Files.readAllBytes(indexFile), 20));
+        assertTrue(SchemaIndex.read(file, "Business").startsWith("  Business:\n"));
+        Files.delete(indexFile);
+        assertTrue(SchemaIndex.read(file, "Location").contains("Owning company"));
+    }
+
+    @Test
+    void testRead_BisectsTheSortedRecords() throws Exception {
+        OpenApiSpec spec = generator.createNewSpec();
+        OpenApiProperty id = new OpenApiProperty("id", "string", null, true, true, "Identifier");
+        for (int i = 0; i < 300; i++) {
+            generator.generateOrAmendSpec("Schema " + Integer.toString(i * 7919 % 300, 36), Collections.singletonList(id), spec);
+        }
+        generator.generateOrAmendSpec("Überweisung", Collections.singletonList(id), spec);
+        Path file = tempDir.resolve("large.yaml");
+        byte[] content = YAML.writeValueAsBytes(spec);
+        Files.write(file, content);
+        SchemaIndex index = SchemaIndex.scan(content);
+        index.save(SchemaIndex.pathFor(file.toString()));
+
+        for (String name : spec.getComponents().keySet()) {
+            SchemaIndex.Entry entry = index.get(name);
+            assertEquals(new String(content, (int) entry.getOffset(), entry.getLength(), StandardCharsets.UTF_8),
+                SchemaIndex.read(file, name), name);
+        }
+        assertNull(SchemaIndex.read(file, "Schema zz"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShardedSpecWriter class.
+ */
+class ShardedSpecWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final OpenApi31Generator generator = new OpenApi31Generator();
+
+    private OpenApiSpec spec() {
+        OpenApiSpec spec = generator.createNewSpec();
+        OpenApiProperty id = new OpenApiProperty("id", "string", null, true, true, "Identifier");
+        OpenApiProperty business = new OpenApiProperty("business", "object", null, false, false, "Owning business", "Business");
+        generator.generateOrAmendSpec("Business", Collections.singletonList(id), spec);
+        generator.generateOrAmendSpec("Location", Arrays.asList(id, business), spec);
+        generator.generateOrAmendSpec("Staff", Collections.singletonList(id), spec);
+        return spec;
+    }
+
+    private Path shard(String name) {
+        return tempDir.resolve(ShardedSpecWriter.SHARD_DIR).resolve(name + ".yaml");
+    }
+
+    @Test
+    void testWrite_RootReferencesOneFilePerSchema() throws Exception {
+        Path root = tempDir.resolve("api.yaml");
+        OpenApiSpec spec = spec();
+
+        RunMetrics metrics = new RunMetrics();
+        ShardedSpecWriter.Result result = ShardedSpecWriter.builder(root).concurrency(2).metrics(metrics).build().write(spec);
+
+        assertEquals(3, result.getWrittenCount());
+        assertEquals(3, metrics.getCounter(RunMetrics.WRITE_SHARDS));
+        String rootContent = Files.readString(root);
+        assertTrue(rootContent.contains("$ref: \"components/schemas/Location.yaml\""), rootContent);
+        assertFalse(rootContent.contains("Identifier"));
+        String location = Files.readString(shard("Location"));
+        assertTrue(location.contains("$ref: \"Business.yaml\""), location);
+        assertTrue(ShardedSpecWriter.isShardedRoot(root));
+
+        // Reading the files back gives the specification that was written
+        assertEquals(spec, ShardedSpecWriter.read(root));
+    }
+
+    @Test
+    void testWrite_OnlyRewritesChangedFiles() throws Exception {
+        Path root = tempDir.resolve("api.yaml");
+        ShardedSpecWriter writer = ShardedSpecWriter.builder(root).build();
+        writer.write(spec());
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        for (String name : new String[]{"Business", "Location", "Staff"}) {
+            Files.setLastModifiedTime(shard(name), old);
+        }
+        Files.setLastModifiedTime(root, old);
+
+        OpenApiSpec changed = spec();
+        changed.getComponents().remove("Staff");
+        generator.generateOrAmendSpec("Business", Collections.singletonList(
+            new OpenApiProperty("name", "string", null, false, false, "Name")), changed);
+        ShardedSpecWriter.Result result = writer.write(changed);
+
+        assertEquals(1, result.getWrittenCount());
+        assertEquals(1, result.getUnchangedCount());
+        assertEquals(1, result.getDeletedCount());
+        assertNotEquals(old, Files.getLastModifiedTime(shard("Business")));
+        assertEquals(old, Files.getLastModifiedTime(shard("Location")));
+        assertFalse(Files.exists(shard("Staff")));
+        assertNotEquals(old, Files.getLastModifiedTime(root));
+
+        ShardedSpecWriter.Result again = writer.write(changed);
+        assertEquals(0, again.getWrittenCount());
+        assertEquals(0, again.getBytesWritten());
+    }
+
+    @Test
+    void testWrite_OnlyRemovesFilesOfThePreviousRoot() throws Exception {
+        Files.createDirectories(shard("Notes").getParent());
+        Files.writeString(shard("Notes"), "description: kept by hand\n");
+        ShardedSpecWriter.builder(tempDir.resolve("other.yaml")).build().write(spec());
+        Path root = tempDir.resolve("api.yaml");
+        OpenApiSpec first = generator.createNewSpec();
+        generator.generateOrAmendSpec("Order", Collections.singletonList(
+            new OpenApiProperty("id", "string", null, true, true, "Identifier")), first);
+        ShardedSpecWriter writer = ShardedSpecWriter.builder(root).build();
+        writer.write(first);
+
+        ShardedSpecWriter.Result result = writer.write(generator.createNewSpec());
+
+        // Order came from this root's previous write; the other files are not this root's
+        assertEquals(1, result.getDeletedCount());
+        assertFalse(Files.exists(shard("Order")));
+        assertTrue(Files.exists(shard("Notes")));
+        assertTrue(Files.exists(shard("Business")));
+    }
+
+    @Test
+    void testIsShardedRoot_RejectsOtherFiles() throws Exception {
+        Path single = tempDir.resolve("single.yaml");
+        Files.writeString(single, "openapi: \"3.1.1\"\ncomponents:\n  Business:\n    type: \"object\"\n");
+        Path inline = tempDir.resolve("inline.yaml");
+        Files.writeString(inline, "openapi: 3.1.1\ncomponents:\n  schemas:\n    Business:\n      type: object\n");
+
+        assertFalse(ShardedSpecWriter.isShardedRoot(single));
+        assertFalse(ShardedSpecWriter.isShardedRoot(inline));
+        assertFalse(ShardedSpecWriter.isShardedRoot(tempDir.resolve("missing.yaml")));
+    }
+
+    @Test
+    void testWrite_RejectsSchemaNamesThatAreNotFileNames() {
+        OpenApiSpec spec = generator.generateOrAmendSpec("../Escape", Collections.emptyList(), null);
+        assertThrows(GenerationException.class,
+            () -> ShardedSpecWriter.builder(tempDir.resolve("api.yaml")).build().write(spec));
+    }
+}
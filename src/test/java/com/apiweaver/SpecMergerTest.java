@@ -0,0 +1,235 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpecMerger class.
+ */
+class SpecMergerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory());
+
+    private Path write(String name, String content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, content);
+        return file;
+    }
+
+    /**
+     * A specification in the layout ApiWeaver writes, with schemas directly under components.
+     */
+    private static String spec(String title, String... schemas) {
+        StringBuilder yaml = new StringBuilder("openapi: \"3.1.1\"\ninfo:\n  title: \"" + title + "\"\n  version: \"1.0.0\"\n"
+            + "components:\n");
+        for (String schema : schemas) {
+            yaml.append(schema);
+        }
+        return yaml.toString();
+    }
+
+    private static String schema(String name, String... properties) {
+        StringBuilder yaml = new StringBuilder("  " + name + ":\n    type: \"object\"\n    properties:\n");
+        for (String property : properties) {
+            yaml.append("      ").append(property).append(":\n        type: \"string\"\n");
+        }
+        return yaml.toString();
+    }
+
+    private static List<String> names(JsonNode spec) {
+        List<String> names = new ArrayList<>();
+        spec.get("components").fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static List<String> properties(JsonNode spec, String schema) {
+        List<String> names = new ArrayList<>();
+        spec.get("components").get(schema).get("properties").fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    @Test
+    void testMerge_InterleavesInputsInSortedOrder() throws Exception {
+        Path first = write("first.yaml", spec("First", schema("Business", "id"), schema("Staff", "id")));
+        Path second = write("second.yaml", "openapi: \"3.1.1\"\ncomponents:\n"
+            + "  responses:\n    NotFound:\n      description: \"Not found\"\n"
+            + "  schemas:\n    Appointment:\n      type: \"object\"\n      properties:\n        id:\n          type: \"string\"\n");
+        Path third = write("third.yaml", spec("Third", schema("Business", "id"), schema("Location", "id")));
+        Path output = tempDir.resolve("merged.yaml");
+
+        RunMetrics metrics = new RunMetrics();
+        SpecMerger.Result result = SpecMerger.builder().metrics(metrics).build()
+            .merge(Arrays.asList(first, second, third), output);
+
+        JsonNode merged = YAML.readTree(output.toFile());
+        assertEquals(Arrays.asList("Appointment", "Business", "Location", "Staff"), names(merged));
+        assertEquals("First", merged.get("info").get("title").asText());
+        assertEquals(4, result.getSchemaCount());
+        assertEquals(0, result.getConflictCount());
+        assertEquals(0, result.getBufferedInputCount());
+        assertEquals(3, metrics.getCounter(RunMetrics.MERGE_INPUTS));
+        assertEquals(4, metrics.getCounter(RunMetrics.MERGE_SCHEMAS));
+
+        // The merged file is a regular ApiWeaver specification
+        OpenApiSpec spec = YAML.readValue(output.toFile(), OpenApiSpec.class);
+        assertEquals(Collections.singleton("id"), spec.getComponents().get("Appointment").getProperties().keySet());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.filter(file -> file.toString().endsWith(".tmp")).count());
+        }
+    }
+
+    @Test
+    void testMerge_ConflictPolicies() throws Exception {
+        Path first = write("first.yaml", spec("First", schema("Business", "id", "name")));
+        Path second = write("second.yaml", spec("Second", schema("Business", "id", "email")));
+        List<Path> inputs = Arrays.asList(first, second);
+        Path output = tempDir.resolve("merged.yaml");
+
+        GenerationException conflict = assertThrows(GenerationException.class,
+            () -> SpecMerger.builder().build().merge(inputs, output));
+        assertTrue(conflict.getMessage().contains("Business"));
+        assertFalse(Files.exists(output));
+
+        SpecMerger.builder().conflictPolicy(SpecMerger.ConflictPolicy.FIRST_WINS).build().merge(inputs, output);
+        assertEquals(Arrays.asList("id", "name"), properties(YAML.readTree(output.toFile()), "Business"));
+
+        SpecMerger.builder().conflictPolicy(SpecMerger.ConflictPolicy.LAST_WINS).build().merge(inputs, output);
+        assertEquals(Arrays.asList("id", "email"), properties(YAML.readTree(output.toFile()), "Business"));
+
+        SpecMerger.Result result = SpecMerger.builder().conflictPolicy(SpecMerger.ConflictPolicy.UNION_PROPERTIES).build()
+            .merge(inputs, output);
+        assertEquals(Arrays.asList("id", "name", "email"), properties(YAML.readTree(output.toFile()), "Business"));
+        assertEquals(1, result.getConflictCount());
+
+        assertEquals(SpecMerger.ConflictPolicy.UNION_PROPERTIES, SpecMerger.ConflictPolicy.forOption("UNION"));
+        assertThrows(IllegalArgumentException.class, () -> SpecMerger.ConflictPolicy.forOption("newest"));
+    }
+
+    @Test
+    void testUnion_AddsRequiredNamesOnce() throws Exception {
+        JsonNode earlier = YAML.readTree("type: object\nproperties:\n  id:\n    type: string\nrequired: [id]\n");
+        JsonNode later = YAML.readTree("type: object\nproperties:\n  id:\n    type: integer\n  name:\n    type: string\n"
+            + "required: [name, id]\n");
+
+        JsonNode union = SpecMerger.union(earlier, later);
+
+        assertEquals("string", union.get("properties").get("id").get("type").asText());
+        assertEquals("string", union.get("properties").get("name").get("type").asText());
+        assertEquals(YAML.readTree("[id, name]"), union.get("required"));
+        assertEquals(1, earlier.get("required").size());
+    }
+
+    @Test
+    void testMerge_UnsortedAndJsonInputs() throws Exception {
+        Path unsorted = write("unsorted.yaml", spec("Unsorted", schema("Staff", "id"), schema("Business", "id")));
+        Path json = write("other.json", "{\"components\": {\"schemas\": {\"Location\": {\"type\": \"object\"}}},"
+            + " \"info\": {\"title\": \"Json\"}, \"openapi\": \"3.0.3\"}");
+        Path output = tempDir.resolve("merged.json");
+
+        SpecMerger.Result result = SpecMerger.builder().build().merge(Arrays.asList(json, unsorted), output);
+
+        JsonNode merged = new ObjectMapper().readTree(output.toFile());
+        assertEquals(Arrays.asList("Business", "Location", "Staff"), names(merged));
+        assertEquals("Json", merged.get("info").get("title").asText());
+        assertEquals("3.0.3", merged.get("openapi").asText());
+        assertEquals(1, result.getBufferedInputCount());
+    }
+
+    @Test
+    void testMerge_ManyInputs() throws Exception {
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            inputs.add(write("part" + i + ".yaml", spec("Part", schema(String.format("Schema%03d", i * 7 % 40), "id"),
+                schema("Shared", "id"))));
+        }
+        Path output = tempDir.resolve("merged.yaml");
+
+        SpecMerger.Result result = SpecMerger.builder().build().merge(inputs, output);
+
+        List<String> names = names(YAML.readTree(output.toFile()));
+        assertEquals(41, names.size());
+        assertEquals("Schema000", names.get(0));
+        assertEquals("Shared", names.get(40));
+        assertEquals(41, result.getSchemaCount());
+        assertEquals(0, result.getConflictCount());
+    }
+
+    @Test
+    void testMerge_MoreInputsThanFanInMergesInRounds() throws Exception {
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inputs.add(write("part" + i + ".yaml", spec("Part" + i, schema(String.format("Schema%02d", i), "id"),
+                schema("Shared", "field" + i))));
+        }
+        Path output = tempDir.resolve("merged.yaml");
+
+        SpecMerger.Result result = SpecMerger.builder().conflictPolicy(SpecMerger.ConflictPolicy.UNION_PROPERTIES)
+            .maxFanIn(3).build().merge(inputs, output);
+
+        JsonNode merged = YAML.readTree(output.toFile());
+        assertEquals(11, names(merged).size());
+        assertEquals("Part0", merged.get("info").get("title").asText());
+        List<String> fields = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fields.add("field" + i);
+        }
+        assertEquals(fields, properties(merged, "Shared"));
+        assertEquals(11, result.getSchemaCount());
+        assertEquals(1, result.getConflictCount());
+        assertEquals(3, result.getRoundCount());
+
+        SpecMerger.builder().conflictPolicy(SpecMerger.ConflictPolicy.FIRST_WINS).maxFanIn(3).build().merge(inputs, output);
+        assertEquals(Collections.singletonList("field0"), properties(YAML.readTree(output.toFile()), "Shared"));
+        SpecMerger.builder().conflictPolicy(SpecMerger.ConflictPolicy.LAST_WINS).maxFanIn(3).build().merge(inputs, output);
+        assertEquals(Collections.singletonList("field9"), properties(YAML.readTree(output.toFile()), "Shared"));
+
+        GenerationException conflict = assertThrows(GenerationException.class,
+            () -> SpecMerger.builder().maxFanIn(3).build().merge(inputs, output));
+        assertTrue(conflict.getMessage().contains("part0.yaml"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.filter(file -> file.toString().endsWith(".tmp") || file.toString().endsWith(".part.json"))
+                .count());
+        }
+    }
+
+    @Test
+    void testMerge_MoreInputsThanDefaultFanIn() throws Exception {
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < SpecMerger.DEFAULT_MAX_FAN_IN + 20; i++) {
+            inputs.add(write("part" + i + ".yaml", spec("Part", schema(String.format("Schema%03d", i), "id"))));
+        }
+        Path output = tempDir.resolve("merged.yaml");
+
+        SpecMerger.Result result = SpecMerger.builder().build().merge(inputs, output);
+
+        assertEquals(SpecMerger.DEFAULT_MAX_FAN_IN + 20, names(YAML.readTree(output.toFile())).size());
+        assertEquals(2, result.getRoundCount());
+        assertThrows(IllegalArgumentException.class, () -> SpecMerger.builder().maxFanIn(1));
+    }
+
+    @Test
+    void testMerge_MalformedInput() throws Exception {
+        Path list = write("list.yaml", "- not\n- a spec\n");
+        GenerationException e = assertThrows(GenerationException.class,
+            () -> SpecMerger.builder().build().merge(Collections.singletonList(list), tempDir.resolve("out.yaml")));
+        assertTrue(e.getMessage().contains("expected an object"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpecSnapshot class.
+ */
+class SpecSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory())
+        .configure(SerializationFeature.INDENT_OUTPUT, true)
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final OpenApi31Generator generator = new OpenApi31Generator();
+
+    private OpenApiSpec spec() {
+        OpenApiSpec spec = generator.createNewSpec();
+        OpenApiProperty id = new OpenApiProperty("id", "string", null, true, true, "Identifier");
+        OpenApiProperty business = new OpenApiProperty("business", "object", null, false, false, "Owning business", "Business");
+        OpenApiProperty count = new OpenApiProperty("count", "integer", "int32", false, false, "Number of seats");
+        generator.generateOrAmendSpec("Business", Collections.singletonList(id), spec);
+        generator.generateOrAmendSpec("Location", Arrays.asList(id, business, count), spec);
+        return spec;
+    }
+
+    @Test
+    void testLoad_ReturnsTheSpecificationTheYamlParsesTo() throws Exception {
+        OpenApiSpec spec = spec();
+        byte[] yaml = YAML.writeValueAsBytes(spec);
+        Path snapshot = SpecSnapshot.pathFor(tempDir.resolve("api.yaml").toString());
+
+        SpecSnapshot.write(snapshot, spec, yaml);
+
+        OpenApiSpec loaded = SpecSnapshot.load(snapshot, yaml);
+        assertEquals(YAML.readValue(yaml, OpenApiSpec.class), loaded);
+        assertEquals(spec, loaded);
+        assertTrue(Files.size(snapshot) < yaml.length);
+        assertFalse(Files.exists(snapshot.resolveSibling(snapshot.getFileName() + ".tmp")));
+    }
+
+    @Test
+    void testLoad_IgnoresSnapshotsOfOtherContent() throws Exception {
+        OpenApiSpec spec = spec();
+        byte[] yaml = YAML.writeValueAsBytes(spec);
+        Path snapshot = tempDir.resolve("api.yaml.smile");
+
+        assertNull(SpecSnapshot.load(snapshot, yaml));
+
+        SpecSnapshot.write(snapshot, spec, yaml);
+        byte[] edited = new String(yaml, StandardCharsets.UTF_8).replace("Identifier", "Key")
+            .getBytes(StandardCharsets.UTF_8);
+        assertNull(SpecSnapshot.load(snapshot, edited));
+
+        Files.write(snapshot, Arrays.copyOf(Files.readAllBytes(snapshot), 40));
+        assertNull(SpecSnapshot.load(snapshot, yaml));
+        Files.writeString(snapshot, "not smile");
+        assertNull(SpecSnapshot.load(snapshot, yaml));
+    }
+}
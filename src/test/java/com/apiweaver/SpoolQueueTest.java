@@ -0,0 +1,195 @@
+package com.apiweaver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpoolQueue and SpoolWorker classes.
+ * Several queue instances on the same directory stand in for separate worker processes.
+ */
+class SpoolQueueTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final List<String> URLS = Arrays.asList(
+        "https://example.com/business", "https://example.com/location", "https://example.com/staff");
+
+    private static UrlFetcher fetcher(Map<String, String> pages) {
+        return url -> {
+            String content = pages.get(url);
+            if (content == null) {
+                throw new FetchException("HTTP 404 for " + url, url);
+            }
+            return content;
+        };
+    }
+
+    @Test
+    void testClaimCompleteAndResults() throws Exception {
+        SpoolQueue coordinator = SpoolQueue.create(tempDir, URLS, null);
+        SpoolQueue worker = SpoolQueue.open(tempDir, null);
+
+        SpoolQueue.Item first = worker.claim();
+        assertEquals(URLS.get(0), first.getUrl());
+        SpoolQueue.Item second = coordinator.claim();
+        assertEquals(URLS.get(1), second.getUrl());
+        worker.complete(first, PageResult.builder(first.getUrl(), "Business").tableHash("h1")
+            .properties(Collections.singletonList(new PropertyDefinition("id", "string", true, false, "Id"))).build());
+        coordinator.fail(second, "HTTP 500");
+        assertFalse(coordinator.isFinished());
+
+        SpoolQueue.Results results = coordinator.results();
+        assertEquals(1, results.getPages().size());
+        assertEquals("Business", results.getPages().get(0).getSchemaName());
+        assertEquals("id", results.getPages().get(0).getProperties().get(0).getName());
+        assertEquals(Collections.singletonMap(URLS.get(1), "HTTP 500"), results.getFailures());
+        assertEquals(Collections.singletonList(URLS.get(2)), results.getUnfinished());
+
+        // A restarted coordinator queues the failed item again and keeps the done one
+        SpoolQueue resumed = SpoolQueue.create(tempDir, URLS, null);
+        assertEquals(2, resumed.counts().get(SpoolQueue.PENDING_DIR));
+        assertEquals(1, resumed.counts().get(SpoolQueue.DONE_DIR));
+        assertThrows(ConfigurationException.class, () -> SpoolQueue.create(tempDir, URLS.subList(0, 2), null));
+
+        resumed.clear();
+        assertFalse(Files.exists(tempDir.resolve(SpoolQueue.ITEMS_FILE)));
+        assertThrows(ConfigurationException.class, () -> SpoolQueue.open(tempDir, null));
+    }
+
+    @Test
+    void testClaimMovesOnWhenAnotherWorkerWins() throws Exception {
+        RunMetrics metrics = new RunMetrics();
+        SpoolQueue coordinator = SpoolQueue.create(tempDir, URLS, metrics);
+        SpoolQueue worker = SpoolQueue.open(tempDir, null);
+
+        assertEquals(URLS.get(0), coordinator.claim().getUrl());
+        assertEquals(URLS.get(1), worker.claim().getUrl());
+        // The coordinator's batch still names the item the worker took
+        assertEquals(URLS.get(2), coordinator.claim().getUrl());
+        assertEquals(1, metrics.getCounter(RunMetrics.SPOOL_CLAIM_CONFLICTS));
+        assertNull(coordinator.claim());
+    }
+
+    @Test
+    void testEachItemIsClaimedOnce() throws Exception {
+        List<String> urls = IntStream.range(0, 200).mapToObj(i -> "https://example.com/page" + i)
+            .collect(Collectors.toList());
+        SpoolQueue.create(tempDir, urls, null);
+
+        int workers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<String> claimed = ConcurrentHashMap.newKeySet();
+        List<Future<Integer>> counts = new ArrayList<>();
+        try {
+            for (int i = 0; i < workers; i++) {
+                SpoolQueue queue = SpoolQueue.open(tempDir, null);
+                counts.add(executor.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    SpoolQueue.Item item;
+                    while ((item = queue.claim()) != null) {
+                        assertTrue(claimed.add(item.getUrl()), "claimed twice: " + item);
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> count : counts) {
+                total += count.get();
+            }
+            assertEquals(200, total);
+            assertEquals(200, claimed.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStaleAndReleasedItemsAreQueuedAgain() throws Exception {
+        RunMetrics metrics = new RunMetrics();
+        SpoolQueue queue = SpoolQueue.create(tempDir, URLS, metrics);
+        SpoolQueue.Item crashed = queue.claim();
+        SpoolQueue.Item released = queue.claim();
+
+        assertEquals(0, queue.requeueStale(60_000));
+        Files.setLastModifiedTime(tempDir.resolve(SpoolQueue.CLAIMED_DIR).resolve(crashed.getId()),
+            FileTime.fromMillis(System.currentTimeMillis() - 120_000));
+        assertEquals(1, queue.requeueStale(60_000));
+        queue.release(released);
+
+        assertEquals(3, queue.counts().get(SpoolQueue.PENDING_DIR));
+        assertEquals(0, queue.counts().get(SpoolQueue.CLAIMED_DIR));
+        assertEquals(1, metrics.getCounter(RunMetrics.SPOOL_REQUEUED));
+        assertEquals(2, metrics.getCounter(RunMetrics.SPOOL_CLAIMED));
+
+        // The worker that held the stale item can still finish it
+        queue.complete(crashed, PageResult.builder(crashed.getUrl(), "Business").build());
+        assertEquals(1, queue.counts().get(SpoolQueue.DONE_DIR));
+        assertEquals(2, queue.counts().get(SpoolQueue.PENDING_DIR));
+    }
+
+    @Test
+    void testWorkersProcessTheQueue() throws Exception {
+        Map<String, String> pages = new HashMap<>();
+        pages.put(URLS.get(0), BatchProcessorTest.objectPage("Business", "id", "name"));
+        pages.put(URLS.get(2), BatchProcessorTest.objectPage("Staff", "id"));
+        SpoolQueue queue = SpoolQueue.create(tempDir, URLS, null);
+
+        int first = SpoolWorker.builder(SpoolQueue.open(tempDir, null), fetcher(pages), new PageProcessor())
+            .concurrency(2).build().run();
+        int second = SpoolWorker.builder(queue, fetcher(pages), new PageProcessor()).build().run();
+
+        assertEquals(3, first + second);
+        assertTrue(queue.isFinished());
+        SpoolQueue.Results results = queue.results();
+        assertEquals(Arrays.asList("Business", "Staff"),
+            results.getPages().stream().map(PageResult::getSchemaName).collect(Collectors.toList()));
+        assertEquals(2, results.getPages().get(0).getProperties().size());
+        assertTrue(results.getFailures().get(URLS.get(1)).contains("404"));
+    }
+
+    @Test
+    void testWorkerReturnsItemsAtTheDeadline() throws Exception {
+        SpoolQueue queue = SpoolQueue.create(tempDir, URLS, null);
+        UrlFetcher slow = url -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FetchException("Interrupted", url, e);
+            }
+            return BatchProcessorTest.objectPage("Business", "id");
+        };
+
+        int finished = SpoolWorker.builder(queue, slow, new PageProcessor())
+            .deadline(Deadline.afterMillis(10)).build().run();
+
+        assertEquals(0, finished);
+        assertEquals(3, queue.counts().get(SpoolQueue.PENDING_DIR));
+        assertEquals(URLS, queue.results().getUnfinished());
+    }
+}
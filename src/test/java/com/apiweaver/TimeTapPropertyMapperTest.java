@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -321,4 +323,48 @@ class TimeTapPropertyMapperTest {
             assertEquals(result2, result3);
         }
     }
-}
\ No newline at end of file
+    
+    @Nested
+    @DisplayName("Schema Reference Mapping")
+    class SchemaReferenceMapping {
+        
+        private final TimeTapPropertyMapper referenceMapper =
+            new TimeTapPropertyMapper(SchemaSymbolTable.of(Arrays.asList("Business", "Location")));
+        
+        @Test
+        @DisplayName("Should map a known object type to a schema reference")
+        void shouldMapKnownObjectTypeToReference() {
+            PropertyDefinition property = new PropertyDefinition("business", "Business", true, false, "Owning business");
+            
+            OpenApiProperty result = referenceMapper.mapToOpenApiProperty(property);
+            
+            assertEquals("object", result.getType());
+            assertEquals("Business", result.getRef());
+            assertTrue(result.isRequired());
+            assertTrue(result.isReadOnly());
+            assertEquals("Owning business", result.getDescription());
+        }
+        
+        @Test
+        @DisplayName("Should map a list of a known object type to an array of references")
+        void shouldMapListOfKnownObjectTypeToArrayReference() {
+            OpenApiProperty result = referenceMapper.mapToOpenApiProperty(
+                new PropertyDefinition("locations", "Array[Location]", false, true, ""));
+            
+            assertEquals("array", result.getType());
+            assertEquals("Location", result.getRef());
+        }
+        
+        @Test
+        @DisplayName("Should keep the string fallback for unknown object types")
+        void shouldKeepFallbackForUnknownObjectTypes() {
+            OpenApiProperty result = referenceMapper.mapToOpenApiProperty(
+                new PropertyDefinition("staff", "Staff", false, true, ""));
+            
+            assertEquals("string", result.getType());
+            assertNull(result.getRef());
+            assertEquals("Staff", referenceMapper.referencedTypeName("Staff[]"));
+            assertNull(referenceMapper.referencedTypeName("DateTime"));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.apiweaver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Tracer, Span and OtlpJsonFileExporter classes.
+ */
+class TracerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStartSpan_ChildOfActiveSpanSharesTrace() throws IOException, ApiWeaverException {
+        try (Tracer tracer = new Tracer(new OtlpJsonFileExporter(tempDir.resolve("trace.jsonl")))) {
+            Span root = tracer.startSpan("root");
+            Span child;
+            try (Tracer.Scope scope = tracer.activate(root)) {
+                assertSame(root, tracer.current());
+                child = tracer.startSpan("child");
+            }
+
+            assertNull(tracer.current());
+            assertNull(root.getParentSpanId());
+            assertEquals(root.getTraceId(), child.getTraceId());
+            assertEquals(root.getSpanId(), child.getParentSpanId());
+            assertEquals(32, root.getTraceId().length());
+            assertEquals(16, root.getSpanId().length());
+            assertNotEquals(root.getTraceId(), tracer.startSpan("other").getTraceId());
+        }
+    }
+
+    @Test
+    void testNoopTracer_RecordsNothing() {
+        Tracer tracer = Tracer.noop();
+        Span span = tracer.startSpan("ignored").setAttribute("key", "value");
+
+        try (Tracer.Scope scope = tracer.activate(span)) {
+            assertNull(tracer.current());
+        }
+        span.end();
+
+        assertFalse(tracer.isEnabled());
+        assertFalse(span.isRecording());
+        assertTrue(span.getAttributes().isEmpty());
+    }
+
+    @Test
+    void testExporter_WritesOtlpJson() throws IOException, ApiWeaverException {
+        Path traceFile = tempDir.resolve("trace.jsonl");
+        Tracer tracer = new Tracer(new OtlpJsonFileExporter(traceFile));
+        Span root = tracer.startSpan("page").setAttribute("url.full", "https://example.com").setAttribute("apiweaver.bytes", 42);
+        Span failed = tracer.startSpan("fetch", root);
+        failed.recordError(new FetchException("timed out"));
+        failed.end();
+        root.end();
+        root.end();
+        tracer.close();
+
+        List<String> lines = Files.readAllLines(traceFile);
+        assertEquals(1, lines.size());
+        JsonNode resourceSpans = new ObjectMapper().readTree(lines.get(0)).get("resourceSpans").get(0);
+        assertEquals("apiweaver", resourceSpans.at("/resource/attributes/0/value/stringValue").asText());
+
+        JsonNode spans = resourceSpans.at("/scopeSpans/0/spans");
+        assertEquals(2, spans.size());
+        JsonNode fetch = spans.get(0);
+        assertEquals("fetch", fetch.get("name").asText());
+        assertEquals(root.getSpanId(), fetch.get("parentSpanId").asText());
+        assertEquals(2, fetch.at("/status/code").asInt());
+        assertEquals("timed out", fetch.at("/status/message").asText());
+
+        JsonNode page = spans.get(1);
+        assertFalse(page.has("parentSpanId"));
+        assertEquals(1, page.at("/status/code").asInt());
+        assertEquals("42", page.at("/attributes/1/value/intValue").asText());
+        assertTrue(page.get("endTimeUnixNano").asLong() >= page.get("startTimeUnixNano").asLong());
+    }
+
+    @Test
+    void testExporter_WritesFullBatchesBeforeClose() throws IOException, ApiWeaverException {
+        Path traceFile = tempDir.resolve("trace.jsonl");
+        Tracer tracer = new Tracer(new OtlpJsonFileExporter(traceFile));
+        for (int i = 0; i < OtlpJsonFileExporter.BATCH_SIZE + 1; i++) {
+            tracer.startSpan("span-" + i).end();
+        }
+
+        assertEquals(1, Files.readAllLines(traceFile).size());
+        tracer.close();
+        assertEquals(2, Files.readAllLines(traceFile).size());
+    }
+}
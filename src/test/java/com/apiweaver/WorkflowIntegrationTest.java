@@ -154,12 +154,13 @@ public class WorkflowIntegrationTest {
         List<PropertyDefinition> properties = createMockProperties();
         
         java.lang.reflect.Method convertMethod = ApiWeaverCli.class
-            .getDeclaredMethod("convertToOpenApiProperties", java.util.List.class);
+            .getDeclaredMethod("convertToOpenApiProperties", java.util.List.class, PropertyMapper.class);
         convertMethod.setAccessible(true);
         
         // When: Convert properties
         @SuppressWarnings("unchecked")
-        List<OpenApiProperty> result = (List<OpenApiProperty>) convertMethod.invoke(cli, properties);
+        List<OpenApiProperty> result = (List<OpenApiProperty>) convertMethod.invoke(cli, properties,
+            new TimeTapPropertyMapper());
         
         // Then: Should convert successfully
         assertNotNull(result);
@@ -0,0 +1,115 @@
+package com.apiweaver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Training run for the class-data sharing archive of the fast-startup distribution.
+ * Serves two small documentation pages from a loopback socket and runs the CLI through the
+ * single-URL, batch and incremental batch workflows, so that the classes of every stage are
+ * loaded and recorded. Runs offline; exits with a non-zero status if any workflow fails.
+ */
+public final class StartupTraining {
+
+    private StartupTraining() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> pages = new LinkedHashMap<>();
+        pages.put("/business.html", page("Business", "Location"));
+        pages.put("/location.html", page("Location", "Business"));
+
+        Path workDir = Files.createTempDirectory("apiweaver-training");
+        try (ServerSocket server = new ServerSocket(0, 16, InetAddress.getLoopbackAddress())) {
+            Thread responder = new Thread(() -> serve(server, pages), "training-server");
+            responder.setDaemon(true);
+            responder.start();
+
+            String base = "http://127.0.0.1:" + server.getLocalPort();
+            Path urls = workDir.resolve("urls.txt");
+            Files.write(urls, Arrays.asList(base + "/business.html", base + "/location.html"));
+            String batchOutput = workDir.resolve("batch.yaml").toString();
+
+            int exitCode = run("-o", workDir.resolve("single.yaml").toString(), base + "/business.html");
+            exitCode = Math.max(exitCode, run("-b", urls.toString(), "-o", batchOutput, "-i",
+                "--stats", workDir.resolve("stats.json").toString()));
+            exitCode = Math.max(exitCode, run("-b", urls.toString(), "-o", batchOutput, "-i"));
+            if (exitCode != 0) {
+                System.err.println("Training run failed with exit code " + exitCode);
+                System.exit(exitCode);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(workDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static int run(String... args) {
+        return new ApiWeaverCli().run(args);
+    }
+
+    /**
+     * Answers each connection with the requested page, or 304 when the request carries
+     * the page's ETag, so the conditional fetch path is trained as well.
+     */
+    private static void serve(ServerSocket server, Map<String, String> pages) {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                String[] requestLine = String.valueOf(reader.readLine()).split(" ");
+                String ifNoneMatch = null;
+                for (String line = reader.readLine(); line != null && !line.isEmpty(); line = reader.readLine()) {
+                    if (line.toLowerCase().startsWith("if-none-match:")) {
+                        ifNoneMatch = line.substring(line.indexOf(':') + 1).trim();
+                    }
+                }
+
+                String html = requestLine.length > 1 ? pages.get(requestLine[1]) : null;
+                byte[] body = html != null ? html.getBytes(StandardCharsets.UTF_8) : new byte[0];
+                String etag = "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+                String status = html == null ? "404 Not Found" : etag.equals(ifNoneMatch) ? "304 Not Modified" : "200 OK";
+                boolean withBody = status.startsWith("200");
+
+                OutputStream out = socket.getOutputStream();
+                out.write(("HTTP/1.1 " + status + "\r\nContent-Type: text/html; charset=utf-8\r\nETag: " + etag
+                    + "\r\nConnection: close\r\nContent-Length: " + (withBody ? body.length : 0) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1));
+                if (withBody) {
+                    out.write(body);
+                }
+                out.flush();
+            } catch (IOException e) {
+                // The server socket was closed at the end of the training run
+            }
+        }
+    }
+
+    private static String page(String objectName, String referencedName) {
+        return "<html><body><h1>" + objectName + "</h1>"
+            + "<h2 id=\"" + objectName + "ObjectValues\">" + objectName + " Object Values</h2>"
+            + "<table><tr><th>Property Name</th><th>Type</th><th>Required</th><th>Writable</th><th>Description</th></tr>"
+            + "<tr><td>id</td><td>integer</td><td>Yes</td><td>No</td><td>Identifier</td></tr>"
+            + "<tr><td>name</td><td>string</td><td>Yes</td><td>Yes</td><td>Display name</td></tr>"
+            + "<tr><td>createdDate</td><td>datetime</td><td>No</td><td>No</td><td>Creation time</td></tr>"
+            + "<tr><td>active</td><td>boolean</td><td>No</td><td>Yes</td><td>Whether it is active</td></tr>"
+            + "<tr><td>rate</td><td>double</td><td>No</td><td>Yes</td><td>Hourly rate</td></tr>"
+            + "<tr><td>tags</td><td>string[]</td><td>No</td><td>Yes</td><td>Labels</td></tr>"
+            + "<tr><td>related</td><td>" + referencedName + "</td><td>No</td><td>Yes</td><td>Related object</td></tr>"
+            + "</table></body></html>";
+    }
+}